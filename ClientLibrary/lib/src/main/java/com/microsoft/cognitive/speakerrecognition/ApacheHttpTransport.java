@@ -0,0 +1,296 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.params.HttpProtocolParams;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A package-private transport built on the Apache Http client with a pooled, keep-alive connection manager
+ */
+class ApacheHttpTransport implements HttpTransport {
+
+    /**
+     * The keep-alive header parameter holding the connection timeout in seconds
+     */
+    private static final String KEEP_ALIVE_TIMEOUT_PARAM = "timeout";
+
+    /**
+     * The time, in milliseconds, an idle connection is kept alive when the service doesn't specify one
+     */
+    private final long defaultKeepAliveMillis;
+
+    /**
+     * The pooled connection manager
+     */
+    private final ClientConnectionManager connectionManager;
+
+    /**
+     * The Http client used to communicate with the service
+     */
+    private final DefaultHttpClient defaultHttpClient;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a transport with its own connection pool
+     *
+     * @param maxConnectionsPerRoute The maximum number of pooled connections to a single host
+     * @param maxTotalConnections The maximum number of pooled connections across all hosts
+     * @param timeoutMillis The connection and socket timeout in milliseconds
+     * @param defaultKeepAliveMillis The time an idle connection is kept alive when the service doesn't specify one
+     * @param sslContext The SSL context caching the TLS sessions
+     */
+    ApacheHttpTransport(int maxConnectionsPerRoute, int maxTotalConnections, int timeoutMillis, long defaultKeepAliveMillis, SSLContext sslContext) {
+        this.defaultKeepAliveMillis = defaultKeepAliveMillis;
+
+        HttpParams params = new BasicHttpParams();
+        HttpProtocolParams.setVersion(params, HttpVersion.HTTP_1_1);
+        HttpProtocolParams.setContentCharset(params, HTTP.UTF_8);
+        HttpConnectionParams.setConnectionTimeout(params, timeoutMillis);
+        HttpConnectionParams.setSoTimeout(params, timeoutMillis);
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(maxConnectionsPerRoute));
+        ConnManagerParams.setMaxTotalConnections(params, maxTotalConnections);
+
+        SchemeRegistry schemeRegistry = new SchemeRegistry();
+        schemeRegistry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
+        schemeRegistry.register(new Scheme("https", new SessionCachingSocketFactory(sslContext), 443));
+
+        connectionManager = new ThreadSafeClientConnManager(params, schemeRegistry);
+        defaultHttpClient = new DefaultHttpClient(connectionManager, params);
+        defaultHttpClient.setKeepAliveStrategy(new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                return keepAliveDuration(response);
+            }
+        });
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        HttpRequestBase httpRequest;
+        switch (request.getRequestType()) {
+            case GET:
+                httpRequest = new HttpGet(request.getUrl());
+                break;
+            case POST:
+                HttpPost post = new HttpPost(request.getUrl());
+                if (request.getBody() != null) {
+                    post.setEntity(new RequestBodyEntity(request.getBody()));
+                }
+                httpRequest = post;
+                break;
+            case DELETE:
+                httpRequest = new HttpDelete(request.getUrl());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported request type " + request.getRequestType());
+        }
+
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            httpRequest.addHeader(header.getKey(), header.getValue());
+        }
+
+        final HttpRequestBase abortable = httpRequest;
+        request.setAbortAction(new Runnable() {
+            @Override
+            public void run() {
+                abortable.abort();
+            }
+        });
+        return new ApacheResponse(defaultHttpClient.execute(httpRequest));
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit unit) {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleTime, unit);
+    }
+
+    @Override
+    public void shutdown() {
+        connectionManager.shutdown();
+    }
+
+    /**
+     * Determines how long a connection may stay idle in the pool after a response
+     *
+     * @param response HTTP response
+     * @return The keep-alive duration in milliseconds
+     */
+    private long keepAliveDuration(HttpResponse response) {
+        HeaderElementIterator iterator = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+        while (iterator.hasNext()) {
+            HeaderElement element = iterator.nextElement();
+            if (KEEP_ALIVE_TIMEOUT_PARAM.equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                try {
+                    return Long.parseLong(element.getValue()) * 1000;
+                } catch (NumberFormatException ignored) {
+                    break;
+                }
+            }
+        }
+        return defaultKeepAliveMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * An HTTP entity writing a {@link RequestBody}
+     */
+    private static class RequestBodyEntity extends AbstractHttpEntity {
+
+        /**
+         * The wrapped request body
+         */
+        private final RequestBody body;
+
+        RequestBodyEntity(RequestBody body) {
+            this.body = body;
+            setContentType(body.getContentType());
+            setChunked(body.getContentLength() < 0);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return body.isRepeatable();
+        }
+
+        @Override
+        public long getContentLength() {
+            return body.getContentLength();
+        }
+
+        /**
+         * Gets a stream over the body, which reads the body in place and leaves it to be sent afterwards.
+         * The client itself only ever calls {@link #writeTo(OutputStream)}; this serves callers that read entities,
+         * such as logging interceptors.
+         *
+         * @return A stream over the body
+         * @throws IOException Signals a failure while opening the body source
+         * @throws UnsupportedOperationException If the body isn't repeatable, since reading it would consume it
+         */
+        @Override
+        public InputStream getContent() throws IOException {
+            if (!body.isRepeatable()) {
+                throw new UnsupportedOperationException("A body that can only be written once can't be read as a stream");
+            }
+            return body.openStream();
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            body.writeTo(outputStream);
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return !body.isRepeatable();
+        }
+    }
+
+    /**
+     * A transport response wrapping an Apache HTTP response
+     */
+    private static class ApacheResponse implements TransportResponse {
+
+        /**
+         * The wrapped HTTP response
+         */
+        private final HttpResponse response;
+
+        ApacheResponse(HttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusLine().getStatusCode();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            Header header = response.getFirstHeader(name);
+            return header != null ? header.getValue() : null;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            HttpEntity entity = response.getEntity();
+            return entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public void close() throws IOException {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                entity.consumeContent();
+            }
+        }
+    }
+}
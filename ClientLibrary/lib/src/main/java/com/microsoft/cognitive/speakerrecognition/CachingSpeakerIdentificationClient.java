@@ -0,0 +1,615 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.CreateProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.DeleteProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentException;
+import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.ResetEnrollmentsException;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationException;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Status;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class caches the profiles fetched through a {@link ExtendedSpeakerIdentificationClient}, so that looking a profile up
+ * before each enrollment or identification doesn't cost a request every time.
+ * Profiles are kept for a time to live and the least recently used ones are evicted first; concurrent lookups of the
+ * same profile share a single request, and a profile found missing isn't looked up again until the time to live
+ * elapses. Deletions, enrollments and resets sent through this client update or drop the cached profiles,
+ * and the results of enrollment operations checked through this client are applied to them.
+ * Changes made through other clients show up once the cached profile expires.
+ * Cached profiles are shared between callers and must not be modified.
+ */
+public class CachingSpeakerIdentificationClient implements ExtendedSpeakerIdentificationClient {
+
+    /**
+     * The default number of profiles kept
+     */
+    public static final int DEFAULT_MAX_PROFILES = 1000;
+
+    /**
+     * The default time a profile is kept, in milliseconds
+     */
+    public static final long DEFAULT_TTL_MILLIS = 60000;
+
+    /**
+     * The client performing the service calls
+     */
+    private final ExtendedSpeakerIdentificationClient delegate;
+
+    /**
+     * The cached profiles
+     */
+    private final ProfileCache<Profile> cache;
+
+    /**
+     * The enrollment operations sent through this client, by operation Url
+     */
+    private final Map<String, PendingEnrollment> pendingEnrollments;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a caching client with the default cache size and time to live
+     *
+     * @param delegate The client performing the service calls
+     */
+    public CachingSpeakerIdentificationClient(ExtendedSpeakerIdentificationClient delegate) {
+        this(delegate, DEFAULT_MAX_PROFILES, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * Creates a caching client
+     *
+     * @param delegate The client performing the service calls
+     * @param maxProfiles The most profiles kept
+     * @param ttlMillis The time a profile is kept, in milliseconds
+     */
+    public CachingSpeakerIdentificationClient(ExtendedSpeakerIdentificationClient delegate, final int maxProfiles, long ttlMillis) {
+        this.delegate = delegate;
+        this.cache = new ProfileCache<>(maxProfiles, ttlMillis);
+        this.pendingEnrollments = new LinkedHashMap<String, PendingEnrollment>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PendingEnrollment> eldest) {
+                // Operations whose status is never checked are forgotten eventually
+                return size() > maxProfiles;
+            }
+        };
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Drops a cached profile so that it is fetched again on the next lookup
+     *
+     * @param id The speaker profile ID
+     */
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drops all cached profiles
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The audio stream to identify
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while reading the audio stream, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(InputStream audioStream, List<UUID> ids) throws IdentificationException, IOException {
+        return delegate.identify(audioStream, ids);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The audio stream to identify
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while reading the audio stream, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(InputStream audioStream, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+        return delegate.identify(audioStream, ids, forceShortAudio);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to identify, which is memory-mapped rather than read onto the heap
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(File audioFile, List<UUID> ids) throws IdentificationException, IOException {
+        return delegate.identify(audioFile, ids);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to identify, which is memory-mapped rather than read onto the heap
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(File audioFile, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+        return delegate.identify(audioFile, ids, forceShortAudio);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to identify, read from its current position to its end
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(FileChannel audioChannel, List<UUID> ids) throws IdentificationException, IOException {
+        return delegate.identify(audioChannel, ids);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to identify, read from its current position to its end
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(FileChannel audioChannel, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+        return delegate.identify(audioChannel, ids, forceShortAudio);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to identify between its position and its limit
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(ByteBuffer audioBuffer, List<UUID> ids) throws IdentificationException, IOException {
+        return delegate.identify(audioBuffer, ids);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to identify between its position and its limit
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(ByteBuffer audioBuffer, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+        return delegate.identify(audioBuffer, ids, forceShortAudio);
+    }
+
+    /**
+     * Creates a new speaker profile
+     *
+     * @param locale The speaker profile locale
+     * @return The profile object encapsulating the response object of the create request
+     * @throws CreateProfileException Thrown on cases of internal server error or an invalid locale
+     * @throws IOException Signals an invalid locale encoding, a connection abortion, or an invalid response content
+     */
+    @Override
+    public CreateProfileResponse createProfile(String locale) throws CreateProfileException, IOException {
+        CreateProfileResponse response = delegate.createProfile(locale);
+        if (response != null && response.identificationProfileId != null) {
+            // Forget a lookup that found the new ID missing before the profile was visible
+            cache.invalidate(response.identificationProfileId);
+        }
+        return response;
+    }
+
+    /**
+     * Deletes a given speaker profile
+     *
+     * @param id The ID of the speaker profile to be deleted
+     * @throws DeleteProfileException Thrown on case of an internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public void deleteProfile(UUID id) throws DeleteProfileException, IOException {
+        cache.invalidate(id);
+        delegate.deleteProfile(id);
+        cache.markDeleted(id);
+    }
+
+    /**
+     * Retrieves a speaker profile from the service
+     *
+     * @param id The ID of the speaker profile to get
+     * @return The requested profile
+     * @throws GetProfileException Thrown in cases of invalid ID or an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public Profile getProfile(final UUID id) throws GetProfileException, IOException {
+        return cache.get(id, new ProfileCache.Loader<Profile>() {
+            @Override
+            public Profile load() throws GetProfileException, IOException {
+                return delegate.getProfile(id);
+            }
+        });
+    }
+
+    /**
+     * Gets all speaker profiles from the service
+     *
+     * @return An array containing a list of all profiles
+     * @throws GetProfileException Thrown in case of an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public List<Profile> getProfiles() throws GetProfileException, IOException {
+        List<Profile> profiles = delegate.getProfiles();
+        for (Profile profile : profiles) {
+            if (profile.identificationProfileId != null) {
+                cache.put(profile.identificationProfileId, profile);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Gets all speaker profiles from the service one at a time, decoding each profile only when it is reached.
+     * Memory use doesn't grow with the number of profiles, which makes it suited to scanning large profile sets,
+     * for example for the enrolled profiles of a locale. The iterator must be closed if it isn't read to its end.
+     *
+     * @return An iterator over all profiles
+     * @throws GetProfileException Thrown in case of an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public ProfileIterator<Profile> streamProfiles() throws GetProfileException, IOException {
+        return delegate.streamProfiles();
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio stream
+     *
+     * @param audioStream The audio stream to use for enrollment
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while reading the audio stream, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(InputStream audioStream, UUID id) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioStream, id));
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio stream
+     *
+     * @param audioStream The audio stream to use for enrollment
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while reading the audio stream, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(InputStream audioStream, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioStream, id, forceShortAudio));
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(File audioFile, UUID id) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioFile, id));
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(File audioFile, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioFile, id, forceShortAudio));
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(FileChannel audioChannel, UUID id) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioChannel, id));
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(FileChannel audioChannel, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioChannel, id, forceShortAudio));
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(ByteBuffer audioBuffer, UUID id) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioBuffer, id));
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(ByteBuffer audioBuffer, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+        return trackEnrollment(id, delegate.enroll(audioBuffer, id, forceShortAudio));
+    }
+
+    /**
+     * Gets the enrollment operation status or result
+     *
+     * @param location The Url returned upon calling the enrollment operation
+     * @return The enrollment operation object encapsulating the result
+     * @throws EnrollmentException Thrown in case of an internal server error or an invalid URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public EnrollmentOperation checkEnrollmentStatus(OperationLocation location) throws EnrollmentException, IOException {
+        EnrollmentOperation operation = delegate.checkEnrollmentStatus(location);
+        if (operation != null && (operation.status == Status.SUCCEEDED || operation.status == Status.FAILED)) {
+            completeEnrollment(location, operation);
+        }
+        return operation;
+    }
+
+    /**
+     * Gets the identification operation status or result
+     *
+     * @param location The Url returned upon calling the identification operation
+     * @return The identification operation object encapsulating the result
+     * @throws IdentificationException Thrown in case of an internal server error or a wrong URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public IdentificationOperation checkIdentificationStatus(OperationLocation location) throws IdentificationException, IOException {
+        return delegate.checkIdentificationStatus(location);
+    }
+
+    /**
+     * Polls the status of an enrollment operation, reusing a holder while the operation is pending.
+     * Only the status of a pending operation is decoded and stored in the holder; the other fields of the holder
+     * are left as they were. A completed operation is decoded in full, returned as a new object and applied to the
+     * cached profile like the result of {@link #checkEnrollmentStatus(OperationLocation)}.
+     *
+     * @param location The Url returned upon calling the enrollment operation
+     * @param pending The holder updated with the status of a pending operation
+     * @return The holder if the operation is pending, the completed operation otherwise
+     * @throws EnrollmentException Thrown in case of an internal server error or an invalid URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public EnrollmentOperation pollEnrollmentStatus(OperationLocation location, EnrollmentOperation pending) throws EnrollmentException, IOException {
+        EnrollmentOperation operation = delegate.pollEnrollmentStatus(location, pending);
+        if (operation != null && (operation.status == Status.SUCCEEDED || operation.status == Status.FAILED)) {
+            completeEnrollment(location, operation);
+        }
+        return operation;
+    }
+
+    /**
+     * Polls the status of an identification operation, reusing a holder while the operation is pending.
+     * Only the status of a pending operation is decoded and stored in the holder; the other fields of the holder
+     * are left as they were. A completed operation is decoded in full and returned as a new object.
+     *
+     * @param location The Url returned upon calling the identification operation
+     * @param pending The holder updated with the status of a pending operation
+     * @return The holder if the operation is pending, the completed operation otherwise
+     * @throws IdentificationException Thrown in case of an internal server error or a wrong URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public IdentificationOperation pollIdentificationStatus(OperationLocation location, IdentificationOperation pending) throws IdentificationException, IOException {
+        return delegate.pollIdentificationStatus(location, pending);
+    }
+
+    /**
+     * Deletes all enrollments associated with the given speaker identification profile permanently from the service
+     *
+     * @param id The speaker ID
+     * @throws ResetEnrollmentsException Thrown in case of internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public void resetEnrollments(UUID id) throws ResetEnrollmentsException, IOException {
+        cache.invalidate(id);
+        delegate.resetEnrollments(id);
+    }
+
+    /**
+     * Drops the cached profile of an enrollment and remembers the operation, along with the profile cached before it,
+     * so its result can be applied once it completes even if the profile isn't looked up in the meantime
+     *
+     * @param id The enrolled speaker profile ID
+     * @param location The Url of the enrollment operation
+     * @return The Url of the enrollment operation
+     */
+    private OperationLocation trackEnrollment(UUID id, OperationLocation location) {
+        Profile snapshot = cache.getIfPresent(id);
+        cache.invalidate(id);
+        if (location != null && location.Url != null) {
+            synchronized (pendingEnrollments) {
+                pendingEnrollments.put(location.Url, new PendingEnrollment(id, snapshot));
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Applies the result of a completed enrollment operation to the cached profile it belongs to
+     *
+     * @param location The Url of the enrollment operation
+     * @param operation The completed operation
+     */
+    private void completeEnrollment(OperationLocation location, EnrollmentOperation operation) {
+        PendingEnrollment pending;
+        synchronized (pendingEnrollments) {
+            pending = pendingEnrollments.remove(location.Url);
+        }
+        if (pending == null) {
+            return;
+        }
+
+        UUID id = pending.id;
+        Enrollment enrollment = operation.processingResult;
+        Profile cached = cache.getIfPresent(id);
+        if (cached == null) {
+            cached = pending.snapshot;
+        }
+        if (operation.status != Status.SUCCEEDED || enrollment == null || cached == null) {
+            cache.invalidate(id);
+            return;
+        }
+        Profile profile = new Profile();
+        profile.identificationProfileId = cached.identificationProfileId;
+        profile.locale = cached.locale;
+        profile.createdDateTime = cached.createdDateTime;
+        profile.lastActionDateTime = operation.lastActionDateTime != null ? operation.lastActionDateTime : cached.lastActionDateTime;
+        profile.enrollmentStatus = enrollment.enrollmentStatus;
+        profile.enrollmentSpeechTime = enrollment.enrollmentSpeechTime;
+        profile.remainingEnrollmentSpeechTime = enrollment.remainingEnrollmentSpeechTime;
+        cache.put(id, profile);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * An enrollment operation sent through this client whose result wasn't applied yet
+     */
+    private static class PendingEnrollment {
+
+        /**
+         * The enrolled speaker profile ID
+         */
+        final UUID id;
+
+        /**
+         * The profile cached when the enrollment was sent, or null if none was
+         */
+        final Profile snapshot;
+
+        PendingEnrollment(UUID id, Profile snapshot) {
+            this.id = id;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.CreateProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.DeleteProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentException;
+import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.ResetEnrollmentsException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.PhrasesException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Verification;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class caches the profiles fetched through a {@link ExtendedSpeakerVerificationClient}, so that looking a profile up
+ * before each enrollment or verification doesn't cost a request every time.
+ * Profiles are kept for a time to live and the least recently used ones are evicted first; concurrent lookups of the
+ * same profile share a single request, and a profile found missing isn't looked up again until the time to live
+ * elapses. Deletions and resets sent through this client drop the cached profiles,
+ * and the enrollment counts returned by enrollments sent through this client are applied to them.
+ * Changes made through other clients show up once the cached profile expires.
+ * Cached profiles are shared between callers and must not be modified.
+ */
+public class CachingSpeakerVerificationClient implements ExtendedSpeakerVerificationClient {
+
+    /**
+     * The default number of profiles kept
+     */
+    public static final int DEFAULT_MAX_PROFILES = 1000;
+
+    /**
+     * The default time a profile is kept, in milliseconds
+     */
+    public static final long DEFAULT_TTL_MILLIS = 60000;
+
+    /**
+     * The client performing the service calls
+     */
+    private final ExtendedSpeakerVerificationClient delegate;
+
+    /**
+     * The cached profiles
+     */
+    private final ProfileCache<Profile> cache;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a caching client with the default cache size and time to live
+     *
+     * @param delegate The client performing the service calls
+     */
+    public CachingSpeakerVerificationClient(ExtendedSpeakerVerificationClient delegate) {
+        this(delegate, DEFAULT_MAX_PROFILES, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * Creates a caching client
+     *
+     * @param delegate The client performing the service calls
+     * @param maxProfiles The most profiles kept
+     * @param ttlMillis The time a profile is kept, in milliseconds
+     */
+    public CachingSpeakerVerificationClient(ExtendedSpeakerVerificationClient delegate, int maxProfiles, long ttlMillis) {
+        this.delegate = delegate;
+        this.cache = new ProfileCache<>(maxProfiles, ttlMillis);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Drops a cached profile so that it is fetched again on the next lookup
+     *
+     * @param id The speaker profile ID
+     */
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drops all cached profiles
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Creates a new speaker profile
+     *
+     * @param locale The speaker profile locale
+     * @return The Profile object encapsulating the speaker profile response
+     * @throws CreateProfileException Thrown in case of internal server error or an invalid locale
+     * @throws IOException Signals an invalid locale encoding, a connection abortion, or an invalid response content
+     */
+    @Override
+    public CreateProfileResponse createProfile(String locale) throws CreateProfileException, IOException {
+        CreateProfileResponse response = delegate.createProfile(locale);
+        if (response != null && response.verificationProfileId != null) {
+            // Forget a lookup that found the new ID missing before the profile was visible
+            cache.invalidate(response.verificationProfileId);
+        }
+        return response;
+    }
+
+    /**
+     * Retrieves a given speaker profile as specified by the id parameter
+     *
+     * @param id The speaker profile ID
+     * @return The requested speaker profile
+     * @throws GetProfileException Thrown in case of internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public Profile getProfile(final UUID id) throws GetProfileException, IOException {
+        return cache.get(id, new ProfileCache.Loader<Profile>() {
+            @Override
+            public Profile load() throws GetProfileException, IOException {
+                return delegate.getProfile(id);
+            }
+        });
+    }
+
+    /**
+     * Retrieves all available speaker profiles
+     *
+     * @return A list of speaker profiles
+     * @throws GetProfileException Thrown in case of internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public List<Profile> getProfiles() throws GetProfileException, IOException {
+        List<Profile> profiles = delegate.getProfiles();
+        for (Profile profile : profiles) {
+            if (profile.verificationProfileId != null) {
+                cache.put(profile.verificationProfileId, profile);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Gets all speaker profiles from the service one at a time, decoding each profile only when it is reached.
+     * Memory use doesn't grow with the number of profiles, which makes it suited to scanning large profile sets,
+     * for example for the enrolled profiles of a locale. The iterator must be closed if it isn't read to its end.
+     *
+     * @return An iterator over all profiles
+     * @throws GetProfileException Thrown in case of an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public ProfileIterator<Profile> streamProfiles() throws GetProfileException, IOException {
+        return delegate.streamProfiles();
+    }
+
+    /**
+     * Deletes a given speaker profile
+     *
+     * @param id The ID of the speaker profile to be deleted
+     * @throws DeleteProfileException Thrown in case of internal server error, an invalid ID or failure to delete the profile
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public void deleteProfile(UUID id) throws DeleteProfileException, IOException {
+        cache.invalidate(id);
+        delegate.deleteProfile(id);
+        cache.markDeleted(id);
+    }
+
+    /**
+     * Gets a list of all available phrases for enrollments
+     *
+     * @param locale The locale of the phrases
+     * @return A list of all verification phrases
+     * @throws PhrasesException Thrown in case of invalid locale or internal server error
+     * @throws IOException Signals an invalid locale encoding, a connection abortion, or an invalid response content
+     * @throws URISyntaxException Signals that the endpoint string could not be parsed as a URI reference
+     */
+    @Override
+    public List<VerificationPhrase> getPhrases(String locale) throws PhrasesException, IOException, URISyntaxException {
+        return delegate.getPhrases(locale);
+    }
+
+    /**
+     * Enrolls a new stream for a given speaker
+     *
+     * @param audioStream The stream to enroll
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while reading the audio stream, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Enrollment enroll(InputStream audioStream, UUID id) throws EnrollmentException, IOException {
+        return applyEnrollment(id, delegate.enroll(audioStream, id));
+    }
+
+    /**
+     * Enrolls an audio file for a given speaker
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Enrollment enroll(File audioFile, UUID id) throws EnrollmentException, IOException {
+        return applyEnrollment(id, delegate.enroll(audioFile, id));
+    }
+
+    /**
+     * Enrolls an audio file channel for a given speaker
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Enrollment enroll(FileChannel audioChannel, UUID id) throws EnrollmentException, IOException {
+        return applyEnrollment(id, delegate.enroll(audioChannel, id));
+    }
+
+    /**
+     * Enrolls an audio buffer for a given speaker
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public Enrollment enroll(ByteBuffer audioBuffer, UUID id) throws EnrollmentException, IOException {
+        return applyEnrollment(id, delegate.enroll(audioBuffer, id));
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The stream of audio to be verified
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while reading the audio stream, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Verification verify(InputStream audioStream, UUID id) throws VerificationException, IOException {
+        return delegate.verify(audioStream, id);
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to verify, which is memory-mapped rather than read onto the heap
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Verification verify(File audioFile, UUID id) throws VerificationException, IOException {
+        return delegate.verify(audioFile, id);
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to verify, read from its current position to its end
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Verification verify(FileChannel audioChannel, UUID id) throws VerificationException, IOException {
+        return delegate.verify(audioChannel, id);
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to verify between its position and its limit
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public Verification verify(ByteBuffer audioBuffer, UUID id) throws VerificationException, IOException {
+        return delegate.verify(audioBuffer, id);
+    }
+
+    /**
+     * Deletes all enrollments associated with the given speaker verification profile permanently from the service
+     *
+     * @param id The speaker ID
+     * @throws ResetEnrollmentsException Thrown in case of invalid ID, failure to reset the profile or an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public void resetEnrollments(UUID id) throws ResetEnrollmentsException, IOException {
+        cache.invalidate(id);
+        delegate.resetEnrollments(id);
+    }
+
+    /**
+     * Applies the counts returned by an enrollment to the cached profile, without fetching it again.
+     * The enrollment is the last action on the profile, so its time becomes the last action time.
+     *
+     * @param id The enrolled speaker profile ID
+     * @param enrollment The enrollment response
+     * @return The enrollment response
+     */
+    private Enrollment applyEnrollment(UUID id, Enrollment enrollment) {
+        Profile cached = cache.getIfPresent(id);
+        if (cached == null || enrollment == null) {
+            cache.invalidate(id);
+            return enrollment;
+        }
+        Profile profile = new Profile();
+        profile.verificationProfileId = cached.verificationProfileId;
+        profile.locale = cached.locale;
+        profile.createdDateTime = cached.createdDateTime;
+        profile.lastActionDateTime = new Date();
+        profile.enrollmentStatus = enrollment.enrollmentStatus;
+        profile.enrollmentsCount = enrollment.enrollmentsCount;
+        profile.remainingEnrollmentsCount = enrollment.remainingEnrollments;
+        cache.put(id, profile);
+        return enrollment;
+    }
+}
@@ -0,0 +1,350 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A circuit breaker keeping one circuit per service endpoint.
+ * A circuit opens after a number of consecutive connection failures or server errors on its endpoint,
+ * and calls to that endpoint then fail fast with a {@link CircuitOpenException} instead of waiting for a socket timeout.
+ * Once the open period has elapsed, a single trial call is let through; its outcome closes or reopens the circuit.
+ * Every call is admitted under the generation of its circuit, which changes with each state change, and outcomes
+ * of calls admitted under an older generation are ignored, so a late response can't close an open circuit.
+ */
+public class CircuitBreaker {
+
+    /**
+     * An enum encoding the state of an endpoint circuit
+     */
+    public enum State {
+
+        /**
+         * Calls go through and failures are counted
+         */
+        CLOSED,
+
+        /**
+         * Calls fail fast
+         */
+        OPEN,
+
+        /**
+         * A single trial call goes through to probe the endpoint
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * The default number of consecutive failures opening a circuit
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * The default time a circuit stays open before a trial call, in milliseconds
+     */
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30000;
+
+    /**
+     * The number of consecutive failures opening a circuit
+     */
+    private final int failureThreshold;
+
+    /**
+     * The time a circuit stays open before a trial call, in nanoseconds
+     */
+    private final long openDurationNanos;
+
+    /**
+     * The circuits per endpoint address
+     */
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * The listeners notified of state changes
+     */
+    private final CopyOnWriteArrayList<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a circuit breaker with the default thresholds
+     */
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MILLIS);
+    }
+
+    /**
+     * Creates a circuit breaker with the given thresholds
+     *
+     * @param failureThreshold The number of consecutive failures opening a circuit
+     * @param openDurationMillis The time a circuit stays open before a trial call
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+        if (failureThreshold <= 0 || openDurationMillis < 0) {
+            throw new IllegalArgumentException("Invalid circuit breaker thresholds");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Registers a listener notified of the state changes of all circuits
+     *
+     * @param listener The listener to register
+     */
+    public void addListener(CircuitBreakerListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener
+     *
+     * @param listener The listener to unregister
+     */
+    public void removeListener(CircuitBreakerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the state of the circuit of an endpoint
+     *
+     * @param endpoint The endpoint address
+     * @return The circuit state, CLOSED if the endpoint wasn't called yet
+     */
+    public State getState(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        return circuit != null ? circuit.getState() : State.CLOSED;
+    }
+
+    /**
+     * Checks whether a call to an endpoint may go through, and takes the trial slot of a half-open circuit
+     *
+     * @param endpoint The endpoint address
+     * @return The generation of the circuit the call is admitted under, to be passed back with its outcome
+     * @throws CircuitOpenException Signals that the circuit is open
+     */
+    long allowCall(String endpoint) throws CircuitOpenException {
+        long generation = circuit(endpoint).tryAcquire();
+        if (generation < 0) {
+            throw new CircuitOpenException("Circuit open for " + endpoint);
+        }
+        return generation;
+    }
+
+    /**
+     * Records the outcome of a call that was allowed through
+     *
+     * @param endpoint The endpoint address
+     * @param generation The generation the call was admitted under
+     * @param success False if the call failed to connect or got a server error
+     */
+    void recordOutcome(String endpoint, long generation, boolean success) {
+        circuit(endpoint).record(generation, success);
+    }
+
+    /**
+     * Releases the trial slot of a call that was allowed through but never sent
+     *
+     * @param endpoint The endpoint address
+     * @param generation The generation the call was admitted under
+     */
+    void releaseCall(String endpoint, long generation) {
+        circuit(endpoint).release(generation);
+    }
+
+    /**
+     * Gets or creates the circuit of an endpoint
+     *
+     * @param endpoint The endpoint address
+     * @return The endpoint circuit
+     */
+    private Circuit circuit(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        if (circuit == null) {
+            Circuit created = new Circuit(endpoint);
+            circuit = circuits.putIfAbsent(endpoint, created);
+            if (circuit == null) {
+                circuit = created;
+            }
+        }
+        return circuit;
+    }
+
+    /**
+     * Notifies the listeners of a state change
+     *
+     * @param endpoint The endpoint address
+     * @param previousState The state the circuit left
+     * @param newState The state the circuit entered
+     */
+    private void notifyListeners(String endpoint, State previousState, State newState) {
+        for (CircuitBreakerListener listener : listeners) {
+            listener.onStateChange(endpoint, previousState, newState);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The circuit of a single endpoint
+     */
+    private class Circuit {
+
+        /**
+         * The endpoint address
+         */
+        private final String endpoint;
+
+        /**
+         * The circuit state
+         */
+        private State state = State.CLOSED;
+
+        /**
+         * The number of consecutive failures while closed
+         */
+        private int consecutiveFailures;
+
+        /**
+         * The time the circuit opened, in nanoseconds
+         */
+        private long openedAtNanos;
+
+        /**
+         * Whether the trial call of a half-open circuit is in flight
+         */
+        private boolean trialInFlight;
+
+        /**
+         * The generation of the circuit, incremented on every state change
+         */
+        private long generation;
+
+        Circuit(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        /**
+         * Admits a call if the circuit lets it through
+         *
+         * @return The generation the call is admitted under, or -1 if the circuit is open
+         */
+        long tryAcquire() {
+            State previous;
+            long admitted;
+            synchronized (this) {
+                if (state == State.CLOSED) {
+                    return generation;
+                }
+                if (state == State.OPEN && System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    return -1;
+                }
+                if (state == State.HALF_OPEN && trialInFlight) {
+                    return -1;
+                }
+                previous = state;
+                if (state == State.OPEN) {
+                    state = State.HALF_OPEN;
+                    generation++;
+                }
+                trialInFlight = true;
+                admitted = generation;
+            }
+            if (previous != State.HALF_OPEN) {
+                notifyListeners(endpoint, previous, State.HALF_OPEN);
+            }
+            return admitted;
+        }
+
+        /**
+         * Records the outcome of a call, unless it was admitted under an older generation
+         *
+         * @param admitted The generation the call was admitted under
+         * @param success False if the call failed
+         */
+        void record(long admitted, boolean success) {
+            State previous;
+            State next;
+            synchronized (this) {
+                if (admitted != generation || state == State.OPEN) {
+                    return;
+                }
+                previous = state;
+                if (state == State.HALF_OPEN) {
+                    // Only the trial is admitted under the generation of a half-open circuit
+                    trialInFlight = false;
+                    next = success ? State.CLOSED : State.OPEN;
+                } else if (success) {
+                    consecutiveFailures = 0;
+                    next = State.CLOSED;
+                } else if (++consecutiveFailures >= failureThreshold) {
+                    next = State.OPEN;
+                } else {
+                    next = State.CLOSED;
+                }
+                if (next != previous) {
+                    generation++;
+                    consecutiveFailures = 0;
+                    if (next == State.OPEN) {
+                        openedAtNanos = System.nanoTime();
+                    }
+                }
+                state = next;
+            }
+            if (previous != next) {
+                notifyListeners(endpoint, previous, next);
+            }
+        }
+
+        /**
+         * Frees the trial slot taken by a call that was never sent
+         *
+         * @param admitted The generation the call was admitted under
+         */
+        synchronized void release(long admitted) {
+            if (state == State.HALF_OPEN && admitted == generation) {
+                trialInFlight = false;
+            }
+        }
+    }
+}
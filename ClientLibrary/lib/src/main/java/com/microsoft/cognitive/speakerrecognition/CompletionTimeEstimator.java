@@ -0,0 +1,143 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.util.Arrays;
+
+/**
+ * A package-private estimator of the time operations of one kind take to complete.
+ * It keeps the most recent completion times and derives the next poll delay from their quantiles.
+ */
+class CompletionTimeEstimator {
+
+    /**
+     * The quantiles of the observed completion times at which polls are scheduled
+     */
+    private static final double[] POLL_QUANTILES = {0.5, 0.75, 0.9, 0.99};
+
+    /**
+     * The factor applied to the last delay once an operation outlives all observed completion times
+     */
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    /**
+     * The ring of the most recent completion times in milliseconds
+     */
+    private final long[] samples;
+
+    /**
+     * The completion time assumed until the first operation completes, in milliseconds
+     */
+    private final long initialEstimateMillis;
+
+    /**
+     * The number of recorded completion times, saturated at the ring size
+     */
+    private int sampleCount;
+
+    /**
+     * The ring position of the next completion time
+     */
+    private int nextSample;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates an estimator without observations
+     *
+     * @param capacity The number of recent completion times to keep
+     * @param initialEstimateMillis The completion time assumed until the first operation completes
+     */
+    CompletionTimeEstimator(int capacity, long initialEstimateMillis) {
+        this.samples = new long[capacity];
+        this.initialEstimateMillis = initialEstimateMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Records the completion time of an operation
+     *
+     * @param completionMillis The time from submission to completion in milliseconds
+     */
+    synchronized void record(long completionMillis) {
+        samples[nextSample] = completionMillis;
+        nextSample = (nextSample + 1) % samples.length;
+        if (sampleCount < samples.length) {
+            sampleCount++;
+        }
+    }
+
+    /**
+     * Records the completion time of an operation that had already completed at its first poll.
+     * Only an upper bound of the completion time is known then, and it is never below the current poll target,
+     * so half of it is recorded instead: while operations keep completing before their first poll,
+     * the poll targets move down until a first poll finds an operation pending and a real sample is taken.
+     *
+     * @param upperBoundMillis The time from submission to the first poll response in milliseconds
+     */
+    void recordUpperBound(long upperBoundMillis) {
+        record(upperBoundMillis / 2);
+    }
+
+    /**
+     * Computes the delay until the next poll of a pending operation.
+     * The next poll targets the first quantile of the observed completion times that the operation hasn't reached yet,
+     * and backs off geometrically once the operation outlives them all.
+     *
+     * @param elapsedMillis The time since the operation was submitted
+     * @param lastDelayMillis The previous poll delay, or 0 before the first poll
+     * @return The delay until the next poll in milliseconds, before clamping
+     */
+    long nextDelay(long elapsedMillis, long lastDelayMillis) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, sampleCount);
+        }
+        if (sorted.length == 0) {
+            if (elapsedMillis < initialEstimateMillis) {
+                return initialEstimateMillis - elapsedMillis;
+            }
+            return (long) (Math.max(lastDelayMillis, 1) * BACKOFF_FACTOR);
+        }
+
+        Arrays.sort(sorted);
+        for (double quantile : POLL_QUANTILES) {
+            long target = sorted[(int) Math.min(sorted.length - 1, Math.floor(quantile * sorted.length))];
+            if (target > elapsedMillis) {
+                return target - elapsedMillis;
+            }
+        }
+        return (long) (Math.max(lastDelayMillis, 1) * BACKOFF_FACTOR);
+    }
+}
@@ -0,0 +1,89 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.Confidence;
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentStatus;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * A package-private Gson factory handing out the hand-written adapters of the contract types,
+ * so Gson neither reflects on the contract classes nor parses dates with a SimpleDateFormat
+ */
+class ContractTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<?> rawType = type.getRawType();
+        TypeAdapter<?> adapter = forCommonType(rawType);
+        if (adapter == null) {
+            adapter = IdentificationTypeAdapters.forType(rawType);
+        }
+        if (adapter == null) {
+            adapter = VerificationTypeAdapters.forType(rawType);
+        }
+        return (TypeAdapter<T>) adapter;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the adapter of a type shared by the identification and verification contracts
+     *
+     * @param type The type
+     * @return The adapter, or null if the type is not shared by the contracts
+     */
+    private static TypeAdapter<?> forCommonType(Class<?> type) {
+        if (type == Date.class) {
+            return ContractTypeAdapters.DATE_ADAPTER;
+        } else if (type == UUID.class) {
+            return ContractTypeAdapters.UUID_ADAPTER;
+        } else if (type == Confidence.class) {
+            return ContractTypeAdapters.CONFIDENCE_ADAPTER;
+        } else if (type == EnrollmentStatus.class) {
+            return ContractTypeAdapters.ENROLLMENT_STATUS_ADAPTER;
+        } else if (type == ErrorResponse.class) {
+            return ContractTypeAdapters.ERROR_RESPONSE_ADAPTER;
+        } else if (type == ErrorMessage.class) {
+            return ContractTypeAdapters.ERROR_MESSAGE_ADAPTER;
+        }
+        return null;
+    }
+}
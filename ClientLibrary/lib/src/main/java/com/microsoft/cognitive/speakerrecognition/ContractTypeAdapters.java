@@ -0,0 +1,355 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.Confidence;
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentBase;
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentStatus;
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileBase;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Package-private Json adapters for the types shared by the identification and verification contracts,
+ * and helpers for the fields of their base classes.
+ * The adapters bind fields by hand so Gson never has to reflect on the contract classes.
+ */
+final class ContractTypeAdapters {
+
+    /**
+     * Reads and writes ISO-8601 timestamps
+     */
+    static final TypeAdapter<Date> DATE_ADAPTER = new TypeAdapter<Date>() {
+        @Override
+        public void write(JsonWriter out, Date value) throws IOException {
+            out.value(Iso8601.format(value.getTime()));
+        }
+
+        @Override
+        public Date read(JsonReader in) throws IOException {
+            String value = in.nextString();
+            try {
+                return new Date(Iso8601.parse(value));
+            } catch (IllegalArgumentException e) {
+                throw new JsonSyntaxException(e.getMessage(), e);
+            }
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes profile IDs
+     */
+    static final TypeAdapter<UUID> UUID_ADAPTER = new TypeAdapter<UUID>() {
+        @Override
+        public void write(JsonWriter out, UUID value) throws IOException {
+            out.value(value.toString());
+        }
+
+        @Override
+        public UUID read(JsonReader in) throws IOException {
+            String value = in.nextString();
+            try {
+                return UUID.fromString(value);
+            } catch (IllegalArgumentException e) {
+                throw new JsonSyntaxException(e.getMessage(), e);
+            }
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes confidence levels
+     */
+    static final TypeAdapter<Confidence> CONFIDENCE_ADAPTER = new NamedEnumAdapter<>(
+            Confidence.values(), "Low", "Normal", "High").nullSafe();
+
+    /**
+     * Reads and writes enrollment statuses
+     */
+    static final TypeAdapter<EnrollmentStatus> ENROLLMENT_STATUS_ADAPTER = new NamedEnumAdapter<>(
+            EnrollmentStatus.values(), "Enrolling", "Training", "Enrolled").nullSafe();
+
+    /**
+     * Reads and writes error messages
+     */
+    static final TypeAdapter<ErrorMessage> ERROR_MESSAGE_ADAPTER = new TypeAdapter<ErrorMessage>() {
+        @Override
+        public void write(JsonWriter out, ErrorMessage value) throws IOException {
+            out.beginObject();
+            out.name("code").value(value.code);
+            out.name("message").value(value.message);
+            out.endObject();
+        }
+
+        @Override
+        public ErrorMessage read(JsonReader in) throws IOException {
+            ErrorMessage errorMessage = new ErrorMessage();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "code":
+                        errorMessage.code = nextString(in);
+                        break;
+                    case "message":
+                        errorMessage.message = nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return errorMessage;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes error responses
+     */
+    static final TypeAdapter<ErrorResponse> ERROR_RESPONSE_ADAPTER = new TypeAdapter<ErrorResponse>() {
+        @Override
+        public void write(JsonWriter out, ErrorResponse value) throws IOException {
+            out.beginObject();
+            out.name("error");
+            ERROR_MESSAGE_ADAPTER.write(out, value.error);
+            out.endObject();
+        }
+
+        @Override
+        public ErrorResponse read(JsonReader in) throws IOException {
+            ErrorResponse errorResponse = new ErrorResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("error".equals(in.nextName())) {
+                    errorResponse.error = ERROR_MESSAGE_ADAPTER.read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return errorResponse;
+        }
+    }.nullSafe();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The class only has static members
+     */
+    private ContractTypeAdapters() {
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Writes the fields of a profile base class
+     *
+     * @param out The Json writer, inside the profile object
+     * @param profile The profile
+     * @throws IOException Signals a failure while writing
+     */
+    static void writeProfileBase(JsonWriter out, ProfileBase profile) throws IOException {
+        out.name("locale").value(profile.locale);
+        out.name("createdDateTime");
+        DATE_ADAPTER.write(out, profile.createdDateTime);
+        out.name("lastActionDateTime");
+        DATE_ADAPTER.write(out, profile.lastActionDateTime);
+        out.name("enrollmentStatus");
+        ENROLLMENT_STATUS_ADAPTER.write(out, profile.enrollmentStatus);
+    }
+
+    /**
+     * Reads a field of a profile base class
+     *
+     * @param in The Json reader, positioned on the value of the field
+     * @param name The field name
+     * @param profile The profile to set the field of
+     * @return True if the field belongs to the base class and was read, false if the value was left unread
+     * @throws IOException Signals a failure while reading
+     */
+    static boolean readProfileBase(JsonReader in, String name, ProfileBase profile) throws IOException {
+        switch (name) {
+            case "locale":
+                profile.locale = nextString(in);
+                return true;
+            case "createdDateTime":
+                profile.createdDateTime = DATE_ADAPTER.read(in);
+                return true;
+            case "lastActionDateTime":
+                profile.lastActionDateTime = DATE_ADAPTER.read(in);
+                return true;
+            case "enrollmentStatus":
+                profile.enrollmentStatus = ENROLLMENT_STATUS_ADAPTER.read(in);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes the fields of an enrollment base class
+     *
+     * @param out The Json writer, inside the enrollment object
+     * @param enrollment The enrollment
+     * @throws IOException Signals a failure while writing
+     */
+    static void writeEnrollmentBase(JsonWriter out, EnrollmentBase enrollment) throws IOException {
+        out.name("enrollmentStatus");
+        ENROLLMENT_STATUS_ADAPTER.write(out, enrollment.enrollmentStatus);
+    }
+
+    /**
+     * Reads a field of an enrollment base class
+     *
+     * @param in The Json reader, positioned on the value of the field
+     * @param name The field name
+     * @param enrollment The enrollment to set the field of
+     * @return True if the field belongs to the base class and was read, false if the value was left unread
+     * @throws IOException Signals a failure while reading
+     */
+    static boolean readEnrollmentBase(JsonReader in, String name, EnrollmentBase enrollment) throws IOException {
+        if ("enrollmentStatus".equals(name)) {
+            enrollment.enrollmentStatus = ENROLLMENT_STATUS_ADAPTER.read(in);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string value the way Gson does, accepting null, booleans and numbers
+     *
+     * @param in The Json reader
+     * @return The string, or null
+     * @throws IOException Signals a failure while reading
+     */
+    static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads a number into a primitive field, keeping the current value on null the way Gson does
+     *
+     * @param in The Json reader
+     * @param current The current value of the field
+     * @return The number read, or the current value
+     * @throws IOException Signals a failure while reading
+     */
+    static double nextDouble(JsonReader in, double current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        return in.nextDouble();
+    }
+
+    /**
+     * Reads a number into a primitive field, keeping the current value on null the way Gson does
+     *
+     * @param in The Json reader
+     * @param current The current value of the field
+     * @return The number read, or the current value
+     * @throws IOException Signals a failure while reading
+     */
+    static int nextInt(JsonReader in, int current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        return in.nextInt();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Reads and writes the constants of an enum by their serialized names, without looking up their annotations
+     *
+     * @param <E> The enum type
+     */
+    static final class NamedEnumAdapter<E extends Enum<E>> extends TypeAdapter<E> {
+
+        /**
+         * The enum constants, in declaration order
+         */
+        private final E[] constants;
+
+        /**
+         * The serialized names of the constants, in declaration order
+         */
+        private final String[] names;
+
+        /**
+         * Creates an adapter for an enum
+         *
+         * @param constants The enum constants, in declaration order
+         * @param names The serialized names of the constants, in declaration order
+         */
+        NamedEnumAdapter(E[] constants, String... names) {
+            if (constants.length != names.length) {
+                throw new IllegalArgumentException("Every constant needs a name");
+            }
+            this.constants = constants;
+            this.names = names;
+        }
+
+        @Override
+        public void write(JsonWriter out, E value) throws IOException {
+            out.value(names[value.ordinal()]);
+        }
+
+        @Override
+        public E read(JsonReader in) throws IOException {
+            String name = in.nextString();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return constants[i];
+                }
+            }
+            // Gson maps names it doesn't know to null
+            return null;
+        }
+    }
+}
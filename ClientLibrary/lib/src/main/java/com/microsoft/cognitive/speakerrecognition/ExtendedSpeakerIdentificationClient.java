@@ -0,0 +1,230 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentException;
+import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationException;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An interface extending {@link SpeakerIdentificationClient} with the calls added after it was published.
+ * They are kept out of {@link SpeakerIdentificationClient} so that its existing implementations keep compiling.
+ */
+public interface ExtendedSpeakerIdentificationClient extends SpeakerIdentificationClient {
+
+    /**
+     * Gets all speaker profiles from the service one at a time, decoding each profile only when it is reached.
+     * Memory use doesn't grow with the number of profiles, which makes it suited to scanning large profile sets,
+     * for example for the enrolled profiles of a locale. The iterator must be closed if it isn't read to its end.
+     *
+     * @return An iterator over all profiles
+     * @throws GetProfileException Thrown in case of an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    ProfileIterator<Profile> streamProfiles() throws GetProfileException, IOException;
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to identify, which is memory-mapped rather than read onto the heap
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation identify(File audioFile, List<UUID> ids) throws IdentificationException, IOException;
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to identify, which is memory-mapped rather than read onto the heap
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation identify(File audioFile, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException;
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to identify, read from its current position to its end
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation identify(FileChannel audioChannel, List<UUID> ids) throws IdentificationException, IOException;
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to identify, read from its current position to its end
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation identify(FileChannel audioChannel, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException;
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to identify between its position and its limit
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    OperationLocation identify(ByteBuffer audioBuffer, List<UUID> ids) throws IdentificationException, IOException;
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to identify between its position and its limit
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    OperationLocation identify(ByteBuffer audioBuffer, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException;
+
+    /**
+     * Enrolls a speaker profile from an audio file
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation enroll(File audioFile, UUID id) throws EnrollmentException, IOException;
+
+    /**
+     * Enrolls a speaker profile from an audio file
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation enroll(File audioFile, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException;
+
+    /**
+     * Enrolls a speaker profile from an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation enroll(FileChannel audioChannel, UUID id) throws EnrollmentException, IOException;
+
+    /**
+     * Enrolls a speaker profile from an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    OperationLocation enroll(FileChannel audioChannel, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException;
+
+    /**
+     * Enrolls a speaker profile from an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    OperationLocation enroll(ByteBuffer audioBuffer, UUID id) throws EnrollmentException, IOException;
+
+    /**
+     * Enrolls a speaker profile from an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    OperationLocation enroll(ByteBuffer audioBuffer, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException;
+
+    /**
+     * Polls the status of an enrollment operation, reusing a holder while the operation is pending.
+     * Only the status of a pending operation is decoded and stored in the holder; the other fields of the holder
+     * are left as they were. A completed operation is decoded in full and returned as a new object.
+     *
+     * @param location The Url returned upon calling the enrollment operation
+     * @param pending The holder updated with the status of a pending operation
+     * @return The holder if the operation is pending, the completed operation otherwise
+     * @throws EnrollmentException Thrown in case of an internal server error or an invalid URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    EnrollmentOperation pollEnrollmentStatus(OperationLocation location, EnrollmentOperation pending) throws EnrollmentException, IOException;
+
+    /**
+     * Polls the status of an identification operation, reusing a holder while the operation is pending.
+     * Only the status of a pending operation is decoded and stored in the holder; the other fields of the holder
+     * are left as they were. A completed operation is decoded in full and returned as a new object.
+     *
+     * @param location The Url returned upon calling the identification operation
+     * @param pending The holder updated with the status of a pending operation
+     * @return The holder if the operation is pending, the completed operation otherwise
+     * @throws IdentificationException Thrown in case of an internal server error or a wrong URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    IdentificationOperation pollIdentificationStatus(OperationLocation location, IdentificationOperation pending) throws IdentificationException, IOException;
+}
@@ -0,0 +1,130 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentException;
+import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Verification;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.UUID;
+
+/**
+ * An interface extending {@link SpeakerVerificationClient} with the calls added after it was published.
+ * They are kept out of {@link SpeakerVerificationClient} so that its existing implementations keep compiling.
+ */
+public interface ExtendedSpeakerVerificationClient extends SpeakerVerificationClient {
+
+    /**
+     * Gets all speaker profiles from the service one at a time, decoding each profile only when it is reached.
+     * Memory use doesn't grow with the number of profiles, which makes it suited to scanning large profile sets,
+     * for example for the enrolled profiles of a locale. The iterator must be closed if it isn't read to its end.
+     *
+     * @return An iterator over all profiles
+     * @throws GetProfileException Thrown in case of an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    ProfileIterator<Profile> streamProfiles() throws GetProfileException, IOException;
+
+    /**
+     * Enrolls an audio file for a given speaker
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    Enrollment enroll(File audioFile, UUID id) throws EnrollmentException, IOException;
+
+    /**
+     * Enrolls an audio file channel for a given speaker
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    Enrollment enroll(FileChannel audioChannel, UUID id) throws EnrollmentException, IOException;
+
+    /**
+     * Enrolls an audio buffer for a given speaker
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    Enrollment enroll(ByteBuffer audioBuffer, UUID id) throws EnrollmentException, IOException;
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to verify, which is memory-mapped rather than read onto the heap
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    Verification verify(File audioFile, UUID id) throws VerificationException, IOException;
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to verify, read from its current position to its end
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    Verification verify(FileChannel audioChannel, UUID id) throws VerificationException, IOException;
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to verify between its position and its limit
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    Verification verify(ByteBuffer audioBuffer, UUID id) throws VerificationException, IOException;
+}
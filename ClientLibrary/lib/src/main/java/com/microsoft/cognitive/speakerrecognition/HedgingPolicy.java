@@ -0,0 +1,245 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A policy for hedging latency-critical calls.
+ * When a hedged call hasn't received a response after the configured percentile of its recent latencies,
+ * a second copy of the request is sent on another pooled connection; the first response wins and the other
+ * request is aborted. Audio streams are read once before the first copy is sent, and each copy reads its own view
+ * of the same bytes.
+ * A budget caps the extra requests to a fraction of all the requests of the hedged operations.
+ */
+public class HedgingPolicy {
+
+    /**
+     * The default latency percentile after which a hedge is sent
+     */
+    public static final double DEFAULT_DELAY_PERCENTILE = 95;
+
+    /**
+     * The default fraction of extra requests hedging may add
+     */
+    public static final double DEFAULT_BUDGET_RATIO = 0.05;
+
+    /**
+     * The number of recent latencies kept per operation
+     */
+    private static final int TRACKER_CAPACITY = 256;
+
+    /**
+     * The number of latencies to observe before hedging an operation
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * The maximum number of hedges the budget can accumulate
+     */
+    private static final double MAX_BUDGET = 10;
+
+    /**
+     * The timer firing the hedges of all policies, whose tasks only hand a hedge over to the executor of its policy
+     */
+    private static ScheduledExecutorService hedgeTimer;
+
+    /**
+     * The executor sending the requests of hedged calls
+     */
+    private final Executor executor;
+
+    /**
+     * The latency percentile after which a hedge is sent
+     */
+    private final double delayPercentile;
+
+    /**
+     * The fraction of extra requests hedging may add
+     */
+    private final double budgetRatio;
+
+    /**
+     * The hedged operations
+     */
+    private final Set<ServiceOperation> operations;
+
+    /**
+     * The latencies per hedged operation
+     */
+    private final Map<ServiceOperation, LatencyTracker> trackers = new EnumMap<>(ServiceOperation.class);
+
+    /**
+     * The number of hedges that may currently be sent
+     */
+    private double budget = 1;
+
+    /**
+     * The number of hedges sent
+     */
+    private long hedgeCount;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a policy hedging verifications and status checks with the default delay and budget
+     *
+     * @param executor The executor sending the requests of hedged calls
+     */
+    public HedgingPolicy(Executor executor) {
+        this(executor, DEFAULT_DELAY_PERCENTILE, DEFAULT_BUDGET_RATIO,
+                EnumSet.of(ServiceOperation.VERIFY, ServiceOperation.CHECK_ENROLLMENT_STATUS, ServiceOperation.CHECK_IDENTIFICATION_STATUS));
+    }
+
+    /**
+     * Creates a policy with the given delay and budget
+     *
+     * @param executor The executor sending the hedges, which needs a thread per hedge in flight
+     * @param delayPercentile The latency percentile, between 0 and 100, after which a hedge is sent
+     * @param budgetRatio The fraction of extra requests hedging may add, for example 0.05 for 5%
+     * @param operations The hedged operations
+     */
+    public HedgingPolicy(Executor executor, double delayPercentile, double budgetRatio, Set<ServiceOperation> operations) {
+        if (delayPercentile <= 0 || delayPercentile > 100 || budgetRatio < 0) {
+            throw new IllegalArgumentException("Invalid hedging parameters");
+        }
+        this.executor = executor;
+        this.delayPercentile = delayPercentile;
+        this.budgetRatio = budgetRatio;
+        this.operations = EnumSet.copyOf(operations);
+        for (ServiceOperation operation : this.operations) {
+            trackers.put(operation, new LatencyTracker(TRACKER_CAPACITY));
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the number of hedges sent under this policy
+     *
+     * @return The number of hedges
+     */
+    public synchronized long getHedgeCount() {
+        return hedgeCount;
+    }
+
+    /**
+     * Checks whether an operation is hedged
+     *
+     * @param operation The service operation
+     * @return True if the operation is hedged
+     */
+    boolean appliesTo(ServiceOperation operation) {
+        return operations.contains(operation);
+    }
+
+    /**
+     * Gets the executor sending the requests of hedged calls
+     *
+     * @return The executor
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Schedules the hedge of a call on the shared hedge timer
+     *
+     * @param task The task sending the hedge
+     * @param delayMillis The delay after which the hedge is sent, in milliseconds
+     * @return The scheduled hedge, to be cancelled once the call completed
+     */
+    static synchronized ScheduledFuture<?> scheduleHedge(Runnable task, long delayMillis) {
+        if (hedgeTimer == null) {
+            hedgeTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "SpeakerHedgeTimer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return hedgeTimer.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the delay after which a call is hedged
+     *
+     * @param operation A hedged service operation
+     * @return The delay in milliseconds, or -1 if not enough latencies were observed to hedge yet
+     */
+    long hedgeDelay(ServiceOperation operation) {
+        LatencyTracker tracker = trackers.get(operation);
+        if (tracker.getSampleCount() < MIN_SAMPLES) {
+            return -1;
+        }
+        return tracker.percentile(delayPercentile);
+    }
+
+    /**
+     * Records the latency of a call and adds its share to the hedging budget
+     *
+     * @param operation A hedged service operation
+     * @param latencyMillis The call latency in milliseconds
+     */
+    void recordCall(ServiceOperation operation, long latencyMillis) {
+        trackers.get(operation).record(latencyMillis);
+        synchronized (this) {
+            budget = Math.min(MAX_BUDGET, budget + budgetRatio);
+        }
+    }
+
+    /**
+     * Takes a hedge from the budget
+     *
+     * @return True if a hedge may be sent, false if the budget is exhausted
+     */
+    synchronized boolean tryAcquireHedge() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        hedgeCount++;
+        return true;
+    }
+}
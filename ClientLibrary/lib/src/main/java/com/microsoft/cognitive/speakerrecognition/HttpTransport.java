@@ -0,0 +1,64 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A package-private interface for the HTTP stack used to send requests to the service
+ */
+interface HttpTransport {
+
+    /**
+     * Sends a request and waits for the response status and headers
+     *
+     * @param request The request to send
+     * @return The response, whose content must be closed by the caller
+     * @throws IOException Signals a connection abortion or a failure while writing the request body
+     */
+    TransportResponse execute(TransportRequest request) throws IOException;
+
+    /**
+     * Closes the pooled connections that have been idle for longer than the given time
+     *
+     * @param idleTime The idle time after which a connection gets closed
+     * @param unit The unit of the idle time
+     */
+    void closeIdleConnections(long idleTime, TimeUnit unit);
+
+    /**
+     * Releases all the connections held by the transport
+     */
+    void shutdown();
+}
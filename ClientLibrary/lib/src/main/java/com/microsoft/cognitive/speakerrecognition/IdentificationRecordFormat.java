@@ -0,0 +1,93 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * The record layout of identification profiles in a {@link ProfileCatalog}
+ */
+final class IdentificationRecordFormat extends ProfileRecordFormat<Profile> {
+
+    /**
+     * The single instance
+     */
+    static final IdentificationRecordFormat INSTANCE = new IdentificationRecordFormat();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates the record format
+     */
+    private IdentificationRecordFormat() {
+        super(1, Profile.class);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    Profile newProfile() {
+        return new Profile();
+    }
+
+    @Override
+    UUID getId(Profile profile) {
+        return profile.identificationProfileId;
+    }
+
+    @Override
+    void setId(Profile profile, UUID id) {
+        profile.identificationProfileId = id;
+    }
+
+    @Override
+    void write(ByteBuffer buffer, int offset, Profile profile) {
+        buffer.putDouble(offset, profile.enrollmentSpeechTime);
+        buffer.putDouble(offset + 8, profile.remainingEnrollmentSpeechTime);
+    }
+
+    @Override
+    void read(ByteBuffer buffer, int offset, Profile profile) {
+        profile.enrollmentSpeechTime = buffer.getDouble(offset);
+        profile.remainingEnrollmentSpeechTime = buffer.getDouble(offset + 8);
+    }
+
+    @Override
+    boolean hasSameProgress(Profile profile, Profile other) {
+        return profile.enrollmentSpeechTime == other.enrollmentSpeechTime
+                && profile.remainingEnrollmentSpeechTime == other.remainingEnrollmentSpeechTime;
+    }
+}
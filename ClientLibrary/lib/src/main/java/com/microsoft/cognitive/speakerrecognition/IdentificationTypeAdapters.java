@@ -0,0 +1,566 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.identification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Identification;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Operation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Status;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Package-private Json adapters for the identification contract
+ */
+final class IdentificationTypeAdapters {
+
+    /**
+     * The quoted name of the operation status field
+     */
+    private static final byte[] STATUS_KEY = ascii("\"status\"");
+
+    /**
+     * The serialized running status, with its closing quote
+     */
+    private static final byte[] RUNNING_VALUE = ascii("running\"");
+
+    /**
+     * The serialized not started status, with its closing quote
+     */
+    private static final byte[] NOT_STARTED_VALUE = ascii("notstarted\"");
+
+    /**
+     * Reads and writes operation statuses
+     */
+    static final TypeAdapter<Status> STATUS_ADAPTER = new ContractTypeAdapters.NamedEnumAdapter<>(
+            Status.values(), "notstarted", "running", "failed", "succeeded").nullSafe();
+
+    /**
+     * Reads and writes profile creation responses
+     */
+    static final TypeAdapter<CreateProfileResponse> CREATE_PROFILE_RESPONSE_ADAPTER = new TypeAdapter<CreateProfileResponse>() {
+        @Override
+        public void write(JsonWriter out, CreateProfileResponse value) throws IOException {
+            out.beginObject();
+            out.name("identificationProfileId");
+            ContractTypeAdapters.UUID_ADAPTER.write(out, value.identificationProfileId);
+            out.endObject();
+        }
+
+        @Override
+        public CreateProfileResponse read(JsonReader in) throws IOException {
+            CreateProfileResponse response = new CreateProfileResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("identificationProfileId".equals(in.nextName())) {
+                    response.identificationProfileId = ContractTypeAdapters.UUID_ADAPTER.read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes identification profiles
+     */
+    static final TypeAdapter<Profile> PROFILE_ADAPTER = new TypeAdapter<Profile>() {
+        @Override
+        public void write(JsonWriter out, Profile value) throws IOException {
+            out.beginObject();
+            out.name("identificationProfileId");
+            ContractTypeAdapters.UUID_ADAPTER.write(out, value.identificationProfileId);
+            out.name("enrollmentSpeechTime").value(value.enrollmentSpeechTime);
+            out.name("remainingEnrollmentSpeechTime").value(value.remainingEnrollmentSpeechTime);
+            ContractTypeAdapters.writeProfileBase(out, value);
+            out.endObject();
+        }
+
+        @Override
+        public Profile read(JsonReader in) throws IOException {
+            Profile profile = new Profile();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "identificationProfileId":
+                        profile.identificationProfileId = ContractTypeAdapters.UUID_ADAPTER.read(in);
+                        break;
+                    case "enrollmentSpeechTime":
+                        profile.enrollmentSpeechTime = ContractTypeAdapters.nextDouble(in, profile.enrollmentSpeechTime);
+                        break;
+                    case "remainingEnrollmentSpeechTime":
+                        profile.remainingEnrollmentSpeechTime = ContractTypeAdapters.nextDouble(in, profile.remainingEnrollmentSpeechTime);
+                        break;
+                    default:
+                        if (!ContractTypeAdapters.readProfileBase(in, name, profile)) {
+                            in.skipValue();
+                        }
+                        break;
+                }
+            }
+            in.endObject();
+            return profile;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes enrollment results
+     */
+    static final TypeAdapter<Enrollment> ENROLLMENT_ADAPTER = new TypeAdapter<Enrollment>() {
+        @Override
+        public void write(JsonWriter out, Enrollment value) throws IOException {
+            out.beginObject();
+            out.name("remainingEnrollmentSpeechTime").value(value.remainingEnrollmentSpeechTime);
+            out.name("speechTime").value(value.speechTime);
+            out.name("enrollmentSpeechTime").value(value.enrollmentSpeechTime);
+            ContractTypeAdapters.writeEnrollmentBase(out, value);
+            out.endObject();
+        }
+
+        @Override
+        public Enrollment read(JsonReader in) throws IOException {
+            Enrollment enrollment = new Enrollment();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "remainingEnrollmentSpeechTime":
+                        enrollment.remainingEnrollmentSpeechTime = ContractTypeAdapters.nextDouble(in, enrollment.remainingEnrollmentSpeechTime);
+                        break;
+                    case "speechTime":
+                        enrollment.speechTime = ContractTypeAdapters.nextDouble(in, enrollment.speechTime);
+                        break;
+                    case "enrollmentSpeechTime":
+                        enrollment.enrollmentSpeechTime = ContractTypeAdapters.nextDouble(in, enrollment.enrollmentSpeechTime);
+                        break;
+                    default:
+                        if (!ContractTypeAdapters.readEnrollmentBase(in, name, enrollment)) {
+                            in.skipValue();
+                        }
+                        break;
+                }
+            }
+            in.endObject();
+            return enrollment;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes identification results
+     */
+    static final TypeAdapter<Identification> IDENTIFICATION_ADAPTER = new TypeAdapter<Identification>() {
+        @Override
+        public void write(JsonWriter out, Identification value) throws IOException {
+            out.beginObject();
+            out.name("identifiedProfileId");
+            ContractTypeAdapters.UUID_ADAPTER.write(out, value.identifiedProfileId);
+            out.name("confidence");
+            ContractTypeAdapters.CONFIDENCE_ADAPTER.write(out, value.confidence);
+            out.endObject();
+        }
+
+        @Override
+        public Identification read(JsonReader in) throws IOException {
+            Identification identification = new Identification();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "identifiedProfileId":
+                        identification.identifiedProfileId = ContractTypeAdapters.UUID_ADAPTER.read(in);
+                        break;
+                    case "confidence":
+                        identification.confidence = ContractTypeAdapters.CONFIDENCE_ADAPTER.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return identification;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes operation statuses without a processing result
+     */
+    static final TypeAdapter<Operation> OPERATION_ADAPTER = new TypeAdapter<Operation>() {
+        @Override
+        public void write(JsonWriter out, Operation value) throws IOException {
+            out.beginObject();
+            writeOperation(out, value);
+            out.endObject();
+        }
+
+        @Override
+        public Operation read(JsonReader in) throws IOException {
+            Operation operation = new Operation();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!readOperation(in, in.nextName(), operation)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return operation;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes enrollment operation statuses
+     */
+    static final TypeAdapter<EnrollmentOperation> ENROLLMENT_OPERATION_ADAPTER = new TypeAdapter<EnrollmentOperation>() {
+        @Override
+        public void write(JsonWriter out, EnrollmentOperation value) throws IOException {
+            out.beginObject();
+            writeOperation(out, value);
+            out.name("processingResult");
+            ENROLLMENT_ADAPTER.write(out, value.processingResult);
+            out.endObject();
+        }
+
+        @Override
+        public EnrollmentOperation read(JsonReader in) throws IOException {
+            EnrollmentOperation operation = new EnrollmentOperation();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("processingResult".equals(name)) {
+                    operation.processingResult = ENROLLMENT_ADAPTER.read(in);
+                } else if (!readOperation(in, name, operation)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return operation;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes identification operation statuses
+     */
+    static final TypeAdapter<IdentificationOperation> IDENTIFICATION_OPERATION_ADAPTER = new TypeAdapter<IdentificationOperation>() {
+        @Override
+        public void write(JsonWriter out, IdentificationOperation value) throws IOException {
+            out.beginObject();
+            writeOperation(out, value);
+            out.name("processingResult");
+            IDENTIFICATION_ADAPTER.write(out, value.processingResult);
+            out.endObject();
+        }
+
+        @Override
+        public IdentificationOperation read(JsonReader in) throws IOException {
+            IdentificationOperation operation = new IdentificationOperation();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("processingResult".equals(name)) {
+                    operation.processingResult = IDENTIFICATION_ADAPTER.read(in);
+                } else if (!readOperation(in, name, operation)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return operation;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes operation locations
+     */
+    static final TypeAdapter<OperationLocation> OPERATION_LOCATION_ADAPTER = new TypeAdapter<OperationLocation>() {
+        @Override
+        public void write(JsonWriter out, OperationLocation value) throws IOException {
+            out.beginObject();
+            out.name("Url").value(value.Url);
+            out.endObject();
+        }
+
+        @Override
+        public OperationLocation read(JsonReader in) throws IOException {
+            OperationLocation location = new OperationLocation();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("Url".equals(in.nextName())) {
+                    location.Url = ContractTypeAdapters.nextString(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return location;
+        }
+    }.nullSafe();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The class only has static members
+     */
+    private IdentificationTypeAdapters() {
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the adapter of an identification contract type
+     *
+     * @param type The type
+     * @return The adapter, or null if the type is not part of the identification contract
+     */
+    static TypeAdapter<?> forType(Class<?> type) {
+        if (type == Status.class) {
+            return STATUS_ADAPTER;
+        } else if (type == CreateProfileResponse.class) {
+            return CREATE_PROFILE_RESPONSE_ADAPTER;
+        } else if (type == Profile.class) {
+            return PROFILE_ADAPTER;
+        } else if (type == Enrollment.class) {
+            return ENROLLMENT_ADAPTER;
+        } else if (type == Identification.class) {
+            return IDENTIFICATION_ADAPTER;
+        } else if (type == Operation.class) {
+            return OPERATION_ADAPTER;
+        } else if (type == EnrollmentOperation.class) {
+            return ENROLLMENT_OPERATION_ADAPTER;
+        } else if (type == IdentificationOperation.class) {
+            return IDENTIFICATION_OPERATION_ADAPTER;
+        } else if (type == OperationLocation.class) {
+            return OPERATION_LOCATION_ADAPTER;
+        }
+        return null;
+    }
+
+    /**
+     * Looks for the status of a pending operation in the raw Json of an operation, without decoding it.
+     * The scan walks the object tracking its nesting and strings, and only matches the "status" field of the
+     * top-level object, so the status of a nested object or a "status" inside a string value is never taken for it.
+     * A status that isn't pending, or content the scan doesn't recognize, is left to the full decoding.
+     *
+     * @param json The UTF-8 encoded Json content
+     * @param length The length of the content
+     * @return NOTSTARTED or RUNNING if the operation is pending, null otherwise
+     */
+    static Status scanPendingStatus(byte[] json, int length) {
+        int index = skipWhitespace(json, length, 0);
+        if (index >= length || json[index] != '{') {
+            return null;
+        }
+        int depth = 1;
+        boolean expectKey = true;
+        for (index++; index < length; index++) {
+            switch (json[index]) {
+                case '"':
+                    if (depth == 1 && expectKey && regionMatches(json, length, index, STATUS_KEY)) {
+                        return pendingStatus(json, length, index + STATUS_KEY.length);
+                    }
+                    index = skipString(json, length, index);
+                    if (index < 0) {
+                        return null;
+                    }
+                    expectKey = false;
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    depth--;
+                    if (depth == 0) {
+                        return null;
+                    }
+                    break;
+                case ',':
+                    expectKey = depth == 1;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the value of a status field
+     *
+     * @param json The UTF-8 encoded Json content
+     * @param length The length of the content
+     * @param index The index right after the field name
+     * @return NOTSTARTED or RUNNING if the value is a pending status, null otherwise
+     */
+    private static Status pendingStatus(byte[] json, int length, int index) {
+        index = skipWhitespace(json, length, index);
+        if (index >= length || json[index] != ':') {
+            return null;
+        }
+        index = skipWhitespace(json, length, index + 1);
+        if (index >= length || json[index] != '"') {
+            return null;
+        }
+        index++;
+        if (regionMatches(json, length, index, RUNNING_VALUE)) {
+            return Status.RUNNING;
+        }
+        if (regionMatches(json, length, index, NOT_STARTED_VALUE)) {
+            return Status.NOTSTARTED;
+        }
+        return null;
+    }
+
+    /**
+     * Skips a Json string
+     *
+     * @param data The bytes to scan
+     * @param length The number of bytes to scan
+     * @param index The index of the opening quote
+     * @return The index of the closing quote, or -1 if the string isn't terminated
+     */
+    private static int skipString(byte[] data, int length, int index) {
+        for (index++; index < length; index++) {
+            if (data[index] == '\\') {
+                index++;
+            } else if (data[index] == '"') {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips Json whitespace
+     *
+     * @param data The bytes to scan
+     * @param length The number of bytes to scan
+     * @param index The index to start from
+     * @return The index of the first byte that isn't whitespace
+     */
+    private static int skipWhitespace(byte[] data, int length, int index) {
+        while (index < length && (data[index] == ' ' || data[index] == '\t' || data[index] == '\n' || data[index] == '\r')) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether the bytes at an index equal the given bytes
+     *
+     * @param data The bytes to scan
+     * @param length The number of bytes to scan
+     * @param index The index to compare at
+     * @param expected The expected bytes
+     * @return True if the bytes match
+     */
+    private static boolean regionMatches(byte[] data, int length, int index, byte[] expected) {
+        if (index + expected.length > length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[index + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes an ASCII constant
+     *
+     * @param value The constant
+     * @return The bytes of the constant
+     */
+    private static byte[] ascii(String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) value.charAt(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the fields of an operation base class
+     *
+     * @param out The Json writer, inside the operation object
+     * @param operation The operation
+     * @throws IOException Signals a failure while writing
+     */
+    private static void writeOperation(JsonWriter out, Operation operation) throws IOException {
+        out.name("status");
+        STATUS_ADAPTER.write(out, operation.status);
+        out.name("createdDateTime");
+        ContractTypeAdapters.DATE_ADAPTER.write(out, operation.createdDateTime);
+        out.name("lastActionDateTime");
+        ContractTypeAdapters.DATE_ADAPTER.write(out, operation.lastActionDateTime);
+        out.name("message").value(operation.message);
+    }
+
+    /**
+     * Reads a field of an operation base class
+     *
+     * @param in The Json reader, positioned on the value of the field
+     * @param name The field name
+     * @param operation The operation to set the field of
+     * @return True if the field belongs to the base class and was read, false if the value was left unread
+     * @throws IOException Signals a failure while reading
+     */
+    private static boolean readOperation(JsonReader in, String name, Operation operation) throws IOException {
+        switch (name) {
+            case "status":
+                operation.status = STATUS_ADAPTER.read(in);
+                return true;
+            case "createdDateTime":
+                operation.createdDateTime = ContractTypeAdapters.DATE_ADAPTER.read(in);
+                return true;
+            case "lastActionDateTime":
+                operation.lastActionDateTime = ContractTypeAdapters.DATE_ADAPTER.read(in);
+                return true;
+            case "message":
+                operation.message = ContractTypeAdapters.nextString(in);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
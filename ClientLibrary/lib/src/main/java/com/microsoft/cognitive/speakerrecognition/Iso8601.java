@@ -0,0 +1,299 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+/**
+ * A package-private, thread-safe codec for the ISO-8601 timestamps of the service, such as "2015-04-23T18:25:43.511Z".
+ * It works on epoch milliseconds directly instead of going through a calendar or a date format.
+ */
+final class Iso8601 {
+
+    /**
+     * The number of milliseconds in a minute
+     */
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+
+    /**
+     * The length of a formatted timestamp
+     */
+    private static final int FORMATTED_LENGTH = 24;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The codec only has static methods
+     */
+    private Iso8601() {
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Parses a timestamp of the form yyyy-MM-ddTHH:mm:ss[.fraction][Z|&plusmn;hh[:mm]].
+     * A timestamp without a zone designator is taken as UTC, which is what the service uses.
+     * Digits of the fraction beyond milliseconds are ignored.
+     *
+     * @param value The timestamp
+     * @return The number of milliseconds since the epoch
+     * @throws IllegalArgumentException Thrown if the value is not a valid timestamp
+     */
+    static long parse(String value) {
+        int length = value.length();
+        if (length < 19 || value.charAt(4) != '-' || value.charAt(7) != '-' || !isTimeSeparator(value.charAt(10))
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            throw invalid(value);
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 60) {
+            throw invalid(value);
+        }
+
+        int index = 19;
+        int millis = 0;
+        if (index < length && value.charAt(index) == '.') {
+            int start = ++index;
+            while (index < length && isDigit(value.charAt(index))) {
+                if (index - start < 3) {
+                    millis = millis * 10 + (value.charAt(index) - '0');
+                }
+                index++;
+            }
+            if (index == start) {
+                throw invalid(value);
+            }
+            for (int i = index - start; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        int offsetMinutes = 0;
+        if (index < length) {
+            char designator = value.charAt(index);
+            if (designator == 'Z' || designator == 'z') {
+                index++;
+            } else if (designator == '+' || designator == '-') {
+                if (index + 3 > length) {
+                    throw invalid(value);
+                }
+                offsetMinutes = digits(value, index + 1, 2) * 60;
+                index += 3;
+                if (index < length && value.charAt(index) == ':') {
+                    index++;
+                }
+                if (index < length) {
+                    if (index + 2 > length) {
+                        throw invalid(value);
+                    }
+                    offsetMinutes += digits(value, index, 2);
+                    index += 2;
+                }
+                if (designator == '-') {
+                    offsetMinutes = -offsetMinutes;
+                }
+            }
+        }
+        if (index != length) {
+            throw invalid(value);
+        }
+
+        // A leap second is folded into the last second of its minute
+        second = Math.min(second, 59);
+        long minutes = (daysFromEpoch(year, month, day) * 24 + hour) * 60 + minute - offsetMinutes;
+        return minutes * MILLIS_PER_MINUTE + second * 1000L + millis;
+    }
+
+    /**
+     * Formats a timestamp in UTC as yyyy-MM-ddTHH:mm:ss.SSSZ
+     *
+     * @param epochMillis The number of milliseconds since the epoch
+     * @return The formatted timestamp
+     */
+    static String format(long epochMillis) {
+        long days = floorDiv(epochMillis, 24 * 60 * MILLIS_PER_MINUTE);
+        int millisOfDay = (int) (epochMillis - days * 24 * 60 * MILLIS_PER_MINUTE);
+
+        // Converts the day count to a civil date, counting eras of 400 years from March 1st, 0000
+        long shifted = days + 719468;
+        long era = floorDiv(shifted, 146097);
+        int dayOfEra = (int) (shifted - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        char[] buffer = new char[FORMATTED_LENGTH];
+        putDigits(buffer, 0, (int) year, 4);
+        buffer[4] = '-';
+        putDigits(buffer, 5, month, 2);
+        buffer[7] = '-';
+        putDigits(buffer, 8, day, 2);
+        buffer[10] = 'T';
+        putDigits(buffer, 11, millisOfDay / 3600000, 2);
+        buffer[13] = ':';
+        putDigits(buffer, 14, millisOfDay / 60000 % 60, 2);
+        buffer[16] = ':';
+        putDigits(buffer, 17, millisOfDay / 1000 % 60, 2);
+        buffer[19] = '.';
+        putDigits(buffer, 20, millisOfDay % 1000, 3);
+        buffer[23] = 'Z';
+        return new String(buffer);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Counts the days between the epoch and a civil date
+     *
+     * @param year The year
+     * @param month The month, from 1 to 12
+     * @param day The day of the month
+     * @return The number of days since January 1st, 1970
+     */
+    private static long daysFromEpoch(int year, int month, int day) {
+        // Counts from March 1st so that the leap day is the last day of the shifted year
+        int shiftedYear = month <= 2 ? year - 1 : year;
+        int era = shiftedYear / 400;
+        int yearOfEra = shiftedYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Gets the number of days in a month
+     *
+     * @param year The year
+     * @param month The month, from 1 to 12
+     * @return The number of days in the month
+     */
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Reads a fixed number of decimal digits
+     *
+     * @param value The text to read from
+     * @param start The index of the first digit
+     * @param count The number of digits
+     * @return The number the digits stand for
+     * @throws IllegalArgumentException Thrown if one of the characters is not a digit
+     */
+    private static int digits(String value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c)) {
+                throw invalid(value);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Writes a number as a fixed number of decimal digits, padded with zeros
+     *
+     * @param buffer The buffer to write to
+     * @param start The index of the first digit
+     * @param number The number, which must fit in the digits
+     * @param count The number of digits
+     */
+    private static void putDigits(char[] buffer, int start, int number, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            buffer[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+    }
+
+    /**
+     * Divides two numbers, rounding towards negative infinity
+     *
+     * @param dividend The dividend
+     * @param divisor The divisor, which must be positive
+     * @return The quotient
+     */
+    private static long floorDiv(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        return dividend % divisor < 0 ? quotient - 1 : quotient;
+    }
+
+    /**
+     * Checks whether a character is a decimal digit
+     *
+     * @param c The character
+     * @return True if the character is a digit
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Checks whether a character can separate the date from the time
+     *
+     * @param c The character
+     * @return True if the character is a date-time separator
+     */
+    private static boolean isTimeSeparator(char c) {
+        return c == 'T' || c == 't' || c == ' ';
+    }
+
+    /**
+     * Creates the exception thrown for an invalid timestamp
+     *
+     * @param value The invalid timestamp
+     * @return The exception
+     */
+    private static IllegalArgumentException invalid(String value) {
+        return new IllegalArgumentException("Invalid ISO-8601 timestamp: " + value);
+    }
+}
@@ -0,0 +1,110 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.util.Arrays;
+
+/**
+ * A package-private tracker of the most recent latencies of one kind of call
+ */
+class LatencyTracker {
+
+    /**
+     * The ring of the most recent latencies in milliseconds
+     */
+    private final long[] samples;
+
+    /**
+     * The number of recorded latencies, saturated at the ring size
+     */
+    private int sampleCount;
+
+    /**
+     * The ring position of the next latency
+     */
+    private int nextSample;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a tracker without observations
+     *
+     * @param capacity The number of recent latencies to keep
+     */
+    LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Records the latency of a call
+     *
+     * @param latencyMillis The call latency in milliseconds
+     */
+    synchronized void record(long latencyMillis) {
+        samples[nextSample] = latencyMillis;
+        nextSample = (nextSample + 1) % samples.length;
+        if (sampleCount < samples.length) {
+            sampleCount++;
+        }
+    }
+
+    /**
+     * Gets the number of recorded latencies
+     *
+     * @return The number of latencies, at most the tracker capacity
+     */
+    synchronized int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Computes a percentile of the recorded latencies
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The latency at the percentile in milliseconds, or -1 if nothing was recorded
+     */
+    long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, sampleCount);
+        }
+        if (sorted.length == 0) {
+            return -1;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
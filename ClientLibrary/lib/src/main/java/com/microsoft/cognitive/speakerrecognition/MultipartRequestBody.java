@@ -0,0 +1,346 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A package-private multipart/form-data request body holding a single binary part.
+ * The part headers are written first and the part content is then written from its buffer to the connection
+ * in large chunks. Audio read from a file is memory-mapped rather than copied onto the heap, and every write reads its
+ * own view of the buffer, so the body can be retried and written by concurrent hedged requests.
+ */
+class MultipartRequestBody implements RequestBody {
+
+    /**
+     * The size of the chunks the part content is copied in
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The most bytes of a stream held on the heap; longer streams are spilled to a temporary file
+     */
+    private static final int MAX_HEAP_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * The content type of the part
+     */
+    private static final String PART_CONTENT_TYPE = "multipart/form-data";
+
+    /**
+     * The characters a boundary is made of
+     */
+    private static final char[] BOUNDARY_CHARS =
+            "-_1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /**
+     * The length of a generated boundary
+     */
+    private static final int BOUNDARY_LENGTH = 32;
+
+    /**
+     * The charset the part headers are written in
+     */
+    private static final Charset HEADER_CHARSET = Charset.forName("US-ASCII");
+
+    /**
+     * The random generator boundaries are drawn from
+     */
+    private static final Random BOUNDARY_RANDOM = new Random();
+
+    /**
+     * The content type header value, including the boundary
+     */
+    private final String contentType;
+
+    /**
+     * The opening boundary and the part headers
+     */
+    private final byte[] head;
+
+    /**
+     * The closing boundary
+     */
+    private final byte[] tail;
+
+    /**
+     * The buffer holding the part content between its position and its limit
+     */
+    private final ByteBuffer contentBuffer;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a body with a single binary part read from a stream.
+     * The stream is read once, when the body is created: a file stream is memory-mapped from its current position
+     * without moving it, and any other stream is read to its end into a buffer, spilling to a temporary file once
+     * it outgrows the heap limit. The body can then be written any number of times.
+     *
+     * @param content The stream the part content is read from
+     * @param fieldName The form field name of the part
+     * @param fileName The file name of the part
+     * @return The body
+     * @throws IOException Signals a failure while reading or mapping the stream
+     */
+    static MultipartRequestBody fromStream(InputStream content, String fieldName, String fileName)
+            throws IOException {
+        if (content instanceof FileInputStream) {
+            ByteBuffer mapped = mapFileStream((FileInputStream) content);
+            if (mapped != null) {
+                return new MultipartRequestBody(mapped, fieldName, fileName);
+            }
+        }
+        return new MultipartRequestBody(readStream(content), fieldName, fileName);
+    }
+
+    /**
+     * Creates a body with a single binary part held in a buffer, which may be direct or memory-mapped.
+     * The bytes between the position and the limit of the buffer are sent; the buffer itself is left untouched.
+     *
+     * @param content The buffer holding the part content
+     * @param fieldName The form field name of the part
+     * @param fileName The file name of the part
+     */
+    MultipartRequestBody(ByteBuffer content, String fieldName, String fileName) {
+        String boundary = createBoundary();
+        this.contentType = "multipart/form-data; boundary=" + boundary;
+        this.head = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + fieldName + "\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + PART_CONTENT_TYPE + "\r\n"
+                + "Content-Transfer-Encoding: binary\r\n"
+                + "\r\n").getBytes(HEADER_CHARSET);
+        this.tail = ("\r\n--" + boundary + "--\r\n").getBytes(HEADER_CHARSET);
+        this.contentBuffer = content.duplicate();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public long getContentLength() {
+        return head.length + contentBuffer.remaining() + tail.length;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(head);
+        writeBuffer(contentBuffer.duplicate(), outputStream);
+        outputStream.write(tail);
+    }
+
+    @Override
+    public InputStream openStream() {
+        return new SequenceInputStream(new ByteArrayInputStream(head),
+                new SequenceInputStream(new ByteBufferInputStream(contentBuffer.duplicate()), new ByteArrayInputStream(tail)));
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Writes the remaining bytes of a buffer to an output stream.
+     * Heap buffers are written straight from their array; direct and mapped buffers go through a single chunk.
+     *
+     * @param buffer The buffer, consumed by the call
+     * @param outputStream The output stream
+     * @throws IOException Signals a failure while writing the content
+     */
+    private static void writeBuffer(ByteBuffer buffer, OutputStream outputStream) throws IOException {
+        if (buffer.hasArray()) {
+            outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, buffer.remaining())];
+        while (buffer.hasRemaining()) {
+            int length = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, length);
+            outputStream.write(chunk, 0, length);
+        }
+    }
+
+    /**
+     * Maps the rest of a file stream into memory, if it reads a regular file
+     *
+     * @param stream The file stream
+     * @return A read-only buffer over the rest of the file, or null if the stream reads a pipe or a device
+     */
+    private static ByteBuffer mapFileStream(FileInputStream stream) {
+        FileChannel channel = stream.getChannel();
+        try {
+            if (channel.size() > channel.position()) {
+                return SpeakerRestClientHelper.mapAudio(channel);
+            }
+        } catch (IOException e) {
+            // Pipes and devices have no position or can't be mapped, so they are read like any other stream
+        }
+        return null;
+    }
+
+    /**
+     * Reads a stream to its end into a buffer.
+     * The first bytes are kept on the heap; once the stream outgrows the heap limit, everything is written to a
+     * temporary file instead, which is mapped into memory and deleted while the mapping stays valid.
+     *
+     * @param stream The stream
+     * @return A buffer holding the content of the stream
+     * @throws IOException Signals a failure while reading the stream or spilling it to a temporary file
+     */
+    private static ByteBuffer readStream(InputStream stream) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int length = 0;
+        int bytesRead;
+        while ((bytesRead = stream.read(buffer, length, buffer.length - length)) != -1) {
+            length += bytesRead;
+            if (length == buffer.length) {
+                if (buffer.length >= MAX_HEAP_BUFFER_SIZE) {
+                    return spillStream(buffer, stream);
+                }
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+
+    /**
+     * Writes the bytes read so far and the rest of a stream to a temporary file and maps it into memory
+     *
+     * @param head The bytes already read from the stream
+     * @param stream The stream
+     * @return A read-only buffer over the content of the stream
+     * @throws IOException Signals a failure while reading the stream or writing the temporary file
+     */
+    private static ByteBuffer spillStream(byte[] head, InputStream stream) throws IOException {
+        File file = File.createTempFile("speaker-audio", ".tmp");
+        try {
+            FileOutputStream output = new FileOutputStream(file);
+            try {
+                output.write(head);
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int bytesRead;
+                while ((bytesRead = stream.read(chunk)) != -1) {
+                    output.write(chunk, 0, bytesRead);
+                }
+            } finally {
+                output.close();
+            }
+            return SpeakerRestClientHelper.mapAudio(file);
+        } finally {
+            // The mapping stays valid once the file is deleted
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Creates a random multipart boundary
+     *
+     * @return The boundary
+     */
+    private static String createBoundary() {
+        char[] boundary = new char[BOUNDARY_LENGTH];
+        synchronized (BOUNDARY_RANDOM) {
+            for (int i = 0; i < boundary.length; i++) {
+                boundary[i] = BOUNDARY_CHARS[BOUNDARY_RANDOM.nextInt(BOUNDARY_CHARS.length)];
+            }
+        }
+        return new String(boundary);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A stream reading the remaining bytes of a buffer
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        /**
+         * The buffer read, consumed by the stream
+         */
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
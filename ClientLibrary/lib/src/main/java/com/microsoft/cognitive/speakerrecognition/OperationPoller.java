@@ -0,0 +1,356 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Operation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Status;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class polls identification and enrollment operations until they complete.
+ * All outstanding operations share one scheduler, and the poll delays adapt to the completion times
+ * observed for previous operations of the same kind, so polls land close to the actual completion
+ * without issuing a request per fixed tick.
+ * Each poll sends its status request on a scheduler thread and blocks that thread until the response arrives,
+ * so a single-thread scheduler serializes the polls of all outstanding operations; give the scheduler as many
+ * threads as operations are expected to be polled at once.
+ */
+public class OperationPoller {
+
+    /**
+     * The default shortest delay between two polls of the same operation, in milliseconds
+     */
+    public static final long DEFAULT_MIN_INTERVAL_MILLIS = 100;
+
+    /**
+     * The default longest delay between two polls of the same operation, in milliseconds
+     */
+    public static final long DEFAULT_MAX_INTERVAL_MILLIS = 10000;
+
+    /**
+     * The completion time assumed until the first operation of a kind completes, in milliseconds
+     */
+    private static final long INITIAL_ESTIMATE_MILLIS = 1000;
+
+    /**
+     * The number of recent completion times kept per operation kind
+     */
+    private static final int ESTIMATOR_CAPACITY = 128;
+
+    /**
+     * The client used to query the operation status
+     */
+    private final SpeakerIdentificationClient client;
+
+    /**
+     * The scheduler running the polls of all outstanding operations
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The shortest delay between two polls, in milliseconds
+     */
+    private final long minIntervalMillis;
+
+    /**
+     * The longest delay between two polls, in milliseconds
+     */
+    private final long maxIntervalMillis;
+
+    /**
+     * The completion times of identification operations
+     */
+    private final CompletionTimeEstimator identificationEstimator = new CompletionTimeEstimator(ESTIMATOR_CAPACITY, INITIAL_ESTIMATE_MILLIS);
+
+    /**
+     * The completion times of enrollment operations
+     */
+    private final CompletionTimeEstimator enrollmentEstimator = new CompletionTimeEstimator(ESTIMATOR_CAPACITY, INITIAL_ESTIMATE_MILLIS);
+
+    /**
+     * The number of status requests sent
+     */
+    private final AtomicLong pollCount = new AtomicLong();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a poller with the default poll delay bounds
+     *
+     * @param client The client used to query the operation status
+     * @param scheduler The scheduler running the polls, whose threads block on the status requests
+     */
+    public OperationPoller(SpeakerIdentificationClient client, ScheduledExecutorService scheduler) {
+        this(client, scheduler, DEFAULT_MIN_INTERVAL_MILLIS, DEFAULT_MAX_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a poller with the given poll delay bounds
+     *
+     * @param client The client used to query the operation status
+     * @param scheduler The scheduler running the polls, whose threads block on the status requests
+     * @param minIntervalMillis The shortest delay between two polls of the same operation
+     * @param maxIntervalMillis The longest delay between two polls of the same operation
+     */
+    public OperationPoller(SpeakerIdentificationClient client, ScheduledExecutorService scheduler, long minIntervalMillis, long maxIntervalMillis) {
+        if (minIntervalMillis <= 0 || maxIntervalMillis < minIntervalMillis) {
+            throw new IllegalArgumentException("Invalid poll interval bounds");
+        }
+        this.client = client;
+        this.scheduler = scheduler;
+        this.minIntervalMillis = minIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Polls an identification operation until it succeeds or fails
+     *
+     * @param location The Url returned upon calling the identification operation
+     * @return A future of the final identification operation, failing with an IdentificationException or an IOException
+     */
+    public SpeakerFuture<IdentificationOperation> pollIdentification(OperationLocation location) {
+        PendingOperation<IdentificationOperation> pending = new PendingOperation<IdentificationOperation>(location, identificationEstimator) {
+            /**
+             * The holder reused by the polls that find the operation pending
+             */
+            private final IdentificationOperation pendingOperation = new IdentificationOperation();
+
+            @Override
+            IdentificationOperation check(OperationLocation location) throws Exception {
+                if (client instanceof ExtendedSpeakerIdentificationClient) {
+                    return ((ExtendedSpeakerIdentificationClient) client).pollIdentificationStatus(location, pendingOperation);
+                }
+                return client.checkIdentificationStatus(location);
+            }
+        };
+        pending.start();
+        return pending.future;
+    }
+
+    /**
+     * Polls an enrollment operation until it succeeds or fails
+     *
+     * @param location The Url returned upon calling the enrollment operation
+     * @return A future of the final enrollment operation, failing with an EnrollmentException or an IOException
+     */
+    public SpeakerFuture<EnrollmentOperation> pollEnrollment(OperationLocation location) {
+        PendingOperation<EnrollmentOperation> pending = new PendingOperation<EnrollmentOperation>(location, enrollmentEstimator) {
+            /**
+             * The holder reused by the polls that find the operation pending
+             */
+            private final EnrollmentOperation pendingOperation = new EnrollmentOperation();
+
+            @Override
+            EnrollmentOperation check(OperationLocation location) throws Exception {
+                if (client instanceof ExtendedSpeakerIdentificationClient) {
+                    return ((ExtendedSpeakerIdentificationClient) client).pollEnrollmentStatus(location, pendingOperation);
+                }
+                return client.checkEnrollmentStatus(location);
+            }
+        };
+        pending.start();
+        return pending.future;
+    }
+
+    /**
+     * Gets the number of status requests sent by this poller
+     *
+     * @return The number of status requests
+     */
+    public long getPollCount() {
+        return pollCount.get();
+    }
+
+    /**
+     * Clamps a poll delay to the configured bounds
+     *
+     * @param delayMillis The poll delay
+     * @return The clamped poll delay
+     */
+    private long clamp(long delayMillis) {
+        return Math.max(minIntervalMillis, Math.min(maxIntervalMillis, delayMillis));
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * An operation being polled
+     *
+     * @param <T> The type of the operation
+     */
+    private abstract class PendingOperation<T extends Operation> implements Runnable {
+
+        /**
+         * The Url of the operation
+         */
+        private final OperationLocation location;
+
+        /**
+         * The estimator of the completion times of this kind of operation
+         */
+        private final CompletionTimeEstimator estimator;
+
+        /**
+         * The future of the final operation
+         */
+        final SpeakerFuture<T> future = new SpeakerFuture<>();
+
+        /**
+         * The time the polling started, in milliseconds
+         */
+        private final long startMillis = now();
+
+        /**
+         * The time of the last poll that found the operation pending, in milliseconds
+         */
+        private long lastPendingMillis = startMillis;
+
+        /**
+         * Whether a poll found the operation pending
+         */
+        private boolean sawPending;
+
+        /**
+         * The last poll delay, in milliseconds
+         */
+        private long lastDelayMillis;
+
+        /**
+         * The next scheduled poll
+         */
+        private volatile ScheduledFuture<?> scheduledPoll;
+
+        PendingOperation(OperationLocation location, CompletionTimeEstimator estimator) {
+            this.location = location;
+            this.estimator = estimator;
+        }
+
+        /**
+         * Queries the operation status
+         *
+         * @param location The Url of the operation
+         * @return The operation status or result
+         * @throws Exception The typed service exception or an IOException
+         */
+        abstract T check(OperationLocation location) throws Exception;
+
+        /**
+         * Schedules the first poll
+         */
+        void start() {
+            future.setCancellationAction(new Runnable() {
+                @Override
+                public void run() {
+                    ScheduledFuture<?> poll = scheduledPoll;
+                    if (poll != null) {
+                        poll.cancel(false);
+                    }
+                }
+            });
+            schedule(null);
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+
+            T operation;
+            try {
+                pollCount.incrementAndGet();
+                operation = check(location);
+            } catch (Exception e) {
+                future.fail(e);
+                return;
+            }
+
+            long nowMillis = now();
+            if (operation.status == Status.SUCCEEDED || operation.status == Status.FAILED) {
+                if (sawPending) {
+                    // The operation completed somewhere between the last pending poll and this one
+                    estimator.record((lastPendingMillis + nowMillis) / 2 - startMillis);
+                } else {
+                    estimator.recordUpperBound(nowMillis - startMillis);
+                }
+                future.complete(operation);
+            } else {
+                lastPendingMillis = nowMillis;
+                sawPending = true;
+                schedule(operation.status);
+            }
+        }
+
+        /**
+         * Schedules the next poll according to the last observed status
+         *
+         * @param status The last observed status, or null before the first poll
+         */
+        private void schedule(Status status) {
+            long delay = estimator.nextDelay(now() - startMillis, lastDelayMillis);
+            if (status == Status.NOTSTARTED) {
+                // A queued operation won't complete sooner than a running one, so don't poll it faster
+                delay = Math.max(delay, lastDelayMillis);
+            }
+            lastDelayMillis = clamp(delay);
+            try {
+                scheduledPoll = scheduler.schedule(this, lastDelayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                future.fail(e);
+                return;
+            }
+            if (future.isDone()) {
+                scheduledPoll.cancel(false);
+            }
+        }
+
+        /**
+         * Reads a monotonic clock
+         *
+         * @return The current time in milliseconds
+         */
+        private long now() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,531 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.verification.PhrasesException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * This class caches the verification phrases of each locale in memory and in a directory,
+ * so that enrollment screens show the phrases without waiting on the service.
+ * Cached phrases older than the maximum age are still returned at once while they are refreshed on the executor;
+ * only a locale that was never fetched waits for the service, and concurrent lookups of such a locale share a single
+ * request. The phrases of a locale read from disk are
+ * reused across application restarts, and {@link #preload(String...)} fills the cache for the locales
+ * in use ahead of the first screen.
+ */
+public class PhraseCache {
+
+    /**
+     * The default age after which cached phrases are refreshed, in milliseconds
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * The version of the cache file format, files of other versions are ignored
+     */
+    private static final int FILE_VERSION = 1;
+
+    /**
+     * The prefix of the cache file names
+     */
+    private static final String FILE_PREFIX = "phrases-";
+
+    /**
+     * The suffix of the cache file names
+     */
+    private static final String FILE_SUFFIX = ".json";
+
+    /**
+     * The charset of the cache files
+     */
+    private static final String FILE_CHARSET = "UTF-8";
+
+    /**
+     * The client fetching the phrases
+     */
+    private final SpeakerVerificationClient client;
+
+    /**
+     * The directory holding the cache files, or null to keep the phrases in memory only
+     */
+    private final File directory;
+
+    /**
+     * The executor running the refreshes
+     */
+    private final Executor executor;
+
+    /**
+     * The age after which cached phrases are refreshed, in milliseconds
+     */
+    private final long maxAgeMillis;
+
+    /**
+     * The phrases held in memory, by normalized locale
+     */
+    private final Map<String, CachedPhrases> phrases = new HashMap<>();
+
+    /**
+     * The fetches in progress, by normalized locale
+     */
+    private final Map<String, SpeakerFuture<CachedPhrases>> fetches = new HashMap<>();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a phrase cache refreshing the phrases once a day
+     *
+     * @param client The client fetching the phrases
+     * @param directory The directory holding the cache files, such as the application cache directory,
+     *                  or null to keep the phrases in memory only
+     * @param executor The executor running the refreshes
+     */
+    public PhraseCache(SpeakerVerificationClient client, File directory, Executor executor) {
+        this(client, directory, executor, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * Creates a phrase cache
+     *
+     * @param client The client fetching the phrases
+     * @param directory The directory holding the cache files, such as the application cache directory,
+     *                  or null to keep the phrases in memory only
+     * @param executor The executor running the refreshes
+     * @param maxAgeMillis The age after which cached phrases are refreshed, in milliseconds
+     */
+    public PhraseCache(SpeakerVerificationClient client, File directory, Executor executor, long maxAgeMillis) {
+        this.client = client;
+        this.directory = directory;
+        this.executor = executor;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Loads the phrases of the given locales on the executor, reading them from disk
+     * and fetching the ones missing or out of date
+     *
+     * @param locales The locales in use
+     */
+    public void preload(String... locales) {
+        for (final String locale : locales) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    String key = normalize(locale);
+                    CachedPhrases cached = getCached(key);
+                    SpeakerFuture<CachedPhrases> fetch = cached == null || isStale(cached) ? startFetch(key) : null;
+                    if (fetch != null) {
+                        refresh(locale, key, fetch);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the verification phrases of a locale, from the cache when they are there.
+     * Phrases older than the maximum age are returned as they are and refreshed in the background.
+     *
+     * @param locale The locale of the phrases
+     * @return An unmodifiable list of all verification phrases
+     * @throws PhrasesException Thrown in case of invalid locale or internal server error
+     * @throws IOException Signals an invalid locale encoding, a connection abortion, or an invalid response content
+     * @throws URISyntaxException Signals that the endpoint string could not be parsed as a URI reference
+     */
+    public List<VerificationPhrase> getPhrases(final String locale) throws PhrasesException, IOException, URISyntaxException {
+        final String key = normalize(locale);
+        CachedPhrases cached = getCached(key);
+        if (cached == null) {
+            SpeakerFuture<CachedPhrases> fetch;
+            boolean fetching;
+            synchronized (this) {
+                fetch = fetches.get(key);
+                fetching = fetch == null;
+                if (fetching) {
+                    fetch = new SpeakerFuture<>();
+                    fetches.put(key, fetch);
+                }
+            }
+            return (fetching ? runFetch(locale, key, fetch) : awaitFetch(fetch)).phrases;
+        }
+        final SpeakerFuture<CachedPhrases> fetch = isStale(cached) ? startFetch(key) : null;
+        if (fetch != null) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    refresh(locale, key, fetch);
+                }
+            });
+        }
+        return cached.phrases;
+    }
+
+    /**
+     * Drops the phrases of all locales from memory and from disk
+     */
+    public void clear() {
+        synchronized (this) {
+            phrases.clear();
+        }
+        File[] files = directory != null ? directory.listFiles() : null;
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+                file.delete();
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Registers a fetch of a locale unless one is already in progress
+     *
+     * @param key The normalized locale
+     * @return The fetch the caller is to run, or null if the locale is already being fetched
+     */
+    private synchronized SpeakerFuture<CachedPhrases> startFetch(String key) {
+        if (fetches.containsKey(key)) {
+            return null;
+        }
+        SpeakerFuture<CachedPhrases> fetch = new SpeakerFuture<>();
+        fetches.put(key, fetch);
+        return fetch;
+    }
+
+    /**
+     * Runs a fetch registered by {@link #startFetch(String)}, keeping the cached phrases if the service can't be reached
+     *
+     * @param locale The locale of the phrases
+     * @param key The normalized locale
+     * @param fetch The registered fetch
+     */
+    private void refresh(String locale, String key, SpeakerFuture<CachedPhrases> fetch) {
+        try {
+            runFetch(locale, key, fetch);
+        } catch (PhrasesException | IOException | URISyntaxException ignored) {
+            // The cached phrases are kept and refreshed again on the next lookup
+        }
+    }
+
+    /**
+     * Runs a registered fetch and hands its outcome to the callers waiting for it
+     *
+     * @param locale The locale of the phrases
+     * @param key The normalized locale
+     * @param fetch The registered fetch
+     * @return The fetched phrases
+     * @throws PhrasesException Thrown in case of invalid locale or internal server error
+     * @throws IOException Signals an invalid locale encoding, a connection abortion, or an invalid response content
+     * @throws URISyntaxException Signals that the endpoint string could not be parsed as a URI reference
+     */
+    private CachedPhrases runFetch(String locale, String key, SpeakerFuture<CachedPhrases> fetch)
+            throws PhrasesException, IOException, URISyntaxException {
+        try {
+            CachedPhrases cached = fetch(locale, key);
+            fetch.complete(cached);
+            return cached;
+        } catch (PhrasesException | IOException | URISyntaxException | RuntimeException e) {
+            fetch.fail(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                fetches.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Waits for a fetch run by another caller
+     *
+     * @param fetch The fetch
+     * @return The fetched phrases
+     * @throws PhrasesException Thrown if the fetch failed with it
+     * @throws IOException Thrown if the fetch failed with it, or if the thread was interrupted while waiting
+     * @throws URISyntaxException Thrown if the fetch failed with it
+     */
+    private static CachedPhrases awaitFetch(SpeakerFuture<CachedPhrases> fetch) throws PhrasesException, IOException, URISyntaxException {
+        try {
+            return fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the phrases");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PhrasesException) {
+                throw (PhrasesException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Fetches the phrases of a locale and stores them in memory and on disk
+     *
+     * @param locale The locale of the phrases
+     * @param key The normalized locale
+     * @return The fetched phrases
+     * @throws PhrasesException Thrown in case of invalid locale or internal server error
+     * @throws IOException Signals an invalid locale encoding, a connection abortion, or an invalid response content
+     * @throws URISyntaxException Signals that the endpoint string could not be parsed as a URI reference
+     */
+    private CachedPhrases fetch(String locale, String key) throws PhrasesException, IOException, URISyntaxException {
+        List<VerificationPhrase> fetched = client.getPhrases(locale);
+        CachedPhrases cached = new CachedPhrases(Collections.unmodifiableList(new ArrayList<>(fetched)), System.currentTimeMillis());
+        synchronized (this) {
+            phrases.put(key, cached);
+        }
+        if (directory != null) {
+            try {
+                writeFile(key, cached);
+            } catch (IOException ignored) {
+                // The phrases are still served from memory and written again on the next refresh
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Gets the cached phrases of a locale from memory, or from disk on the first lookup
+     *
+     * @param key The normalized locale
+     * @return The cached phrases, or null if the locale isn't cached
+     */
+    private CachedPhrases getCached(String key) {
+        CachedPhrases cached;
+        synchronized (this) {
+            cached = phrases.get(key);
+        }
+        if (cached != null || directory == null) {
+            return cached;
+        }
+        cached = readFile(key);
+        if (cached == null) {
+            return null;
+        }
+        synchronized (this) {
+            CachedPhrases current = phrases.get(key);
+            if (current != null) {
+                return current;
+            }
+            phrases.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Tells whether cached phrases are due for a refresh
+     *
+     * @param cached The cached phrases
+     * @return True if the phrases are older than the maximum age
+     */
+    private boolean isStale(CachedPhrases cached) {
+        return System.currentTimeMillis() - cached.fetchedAtMillis >= maxAgeMillis;
+    }
+
+    /**
+     * Reads the cache file of a locale, deleting it if it can't be read
+     *
+     * @param key The normalized locale
+     * @return The cached phrases, or null if there is no usable file
+     */
+    private CachedPhrases readFile(String key) {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            JsonReader reader = new JsonReader(new InputStreamReader(new FileInputStream(file), FILE_CHARSET));
+            try {
+                int version = -1;
+                long fetchedAtMillis = -1;
+                List<VerificationPhrase> list = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "version":
+                            version = reader.nextInt();
+                            break;
+                        case "fetchedAt":
+                            fetchedAtMillis = reader.nextLong();
+                            break;
+                        case "phrases":
+                            list = new ArrayList<>();
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                list.add(VerificationTypeAdapters.VERIFICATION_PHRASE_ADAPTER.read(reader));
+                            }
+                            reader.endArray();
+                            break;
+                        default:
+                            reader.skipValue();
+                            break;
+                    }
+                }
+                reader.endObject();
+                if (version == FILE_VERSION && fetchedAtMillis >= 0 && list != null) {
+                    return new CachedPhrases(Collections.unmodifiableList(list), fetchedAtMillis);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | JsonParseException | IllegalStateException | NumberFormatException ignored) {
+            // A truncated or foreign file is dropped below and replaced on the next fetch
+        }
+        file.delete();
+        return null;
+    }
+
+    /**
+     * Writes the cache file of a locale, replacing the previous one only once the new one is complete
+     *
+     * @param key The normalized locale
+     * @param cached The phrases to write
+     * @throws IOException Signals an I/O issue while writing the file
+     */
+    private void writeFile(String key, CachedPhrases cached) throws IOException {
+        File temp = File.createTempFile(FILE_PREFIX, ".tmp", directory);
+        boolean written = false;
+        try {
+            JsonWriter writer = new JsonWriter(new OutputStreamWriter(new FileOutputStream(temp), FILE_CHARSET));
+            try {
+                writer.beginObject();
+                writer.name("version").value(FILE_VERSION);
+                writer.name("fetchedAt").value(cached.fetchedAtMillis);
+                writer.name("phrases").beginArray();
+                for (VerificationPhrase phrase : cached.phrases) {
+                    VerificationTypeAdapters.VERIFICATION_PHRASE_ADAPTER.write(writer, phrase);
+                }
+                writer.endArray();
+                writer.endObject();
+            } finally {
+                writer.close();
+            }
+            written = temp.renameTo(getFile(key));
+            if (!written) {
+                throw new IOException("Unable to replace the phrase cache file of " + key);
+            }
+        } finally {
+            if (!written) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Gets the cache file of a locale
+     *
+     * @param key The normalized locale
+     * @return The cache file
+     */
+    private File getFile(String key) {
+        StringBuilder name = new StringBuilder(FILE_PREFIX);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            name.append(safe ? c : '_');
+        }
+        return new File(directory, name.append(FILE_SUFFIX).toString());
+    }
+
+    /**
+     * Normalizes a locale, which the service matches regardless of case
+     *
+     * @param locale The locale
+     * @return The lower-case locale
+     */
+    private static String normalize(String locale) {
+        return locale.toLowerCase(Locale.US);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The phrases of a locale along with the time they were fetched
+     */
+    private static class CachedPhrases {
+
+        /**
+         * The unmodifiable phrases
+         */
+        final List<VerificationPhrase> phrases;
+
+        /**
+         * The time the phrases were fetched, in milliseconds since the epoch
+         */
+        final long fetchedAtMillis;
+
+        /**
+         * Creates cached phrases
+         *
+         * @param phrases The unmodifiable phrases
+         * @param fetchedAtMillis The time the phrases were fetched, in milliseconds since the epoch
+         */
+        CachedPhrases(List<VerificationPhrase> phrases, long fetchedAtMillis) {
+            this.phrases = phrases;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+    }
+}
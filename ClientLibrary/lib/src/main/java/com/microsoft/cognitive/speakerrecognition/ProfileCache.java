@@ -0,0 +1,336 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileNotFoundException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A package-private cache of profiles by ID, with a time to live and least recently used eviction.
+ * Concurrent loads of the same profile collapse into a single load, and deleted or missing profiles are remembered
+ * so that looking them up again doesn't reach the service.
+ *
+ * @param <V> The profile type
+ */
+class ProfileCache<V> {
+
+    /**
+     * The most profiles kept
+     */
+    private final int maxEntries;
+
+    /**
+     * The time a profile is kept, in milliseconds
+     */
+    private final long ttlMillis;
+
+    /**
+     * The cached profiles, in access order
+     */
+    private final LinkedHashMap<UUID, CachedProfile<V>> entries;
+
+    /**
+     * The loads in progress
+     */
+    private final Map<UUID, PendingLoad<V>> loads = new HashMap<>();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a profile cache
+     *
+     * @param maxEntries The most profiles kept
+     * @param ttlMillis The time a profile is kept, in milliseconds
+     */
+    ProfileCache(final int maxEntries, long ttlMillis) {
+        if (maxEntries <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("The cache size and time to live must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<UUID, CachedProfile<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedProfile<V>> eldest) {
+                return size() > ProfileCache.this.maxEntries;
+            }
+        };
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets a profile, loading it if it isn't cached. A caller arriving while the same profile is being loaded
+     * waits for that load and gets its result or failure.
+     *
+     * @param id The profile ID
+     * @param loader The loader fetching the profile from the service
+     * @return The profile
+     * @throws GetProfileException Thrown by the loader, or as a {@link ProfileNotFoundException} if the profile
+     * was deleted or a recent load found it missing
+     * @throws IOException Thrown by the loader, or if the thread was interrupted while waiting for another load
+     */
+    V get(UUID id, Loader<V> loader) throws GetProfileException, IOException {
+        PendingLoad<V> load;
+        boolean loading = false;
+        synchronized (this) {
+            CachedProfile<V> entry = entries.get(id);
+            if (entry != null && entry.expiresAtMillis > now()) {
+                if (entry.deleted) {
+                    throw new ProfileNotFoundException("Profile " + id + " was deleted or doesn't exist");
+                }
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(id);
+            }
+            load = loads.get(id);
+            if (load == null) {
+                load = new PendingLoad<>();
+                loads.put(id, load);
+                loading = true;
+            }
+        }
+        if (!loading) {
+            return load.await();
+        }
+
+        V value;
+        try {
+            value = loader.load();
+        } catch (Throwable e) {
+            synchronized (this) {
+                if (loads.get(id) == load) {
+                    loads.remove(id);
+                    if (e instanceof ProfileNotFoundException) {
+                        entries.put(id, new CachedProfile<V>(null, true, now() + ttlMillis));
+                    }
+                }
+            }
+            load.complete(null, e);
+            throw e;
+        }
+        synchronized (this) {
+            // A profile changed or deleted while it was loading is not cached
+            if (loads.get(id) == load) {
+                loads.remove(id);
+                entries.put(id, new CachedProfile<>(value, false, now() + ttlMillis));
+            }
+        }
+        load.complete(value, null);
+        return value;
+    }
+
+    /**
+     * Gets a cached profile without loading it
+     *
+     * @param id The profile ID
+     * @return The profile, or null if it isn't cached, expired or was deleted
+     */
+    synchronized V getIfPresent(UUID id) {
+        CachedProfile<V> entry = entries.get(id);
+        if (entry == null || entry.deleted || entry.expiresAtMillis <= now()) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Caches a profile known to be current, superseding any load in progress
+     *
+     * @param id The profile ID
+     * @param value The profile
+     */
+    synchronized void put(UUID id, V value) {
+        loads.remove(id);
+        entries.put(id, new CachedProfile<>(value, false, now() + ttlMillis));
+    }
+
+    /**
+     * Remembers that a profile was deleted, superseding any load in progress
+     *
+     * @param id The profile ID
+     */
+    synchronized void markDeleted(UUID id) {
+        loads.remove(id);
+        entries.put(id, new CachedProfile<V>(null, true, now() + ttlMillis));
+    }
+
+    /**
+     * Drops a profile so that it is loaded again on the next lookup
+     *
+     * @param id The profile ID
+     */
+    synchronized void invalidate(UUID id) {
+        loads.remove(id);
+        entries.remove(id);
+    }
+
+    /**
+     * Drops all profiles
+     */
+    synchronized void clear() {
+        loads.clear();
+        entries.clear();
+    }
+
+    /**
+     * Reads a monotonic clock
+     *
+     * @return The current time in milliseconds
+     */
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Fetches a profile from the service
+     *
+     * @param <V> The profile type
+     */
+    interface Loader<V> {
+
+        /**
+         * Fetches the profile
+         *
+         * @return The profile
+         * @throws GetProfileException Thrown in cases of invalid ID or an internal server error
+         * @throws IOException Signals a connection abortion, or an invalid response content
+         */
+        V load() throws GetProfileException, IOException;
+    }
+
+    /**
+     * A cached profile
+     *
+     * @param <V> The profile type
+     */
+    private static class CachedProfile<V> {
+
+        /**
+         * The profile, or null if it was deleted or found missing
+         */
+        final V value;
+
+        /**
+         * Whether the profile was deleted or found missing
+         */
+        final boolean deleted;
+
+        /**
+         * The time the entry expires, in milliseconds
+         */
+        final long expiresAtMillis;
+
+        CachedProfile(V value, boolean deleted, long expiresAtMillis) {
+            this.value = value;
+            this.deleted = deleted;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * A load in progress, shared by the callers looking up the same profile
+     *
+     * @param <V> The profile type
+     */
+    private static class PendingLoad<V> {
+
+        /**
+         * Released once the load completes
+         */
+        private final CountDownLatch completion = new CountDownLatch(1);
+
+        /**
+         * The loaded profile
+         */
+        private volatile V value;
+
+        /**
+         * The load failure, or null if the load succeeded
+         */
+        private volatile Throwable failure;
+
+        /**
+         * Publishes the result of the load to the waiting callers
+         *
+         * @param value The loaded profile
+         * @param failure The load failure, or null if the load succeeded
+         */
+        void complete(V value, Throwable failure) {
+            this.value = value;
+            this.failure = failure;
+            completion.countDown();
+        }
+
+        /**
+         * Waits for the load and returns its result
+         *
+         * @return The loaded profile
+         * @throws GetProfileException Thrown if the load failed with it
+         * @throws IOException Thrown if the load failed with it, or if the thread was interrupted
+         */
+        V await() throws GetProfileException, IOException {
+            try {
+                completion.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a profile load");
+            }
+            Throwable error = failure;
+            if (error == null) {
+                return value;
+            }
+            if (error instanceof GetProfileException) {
+                throw (GetProfileException) error;
+            }
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            throw (Error) error;
+        }
+    }
+}
@@ -0,0 +1,899 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentStatus;
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileBase;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * A local catalog of speaker profiles, kept in a memory-mapped file so that it is available right after startup
+ * without listing the profiles from the service, and without holding the profiles on the heap.
+ * Profiles are stored in fixed-size records of an open-addressing hash table keyed by profile ID, so looking a
+ * profile up reads a few bytes of the mapped file. A catalog holds either identification or verification profiles.
+ * The catalog mirrors the service and isn't journaled: fill it with {@link #load(Iterator)}, and load it again
+ * if {@link #isLoaded()} reports that the last load didn't finish. Replacing a stored profile writes the new record
+ * beside the old one before dropping the old one, so a crash midway leaves one of the two rather than neither.
+ *
+ * @param <T> The profile type, either the identification or the verification {@code Profile}
+ */
+public class ProfileCatalog<T extends ProfileBase> implements Closeable {
+
+    /**
+     * The magic number opening a catalog file
+     */
+    private static final int MAGIC = 0x53524b43;
+
+    /**
+     * The version of the catalog file format
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * The size of the file header, in bytes
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * The size of a profile record, in bytes
+     */
+    private static final int RECORD_SIZE = 72;
+
+    /**
+     * The most bytes of a locale kept in a record
+     */
+    private static final int LOCALE_BYTES = 16;
+
+    /**
+     * The number of records of a new catalog
+     */
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * The largest fraction of the records holding a profile or a deleted marker, both when sizing and growing the catalog
+     */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    /**
+     * The most records of a catalog, keeping the mapping below 2 GB
+     */
+    private static final int MAX_CAPACITY = 1 << 24;
+
+    /**
+     * The charset of the stored locales
+     */
+    private static final Charset LOCALE_CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * The stored value of a missing date
+     */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    /**
+     * The header offset of the magic number
+     */
+    private static final int HEADER_MAGIC = 0;
+
+    /**
+     * The header offset of the file format version
+     */
+    private static final int HEADER_VERSION = 4;
+
+    /**
+     * The header offset of the profile type
+     */
+    private static final int HEADER_KIND = 8;
+
+    /**
+     * The header offset of the number of records
+     */
+    private static final int HEADER_CAPACITY = 12;
+
+    /**
+     * The header offset of the number of profiles
+     */
+    private static final int HEADER_SIZE_FIELD = 16;
+
+    /**
+     * The header offset of the number of records holding a profile or a deleted marker
+     */
+    private static final int HEADER_OCCUPIED = 20;
+
+    /**
+     * The header offset of the flag set once a load finishes
+     */
+    private static final int HEADER_LOADED = 24;
+
+    /**
+     * The header offset of the generation of the current or last sync
+     */
+    private static final int HEADER_GENERATION = 25;
+
+    /**
+     * The header offset of the record being replaced by a new one, 0 unless a replacement is under way
+     */
+    private static final int HEADER_REPLACED = 28;
+
+    /**
+     * The record offset of the most significant bits of the profile ID
+     */
+    private static final int RECORD_ID_MOST = 0;
+
+    /**
+     * The record offset of the least significant bits of the profile ID
+     */
+    private static final int RECORD_ID_LEAST = 8;
+
+    /**
+     * The record offset of the creation time
+     */
+    private static final int RECORD_CREATED = 16;
+
+    /**
+     * The record offset of the last action time
+     */
+    private static final int RECORD_LAST_ACTION = 24;
+
+    /**
+     * The record offset of the fields specific to the profile type
+     */
+    private static final int RECORD_SPECIFICS = 32;
+
+    /**
+     * The record offset of the record state
+     */
+    private static final int RECORD_STATE = 48;
+
+    /**
+     * The record offset of the enrollment status, 0 if missing or its ordinal plus one
+     */
+    private static final int RECORD_ENROLLMENT_STATUS = 49;
+
+    /**
+     * The record offset of the locale length, -1 if missing
+     */
+    private static final int RECORD_LOCALE_LENGTH = 50;
+
+    /**
+     * The record offset of the locale bytes
+     */
+    private static final int RECORD_LOCALE = 51;
+
+    /**
+     * The record offset of the generation of the sync that last saw the profile
+     */
+    private static final int RECORD_SYNC_MARK = 67;
+
+    /**
+     * The record offset of the checksum of the profile fields
+     */
+    private static final int RECORD_CHECKSUM = 68;
+
+    /**
+     * The state of a record that never held a profile
+     */
+    private static final byte STATE_EMPTY = 0;
+
+    /**
+     * The state of a record holding a profile
+     */
+    private static final byte STATE_USED = 1;
+
+    /**
+     * The state of a record whose profile was removed
+     */
+    private static final byte STATE_DELETED = 2;
+
+    /**
+     * The catalog file
+     */
+    private final File file;
+
+    /**
+     * The format of the profile records
+     */
+    private final ProfileRecordFormat<T> format;
+
+    /**
+     * The open catalog file
+     */
+    private RandomAccessFile randomAccessFile;
+
+    /**
+     * The mapping of the catalog file
+     */
+    private MappedByteBuffer buffer;
+
+    /**
+     * The number of records, a power of two
+     */
+    private int capacity;
+
+    /**
+     * The number of profiles
+     */
+    private int size;
+
+    /**
+     * The number of records holding a profile or a deleted marker
+     */
+    private int occupied;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Opens a catalog file, creating it if it doesn't exist.
+     * A file of an older format or left inconsistent is started over empty.
+     *
+     * @param file The catalog file
+     * @param profileClass The profile type, either the identification or the verification {@code Profile} class
+     * @throws IOException Signals an I/O issue while opening or mapping the file, or a file that isn't a catalog of this profile type
+     */
+    @SuppressWarnings("unchecked")
+    public ProfileCatalog(File file, Class<T> profileClass) throws IOException {
+        this.format = (ProfileRecordFormat<T>) ProfileRecordFormat.forType(profileClass);
+        if (format == null) {
+            throw new IllegalArgumentException("Not a speaker profile class: " + profileClass.getName());
+        }
+        this.file = file;
+        open();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets a profile from the catalog
+     *
+     * @param id The speaker profile ID
+     * @return A new profile holding the stored fields, or null if the profile isn't in the catalog
+     */
+    public synchronized T get(UUID id) {
+        ensureOpen();
+        int offset = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return offset < 0 ? null : readRecord(offset);
+    }
+
+    /**
+     * Tells whether a profile is in the catalog
+     *
+     * @param id The speaker profile ID
+     * @return True if the profile is in the catalog
+     */
+    public synchronized boolean contains(UUID id) {
+        ensureOpen();
+        return find(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0;
+    }
+
+    /**
+     * Adds a profile to the catalog, replacing the stored profile with the same ID
+     *
+     * @param profile The profile to store
+     * @throws IOException Signals an I/O issue while growing the catalog file
+     */
+    public synchronized void put(T profile) throws IOException {
+        ensureOpen();
+        UUID id = format.getId(profile);
+        if (id == null) {
+            throw new IllegalArgumentException("The profile has no ID");
+        }
+        byte[] locale = encodeLocale(profile.locale);
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        int replaced = find(most, least);
+        if (occupied + 1 > capacity * MAX_LOAD_FACTOR) {
+            rehash(capacityFor(size + 1));
+            replaced = find(most, least);
+        }
+        int offset = findSlot(most, least);
+        if (buffer.get(offset + RECORD_STATE) == STATE_EMPTY) {
+            occupied++;
+            writeCounts();
+        }
+        if (replaced < 0) {
+            writeRecord(offset, most, least, profile, locale);
+            size++;
+            writeCounts();
+            return;
+        }
+
+        // The stored record stays in place until the new one is complete, and the header tells a reopened catalog
+        // which of the two to keep if a crash leaves both
+        buffer.putInt(HEADER_REPLACED, replaced);
+        writeRecord(offset, most, least, profile, locale);
+        buffer.put(replaced + RECORD_STATE, STATE_DELETED);
+        buffer.putInt(HEADER_REPLACED, 0);
+    }
+
+    /**
+     * Removes a profile from the catalog
+     *
+     * @param id The speaker profile ID
+     * @return True if the profile was in the catalog
+     */
+    public synchronized boolean remove(UUID id) {
+        ensureOpen();
+        int offset = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (offset < 0) {
+            return false;
+        }
+        buffer.put(offset + RECORD_STATE, STATE_DELETED);
+        size--;
+        writeCounts();
+        return true;
+    }
+
+    /**
+     * Gets the number of profiles in the catalog
+     *
+     * @return The number of profiles
+     */
+    public synchronized int size() {
+        ensureOpen();
+        return size;
+    }
+
+    /**
+     * Tells whether the last {@link #load(Iterator)} of the catalog finished
+     *
+     * @return True if the catalog was loaded in full, false if it is new or a load failed midway
+     */
+    public synchronized boolean isLoaded() {
+        ensureOpen();
+        return buffer.get(HEADER_LOADED) != 0;
+    }
+
+    /**
+     * Removes all profiles from the catalog
+     *
+     * @throws IOException Signals an I/O issue while recreating the catalog file
+     */
+    public synchronized void clear() throws IOException {
+        ensureOpen();
+        rehash(MIN_CAPACITY, false);
+    }
+
+    /**
+     * Replaces the profiles of the catalog with the given ones, such as the profiles of
+     * {@link ExtendedSpeakerIdentificationClient#streamProfiles()} or {@link ExtendedSpeakerVerificationClient#streamProfiles()}.
+     * Failures while reading a {@link ProfileIterator} are thrown as {@link com.google.gson.JsonIOException};
+     * the catalog then holds the profiles read so far and {@link #isLoaded()} is false until a load finishes.
+     * A {@link Closeable} iterator is closed.
+     *
+     * @param profiles The profiles of the service
+     * @return The number of profiles loaded
+     * @throws IOException Signals an I/O issue while writing the catalog file
+     */
+    public synchronized int load(Iterator<? extends T> profiles) throws IOException {
+        ensureOpen();
+        try {
+            clear();
+            while (profiles.hasNext()) {
+                put(profiles.next());
+            }
+            buffer.put(HEADER_LOADED, (byte) 1);
+            buffer.force();
+            return size;
+        } finally {
+            if (profiles instanceof Closeable) {
+                ((Closeable) profiles).close();
+            }
+        }
+    }
+
+    /**
+     * Gets the record format of the catalog
+     *
+     * @return The record format
+     */
+    ProfileRecordFormat<T> getFormat() {
+        return format;
+    }
+
+    /**
+     * Starts a sync of the catalog with a listing of the service.
+     * Profiles stored from now on are marked as seen by the sync.
+     */
+    synchronized void startSync() {
+        ensureOpen();
+        int generation = buffer.get(HEADER_GENERATION) & 0xff;
+        buffer.put(HEADER_GENERATION, (byte) (generation == 0xff ? 1 : generation + 1));
+    }
+
+    /**
+     * Marks a profile as seen by the current sync without changing it
+     *
+     * @param id The speaker profile ID
+     * @return True if the profile is in the catalog
+     */
+    synchronized boolean markSeen(UUID id) {
+        ensureOpen();
+        int offset = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (offset < 0) {
+            return false;
+        }
+        buffer.put(offset + RECORD_SYNC_MARK, buffer.get(HEADER_GENERATION));
+        return true;
+    }
+
+    /**
+     * Finishes a sync by removing the profiles it didn't see, and marks the catalog as loaded.
+     * Every profile left is either seen by the sync or removed, so the marks of the previous syncs never linger.
+     *
+     * @return The removed profiles
+     */
+    synchronized List<T> finishSync() {
+        ensureOpen();
+        byte generation = buffer.get(HEADER_GENERATION);
+        List<T> removed = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = HEADER_SIZE + slot * RECORD_SIZE;
+            if (buffer.get(offset + RECORD_STATE) == STATE_USED && buffer.get(offset + RECORD_SYNC_MARK) != generation) {
+                removed.add(readRecord(offset));
+                buffer.put(offset + RECORD_STATE, STATE_DELETED);
+                size--;
+            }
+        }
+        writeCounts();
+        buffer.put(HEADER_LOADED, (byte) 1);
+        buffer.force();
+        return removed;
+    }
+
+    /**
+     * Writes the pending changes of the catalog to its file
+     */
+    public synchronized void flush() {
+        ensureOpen();
+        buffer.force();
+    }
+
+    /**
+     * Writes the pending changes and closes the catalog file
+     *
+     * @throws IOException Signals an I/O issue while closing the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (randomAccessFile == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            randomAccessFile.close();
+        } finally {
+            randomAccessFile = null;
+            buffer = null;
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Opens and maps the catalog file, starting it over if it can't be used as it is
+     *
+     * @throws IOException Signals an I/O issue while opening or mapping the file, or a file that isn't a catalog of this profile type
+     */
+    private void open() throws IOException {
+        RandomAccessFile opened = new RandomAccessFile(file, "rw");
+        try {
+            long length = opened.length();
+            if (length >= HEADER_SIZE) {
+                opened.seek(HEADER_MAGIC);
+                int magic = opened.readInt();
+                int version = opened.readInt();
+                int kind = opened.readInt();
+                int storedCapacity = opened.readInt();
+                if ((magic != MAGIC && magic != 0) || (version == VERSION && kind != format.kind)) {
+                    throw new IOException(file + " is not a catalog of " + format.profileClass.getName() + " profiles");
+                }
+                if (version == VERSION && storedCapacity >= MIN_CAPACITY && storedCapacity <= MAX_CAPACITY
+                        && Integer.bitCount(storedCapacity) == 1 && length == fileLength(storedCapacity)) {
+                    map(opened, storedCapacity);
+                    size = buffer.getInt(HEADER_SIZE_FIELD);
+                    occupied = buffer.getInt(HEADER_OCCUPIED);
+                    if (size >= 0 && occupied >= size && occupied <= storedCapacity) {
+                        finishReplacement();
+                        return;
+                    }
+                }
+            }
+            opened.setLength(0);
+            opened.setLength(fileLength(MIN_CAPACITY));
+            map(opened, MIN_CAPACITY);
+            size = 0;
+            occupied = 0;
+            writeHeader(buffer, MIN_CAPACITY);
+            buffer.force();
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile = null;
+            buffer = null;
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Finishes a replacement interrupted by a crash. The new record is kept if it was completed,
+     * otherwise the replaced record is.
+     */
+    private void finishReplacement() {
+        int replaced = buffer.getInt(HEADER_REPLACED);
+        if (replaced == 0) {
+            return;
+        }
+        if (replaced >= HEADER_SIZE && replaced < fileLength(capacity) && (replaced - HEADER_SIZE) % RECORD_SIZE == 0
+                && buffer.get(replaced + RECORD_STATE) == STATE_USED) {
+            long most = buffer.getLong(replaced + RECORD_ID_MOST);
+            long least = buffer.getLong(replaced + RECORD_ID_LEAST);
+            int mask = capacity - 1;
+            for (int slot = hash(most, least) & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+                int offset = HEADER_SIZE + slot * RECORD_SIZE;
+                byte state = buffer.get(offset + RECORD_STATE);
+                if (state == STATE_EMPTY) {
+                    break;
+                }
+                if (offset != replaced && state == STATE_USED && buffer.getLong(offset + RECORD_ID_MOST) == most
+                        && buffer.getLong(offset + RECORD_ID_LEAST) == least) {
+                    // A new record whose writes didn't all reach the file is dropped in favor of the replaced one
+                    boolean complete = buffer.getInt(offset + RECORD_CHECKSUM) == checksum(buffer, offset);
+                    buffer.put((complete ? replaced : offset) + RECORD_STATE, STATE_DELETED);
+                    break;
+                }
+            }
+        }
+        buffer.putInt(HEADER_REPLACED, 0);
+        buffer.force();
+    }
+
+    /**
+     * Maps an open catalog file
+     *
+     * @param opened The open catalog file
+     * @param newCapacity The number of records of the file
+     * @throws IOException Signals an I/O issue while mapping the file
+     */
+    private void map(RandomAccessFile opened, int newCapacity) throws IOException {
+        buffer = opened.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileLength(newCapacity));
+        randomAccessFile = opened;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Moves the profiles to a new catalog file of the given capacity, dropping the deleted markers
+     *
+     * @param newCapacity The number of records of the new file
+     * @throws IOException Signals an I/O issue while writing the new file
+     */
+    private void rehash(int newCapacity) throws IOException {
+        rehash(newCapacity, true);
+    }
+
+    /**
+     * Replaces the catalog file with a new one of the given capacity.
+     * The new file is written aside and renamed over the catalog file once complete.
+     *
+     * @param newCapacity The number of records of the new file
+     * @param copy Whether to move the profiles to the new file, or to start it empty
+     * @throws IOException Signals an I/O issue while writing the new file
+     */
+    private void rehash(int newCapacity, boolean copy) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        RandomAccessFile opened = new RandomAccessFile(temp, "rw");
+        boolean replaced = false;
+        try {
+            opened.setLength(0);
+            opened.setLength(fileLength(newCapacity));
+            MappedByteBuffer target = opened.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileLength(newCapacity));
+            writeHeader(target, newCapacity);
+            int moved = 0;
+            if (copy) {
+                for (int slot = 0; slot < capacity; slot++) {
+                    int from = HEADER_SIZE + slot * RECORD_SIZE;
+                    if (buffer.get(from + RECORD_STATE) != STATE_USED) {
+                        continue;
+                    }
+                    long most = buffer.getLong(from + RECORD_ID_MOST);
+                    long least = buffer.getLong(from + RECORD_ID_LEAST);
+                    int to = HEADER_SIZE + probeEmpty(target, newCapacity, most, least) * RECORD_SIZE;
+                    for (int i = 0; i < RECORD_SIZE; i++) {
+                        target.put(to + i, buffer.get(from + i));
+                    }
+                    moved++;
+                }
+                target.put(HEADER_LOADED, buffer.get(HEADER_LOADED));
+                target.put(HEADER_GENERATION, buffer.get(HEADER_GENERATION));
+            }
+            target.putInt(HEADER_SIZE_FIELD, moved);
+            target.putInt(HEADER_OCCUPIED, moved);
+            target.force();
+            if (!temp.renameTo(file)) {
+                throw new IOException("Unable to replace " + file);
+            }
+            replaced = true;
+            RandomAccessFile previous = randomAccessFile;
+            buffer = target;
+            randomAccessFile = opened;
+            capacity = newCapacity;
+            size = moved;
+            occupied = moved;
+            previous.close();
+        } finally {
+            if (!replaced) {
+                opened.close();
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Writes the header of an empty catalog file
+     *
+     * @param target The mapping of the file
+     * @param newCapacity The number of records of the file
+     */
+    private void writeHeader(ByteBuffer target, int newCapacity) {
+        target.putInt(HEADER_MAGIC, MAGIC);
+        target.putInt(HEADER_VERSION, VERSION);
+        target.putInt(HEADER_KIND, format.kind);
+        target.putInt(HEADER_CAPACITY, newCapacity);
+        target.putInt(HEADER_SIZE_FIELD, 0);
+        target.putInt(HEADER_OCCUPIED, 0);
+        target.put(HEADER_LOADED, (byte) 0);
+        target.putInt(HEADER_REPLACED, 0);
+    }
+
+    /**
+     * Writes the profile counts to the header
+     */
+    private void writeCounts() {
+        buffer.putInt(HEADER_SIZE_FIELD, size);
+        buffer.putInt(HEADER_OCCUPIED, occupied);
+    }
+
+    /**
+     * Finds the record of a profile
+     *
+     * @param most The most significant bits of the profile ID
+     * @param least The least significant bits of the profile ID
+     * @return The offset of the record, or -1 if the profile isn't in the catalog
+     */
+    private int find(long most, long least) {
+        int mask = capacity - 1;
+        for (int slot = hash(most, least) & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            int offset = HEADER_SIZE + slot * RECORD_SIZE;
+            byte state = buffer.get(offset + RECORD_STATE);
+            if (state == STATE_EMPTY) {
+                return -1;
+            }
+            if (state == STATE_USED && buffer.getLong(offset + RECORD_ID_MOST) == most && buffer.getLong(offset + RECORD_ID_LEAST) == least) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the record to store a profile missing from the catalog in, reusing the first deleted record on its path
+     *
+     * @param most The most significant bits of the profile ID
+     * @param least The least significant bits of the profile ID
+     * @return The offset of the record
+     */
+    private int findSlot(long most, long least) {
+        int mask = capacity - 1;
+        for (int slot = hash(most, least) & mask; ; slot = (slot + 1) & mask) {
+            int offset = HEADER_SIZE + slot * RECORD_SIZE;
+            if (buffer.get(offset + RECORD_STATE) != STATE_USED) {
+                return offset;
+            }
+        }
+    }
+
+    /**
+     * Finds an empty record of a catalog file being filled
+     *
+     * @param target The mapping of the file
+     * @param targetCapacity The number of records of the file
+     * @param most The most significant bits of the profile ID
+     * @param least The least significant bits of the profile ID
+     * @return The index of the record
+     */
+    private static int probeEmpty(ByteBuffer target, int targetCapacity, long most, long least) {
+        int mask = targetCapacity - 1;
+        for (int slot = hash(most, least) & mask; ; slot = (slot + 1) & mask) {
+            if (target.get(HEADER_SIZE + slot * RECORD_SIZE + RECORD_STATE) == STATE_EMPTY) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Writes a profile record and its checksum, marking it used last so that a torn write doesn't expose a partial record.
+     * While it is written the record is marked deleted rather than empty, so that a crash mid-write leaves a tombstone
+     * that lookups probe past instead of a hole cutting off the records stored after it.
+     *
+     * @param offset The offset of the record
+     * @param most The most significant bits of the profile ID
+     * @param least The least significant bits of the profile ID
+     * @param profile The profile
+     * @param locale The encoded profile locale, or null
+     */
+    private void writeRecord(int offset, long most, long least, T profile, byte[] locale) {
+        buffer.put(offset + RECORD_STATE, STATE_DELETED);
+        buffer.putLong(offset + RECORD_ID_MOST, most);
+        buffer.putLong(offset + RECORD_ID_LEAST, least);
+        buffer.putLong(offset + RECORD_CREATED, profile.createdDateTime != null ? profile.createdDateTime.getTime() : NO_DATE);
+        buffer.putLong(offset + RECORD_LAST_ACTION, profile.lastActionDateTime != null ? profile.lastActionDateTime.getTime() : NO_DATE);
+        format.write(buffer, offset + RECORD_SPECIFICS, profile);
+        buffer.put(offset + RECORD_ENROLLMENT_STATUS, (byte) (profile.enrollmentStatus != null ? profile.enrollmentStatus.ordinal() + 1 : 0));
+        if (locale != null) {
+            buffer.put(offset + RECORD_LOCALE_LENGTH, (byte) locale.length);
+            for (int i = 0; i < locale.length; i++) {
+                buffer.put(offset + RECORD_LOCALE + i, locale[i]);
+            }
+        } else {
+            buffer.put(offset + RECORD_LOCALE_LENGTH, (byte) -1);
+        }
+        buffer.put(offset + RECORD_SYNC_MARK, buffer.get(HEADER_GENERATION));
+        buffer.putInt(offset + RECORD_CHECKSUM, checksum(buffer, offset));
+        buffer.put(offset + RECORD_STATE, STATE_USED);
+    }
+
+    /**
+     * Computes the checksum of the profile fields of a record, leaving out its state and sync mark which change in place
+     *
+     * @param source The mapping holding the record
+     * @param offset The offset of the record
+     * @return The checksum
+     */
+    private static int checksum(ByteBuffer source, int offset) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < RECORD_SYNC_MARK; i++) {
+            if (i != RECORD_STATE) {
+                crc.update(source.get(offset + i));
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads a profile record
+     *
+     * @param offset The offset of the record
+     * @return A new profile holding the stored fields
+     */
+    private T readRecord(int offset) {
+        T profile = format.newProfile();
+        format.setId(profile, new UUID(buffer.getLong(offset + RECORD_ID_MOST), buffer.getLong(offset + RECORD_ID_LEAST)));
+        long created = buffer.getLong(offset + RECORD_CREATED);
+        profile.createdDateTime = created != NO_DATE ? new Date(created) : null;
+        long lastAction = buffer.getLong(offset + RECORD_LAST_ACTION);
+        profile.lastActionDateTime = lastAction != NO_DATE ? new Date(lastAction) : null;
+        format.read(buffer, offset + RECORD_SPECIFICS, profile);
+        int status = buffer.get(offset + RECORD_ENROLLMENT_STATUS);
+        EnrollmentStatus[] statuses = EnrollmentStatus.values();
+        profile.enrollmentStatus = status > 0 && status <= statuses.length ? statuses[status - 1] : null;
+        int localeLength = buffer.get(offset + RECORD_LOCALE_LENGTH);
+        if (localeLength >= 0 && localeLength <= LOCALE_BYTES) {
+            byte[] locale = new byte[localeLength];
+            for (int i = 0; i < localeLength; i++) {
+                locale[i] = buffer.get(offset + RECORD_LOCALE + i);
+            }
+            profile.locale = new String(locale, LOCALE_CHARSET);
+        }
+        return profile;
+    }
+
+    /**
+     * Throws if the catalog was closed
+     */
+    private void ensureOpen() {
+        if (randomAccessFile == null) {
+            throw new IllegalStateException("The profile catalog is closed");
+        }
+    }
+
+    /**
+     * Encodes a profile locale for its record
+     *
+     * @param locale The profile locale, or null
+     * @return The encoded locale, or null
+     */
+    private static byte[] encodeLocale(String locale) {
+        if (locale == null) {
+            return null;
+        }
+        byte[] encoded = locale.getBytes(LOCALE_CHARSET);
+        if (encoded.length > LOCALE_BYTES) {
+            throw new IllegalArgumentException("Locale too long for the profile catalog: " + locale);
+        }
+        return encoded;
+    }
+
+    /**
+     * Gets the smallest capacity keeping the catalog within the load factor
+     *
+     * @param profiles The number of profiles
+     * @return The capacity
+     * @throws IOException Signals that the profiles don't fit in a catalog
+     */
+    private static int capacityFor(int profiles) throws IOException {
+        int newCapacity = MIN_CAPACITY;
+        while (newCapacity * MAX_LOAD_FACTOR < profiles) {
+            if (newCapacity == MAX_CAPACITY) {
+                throw new IOException("The profile catalog is full");
+            }
+            newCapacity <<= 1;
+        }
+        return newCapacity;
+    }
+
+    /**
+     * Gets the length of a catalog file
+     *
+     * @param recordCount The number of records of the file
+     * @return The file length in bytes
+     */
+    private static long fileLength(int recordCount) {
+        return HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+    }
+
+    /**
+     * Hashes a profile ID
+     *
+     * @param most The most significant bits of the profile ID
+     * @param least The least significant bits of the profile ID
+     * @return The hash
+     */
+    private static int hash(long most, long least) {
+        long h = most ^ least;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,148 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileBase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * This class keeps a {@link ProfileCatalog} in line with the service, applying the differences
+ * with a profile listing in place and reporting each of them to a {@link ProfileChangeListener}.
+ * The listing is read one profile at a time, as given by {@link ExtendedSpeakerIdentificationClient#streamProfiles()}
+ * or {@link ExtendedSpeakerVerificationClient#streamProfiles()}, and compared with the stored profile by its last action time
+ * and enrollment status; the profiles not listed are removed once the listing ends.
+ * Memory use grows with the number of removed profiles only, not with the size of the catalog.
+ *
+ * @param <T> The profile type
+ */
+public class ProfileCatalogSync<T extends ProfileBase> {
+
+    /**
+     * The catalog kept in line with the service
+     */
+    private final ProfileCatalog<T> catalog;
+
+    /**
+     * The listener receiving the changes
+     */
+    private final ProfileChangeListener<T> listener;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a catalog sync
+     *
+     * @param catalog The catalog kept in line with the service
+     * @param listener The listener receiving the changes
+     */
+    public ProfileCatalogSync(ProfileCatalog<T> catalog, ProfileChangeListener<T> listener) {
+        this.catalog = catalog;
+        this.listener = listener;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Applies a listing of the service to the catalog and reports the changes to the listener.
+     * Failures while reading a {@link ProfileIterator} are thrown as {@link com.google.gson.JsonIOException};
+     * the changes read so far are kept and no profile is removed, and the next sync picks up the rest.
+     * A {@link Closeable} iterator is closed.
+     *
+     * @param profiles The profiles of the service
+     * @return The number of changes reported
+     * @throws IOException Signals an I/O issue while writing the catalog file
+     */
+    public synchronized int sync(Iterator<? extends T> profiles) throws IOException {
+        ProfileRecordFormat<T> format = catalog.getFormat();
+        int changes = 0;
+        try {
+            catalog.startSync();
+            while (profiles.hasNext()) {
+                T profile = profiles.next();
+                UUID id = format.getId(profile);
+                if (id == null) {
+                    continue;
+                }
+                T previous = catalog.get(id);
+                if (previous == null) {
+                    catalog.put(profile);
+                    listener.onProfileAdded(profile);
+                    changes++;
+                    continue;
+                }
+                boolean statusChanged = previous.enrollmentStatus != profile.enrollmentStatus;
+                boolean progressChanged = !format.hasSameProgress(profile, previous);
+                if (!statusChanged && !progressChanged && sameDate(previous.lastActionDateTime, profile.lastActionDateTime)) {
+                    catalog.markSeen(id);
+                    continue;
+                }
+                catalog.put(profile);
+                if (statusChanged) {
+                    listener.onEnrollmentStatusChanged(profile, previous.enrollmentStatus);
+                    changes++;
+                }
+                if (progressChanged) {
+                    listener.onEnrollmentProgressChanged(profile, previous);
+                    changes++;
+                }
+            }
+        } finally {
+            if (profiles instanceof Closeable) {
+                ((Closeable) profiles).close();
+            }
+        }
+        for (T removed : catalog.finishSync()) {
+            listener.onProfileRemoved(removed);
+            changes++;
+        }
+        return changes;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Compares two possibly missing dates
+     *
+     * @param date The date
+     * @param other The date to compare with
+     * @return True if both dates are missing or equal
+     */
+    private static boolean sameDate(Date date, Date other) {
+        return date == null ? other == null : date.equals(other);
+    }
+}
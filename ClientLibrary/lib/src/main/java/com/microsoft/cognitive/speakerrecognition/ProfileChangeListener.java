@@ -0,0 +1,75 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentStatus;
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileBase;
+
+/**
+ * An interface for receiving the profile changes found by a {@link ProfileCatalogSync}
+ *
+ * @param <T> The profile type
+ */
+public interface ProfileChangeListener<T extends ProfileBase> {
+
+    /**
+     * Called after a profile that wasn't in the catalog was added to it
+     *
+     * @param profile The added profile
+     */
+    void onProfileAdded(T profile);
+
+    /**
+     * Called after a profile missing from the service was removed from the catalog
+     *
+     * @param profile The last state of the removed profile
+     */
+    void onProfileRemoved(T profile);
+
+    /**
+     * Called after the enrollment status of a profile changed
+     *
+     * @param profile The profile
+     * @param previousStatus The previous enrollment status
+     */
+    void onEnrollmentStatusChanged(T profile, EnrollmentStatus previousStatus);
+
+    /**
+     * Called after the enrollment progress of a profile changed, that is the enrollment speech times
+     * of an identification profile or the enrollment counts of a verification profile
+     *
+     * @param profile The profile
+     * @param previous The previous state of the profile
+     */
+    void onEnrollmentProgressChanged(T profile, T previous);
+}
@@ -0,0 +1,178 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over the profiles of a profile listing, decoding them one at a time from the response stream,
+ * so that memory use doesn't grow with the number of profiles.
+ * The iterator holds a connection until it is exhausted or closed; close it when stopping early.
+ * Failures while reading the response are thrown as {@link JsonIOException}.
+ *
+ * @param <T> The profile type
+ */
+public class ProfileIterator<T> implements Iterator<T>, Closeable {
+
+    /**
+     * The request of the listing, aborted when the iterator is closed early
+     */
+    private final TransportRequest request;
+
+    /**
+     * The response holding the listing
+     */
+    private final TransportResponse response;
+
+    /**
+     * The Json reader, positioned inside the profile array
+     */
+    private final JsonReader reader;
+
+    /**
+     * The adapter decoding a single profile
+     */
+    private final TypeAdapter<T> adapter;
+
+    /**
+     * Whether the iterator was exhausted or closed
+     */
+    private boolean closed;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates an iterator over a profile array
+     *
+     * @param request The request of the listing
+     * @param response The response holding the listing
+     * @param reader The Json reader, positioned inside the profile array
+     * @param adapter The adapter decoding a single profile
+     */
+    ProfileIterator(TransportRequest request, TransportResponse response, JsonReader reader, TypeAdapter<T> adapter) {
+        this.request = request;
+        this.response = response;
+        this.reader = reader;
+        this.adapter = adapter;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (reader.hasNext()) {
+                return true;
+            }
+            reader.endArray();
+            finish();
+            return false;
+        } catch (IOException e) {
+            abort();
+            throw new JsonIOException(e);
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return adapter.read(reader);
+        } catch (IOException e) {
+            abort();
+            throw new JsonIOException(e);
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Profiles can't be removed from a listing");
+    }
+
+    /**
+     * Stops the iteration. If profiles are left, the connection is dropped rather than reading the rest of the listing.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            abort();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Closes the exhausted listing so its connection can be reused
+     *
+     * @throws IOException Signals a failure while releasing the connection
+     */
+    private void finish() throws IOException {
+        closed = true;
+        try {
+            reader.close();
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Drops the connection of a listing that wasn't read to its end
+     */
+    private void abort() {
+        closed = true;
+        request.abort();
+        try {
+            finish();
+        } catch (IOException ignored) {
+            // The connection was dropped on purpose, so releasing it may fail
+        }
+    }
+}
@@ -0,0 +1,143 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileBase;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * The record layout of a profile type in a {@link ProfileCatalog}, covering the ID and the fields specific to the type
+ *
+ * @param <P> The profile type
+ */
+abstract class ProfileRecordFormat<P extends ProfileBase> {
+
+    /**
+     * The number of bytes of a record holding the fields specific to the profile type
+     */
+    static final int SPECIFICS_SIZE = 16;
+
+    /**
+     * The profile type stored in the catalog file header
+     */
+    final int kind;
+
+    /**
+     * The profile class
+     */
+    final Class<P> profileClass;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a record format
+     *
+     * @param kind The profile type stored in the catalog file header
+     * @param profileClass The profile class
+     */
+    ProfileRecordFormat(int kind, Class<P> profileClass) {
+        this.kind = kind;
+        this.profileClass = profileClass;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates an empty profile
+     *
+     * @return The profile
+     */
+    abstract P newProfile();
+
+    /**
+     * Gets the ID of a profile
+     *
+     * @param profile The profile
+     * @return The speaker profile ID
+     */
+    abstract UUID getId(P profile);
+
+    /**
+     * Sets the ID of a profile
+     *
+     * @param profile The profile
+     * @param id The speaker profile ID
+     */
+    abstract void setId(P profile, UUID id);
+
+    /**
+     * Writes the fields specific to the profile type, in at most {@link #SPECIFICS_SIZE} bytes
+     *
+     * @param buffer The catalog mapping
+     * @param offset The offset of the fields
+     * @param profile The profile
+     */
+    abstract void write(ByteBuffer buffer, int offset, P profile);
+
+    /**
+     * Reads the fields specific to the profile type
+     *
+     * @param buffer The catalog mapping
+     * @param offset The offset of the fields
+     * @param profile The profile to fill
+     */
+    abstract void read(ByteBuffer buffer, int offset, P profile);
+
+    /**
+     * Tells whether two profiles report the same enrollment progress
+     *
+     * @param profile The profile
+     * @param other The profile to compare with
+     * @return True if the fields specific to the profile type are equal
+     */
+    abstract boolean hasSameProgress(P profile, P other);
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the record format of a profile class
+     *
+     * @param type The profile class
+     * @return The format, or null if the class isn't a speaker profile class
+     */
+    static ProfileRecordFormat<?> forType(Class<?> type) {
+        if (type == IdentificationRecordFormat.INSTANCE.profileClass) {
+            return IdentificationRecordFormat.INSTANCE;
+        } else if (type == VerificationRecordFormat.INSTANCE.profileClass) {
+            return VerificationRecordFormat.INSTANCE;
+        }
+        return null;
+    }
+}
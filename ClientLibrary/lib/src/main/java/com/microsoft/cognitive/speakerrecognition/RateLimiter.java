@@ -0,0 +1,207 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A client-side token bucket limiting the rate of service calls.
+ * A single limiter can be set on several contexts, so identification and verification clients
+ * built from different contexts still share one transactions-per-second budget.
+ * Every call takes a number of tokens given by the weight of its operation; retries take tokens as well.
+ */
+public class RateLimiter {
+
+    /**
+     * An enum encoding what a call does when the bucket doesn't hold enough tokens
+     */
+    public enum Mode {
+
+        /**
+         * The call waits until enough tokens are available
+         */
+        BLOCK,
+
+        /**
+         * The call fails immediately with a {@link RateLimitExceededException}
+         */
+        FAIL_FAST
+    }
+
+    /**
+     * The number of tokens added per second
+     */
+    private final double tokensPerSecond;
+
+    /**
+     * The maximum number of tokens the bucket holds
+     */
+    private final double capacity;
+
+    /**
+     * What a call does when the bucket doesn't hold enough tokens
+     */
+    private final Mode mode;
+
+    /**
+     * The number of tokens taken per operation
+     */
+    private final Map<ServiceOperation, Double> weights = new EnumMap<>(ServiceOperation.class);
+
+    /**
+     * The number of tokens in the bucket, negative while blocked calls hold reservations
+     */
+    private double tokens;
+
+    /**
+     * The time the bucket was last refilled, in nanoseconds
+     */
+    private long lastRefillNanos;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a full bucket where every operation takes one token
+     *
+     * @param tokensPerSecond The number of tokens added per second, usually the transactions-per-second cap of the subscription
+     * @param capacity The maximum number of tokens the bucket holds, which bounds the size of a burst
+     * @param mode What a call does when the bucket doesn't hold enough tokens
+     */
+    public RateLimiter(double tokensPerSecond, double capacity, Mode mode) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Invalid rate limit");
+        }
+        this.tokensPerSecond = tokensPerSecond;
+        this.capacity = capacity;
+        this.mode = mode;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+        for (ServiceOperation operation : ServiceOperation.values()) {
+            weights.put(operation, 1.0);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Sets the number of tokens an operation takes
+     *
+     * @param operation The service operation
+     * @param weight The number of tokens, 0 to exempt the operation from the limit, and at most the bucket capacity
+     */
+    public synchronized void setWeight(ServiceOperation operation, double weight) {
+        if (weight < 0 || weight > capacity) {
+            throw new IllegalArgumentException("Invalid weight");
+        }
+        weights.put(operation, weight);
+    }
+
+    /**
+     * Takes the tokens of an operation, waiting until they are available
+     *
+     * @param operation The service operation
+     * @throws InterruptedException Signals that the thread was interrupted while waiting, in which case no tokens are taken
+     */
+    public void acquire(ServiceOperation operation) throws InterruptedException {
+        double weight;
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            // Reserve the tokens now so that waiting calls are served in arrival order
+            weight = weights.get(operation);
+            tokens -= weight;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / tokensPerSecond * TimeUnit.SECONDS.toNanos(1));
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    refill();
+                    tokens = Math.min(capacity, tokens + weight);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Takes the tokens of an operation if they are available right away
+     *
+     * @param operation The service operation
+     * @return True if the tokens were taken, false otherwise
+     */
+    public synchronized boolean tryAcquire(ServiceOperation operation) {
+        refill();
+        double weight = weights.get(operation);
+        if (tokens < weight) {
+            return false;
+        }
+        tokens -= weight;
+        return true;
+    }
+
+    /**
+     * Takes the tokens of a call according to the limiter mode
+     *
+     * @param operation The service operation
+     * @throws RateLimitExceededException Signals that a fail-fast limiter rejected the call
+     * @throws InterruptedIOException Signals that the thread was interrupted while waiting
+     */
+    void acquirePermit(ServiceOperation operation) throws RateLimitExceededException, InterruptedIOException {
+        if (mode == Mode.FAIL_FAST) {
+            if (!tryAcquire(operation)) {
+                throw new RateLimitExceededException("Rate limit exceeded for " + operation);
+            }
+            return;
+        }
+        try {
+            acquire(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the rate limit of " + operation);
+        }
+    }
+
+    /**
+     * Adds the tokens accumulated since the last refill
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+    }
+}
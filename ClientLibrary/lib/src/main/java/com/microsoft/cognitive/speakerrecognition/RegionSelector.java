@@ -0,0 +1,195 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A selector routing profile-agnostic calls to the service region with the lowest round-trip time.
+ * It keeps a moving average of the latency of every region, fed by the real calls routed through it
+ * and by lightweight probes. Calls bound to a profile are never routed by the selector, because a profile
+ * only exists in the region it was created in.
+ */
+public class RegionSelector {
+
+    /**
+     * The weight of a new latency in the moving average
+     */
+    private static final double SMOOTHING_FACTOR = 0.2;
+
+    /**
+     * The factor applied to the latency estimate of a region after a failed call
+     */
+    private static final double FAILURE_PENALTY = 2;
+
+    /**
+     * The service roots of the candidate regions, in preference order
+     */
+    private final List<String> serviceRoots;
+
+    /**
+     * The subscription key per service root, for the regions that don't use the key of the client
+     */
+    private final Map<String, String> subscriptionKeys;
+
+    /**
+     * The moving average latency per service root in milliseconds, missing until the region was measured
+     */
+    private final Map<String, Double> estimates = new LinkedHashMap<>();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a selector over the given regions
+     *
+     * @param serviceRoots The service roots of the candidate regions in preference order,
+     * for example "https://westus.api.cognitive.microsoft.com/spid/v1.0"
+     */
+    public RegionSelector(List<String> serviceRoots) {
+        this(serviceRoots, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Creates a selector over the given regions, each called with its own subscription key.
+     * A subscription key is only valid in the region it was issued for.
+     *
+     * @param subscriptionKeys The subscription key per service root of the candidate regions, in preference order
+     */
+    public RegionSelector(LinkedHashMap<String, String> subscriptionKeys) {
+        this(new ArrayList<>(subscriptionKeys.keySet()), subscriptionKeys);
+    }
+
+    /**
+     * Creates a selector over the given regions
+     *
+     * @param serviceRoots The service roots of the candidate regions in preference order
+     * @param subscriptionKeys The subscription key per service root, for the regions that have their own
+     */
+    private RegionSelector(List<String> serviceRoots, Map<String, String> subscriptionKeys) {
+        if (serviceRoots.isEmpty()) {
+            throw new IllegalArgumentException("At least one region is required");
+        }
+        List<String> roots = new ArrayList<>();
+        for (String serviceRoot : serviceRoots) {
+            roots.add(SpeakerRestClientHelper.trimServiceRoot(serviceRoot));
+        }
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : subscriptionKeys.entrySet()) {
+            keys.put(SpeakerRestClientHelper.trimServiceRoot(entry.getKey()), entry.getValue());
+        }
+        this.serviceRoots = Collections.unmodifiableList(roots);
+        this.subscriptionKeys = Collections.unmodifiableMap(keys);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the service roots of the candidate regions
+     *
+     * @return The service roots in preference order
+     */
+    public List<String> getServiceRoots() {
+        return serviceRoots;
+    }
+
+    /**
+     * Gets the subscription key a region is called with
+     *
+     * @param serviceRoot The service root of the region
+     * @return The subscription key of the region, or null if the region uses the key of the client
+     */
+    public String getSubscriptionKey(String serviceRoot) {
+        return subscriptionKeys.get(SpeakerRestClientHelper.trimServiceRoot(serviceRoot));
+    }
+
+    /**
+     * Selects the region with the lowest latency estimate.
+     * Regions that weren't measured yet are selected first, in preference order, so every region gets measured.
+     *
+     * @return The service root of the selected region
+     */
+    public synchronized String select() {
+        String best = null;
+        double bestEstimate = Double.MAX_VALUE;
+        for (String serviceRoot : serviceRoots) {
+            Double estimate = estimates.get(serviceRoot);
+            if (estimate == null) {
+                return serviceRoot;
+            }
+            if (estimate < bestEstimate) {
+                best = serviceRoot;
+                bestEstimate = estimate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the latency estimate of a region
+     *
+     * @param serviceRoot The service root of the region
+     * @return The moving average latency in milliseconds, or -1 if the region wasn't measured yet
+     */
+    public synchronized double getLatencyEstimate(String serviceRoot) {
+        Double estimate = estimates.get(SpeakerRestClientHelper.trimServiceRoot(serviceRoot));
+        return estimate != null ? estimate : -1;
+    }
+
+    /**
+     * Records the latency of a call or probe to a region
+     *
+     * @param serviceRoot The service root of the region
+     * @param latencyMillis The measured round-trip time in milliseconds
+     */
+    public synchronized void recordLatency(String serviceRoot, long latencyMillis) {
+        String key = SpeakerRestClientHelper.trimServiceRoot(serviceRoot);
+        Double estimate = estimates.get(key);
+        estimates.put(key, estimate == null ? latencyMillis : estimate + SMOOTHING_FACTOR * (latencyMillis - estimate));
+    }
+
+    /**
+     * Records a failed call or probe to a region, moving it behind the regions that answer
+     *
+     * @param serviceRoot The service root of the region
+     * @param elapsedMillis The time until the failure in milliseconds
+     */
+    public synchronized void recordFailure(String serviceRoot, long elapsedMillis) {
+        String key = SpeakerRestClientHelper.trimServiceRoot(serviceRoot);
+        Double estimate = estimates.get(key);
+        estimates.put(key, Math.max(elapsedMillis, estimate == null ? elapsedMillis : estimate) * FAILURE_PENALTY);
+    }
+}
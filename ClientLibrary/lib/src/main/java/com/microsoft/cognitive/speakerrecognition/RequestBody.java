@@ -0,0 +1,81 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A package-private interface for the body of a request sent through an {@link HttpTransport}
+ */
+interface RequestBody {
+
+    /**
+     * Gets the content type of the body
+     *
+     * @return The content type header value
+     */
+    String getContentType();
+
+    /**
+     * Gets the length of the body
+     *
+     * @return The body length in bytes, or -1 if it is unknown
+     */
+    long getContentLength();
+
+    /**
+     * Checks whether the body can be written more than once
+     *
+     * @return True if the body can be written again, false otherwise
+     */
+    boolean isRepeatable();
+
+    /**
+     * Writes the body to an output stream
+     *
+     * @param outputStream The stream to write to
+     * @throws IOException Signals a failure while reading the body source or writing to the stream
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+
+    /**
+     * Opens a stream reading a repeatable body, without consuming it and without copying it
+     *
+     * @return A stream over the body
+     * @throws IOException Signals a failure while opening the body source
+     * @throws UnsupportedOperationException If the body isn't repeatable
+     */
+    InputStream openStream() throws IOException;
+}
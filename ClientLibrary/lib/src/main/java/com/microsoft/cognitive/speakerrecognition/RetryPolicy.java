@@ -0,0 +1,192 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A policy deciding whether and when a failed service call is sent again.
+ * Throttling (429), request timeouts (408) and transient server errors (500, 502, 503, 504) are retried
+ * after a capped exponential backoff with full jitter, or after the delay requested by a Retry-After header.
+ */
+public class RetryPolicy {
+
+    /**
+     * A policy that never retries
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0, 0);
+
+    /**
+     * The default maximum number of retries of a call
+     */
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    /**
+     * The default backoff delay before the first retry, in milliseconds
+     */
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 500;
+
+    /**
+     * The default longest delay between two attempts, in milliseconds
+     */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10000;
+
+    /**
+     * The Retry-After HTTP date format
+     */
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    /**
+     * The maximum number of retries of a call
+     */
+    private final int maxRetries;
+
+    /**
+     * The backoff delay before the first retry, in milliseconds
+     */
+    private final long baseDelayMillis;
+
+    /**
+     * The longest delay between two attempts, in milliseconds
+     */
+    private final long maxDelayMillis;
+
+    /**
+     * The jitter source
+     */
+    private final Random random = new Random();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a policy with the default limits
+     */
+    public RetryPolicy() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_BASE_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     * Creates a policy with the given limits
+     *
+     * @param maxRetries The maximum number of retries of a call
+     * @param baseDelayMillis The backoff delay before the first retry, doubled on every further retry
+     * @param maxDelayMillis The longest delay between two attempts; longer Retry-After delays fail the call instead
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        if (maxRetries < 0 || baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Invalid retry limits");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the maximum number of retries of a call
+     *
+     * @return The maximum number of retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Checks whether a response status signals a transient failure
+     *
+     * @param statusCode HTTP status code
+     * @return True if the call may succeed when sent again
+     */
+    boolean isRetryableStatus(int statusCode) {
+        switch (statusCode) {
+            case 408:
+            case 429:
+            case 500:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Computes the delay before a retry
+     *
+     * @param retry The zero based index of the retry
+     * @param retryAfter The Retry-After header of the failed response, or null
+     * @return The delay in milliseconds, or -1 if the requested delay exceeds the longest allowed delay
+     */
+    long retryDelay(int retry, String retryAfter) {
+        long requested = parseRetryAfter(retryAfter);
+        if (requested >= 0) {
+            return requested <= maxDelayMillis ? requested : -1;
+        }
+
+        long ceiling = baseDelayMillis << Math.min(retry, 30);
+        if (ceiling <= 0 || ceiling > maxDelayMillis) {
+            ceiling = maxDelayMillis;
+        }
+        return (long) (random.nextDouble() * ceiling);
+    }
+
+    /**
+     * Parses a Retry-After header holding either a number of seconds or an HTTP date
+     *
+     * @param retryAfter The header value, or null
+     * @return The requested delay in milliseconds, or -1 if the header is missing or invalid
+     */
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.trim().length() == 0) {
+            return -1;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException ignored) {
+            // Not a number of seconds, try an HTTP date
+        }
+        try {
+            Date date = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US).parse(value);
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
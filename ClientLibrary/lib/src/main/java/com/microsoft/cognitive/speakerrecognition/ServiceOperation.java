@@ -0,0 +1,94 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+/**
+ * An enum encoding the service calls made by the identification and verification clients
+ */
+public enum ServiceOperation {
+
+    /**
+     * Creating a speaker profile
+     */
+    CREATE_PROFILE,
+
+    /**
+     * Retrieving a single speaker profile
+     */
+    GET_PROFILE,
+
+    /**
+     * Retrieving all speaker profiles
+     */
+    GET_PROFILES,
+
+    /**
+     * Deleting a speaker profile
+     */
+    DELETE_PROFILE,
+
+    /**
+     * Uploading enrollment audio
+     */
+    ENROLL,
+
+    /**
+     * Uploading identification audio
+     */
+    IDENTIFY,
+
+    /**
+     * Uploading verification audio
+     */
+    VERIFY,
+
+    /**
+     * Querying the status of an enrollment operation
+     */
+    CHECK_ENROLLMENT_STATUS,
+
+    /**
+     * Querying the status of an identification operation
+     */
+    CHECK_IDENTIFICATION_STATUS,
+
+    /**
+     * Deleting all enrollments of a speaker profile
+     */
+    RESET_ENROLLMENTS,
+
+    /**
+     * Retrieving the verification phrases
+     */
+    GET_PHRASES
+}
@@ -0,0 +1,109 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import org.apache.http.conn.scheme.LayeredSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.conn.ssl.X509HostnameVerifier;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
+/**
+ * A package-private TLS socket factory for the Apache Http client backed by a given SSL context.
+ * Sockets are layered over a connected plain socket with the target host and port, so the SSL context
+ * can resume a cached TLS session with the same host instead of running a full handshake.
+ */
+class SessionCachingSocketFactory implements LayeredSocketFactory {
+
+    /**
+     * The hostname verifier applied to every TLS socket, the same the default Apache factory applies
+     */
+    private static final X509HostnameVerifier HOSTNAME_VERIFIER = SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER;
+
+    /**
+     * The socket factory of the SSL context caching the TLS sessions
+     */
+    private final javax.net.ssl.SSLSocketFactory sslSocketFactory;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a factory over the given SSL context
+     *
+     * @param sslContext The SSL context caching the TLS sessions
+     */
+    SessionCachingSocketFactory(SSLContext sslContext) {
+        this.sslSocketFactory = sslContext.getSocketFactory();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return new Socket();
+    }
+
+    @Override
+    public Socket connectSocket(Socket sock, String host, int port, InetAddress localAddress, int localPort, HttpParams params) throws IOException {
+        Socket plainSocket = sock != null ? sock : createSocket();
+        if (localAddress != null || localPort > 0) {
+            plainSocket.bind(new InetSocketAddress(localAddress, Math.max(localPort, 0)));
+        }
+        plainSocket.connect(new InetSocketAddress(host, port), HttpConnectionParams.getConnectionTimeout(params));
+        plainSocket.setSoTimeout(HttpConnectionParams.getSoTimeout(params));
+        return createSocket(plainSocket, host, port, true);
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+        SSLSocket sslSocket = (SSLSocket) sslSocketFactory.createSocket(socket, host, port, autoClose);
+        try {
+            HOSTNAME_VERIFIER.verify(host, sslSocket);
+        } catch (IOException e) {
+            sslSocket.close();
+            throw e;
+        }
+        return sslSocket;
+    }
+
+    @Override
+    public boolean isSecure(Socket sock) {
+        return sock instanceof SSLSocket;
+    }
+}
@@ -0,0 +1,371 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.Confidence;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Identification;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Status;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * This class identifies a speaker among more candidate profiles than a single identification call accepts.
+ * The candidates are split into shards, the audio is submitted once per shard in parallel, and the shard
+ * operations are polled together by an {@link OperationPoller}; the shard results are then merged by confidence.
+ * With enough executor threads to submit all shards at once, the whole identification takes about as long
+ * as its slowest shard.
+ */
+public class ShardedIdentifier {
+
+    /**
+     * The most candidate profiles a single identification call accepts
+     */
+    public static final int MAX_PROFILES_PER_CALL = 10;
+
+    /**
+     * The ID the service reports when no candidate matched
+     */
+    private static final UUID NOT_IDENTIFIED = new UUID(0, 0);
+
+    /**
+     * The client submitting the shards
+     */
+    private final ExtendedSpeakerIdentificationClient client;
+
+    /**
+     * The poller polling the shard operations
+     */
+    private final OperationPoller poller;
+
+    /**
+     * The executor submitting the shards
+     */
+    private final Executor executor;
+
+    /**
+     * The number of candidate profiles per shard
+     */
+    private final int shardSize;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates an identifier sending as many candidates per call as the service accepts
+     *
+     * @param client The client submitting the shards
+     * @param poller The poller polling the shard operations
+     * @param executor The executor submitting the shards
+     */
+    public ShardedIdentifier(ExtendedSpeakerIdentificationClient client, OperationPoller poller, Executor executor) {
+        this(client, poller, executor, MAX_PROFILES_PER_CALL);
+    }
+
+    /**
+     * Creates an identifier
+     *
+     * @param client The client submitting the shards
+     * @param poller The poller polling the shard operations
+     * @param executor The executor submitting the shards
+     * @param shardSize The number of candidate profiles per shard
+     */
+    public ShardedIdentifier(ExtendedSpeakerIdentificationClient client, OperationPoller poller, Executor executor, int shardSize) {
+        if (shardSize <= 0) {
+            throw new IllegalArgumentException("Invalid shard size");
+        }
+        this.client = client;
+        this.poller = poller;
+        this.executor = executor;
+        this.shardSize = shardSize;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Identifies a given speaker among any number of candidate profiles.
+     * The merged operation holds the identified profile with the highest confidence, or the not identified
+     * result if no shard matched. It fails if a shard fails and no other shard identified the speaker,
+     * since the candidates of the failed shard weren't compared.
+     *
+     * @param audioBuffer The buffer holding the audio to identify between its position and its limit, left unchanged
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio True to instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @param stopOnHighConfidence True to complete as soon as a shard identifies the speaker with high confidence,
+     *                             cancelling the polls of the other shards
+     * @return A future of the merged identification operation, failing with an IdentificationException or an IOException
+     */
+    public SpeakerFuture<IdentificationOperation> identify(ByteBuffer audioBuffer, List<UUID> ids, boolean forceShortAudio, boolean stopOnHighConfidence) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("No candidate profiles");
+        }
+        int shardCount = (ids.size() + shardSize - 1) / shardSize;
+        Merge merge = new Merge(shardCount, stopOnHighConfidence);
+        for (int start = 0; start < ids.size(); start += shardSize) {
+            List<UUID> shard = new ArrayList<>(ids.subList(start, Math.min(ids.size(), start + shardSize)));
+            submitShard(merge, audioBuffer.duplicate(), shard, forceShortAudio);
+        }
+        return merge.future;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Submits the audio with the candidates of one shard and polls the resulting operation
+     *
+     * @param merge The merge of the shard results
+     * @param audioBuffer The view of the audio for this shard
+     * @param ids The candidates of the shard
+     * @param forceShortAudio True to instruct the service to waive the recommended minimum audio limit needed for enrollment
+     */
+    private void submitShard(final Merge merge, final ByteBuffer audioBuffer, final List<UUID> ids, final boolean forceShortAudio) {
+        SpeakerFuture<OperationLocation> submitted = SpeakerFuture.submit(executor, new Callable<OperationLocation>() {
+            @Override
+            public OperationLocation call() throws Exception {
+                return client.identify(audioBuffer, ids, forceShortAudio);
+            }
+        });
+        merge.track(submitted);
+        submitted.addCallback(new SpeakerCallback<OperationLocation>() {
+            @Override
+            public void onSuccess(OperationLocation location) {
+                SpeakerFuture<IdentificationOperation> polled = poller.pollIdentification(location);
+                merge.track(polled);
+                polled.addCallback(new SpeakerCallback<IdentificationOperation>() {
+                    @Override
+                    public void onSuccess(IdentificationOperation operation) {
+                        merge.onShardResult(operation);
+                    }
+
+                    @Override
+                    public void onFailure(Exception error) {
+                        merge.onShardFailure(error);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception error) {
+                merge.onShardFailure(error);
+            }
+        });
+    }
+
+    /**
+     * Tells whether a shard result identified a speaker
+     *
+     * @param operation The shard operation
+     * @return True if the operation succeeded with an identified profile
+     */
+    private static boolean isIdentified(IdentificationOperation operation) {
+        if (operation.status != Status.SUCCEEDED || operation.processingResult == null) {
+            return false;
+        }
+        UUID id = operation.processingResult.identifiedProfileId;
+        return id != null && !NOT_IDENTIFIED.equals(id);
+    }
+
+    /**
+     * Ranks the confidence of a shard result
+     *
+     * @param operation The shard operation
+     * @return The rank, higher for better results
+     */
+    private static int rank(IdentificationOperation operation) {
+        if (!isIdentified(operation)) {
+            return -1;
+        }
+        Confidence confidence = operation.processingResult.confidence;
+        return confidence != null ? confidence.ordinal() : 0;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The merge of the shard results of one identification
+     */
+    private static class Merge {
+
+        /**
+         * The future of the merged operation
+         */
+        final SpeakerFuture<IdentificationOperation> future = new SpeakerFuture<>();
+
+        /**
+         * Whether to complete on the first high confidence result
+         */
+        private final boolean stopOnHighConfidence;
+
+        /**
+         * The futures of the shard calls, cancelled once the merge completes early
+         */
+        private final List<SpeakerFuture<?>> calls = new ArrayList<>();
+
+        /**
+         * The number of shards not reported yet
+         */
+        private int remaining;
+
+        /**
+         * The best successful shard result so far, or null
+         */
+        private IdentificationOperation best;
+
+        /**
+         * The first failed shard operation, or null
+         */
+        private IdentificationOperation failedOperation;
+
+        /**
+         * The first shard call failure, or null
+         */
+        private Exception error;
+
+        /**
+         * Creates the merge of a number of shards
+         *
+         * @param shardCount The number of shards
+         * @param stopOnHighConfidence Whether to complete on the first high confidence result
+         */
+        Merge(int shardCount, boolean stopOnHighConfidence) {
+            this.remaining = shardCount;
+            this.stopOnHighConfidence = stopOnHighConfidence;
+            future.setCancellationAction(new Runnable() {
+                @Override
+                public void run() {
+                    cancelCalls();
+                }
+            });
+        }
+
+        /**
+         * Tracks a shard call so that it is cancelled along with the merge
+         *
+         * @param call The future of the shard call
+         */
+        void track(SpeakerFuture<?> call) {
+            synchronized (this) {
+                if (!future.isDone()) {
+                    calls.add(call);
+                    return;
+                }
+            }
+            call.cancel(false);
+        }
+
+        /**
+         * Records the final operation of a shard
+         *
+         * @param operation The shard operation
+         */
+        void onShardResult(IdentificationOperation operation) {
+            boolean stop;
+            synchronized (this) {
+                if (operation.status == Status.SUCCEEDED) {
+                    if (best == null || rank(operation) > rank(best)) {
+                        best = operation;
+                    }
+                } else if (failedOperation == null) {
+                    failedOperation = operation;
+                }
+                remaining--;
+                stop = stopOnHighConfidence && isIdentified(operation) && operation.processingResult.confidence == Confidence.HIGH;
+            }
+            if (stop) {
+                if (future.complete(operation)) {
+                    cancelCalls();
+                }
+            } else {
+                completeIfDone();
+            }
+        }
+
+        /**
+         * Records the failure of a shard call
+         *
+         * @param error The typed service exception or an IOException
+         */
+        void onShardFailure(Exception error) {
+            synchronized (this) {
+                if (this.error == null) {
+                    this.error = error;
+                }
+                remaining--;
+            }
+            completeIfDone();
+        }
+
+        /**
+         * Completes the merge once all shards reported
+         */
+        private void completeIfDone() {
+            IdentificationOperation result;
+            IdentificationOperation failed;
+            Exception firstError;
+            synchronized (this) {
+                if (remaining > 0) {
+                    return;
+                }
+                result = best;
+                failed = failedOperation;
+                firstError = error;
+            }
+            if (result != null && (isIdentified(result) || (failed == null && firstError == null))) {
+                future.complete(result);
+            } else if (firstError != null) {
+                future.fail(firstError);
+            } else {
+                future.complete(failed);
+            }
+        }
+
+        /**
+         * Cancels the shard calls still running
+         */
+        private void cancelCalls() {
+            List<SpeakerFuture<?>> running;
+            synchronized (this) {
+                running = new ArrayList<>(calls);
+                calls.clear();
+            }
+            for (SpeakerFuture<?> call : running) {
+                call.cancel(false);
+            }
+        }
+    }
+}
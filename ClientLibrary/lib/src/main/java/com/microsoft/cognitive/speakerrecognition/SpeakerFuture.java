@@ -0,0 +1,356 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A future holding the result of an asynchronous service call.
+ * Besides blocking on {@link #get()}, callers can register callbacks that are invoked once the call completes.
+ * A failed call reports the same typed exception the synchronous client would have thrown,
+ * as the cause of the {@link ExecutionException} or as the argument of {@link SpeakerCallback#onFailure(Exception)}.
+ *
+ * @param <T> The type of the call result
+ */
+public class SpeakerFuture<T> implements Future<T> {
+
+    /**
+     * The callbacks to invoke on completion
+     */
+    private List<SpeakerCallback<? super T>> callbacks = new ArrayList<>();
+
+    /**
+     * The action to run if the future gets cancelled, or null
+     */
+    private Runnable cancellationAction;
+
+    /**
+     * The thread running the call submitted with {@link #submit(Executor, Callable)}, or null
+     */
+    private Thread worker;
+
+    /**
+     * Whether the future completed, failed or was cancelled
+     */
+    private boolean done;
+
+    /**
+     * The call result
+     */
+    private T result;
+
+    /**
+     * The call failure, or null if the call succeeded
+     */
+    private Exception error;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a pending future
+     */
+    SpeakerFuture() {
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Runs a blocking call on an executor.
+     * A callback throwing an exception doesn't change the outcome of the call; the exception is rethrown
+     * on the executor thread once all callbacks were invoked.
+     *
+     * @param executor The executor running the call
+     * @param call The blocking call
+     * @param <T> The type of the call result
+     * @return A future completed with the call outcome
+     */
+    static <T> SpeakerFuture<T> submit(Executor executor, final Callable<T> call) {
+        final SpeakerFuture<T> future = new SpeakerFuture<>();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (future) {
+                    if (future.done) {
+                        return;
+                    }
+                    future.worker = Thread.currentThread();
+                }
+                T value = null;
+                Exception failure = null;
+                try {
+                    value = call.call();
+                } catch (Exception e) {
+                    failure = e;
+                } finally {
+                    future.releaseWorker();
+                }
+                if (failure != null) {
+                    future.fail(failure);
+                } else {
+                    future.complete(value);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Registers a callback invoked once the call completes.
+     * If the call already completed, the callback is invoked immediately on the calling thread,
+     * otherwise it is invoked on the thread completing the call.
+     *
+     * @param callback The callback to invoke
+     */
+    public void addCallback(SpeakerCallback<? super T> callback) {
+        synchronized (this) {
+            if (!done) {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        notifyCallback(callback);
+    }
+
+    /**
+     * Cancels the call, running its cancellation action such as aborting its HTTP request.
+     * If the call was submitted to an executor and may be interrupted, its thread is also interrupted,
+     * which stops it waiting for a retry or for the rate limiter.
+     *
+     * @param mayInterruptIfRunning Whether the thread running the call is interrupted
+     * @return True if the future was cancelled by this call, false if it was already done
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        List<SpeakerCallback<? super T>> pending = settle(null, new CancellationException());
+        if (pending == null) {
+            return false;
+        }
+        Runnable action;
+        synchronized (this) {
+            action = cancellationAction;
+            if (mayInterruptIfRunning && worker != null) {
+                worker.interrupt();
+            }
+        }
+        if (action != null) {
+            action.run();
+        }
+        notifyCallbacks(pending);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return done && error instanceof CancellationException;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public synchronized T get() throws InterruptedException, ExecutionException {
+        while (!done) {
+            wait();
+        }
+        return outcome();
+    }
+
+    @Override
+    public synchronized T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!done) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return outcome();
+    }
+
+    /**
+     * Completes the future with a result
+     *
+     * @param value The call result
+     * @return True if the future was completed by this call, false if it was already done
+     */
+    boolean complete(T value) {
+        return finish(value, null);
+    }
+
+    /**
+     * Completes the future with a failure
+     *
+     * @param failure The call failure
+     * @return True if the future was completed by this call, false if it was already done
+     */
+    boolean fail(Exception failure) {
+        return finish(null, failure);
+    }
+
+    /**
+     * Sets an action to run if the future gets cancelled, used to release the resources of the pending call
+     *
+     * @param action The action to run on cancellation
+     */
+    void setCancellationAction(Runnable action) {
+        synchronized (this) {
+            if (!(done && error instanceof CancellationException)) {
+                cancellationAction = action;
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Stores the call outcome and notifies the waiting threads and callbacks
+     *
+     * @param value The call result
+     * @param failure The call failure, or null if the call succeeded
+     * @return True if the future was completed by this call, false if it was already done
+     */
+    private boolean finish(T value, Exception failure) {
+        List<SpeakerCallback<? super T>> pending = settle(value, failure);
+        if (pending == null) {
+            return false;
+        }
+        notifyCallbacks(pending);
+        return true;
+    }
+
+    /**
+     * Stores the call outcome and wakes up the waiting threads
+     *
+     * @param value The call result
+     * @param failure The call failure, or null if the call succeeded
+     * @return The callbacks to notify, or null if the future was already done
+     */
+    private synchronized List<SpeakerCallback<? super T>> settle(T value, Exception failure) {
+        if (done) {
+            return null;
+        }
+        done = true;
+        result = value;
+        error = failure;
+        List<SpeakerCallback<? super T>> pending = callbacks;
+        callbacks = null;
+        notifyAll();
+        return pending;
+    }
+
+    /**
+     * Invokes every callback even if some throw, then rethrows the first exception thrown by a callback
+     *
+     * @param pending The callbacks to invoke
+     */
+    private void notifyCallbacks(List<SpeakerCallback<? super T>> pending) {
+        RuntimeException thrown = null;
+        Error fatal = null;
+        for (SpeakerCallback<? super T> callback : pending) {
+            try {
+                notifyCallback(callback);
+            } catch (RuntimeException e) {
+                if (thrown == null && fatal == null) {
+                    thrown = e;
+                }
+            } catch (Error e) {
+                if (thrown == null && fatal == null) {
+                    fatal = e;
+                }
+            }
+        }
+        if (thrown != null) {
+            throw thrown;
+        }
+        if (fatal != null) {
+            throw fatal;
+        }
+    }
+
+    /**
+     * Forgets the thread running the submitted call once the call returned, so that a later cancellation doesn't
+     * interrupt whatever the thread runs next. An interrupt left by a cancellation of this call is cleared.
+     */
+    private synchronized void releaseWorker() {
+        worker = null;
+        if (done && error instanceof CancellationException) {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Returns the result of a completed future or throws its failure
+     *
+     * @return The call result
+     * @throws ExecutionException Wraps the call failure
+     */
+    private T outcome() throws ExecutionException {
+        if (error instanceof CancellationException) {
+            throw (CancellationException) error;
+        }
+        if (error != null) {
+            throw new ExecutionException(error);
+        }
+        return result;
+    }
+
+    /**
+     * Invokes a callback with the outcome of a completed future
+     *
+     * @param callback The callback to invoke
+     */
+    private void notifyCallback(SpeakerCallback<? super T> callback) {
+        T value;
+        Exception failure;
+        synchronized (this) {
+            value = result;
+            failure = error;
+        }
+        if (failure != null) {
+            callback.onFailure(failure);
+        } else {
+            callback.onSuccess(value);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.identification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An interface for the asynchronous speaker identification service client related methods.
+ * Each method returns immediately; the returned future fails with the exception the matching
+ * {@link SpeakerIdentificationClient} method would have thrown.
+ */
+public interface SpeakerIdentificationAsyncClient {
+
+    /**
+     * Identifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The audio stream to identify, which must stay open until the future completes
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return A future of the Url that can be used to query the identification operation status
+     */
+    SpeakerFuture<OperationLocation> identify(InputStream audioStream, List<UUID> ids);
+
+    /**
+     * Identifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The audio stream to identify, which must stay open until the future completes
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return A future of the Url that can be used to query the identification operation status
+     */
+    SpeakerFuture<OperationLocation> identify(InputStream audioStream, List<UUID> ids, boolean forceShortAudio);
+
+    /**
+     * Creates a new speaker profile
+     *
+     * @param locale The speaker profile locale
+     * @return A future of the response object of the create request
+     */
+    SpeakerFuture<CreateProfileResponse> createProfile(String locale);
+
+    /**
+     * Deletes a given speaker profile
+     *
+     * @param id The ID of the speaker profile to be deleted
+     * @return A future completed once the profile is deleted
+     */
+    SpeakerFuture<Void> deleteProfile(UUID id);
+
+    /**
+     * Retrieves a speaker profile from the service
+     *
+     * @param id The ID of the speaker profile to get
+     * @return A future of the requested profile
+     */
+    SpeakerFuture<Profile> getProfile(UUID id);
+
+    /**
+     * Gets all speaker profiles from the service
+     *
+     * @return A future of the list of all profiles
+     */
+    SpeakerFuture<List<Profile>> getProfiles();
+
+    /**
+     * Enrolls a speaker profile from an audio stream
+     *
+     * @param audioStream The audio stream to use for enrollment, which must stay open until the future completes
+     * @param id The speaker profile ID to enroll
+     * @return A future of the Url that can be used to query the enrollment operation status
+     */
+    SpeakerFuture<OperationLocation> enroll(InputStream audioStream, UUID id);
+
+    /**
+     * Enrolls a speaker profile from an audio stream
+     *
+     * @param audioStream The audio stream to use for enrollment, which must stay open until the future completes
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return A future of the Url that can be used to query the enrollment operation status
+     */
+    SpeakerFuture<OperationLocation> enroll(InputStream audioStream, UUID id, boolean forceShortAudio);
+
+    /**
+     * Gets the enrollment operation status or result
+     *
+     * @param location The Url returned upon calling the enrollment operation
+     * @return A future of the enrollment operation object encapsulating the result
+     */
+    SpeakerFuture<EnrollmentOperation> checkEnrollmentStatus(OperationLocation location);
+
+    /**
+     * Gets the identification operation status or result
+     *
+     * @param location The Url returned upon calling the identification operation
+     * @return A future of the identification operation object encapsulating the result
+     */
+    SpeakerFuture<IdentificationOperation> checkIdentificationStatus(OperationLocation location);
+
+    /**
+     * Deletes all enrollments associated with the given speaker identification profile permanently from the service
+     *
+     * @param id The speaker ID
+     * @return A future completed once the enrollments are deleted
+     */
+    SpeakerFuture<Void> resetEnrollments(UUID id);
+}
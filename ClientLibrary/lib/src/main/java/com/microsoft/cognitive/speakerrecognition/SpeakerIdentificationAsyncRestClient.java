@@ -0,0 +1,249 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.identification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * This class runs the identification service calls of a {@link SpeakerIdentificationClient} on an executor
+ */
+public class SpeakerIdentificationAsyncRestClient implements SpeakerIdentificationAsyncClient {
+
+    /**
+     * The blocking client performing the service calls
+     */
+    private final SpeakerIdentificationClient client;
+
+    /**
+     * The executor running the service calls
+     */
+    private final Executor executor;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes an asynchronous client running the calls of the given client
+     *
+     * @param client The blocking client performing the service calls
+     * @param executor The executor running the service calls
+     */
+    public SpeakerIdentificationAsyncRestClient(SpeakerIdentificationClient client, Executor executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Identifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The audio stream to identify, which must stay open until the future completes
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return A future of the Url that can be used to query the identification operation status
+     */
+    @Override
+    public SpeakerFuture<OperationLocation> identify(InputStream audioStream, List<UUID> ids) {
+        return identify(audioStream, ids, false);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The audio stream to identify, which must stay open until the future completes
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return A future of the Url that can be used to query the identification operation status
+     */
+    @Override
+    public SpeakerFuture<OperationLocation> identify(final InputStream audioStream, final List<UUID> ids, final boolean forceShortAudio) {
+        return SpeakerFuture.submit(executor, new Callable<OperationLocation>() {
+            @Override
+            public OperationLocation call() throws Exception {
+                return client.identify(audioStream, ids, forceShortAudio);
+            }
+        });
+    }
+
+    /**
+     * Creates a new speaker profile
+     *
+     * @param locale The speaker profile locale
+     * @return A future of the response object of the create request
+     */
+    @Override
+    public SpeakerFuture<CreateProfileResponse> createProfile(final String locale) {
+        return SpeakerFuture.submit(executor, new Callable<CreateProfileResponse>() {
+            @Override
+            public CreateProfileResponse call() throws Exception {
+                return client.createProfile(locale);
+            }
+        });
+    }
+
+    /**
+     * Deletes a given speaker profile
+     *
+     * @param id The ID of the speaker profile to be deleted
+     * @return A future completed once the profile is deleted
+     */
+    @Override
+    public SpeakerFuture<Void> deleteProfile(final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                client.deleteProfile(id);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Retrieves a speaker profile from the service
+     *
+     * @param id The ID of the speaker profile to get
+     * @return A future of the requested profile
+     */
+    @Override
+    public SpeakerFuture<Profile> getProfile(final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Profile>() {
+            @Override
+            public Profile call() throws Exception {
+                return client.getProfile(id);
+            }
+        });
+    }
+
+    /**
+     * Gets all speaker profiles from the service
+     *
+     * @return A future of the list of all profiles
+     */
+    @Override
+    public SpeakerFuture<List<Profile>> getProfiles() {
+        return SpeakerFuture.submit(executor, new Callable<List<Profile>>() {
+            @Override
+            public List<Profile> call() throws Exception {
+                return client.getProfiles();
+            }
+        });
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio stream
+     *
+     * @param audioStream The audio stream to use for enrollment, which must stay open until the future completes
+     * @param id The speaker profile ID to enroll
+     * @return A future of the Url that can be used to query the enrollment operation status
+     */
+    @Override
+    public SpeakerFuture<OperationLocation> enroll(InputStream audioStream, UUID id) {
+        return enroll(audioStream, id, false);
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio stream
+     *
+     * @param audioStream The audio stream to use for enrollment, which must stay open until the future completes
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return A future of the Url that can be used to query the enrollment operation status
+     */
+    @Override
+    public SpeakerFuture<OperationLocation> enroll(final InputStream audioStream, final UUID id, final boolean forceShortAudio) {
+        return SpeakerFuture.submit(executor, new Callable<OperationLocation>() {
+            @Override
+            public OperationLocation call() throws Exception {
+                return client.enroll(audioStream, id, forceShortAudio);
+            }
+        });
+    }
+
+    /**
+     * Gets the enrollment operation status or result
+     *
+     * @param location The Url returned upon calling the enrollment operation
+     * @return A future of the enrollment operation object encapsulating the result
+     */
+    @Override
+    public SpeakerFuture<EnrollmentOperation> checkEnrollmentStatus(final OperationLocation location) {
+        return SpeakerFuture.submit(executor, new Callable<EnrollmentOperation>() {
+            @Override
+            public EnrollmentOperation call() throws Exception {
+                return client.checkEnrollmentStatus(location);
+            }
+        });
+    }
+
+    /**
+     * Gets the identification operation status or result
+     *
+     * @param location The Url returned upon calling the identification operation
+     * @return A future of the identification operation object encapsulating the result
+     */
+    @Override
+    public SpeakerFuture<IdentificationOperation> checkIdentificationStatus(final OperationLocation location) {
+        return SpeakerFuture.submit(executor, new Callable<IdentificationOperation>() {
+            @Override
+            public IdentificationOperation call() throws Exception {
+                return client.checkIdentificationStatus(location);
+            }
+        });
+    }
+
+    /**
+     * Deletes all enrollments associated with the given speaker identification profile permanently from the service
+     *
+     * @param id The speaker ID
+     * @return A future completed once the enrollments are deleted
+     */
+    @Override
+    public SpeakerFuture<Void> resetEnrollments(final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                client.resetEnrollments(id);
+                return null;
+            }
+        });
+    }
+}
@@ -36,6 +36,7 @@ import com.microsoft.cognitive.speakerrecognition.contract.CreateProfileExceptio
 import com.microsoft.cognitive.speakerrecognition.contract.DeleteProfileException;
 import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentException;
 import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileNotFoundException;
 import com.microsoft.cognitive.speakerrecognition.contract.ResetEnrollmentsException;
 import com.microsoft.cognitive.speakerrecognition.contract.identification.CreateProfileResponse;
 import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
@@ -45,47 +46,40 @@ import com.microsoft.cognitive.speakerrecognition.contract.identification.Operat
 import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
+import java.util.concurrent.Executor;
 import org.apache.http.HttpStatus;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.HttpDelete;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.message.BasicNameValuePair;
 
 /**
  * This class abstracts all the identification service calls
  */
-public class SpeakerIdentificationRestClient implements SpeakerIdentificationClient {
+public class SpeakerIdentificationRestClient implements ExtendedSpeakerIdentificationClient {
 
     /**
-     * The Http client used to communicate with the service
+     * Service root of the region the profiles of this client live in
      */
-    private HttpClient defaultHttpClient;
+    private final String serviceRoot;
 
     /**
      * Address of the identification profiles API
      */
-    private static final String IDENTIFICATION_PROFILE_URI = "https://westus.api.cognitive.microsoft.com/spid/v1.0/identificationProfiles";
+    private final String identificationProfileUri;
 
     /**
      * Address of the identification API
      */
-    private static final String IDENTIFICATION_URI = "https://westus.api.cognitive.microsoft.com/spid/v1.0/identify";
+    private final String identificationUri;
 
     /**
      * The operation location header field
@@ -95,7 +89,7 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     /**
      * Json Serializer / deserializer
      */
-    private Gson gson;
+    private final Gson gson;
 
     /**
      * The locale parameter
@@ -110,7 +104,7 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     /**
      * Speaker client clientHelper
      */
-    private SpeakerRestClientHelper clientHelper;
+    private final SpeakerRestClientHelper clientHelper;
 
     //----------------------------------------------------------------------------------------------
 
@@ -120,9 +114,47 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
      * @param subscriptionKey The subscription key to use
      */
     public SpeakerIdentificationRestClient(String subscriptionKey) {
-        defaultHttpClient = new DefaultHttpClient();
-        gson =  new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:SS.SSS").create();
-        clientHelper = new SpeakerRestClientHelper(subscriptionKey);
+        this(new SpeakerRecognitionContext(subscriptionKey));
+    }
+
+    /**
+     * Initializes an instance of the service client sharing the connections of the given context
+     *
+     * @param context The context holding the connection pool and the subscription key
+     */
+    public SpeakerIdentificationRestClient(SpeakerRecognitionContext context) {
+        this(context, SpeakerRestClientHelper.DEFAULT_SERVICE_ROOT);
+    }
+
+    /**
+     * Initializes an instance of the service client calling the given region.
+     * Profiles created by this client live in that region, and all the calls of this client go to it.
+     *
+     * @param context The context holding the connection pool and the subscription key
+     * @param serviceRoot The service root of the region, for example "https://westus.api.cognitive.microsoft.com/spid/v1.0"
+     */
+    public SpeakerIdentificationRestClient(SpeakerRecognitionContext context, String serviceRoot) {
+        this.serviceRoot = SpeakerRestClientHelper.trimServiceRoot(serviceRoot);
+        identificationProfileUri = this.serviceRoot + "/identificationProfiles";
+        identificationUri = this.serviceRoot + "/identify";
+        gson = context.getGson();
+        clientHelper = context.getClientHelper();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Opens and pools connections to the service root of this client ahead of demand,
+     * so the first calls don't pay the DNS, TCP and TLS setup. Call it at startup or after a network change.
+     * Each connection is opened with a phrase request, which counts against the rate limiter of the context.
+     *
+     * @param connections The number of connections to open, at most the per-route limit of the context
+     * @param executor The executor sending the requests, typically the one the asynchronous clients share
+     * @return The number of connections opened
+     * @throws InterruptedIOException Signals that the thread was interrupted while opening the connections
+     */
+    public int warmUp(int connections, Executor executor) throws InterruptedIOException {
+        return clientHelper.warmUp(serviceRoot, connections, executor);
     }
 
     //----------------------------------------------------------------------------------------------
@@ -138,21 +170,18 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public CreateProfileResponse createProfile(String locale) throws CreateProfileException, IOException {
 
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(IDENTIFICATION_PROFILE_URI, RequestType.POST);
+        TransportRequest request = clientHelper.createHttpRequest(identificationProfileUri, RequestType.POST);
 
-        List<NameValuePair> paramsList = new ArrayList<>();
-        paramsList.add(new BasicNameValuePair(LOCALE_PARAM, locale));
-        request.setEntity(new UrlEncodedFormEntity(paramsList));
+        request.setBody(clientHelper.createFormBody(LOCALE_PARAM, locale));
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.CREATE_PROFILE, identificationProfileUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, CreateProfileResponse.class);
+            return clientHelper.readJson(response, gson, CreateProfileResponse.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new CreateProfileException(errorResponse.error.message);
             } else {
@@ -166,28 +195,27 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
      *
      * @param id The ID of the speaker profile to get
      * @return The requested profile
-     * @throws GetProfileException Thrown in cases of invalid ID or an internal server error
+     * @throws GetProfileException Thrown in cases of invalid ID or an internal server error, as a {@link ProfileNotFoundException} if the profile doesn't exist
      * @throws IOException Signals a connection abortion, or an invalid response content
      */
     @Override
     public Profile getProfile(UUID id) throws GetProfileException, IOException {
 
-        HttpGet request = (HttpGet) clientHelper.createHttpRequest(IDENTIFICATION_PROFILE_URI + "/" + id.toString(), RequestType.GET);
+        TransportRequest request = clientHelper.createHttpRequest(identificationProfileUri + "/" + id.toString(), RequestType.GET);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.GET_PROFILE, identificationProfileUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, Profile.class);
+            return clientHelper.readJson(response, gson, Profile.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
-            if (errorResponse != null) {
-                throw new GetProfileException(errorResponse.error.message);
-            } else {
-                throw new GetProfileException(String.valueOf(statusCode));
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
+            String message = errorResponse != null ? errorResponse.error.message : String.valueOf(statusCode);
+            if (statusCode == HttpStatus.SC_NOT_FOUND) {
+                throw new ProfileNotFoundException(message);
             }
+            throw new GetProfileException(message);
         }
     }
 
@@ -201,18 +229,47 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public List<Profile> getProfiles() throws GetProfileException, IOException {
 
-        HttpGet request = (HttpGet) clientHelper.createHttpRequest(IDENTIFICATION_PROFILE_URI, RequestType.GET);
+        TransportRequest request = clientHelper.createHttpRequest(identificationProfileUri, RequestType.GET);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.GET_PROFILES, identificationProfileUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
             Type listType = new TypeToken<List<Profile>>(){}.getType();
-            return gson.fromJson(stringResponse, listType);
+            return clientHelper.readJson(response, gson, listType);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
+            if (errorResponse != null) {
+                throw new GetProfileException(errorResponse.error.message);
+            } else {
+                throw new GetProfileException(String.valueOf(statusCode));
+            }
+        }
+    }
+
+    /**
+     * Gets all speaker profiles from the service one at a time, decoding each profile only when it is reached.
+     * Memory use doesn't grow with the number of profiles, which makes it suited to scanning large profile sets,
+     * for example for the enrolled profiles of a locale. The iterator must be closed if it isn't read to its end.
+     *
+     * @return An iterator over all profiles
+     * @throws GetProfileException Thrown in case of an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public ProfileIterator<Profile> streamProfiles() throws GetProfileException, IOException {
+
+        TransportRequest request = clientHelper.createHttpRequest(identificationProfileUri, RequestType.GET);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.GET_PROFILES, identificationProfileUri, request);
+
+        int statusCode = clientHelper.getStatusCode(response);
+
+        if (statusCode == HttpStatus.SC_OK) {
+            return clientHelper.readJsonArray(request, response, gson, Profile.class);
+        } else {
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new GetProfileException(errorResponse.error.message);
             } else {
@@ -231,21 +288,21 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public void deleteProfile(UUID id) throws DeleteProfileException, IOException {
 
-        HttpDelete request = (HttpDelete) clientHelper.createHttpRequest(IDENTIFICATION_PROFILE_URI + "/" + id.toString(), RequestType.DELETE);
+        TransportRequest request = clientHelper.createHttpRequest(identificationProfileUri + "/" + id.toString(), RequestType.DELETE);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.DELETE_PROFILE, identificationProfileUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode != HttpStatus.SC_OK) {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new DeleteProfileException(errorResponse.error.message);
             } else {
                 throw new DeleteProfileException(String.valueOf(statusCode));
             }
         }
+        clientHelper.consumeResponse(response);
     }
 
     /**
@@ -276,20 +333,112 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public OperationLocation enroll(InputStream audioStream, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
 
-        String requestUrl = IDENTIFICATION_PROFILE_URI + "/" + id.toString() + "/enroll?" + SHORT_AUDIO_PARAM + "=" + forceShortAudio;
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(requestUrl, RequestType.POST);
-
         String fileName = id.toString() + "_" + new Date();
-        HttpEntity entity = clientHelper.addStreamToEntity(audioStream, "enrollmentData", fileName);
-        request.setEntity(entity);
+        RequestBody body = clientHelper.addStreamToEntity(audioStream, "enrollmentData", fileName);
+        return sendEnrollment(body, id, forceShortAudio);
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(File audioFile, UUID id) throws EnrollmentException, IOException {
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        return enroll(audioFile, id, false);
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(File audioFile, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+
+        return enroll(SpeakerRestClientHelper.mapAudio(audioFile), id, forceShortAudio);
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(FileChannel audioChannel, UUID id) throws EnrollmentException, IOException {
+
+        return enroll(audioChannel, id, false);
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(FileChannel audioChannel, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+
+        return enroll(SpeakerRestClientHelper.mapAudio(audioChannel), id, forceShortAudio);
+    }
+
+    /**
+     * Enrolls a speaker profile from an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile ID to enroll
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(ByteBuffer audioBuffer, UUID id) throws EnrollmentException, IOException {
+
+        return enroll(audioBuffer, id, false);
+    }
+
+    /**
+     * Sends an enrollment request holding an audio body
+     *
+     * @param body The multipart body holding the audio to enroll
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals an I/O issue while reading the audio, a connection abortion, or an invalid response content
+     */
+    private OperationLocation sendEnrollment(RequestBody body, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+
+        String requestUrl = identificationProfileUri + "/" + id.toString() + "/enroll?" + SHORT_AUDIO_PARAM + "=" + forceShortAudio;
+        TransportRequest request = clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        request.setBody(body);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.ENROLL, identificationProfileUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
 
         if (statusCode == HttpStatus.SC_ACCEPTED) { //  202 Accepted (HTTP/1.0 - RFC 1945)
-            String header = response.getFirstHeader(_OPERATION_LOCATION_HEADER).getValue();
-            if (header.trim().length() != 0) {
+            String header = response.getHeader(_OPERATION_LOCATION_HEADER);
+            clientHelper.consumeResponse(response);
+            if (header != null && header.trim().length() != 0) {
                 OperationLocation opLoc = new OperationLocation();
                 opLoc.Url = header;
                 return opLoc;
@@ -297,8 +446,7 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
                 throw new EnrollmentException("Incorrect server response");
             }
         } else {
-            String stringResponse = clientHelper.httpResponseToString(response);
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new EnrollmentException(errorResponse.error.message);
             } else {
@@ -307,6 +455,24 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
         }
     }
 
+    /**
+     * Enrolls a speaker profile from an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile ID to enroll
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for enrollment
+     * @return An object encapsulating the Url that can be used to query the enrollment operation status
+     * @throws EnrollmentException Thrown in case of an invalid audio format, internal server error or an invalid ID
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation enroll(ByteBuffer audioBuffer, UUID id, boolean forceShortAudio) throws EnrollmentException, IOException {
+
+        String fileName = id.toString() + "_" + new Date();
+        RequestBody body = clientHelper.addBufferToEntity(audioBuffer, "enrollmentData", fileName);
+        return sendEnrollment(body, id, forceShortAudio);
+    }
+
     /**
      * Gets the enrollment operation status or result
      *
@@ -318,17 +484,48 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public EnrollmentOperation checkEnrollmentStatus(OperationLocation location) throws EnrollmentException, IOException {
 
-        HttpGet request = (HttpGet) clientHelper.createHttpRequest(location.Url, RequestType.GET);
+        TransportRequest request = clientHelper.createHttpRequest(location.Url, RequestType.GET);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.CHECK_ENROLLMENT_STATUS, clientHelper.getOperationsEndpoint(location.Url), request);
+
+        int statusCode = clientHelper.getStatusCode(response);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        if (statusCode == HttpStatus.SC_OK) {
+            return clientHelper.readJson(response, gson, EnrollmentOperation.class);
+        } else {
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
+            if (errorResponse != null) {
+                throw new EnrollmentException(errorResponse.error.message);
+            } else {
+                throw new EnrollmentException(String.valueOf(statusCode));
+            }
+        }
+    }
+
+    /**
+     * Polls the status of an enrollment operation, reusing a holder while the operation is pending.
+     * Only the status of a pending operation is decoded and stored in the holder; the other fields of the holder
+     * are left as they were. A completed operation is decoded in full and returned as a new object.
+     *
+     * @param location The Url returned upon calling the enrollment operation
+     * @param pending The holder updated with the status of a pending operation
+     * @return The holder if the operation is pending, the completed operation otherwise
+     * @throws EnrollmentException Thrown in case of an internal server error or an invalid URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public EnrollmentOperation pollEnrollmentStatus(OperationLocation location, EnrollmentOperation pending) throws EnrollmentException, IOException {
+
+        TransportRequest request = clientHelper.createHttpRequest(location.Url, RequestType.GET);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.CHECK_ENROLLMENT_STATUS, clientHelper.getOperationsEndpoint(location.Url), request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, EnrollmentOperation.class);
+            return clientHelper.readOperationStatus(response, gson, EnrollmentOperation.class, pending);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new EnrollmentException(errorResponse.error.message);
             } else {
@@ -347,22 +544,22 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public void resetEnrollments(UUID id) throws ResetEnrollmentsException, IOException {
 
-        String requestUrl = IDENTIFICATION_PROFILE_URI + "/" + id.toString() + "/reset";
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        String requestUrl = identificationProfileUri + "/" + id.toString() + "/reset";
+        TransportRequest request = clientHelper.createHttpRequest(requestUrl, RequestType.POST);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.RESET_ENROLLMENTS, identificationProfileUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode != HttpStatus.SC_OK) {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new ResetEnrollmentsException(errorResponse.error.message);
             } else {
                 throw new ResetEnrollmentsException(String.valueOf(statusCode));
             }
         }
+        clientHelper.consumeResponse(response);
     }
 
     /**
@@ -376,17 +573,48 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public IdentificationOperation checkIdentificationStatus(OperationLocation location) throws IdentificationException, IOException {
 
-        HttpGet request = (HttpGet) clientHelper.createHttpRequest(location.Url, RequestType.GET);
+        TransportRequest request = clientHelper.createHttpRequest(location.Url, RequestType.GET);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.CHECK_IDENTIFICATION_STATUS, clientHelper.getOperationsEndpoint(location.Url), request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, IdentificationOperation.class);
+            return clientHelper.readJson(response, gson, IdentificationOperation.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
+            if (errorResponse != null) {
+                throw new IdentificationException(errorResponse.error.message);
+            } else {
+                throw new IdentificationException(String.valueOf(statusCode));
+            }
+        }
+    }
+
+    /**
+     * Polls the status of an identification operation, reusing a holder while the operation is pending.
+     * Only the status of a pending operation is decoded and stored in the holder; the other fields of the holder
+     * are left as they were. A completed operation is decoded in full and returned as a new object.
+     *
+     * @param location The Url returned upon calling the identification operation
+     * @param pending The holder updated with the status of a pending operation
+     * @return The holder if the operation is pending, the completed operation otherwise
+     * @throws IdentificationException Thrown in case of an internal server error or a wrong URL
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public IdentificationOperation pollIdentificationStatus(OperationLocation location, IdentificationOperation pending) throws IdentificationException, IOException {
+
+        TransportRequest request = clientHelper.createHttpRequest(location.Url, RequestType.GET);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.CHECK_IDENTIFICATION_STATUS, clientHelper.getOperationsEndpoint(location.Url), request);
+
+        int statusCode = clientHelper.getStatusCode(response);
+
+        if (statusCode == HttpStatus.SC_OK) {
+            return clientHelper.readOperationStatus(response, gson, IdentificationOperation.class, pending);
+        } else {
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new IdentificationException(errorResponse.error.message);
             } else {
@@ -423,21 +651,113 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
     @Override
     public OperationLocation identify(InputStream audioStream, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
 
-        String testProfileIds = clientHelper.buildProfileIdsString(ids);
-        String requestUrl = IDENTIFICATION_URI + "?identificationProfileIds=" + testProfileIds.toString() + "&" + SHORT_AUDIO_PARAM + "=" + forceShortAudio;
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(requestUrl, RequestType.POST);
-
         String fileName = "identificationsIds" + "_" + new Date();
-        HttpEntity entity = clientHelper.addStreamToEntity(audioStream, "identificationData", fileName);
-        request.setEntity(entity);
+        RequestBody body = clientHelper.addStreamToEntity(audioStream, "identificationData", fileName);
+        return sendIdentification(body, ids, forceShortAudio);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to identify, which is memory-mapped rather than read onto the heap
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(File audioFile, List<UUID> ids) throws IdentificationException, IOException {
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        return identify(audioFile, ids, false);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to identify, which is memory-mapped rather than read onto the heap
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(File audioFile, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+
+        return identify(SpeakerRestClientHelper.mapAudio(audioFile), ids, forceShortAudio);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to identify, read from its current position to its end
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(FileChannel audioChannel, List<UUID> ids) throws IdentificationException, IOException {
+
+        return identify(audioChannel, ids, false);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to identify, read from its current position to its end
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(FileChannel audioChannel, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+
+        return identify(SpeakerRestClientHelper.mapAudio(audioChannel), ids, forceShortAudio);
+    }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to identify between its position and its limit
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(ByteBuffer audioBuffer, List<UUID> ids) throws IdentificationException, IOException {
+
+        return identify(audioBuffer, ids, false);
+    }
+
+    /**
+     * Sends an identification request holding an audio body
+     *
+     * @param body The multipart body holding the audio to identify
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals an I/O issue while reading the audio, a connection abortion, or an invalid response content
+     */
+    private OperationLocation sendIdentification(RequestBody body, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+
+        String testProfileIds = clientHelper.buildProfileIdsString(ids);
+        String requestUrl = identificationUri + "?identificationProfileIds=" + testProfileIds.toString() + "&" + SHORT_AUDIO_PARAM + "=" + forceShortAudio;
+        TransportRequest request = clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        request.setBody(body);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.IDENTIFY, identificationUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
 
         if (statusCode == HttpStatus.SC_ACCEPTED) { //  202 Accepted (HTTP/1.0 - RFC 1945)
-            String header = response.getFirstHeader(_OPERATION_LOCATION_HEADER).getValue();
-            if (header.trim().length() != 0) {
+            String header = response.getHeader(_OPERATION_LOCATION_HEADER);
+            clientHelper.consumeResponse(response);
+            if (header != null && header.trim().length() != 0) {
                 OperationLocation opLoc = new OperationLocation();
                 opLoc.Url = header;
                 return opLoc;
@@ -445,8 +765,7 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
                 throw new IdentificationException("Incorrect server response");
             }
         } else {
-            String stringResponse = clientHelper.httpResponseToString(response);
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new IdentificationException(errorResponse.error.message);
             } else {
@@ -454,4 +773,22 @@ public class SpeakerIdentificationRestClient implements SpeakerIdentificationCli
             }
         }
     }
+
+    /**
+     * Identifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to identify between its position and its limit
+     * @param ids The list of possible speaker profile IDs to identify from
+     * @param forceShortAudio Instruct the service to waive the recommended minimum audio limit needed for identification
+     * @return An object encapsulating the Url that can be used to query the identification operation status
+     * @throws IdentificationException Thrown in case of an internal server error, invalid IDs or a wrong audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public OperationLocation identify(ByteBuffer audioBuffer, List<UUID> ids, boolean forceShortAudio) throws IdentificationException, IOException {
+
+        String fileName = "identificationsIds" + "_" + new Date();
+        RequestBody body = clientHelper.addBufferToEntity(audioBuffer, "identificationData", fileName);
+        return sendIdentification(body, ids, forceShortAudio);
+    }
 }
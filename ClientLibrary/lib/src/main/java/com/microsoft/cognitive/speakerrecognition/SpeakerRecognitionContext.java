@@ -0,0 +1,277 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * A context holding the resources shared by the speaker recognition service clients.
+ * A single context owns one pooled, keep-alive connection manager, one Json serializer and one client helper,
+ * so that any number of identification and verification clients built from it reuse the same connections.
+ */
+public class SpeakerRecognitionContext {
+
+    /**
+     * An enum encoding the HTTP stack used to communicate with the service
+     */
+    public enum TransportType {
+
+        /**
+         * The Apache Http client with a connection pool owned by the context
+         */
+        APACHE_HTTP_CLIENT,
+
+        /**
+         * The platform HttpURLConnection with the connection pool shared by the process
+         */
+        URL_CONNECTION
+    }
+
+    /**
+     * The default maximum number of pooled connections per route
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    /**
+     * The default maximum number of pooled connections across all routes
+     */
+    public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 50;
+
+    /**
+     * The default time, in milliseconds, an idle connection is kept alive when the service doesn't specify one
+     */
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = 30000;
+
+    /**
+     * The connection and socket timeout in milliseconds
+     */
+    private static final int SOCKET_TIMEOUT_MILLIS = 60000;
+
+    /**
+     * The number of TLS sessions cached for resumption
+     */
+    private static final int TLS_SESSION_CACHE_SIZE = 64;
+
+    /**
+     * The time a cached TLS session can be resumed, in seconds
+     */
+    private static final int TLS_SESSION_TIMEOUT_SECONDS = 24 * 60 * 60;
+
+    /**
+     * The transport shared by all the clients
+     */
+    private final HttpTransport transport;
+
+    /**
+     * Json Serializer / deserializer
+     */
+    private final Gson gson;
+
+    /**
+     * Speaker client clientHelper
+     */
+    private final SpeakerRestClientHelper clientHelper;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes a context with the default connection limits
+     *
+     * @param subscriptionKey The subscription key to use
+     */
+    public SpeakerRecognitionContext(String subscriptionKey) {
+        this(subscriptionKey, DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_MAX_TOTAL_CONNECTIONS);
+    }
+
+    /**
+     * Initializes a context using the Apache Http client with the given connection limits
+     *
+     * @param subscriptionKey The subscription key to use
+     * @param maxConnectionsPerRoute The maximum number of pooled connections to a single host
+     * @param maxTotalConnections The maximum number of pooled connections across all hosts
+     */
+    public SpeakerRecognitionContext(String subscriptionKey, int maxConnectionsPerRoute, int maxTotalConnections) {
+        this(subscriptionKey, TransportType.APACHE_HTTP_CLIENT, maxConnectionsPerRoute, maxTotalConnections);
+    }
+
+    /**
+     * Initializes a context using the given HTTP stack
+     *
+     * @param subscriptionKey The subscription key to use
+     * @param transportType The HTTP stack used to communicate with the service
+     * @param maxConnectionsPerRoute The maximum number of pooled connections to a single host, ignored by URL_CONNECTION
+     * @param maxTotalConnections The maximum number of pooled connections across all hosts, ignored by URL_CONNECTION
+     */
+    public SpeakerRecognitionContext(String subscriptionKey, TransportType transportType, int maxConnectionsPerRoute, int maxTotalConnections) {
+        if (maxConnectionsPerRoute <= 0 || maxTotalConnections < maxConnectionsPerRoute) {
+            throw new IllegalArgumentException("Invalid connection limits");
+        }
+
+        SSLContext sslContext = createSslContext();
+        switch (transportType) {
+            case URL_CONNECTION:
+                transport = new UrlConnectionHttpTransport(SOCKET_TIMEOUT_MILLIS, sslContext);
+                break;
+            case APACHE_HTTP_CLIENT:
+            default:
+                transport = new ApacheHttpTransport(maxConnectionsPerRoute, maxTotalConnections, SOCKET_TIMEOUT_MILLIS, DEFAULT_KEEP_ALIVE_MILLIS, sslContext);
+                break;
+        }
+
+        gson = new GsonBuilder().registerTypeAdapterFactory(new ContractTypeAdapterFactory()).create();
+        clientHelper = new SpeakerRestClientHelper(subscriptionKey, transport);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Closes the pooled connections that have been idle for longer than the given time
+     *
+     * @param idleTime The idle time after which a connection gets closed
+     * @param unit The unit of the idle time
+     */
+    public void closeIdleConnections(long idleTime, TimeUnit unit) {
+        transport.closeIdleConnections(idleTime, unit);
+    }
+
+    /**
+     * Shuts down the connection manager and closes all pooled connections.
+     * Clients built from this context can't be used afterwards.
+     */
+    public void shutdown() {
+        transport.shutdown();
+    }
+
+    /**
+     * Sets the policy deciding whether failed calls of the clients built from this context are sent again.
+     * Audio streams are read once before the first attempt, file streams being memory-mapped and other streams
+     * buffered, so a retried enrollment, identification or verification re-sends the same audio.
+     *
+     * @param retryPolicy The retry policy, or {@link RetryPolicy#NONE} to disable retries
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        clientHelper.setRetryPolicy(retryPolicy);
+    }
+
+    /**
+     * Sets a limiter taking tokens for every call of the clients built from this context.
+     * The same limiter can be set on several contexts to share one budget between them.
+     *
+     * @param rateLimiter The rate limiter, or null to stop limiting calls
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        clientHelper.setRateLimiter(rateLimiter);
+    }
+
+    /**
+     * Sets a circuit breaker guarding the endpoints called by the clients built from this context
+     *
+     * @param circuitBreaker The circuit breaker, or null to never short-circuit calls
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        clientHelper.setCircuitBreaker(circuitBreaker);
+    }
+
+    /**
+     * Sets a policy hedging the latency-critical calls of the clients built from this context
+     *
+     * @param hedgingPolicy The hedging policy, or null to never hedge calls
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        clientHelper.setHedgingPolicy(hedgingPolicy);
+    }
+
+    /**
+     * Sets whether the clients built from this context ask the service to compress its responses.
+     * Compressed responses are decoded on the fly while they are read; this mostly pays off for large profile listings.
+     *
+     * @param responseCompression True to accept gzip and deflate encoded responses
+     */
+    public void setResponseCompression(boolean responseCompression) {
+        clientHelper.setResponseCompression(responseCompression);
+    }
+
+    /**
+     * Gets the number of retries sent for an operation by the clients built from this context
+     *
+     * @param operation The service operation
+     * @return The number of retries
+     */
+    public long getRetryCount(ServiceOperation operation) {
+        return clientHelper.getRetryCount(operation);
+    }
+
+    /**
+     * Creates the SSL context whose session cache lets reconnects to the service resume their TLS session
+     *
+     * @return The SSL context
+     */
+    private static SSLContext createSslContext() {
+        try {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, null, null);
+            SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+            if (sessionContext != null) {
+                sessionContext.setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+                sessionContext.setSessionTimeout(TLS_SESSION_TIMEOUT_SECONDS);
+            }
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("TLS is not available", e);
+        }
+    }
+
+    /**
+     * Gets the Json serializer / deserializer shared by the clients built from this context
+     *
+     * @return The shared Json serializer / deserializer
+     */
+    Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Gets the client helper shared by the clients built from this context
+     *
+     * @return The shared client helper
+     */
+    SpeakerRestClientHelper getClientHelper() {
+        return clientHelper;
+    }
+}
@@ -32,29 +32,51 @@
 //
 package com.microsoft.cognitive.speakerrecognition;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Operation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Status;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Type;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.methods.HttpDelete;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.mime.HttpMultipartMode;
-import org.apache.http.entity.mime.MultipartEntityBuilder;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 /**
  * A package-private helper class
  */
 class SpeakerRestClientHelper {
 
+    /**
+     * The service root of the default region
+     */
+    static final String DEFAULT_SERVICE_ROOT = "https://westus.api.cognitive.microsoft.com/spid/v1.0";
+
     /**
      * The header for the subscription key
      */
@@ -70,15 +92,119 @@ class SpeakerRestClientHelper {
      */
     private static final String JSON_HEADER_VALUE_ACCEPT = "application/json";
 
+    /**
+     * Url encoded form content type
+     */
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded; charset=UTF-8";
+
+    /**
+     * The charset used to encode form parameters
+     */
+    private static final String FORM_CHARSET = "UTF-8";
+
+    /**
+     * The charset Json responses are decoded with
+     */
+    private static final String RESPONSE_CHARSET = "UTF-8";
+
+    /**
+     * The response header holding the delay requested before a retry
+     */
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    /**
+     * The request header listing the content encodings the client can decode
+     */
+    private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+
+    /**
+     * The content encodings the client can decode
+     */
+    private static final String ACCEPT_ENCODING_VALUE = "gzip, deflate";
+
+    /**
+     * The response header naming the encoding of the content
+     */
+    private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+    /**
+     * Path of the verification phrases API relative to a service root, whose requests warm up connections
+     */
+    private static final String WARM_UP_PATH = "/verificationPhrases?locale=";
+
+    /**
+     * The locale whose phrases are requested when warming up connections
+     */
+    private static final String WARM_UP_LOCALE = "en-US";
+
+    /**
+     * The initial size of the buffers status poll responses are read into
+     */
+    private static final int STATUS_BUFFER_SIZE = 2048;
+
+    /**
+     * The size up to which a grown status buffer is kept for reuse
+     */
+    private static final int MAX_REUSED_STATUS_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The buffer each polling thread reads status responses into
+     */
+    private static final ThreadLocal<byte[]> STATUS_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[STATUS_BUFFER_SIZE];
+        }
+    };
+
     /**
      * Subscription key
      */
     private String subscriptionKey;
 
+    /**
+     * The transport used to send requests to the service
+     */
+    private final HttpTransport transport;
+
+    /**
+     * The policy deciding whether failed calls are sent again
+     */
+    private volatile RetryPolicy retryPolicy = new RetryPolicy();
+
+    /**
+     * The limiter shared with other clients, or null if calls aren't limited
+     */
+    private volatile RateLimiter rateLimiter;
+
+    /**
+     * The circuit breaker guarding the endpoints, or null if calls are never short-circuited
+     */
+    private volatile CircuitBreaker circuitBreaker;
+
+    /**
+     * The policy hedging latency-critical calls, or null if calls are never hedged
+     */
+    private volatile HedgingPolicy hedgingPolicy;
+
+    /**
+     * Whether the service is asked to compress its responses
+     */
+    private volatile boolean responseCompression;
+
+    /**
+     * The number of retries sent per operation
+     */
+    private final Map<ServiceOperation, AtomicLong> retryCounts = new EnumMap<>(ServiceOperation.class);
+
     //----------------------------------------------------------------------------------------------
 
-    SpeakerRestClientHelper(String subscriptionKey) {
+    SpeakerRestClientHelper(String subscriptionKey, HttpTransport transport) {
         this.subscriptionKey = subscriptionKey;
+        this.transport = transport;
+        for (ServiceOperation operation : ServiceOperation.values()) {
+            retryCounts.put(operation, new AtomicLong());
+        }
     }
 
     //----------------------------------------------------------------------------------------------
@@ -89,8 +215,8 @@ class SpeakerRestClientHelper {
      * @param response HTTP response
      * @return HTTP status code
      */
-    int getStatusCode(HttpResponse response) {
-        return response.getStatusLine().getStatusCode();
+    int getStatusCode(TransportResponse response) {
+        return response.getStatusCode();
     }
 
     /**
@@ -100,69 +226,547 @@ class SpeakerRestClientHelper {
      * @param requestType HTTP request type
      * @return HTTP request
      */
-    HttpUriRequest createHttpRequest(String resourceURL, RequestType requestType) {
-        HttpUriRequest request;
+    TransportRequest createHttpRequest(String resourceURL, RequestType requestType) {
+        return createHttpRequest(resourceURL, requestType, null);
+    }
 
-        switch (requestType) {
-            case GET:
-                request = new HttpGet(resourceURL);
-                break;
-            case POST:
-                request = new HttpPost(resourceURL);
-                break;
-            case DELETE:
-                request = new HttpDelete(resourceURL);
-                break;
-            default:
-                return null;
+    /**
+     * Creates an HTTP request authenticated with the given subscription key
+     *
+     * @param resourceURL HTTP resource address
+     * @param requestType HTTP request type
+     * @param regionSubscriptionKey The subscription key of the region the resource lives in,
+     * or null to use the key of the client
+     * @return HTTP request
+     */
+    TransportRequest createHttpRequest(String resourceURL, RequestType requestType, String regionSubscriptionKey) {
+        TransportRequest request = new TransportRequest(resourceURL, requestType);
+        request.setHeader(JSON_HEADER_ACCEPT, JSON_HEADER_VALUE_ACCEPT);
+        request.setHeader(OCP_SUBSCRIPTION_KEY_HEADER,
+                regionSubscriptionKey != null ? regionSubscriptionKey : subscriptionKey);
+        if (responseCompression) {
+            request.setHeader(ACCEPT_ENCODING_HEADER, ACCEPT_ENCODING_VALUE);
         }
-
-        request.addHeader(JSON_HEADER_ACCEPT, JSON_HEADER_VALUE_ACCEPT);
-        request.addHeader(OCP_SUBSCRIPTION_KEY_HEADER, subscriptionKey);
         return request;
     }
 
     /**
-     * Converts an HTTP response to a string
+     * Sets the policy deciding whether failed calls are sent again
+     *
+     * @param retryPolicy The retry policy
+     */
+    void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Sets the limiter taking tokens for every call
+     *
+     * @param rateLimiter The rate limiter, or null to stop limiting calls
+     */
+    void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Sets the circuit breaker guarding the endpoints
+     *
+     * @param circuitBreaker The circuit breaker, or null to never short-circuit calls
+     */
+    void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Sets the policy hedging latency-critical calls
+     *
+     * @param hedgingPolicy The hedging policy, or null to never hedge calls
+     */
+    void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * Sets whether the service is asked to compress its responses
+     *
+     * @param responseCompression True to accept gzip and deflate encoded responses
+     */
+    void setResponseCompression(boolean responseCompression) {
+        this.responseCompression = responseCompression;
+    }
+
+    /**
+     * Gets the number of retries sent for an operation
+     *
+     * @param operation The service operation
+     * @return The number of retries
+     */
+    long getRetryCount(ServiceOperation operation) {
+        return retryCounts.get(operation).get();
+    }
+
+    /**
+     * Sends an HTTP request to the service, hedging it if the hedging policy covers its operation
+     *
+     * @param operation The service operation the request belongs to
+     * @param endpoint The endpoint address the circuit breaker tracks the request under
+     * @param request HTTP request
+     * @return HTTP response
+     * @throws IOException Signals a connection abortion, a failure while writing the request body,
+     * an open circuit or a rejection by the rate limiter
+     */
+    TransportResponse execute(ServiceOperation operation, String endpoint, TransportRequest request) throws IOException {
+        HedgingPolicy hedging = hedgingPolicy;
+        boolean replayable = request.getBody() == null || request.getBody().isRepeatable();
+        if (hedging == null || !hedging.appliesTo(operation) || !replayable) {
+            return executeWithRetries(operation, endpoint, request);
+        }
+
+        long startNanos = System.nanoTime();
+        TransportResponse response;
+        long delay = hedging.hedgeDelay(operation);
+        if (delay < 0) {
+            response = executeWithRetries(operation, endpoint, request);
+        } else {
+            // The first copy is sent on the calling thread; only a hedge that actually fires uses the executor
+            final HedgedCall call = new HedgedCall(operation, endpoint, hedging);
+            final TransportRequest original = request;
+            ScheduledFuture<?> hedge = HedgingPolicy.scheduleHedge(new Runnable() {
+                @Override
+                public void run() {
+                    call.hedge(original.copy());
+                }
+            }, delay);
+            call.send(request.copy());
+            hedge.cancel(false);
+            response = call.await();
+        }
+        hedging.recordCall(operation, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return response;
+    }
+
+    /**
+     * Sends an HTTP request to the service, retrying transient failures according to the retry policy.
+     * Every attempt is first checked against the circuit of its endpoint, then takes its tokens from the rate limiter.
+     * A request is only sent again if its body can be written more than once and it wasn't aborted.
+     *
+     * @param operation The service operation the request belongs to
+     * @param endpoint The endpoint address the circuit breaker tracks the request under
+     * @param request HTTP request
+     * @return HTTP response
+     * @throws IOException Signals a connection abortion, a failure while writing the request body,
+     * an open circuit or a rejection by the rate limiter
+     */
+    private TransportResponse executeWithRetries(ServiceOperation operation, String endpoint, TransportRequest request) throws IOException {
+        RetryPolicy policy = retryPolicy;
+        boolean replayable = request.getBody() == null || request.getBody().isRepeatable();
+
+        for (int retry = 0; ; retry++) {
+            boolean canRetry = replayable && retry < policy.getMaxRetries();
+
+            TransportResponse response;
+            try {
+                response = executeOnce(operation, endpoint, request);
+            } catch (CircuitOpenException | RateLimitExceededException | InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                // A profile creation that reached the service before the connection broke must not be repeated
+                if (!canRetry || operation == ServiceOperation.CREATE_PROFILE || request.isAborted()) {
+                    throw e;
+                }
+                backOff(operation, policy.retryDelay(retry, null));
+                continue;
+            }
+
+            if (canRetry && !request.isAborted() && policy.isRetryableStatus(response.getStatusCode())) {
+                long delay = policy.retryDelay(retry, response.getHeader(RETRY_AFTER_HEADER));
+                if (delay >= 0) {
+                    response.close();
+                    backOff(operation, delay);
+                    continue;
+                }
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Gets the endpoint address of an operation status Url, which is the Url without its operation ID
+     *
+     * @param operationUrl The Url returned upon calling an enrollment or identification operation
+     * @return The endpoint address
+     */
+    String getOperationsEndpoint(String operationUrl) {
+        int query = operationUrl.indexOf('?');
+        String path = query >= 0 ? operationUrl.substring(0, query) : operationUrl;
+        int lastSlash = path.lastIndexOf('/');
+        return lastSlash > 0 ? path.substring(0, lastSlash) : path;
+    }
+
+    /**
+     * Sends a single attempt of an HTTP request through the circuit breaker and the rate limiter
+     *
+     * @param operation The service operation the request belongs to
+     * @param endpoint The endpoint address the circuit breaker tracks the request under
+     * @param request HTTP request
+     * @return HTTP response
+     * @throws IOException Signals a connection abortion, a failure while writing the request body,
+     * an open circuit or a rejection by the rate limiter
+     */
+    private TransportResponse executeOnce(ServiceOperation operation, String endpoint, TransportRequest request) throws IOException {
+        CircuitBreaker breaker = circuitBreaker;
+        RateLimiter limiter = rateLimiter;
+
+        long generation = breaker != null ? breaker.allowCall(endpoint) : 0;
+        if (limiter != null) {
+            try {
+                limiter.acquirePermit(operation);
+            } catch (IOException e) {
+                if (breaker != null) {
+                    breaker.releaseCall(endpoint, generation);
+                }
+                throw e;
+            }
+        }
+
+        TransportResponse response;
+        try {
+            response = transport.execute(request);
+        } catch (IOException e) {
+            if (breaker != null) {
+                // A hedged copy aborted because another copy won says nothing about the health of the endpoint
+                if (request.isAborted()) {
+                    breaker.releaseCall(endpoint, generation);
+                } else {
+                    breaker.recordOutcome(endpoint, generation, false);
+                }
+            }
+            throw e;
+        }
+        if (breaker != null) {
+            breaker.recordOutcome(endpoint, generation, response.getStatusCode() < 500);
+        }
+        return response;
+    }
+
+    /**
+     * Waits before a retry and counts it
+     *
+     * @param operation The service operation being retried
+     * @param delayMillis The delay before the retry
+     * @throws InterruptedIOException Signals that the thread was interrupted while waiting
+     */
+    private void backOff(ServiceOperation operation, long delayMillis) throws InterruptedIOException {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry " + operation);
+        }
+        retryCounts.get(operation).incrementAndGet();
+    }
+
+    /**
+     * Decodes the Json content of an HTTP response straight from its stream and closes the response.
+     * Gzip and deflate encoded content is decompressed while it is read.
+     *
+     * @param response HTTP response
+     * @param gson The Json deserializer
+     * @param type The type to decode the content as
+     * @param <T> The type to decode the content as
+     * @return The decoded object, or null if the response has no content
+     * @throws IOException Signals a failure while reading the response content
+     */
+    <T> T readJson(TransportResponse response, Gson gson, Type type) throws IOException {
+        try {
+            JsonReader reader = new JsonReader(new InputStreamReader(getDecodedContent(response), RESPONSE_CHARSET));
+            try {
+                return gson.fromJson(reader, type);
+            } finally {
+                reader.close();
+            }
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Decodes an operation status for a poll, reading the response into a buffer reused by the calling thread.
+     * While the operation is pending only its status is picked from the raw content and stored in the given holder,
+     * so a pending poll decodes nothing else; a completed operation is decoded in full into a new object.
      *
      * @param response HTTP response
-     * @return A string representation of the HTTP response
-     * @throws IOException Signals that a content stream couldn't be created from the HTTP response entity
+     * @param gson The Json deserializer
+     * @param type The operation type
+     * @param pending The holder updated with the status of a pending operation
+     * @param <T> The operation type
+     * @return The holder if the operation is pending, the decoded operation otherwise
+     * @throws IOException Signals a failure while reading the response content
      */
-    String httpResponseToString(HttpResponse response) throws IOException {
-        InputStream responseStream = response.getEntity().getContent();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(responseStream));
-        String str;
-        StringBuilder stringResponse = new StringBuilder();
-        while ((str = reader.readLine()) != null) {
-            stringResponse.append(str);
+    <T extends Operation> T readOperationStatus(TransportResponse response, Gson gson, Class<T> type, T pending) throws IOException {
+        byte[] buffer = STATUS_BUFFER.get();
+        int length = 0;
+        try {
+            InputStream content = getDecodedContent(response);
+            try {
+                int bytesRead;
+                while ((bytesRead = content.read(buffer, length, buffer.length - length)) != -1) {
+                    length += bytesRead;
+                    if (length == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                }
+            } finally {
+                content.close();
+            }
+        } finally {
+            response.close();
         }
-        return stringResponse.toString();
+        if (buffer.length <= MAX_REUSED_STATUS_BUFFER_SIZE) {
+            STATUS_BUFFER.set(buffer);
+        }
+
+        Status status = IdentificationTypeAdapters.scanPendingStatus(buffer, length);
+        if (status != null) {
+            pending.status = status;
+            return pending;
+        }
+        JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(buffer, 0, length), RESPONSE_CHARSET));
+        return gson.fromJson(reader, type);
     }
 
     /**
-     * Adds a stream to an HTTP entity
+     * Opens the Json array held by an HTTP response for reading its elements one at a time.
+     * The response is closed once the iterator is exhausted or closed.
+     *
+     * @param request HTTP request the response belongs to, aborted if the iterator is closed early
+     * @param response HTTP response
+     * @param gson The Json deserializer
+     * @param elementType The type of the array elements
+     * @param <T> The type of the array elements
+     * @return An iterator over the elements
+     * @throws IOException Signals a failure while reading the response content, or content that isn't an array
+     */
+    <T> ProfileIterator<T> readJsonArray(TransportRequest request, TransportResponse response, Gson gson, Class<T> elementType) throws IOException {
+        JsonReader reader = null;
+        try {
+            reader = new JsonReader(new InputStreamReader(getDecodedContent(response), RESPONSE_CHARSET));
+            reader.beginArray();
+            return new ProfileIterator<>(request, response, reader, gson.getAdapter(elementType));
+        } catch (IOException | RuntimeException e) {
+            if (reader != null) {
+                reader.close();
+            }
+            response.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the content of an HTTP response, decompressing it on the fly if the service encoded it
+     *
+     * @param response HTTP response
+     * @return The decoded content stream
+     * @throws IOException Signals a failure while opening the content or reading its compression header
+     */
+    private InputStream getDecodedContent(TransportResponse response) throws IOException {
+        InputStream content = response.getContent();
+        String encoding = response.getHeader(CONTENT_ENCODING_HEADER);
+        if (encoding == null) {
+            return content;
+        }
+        encoding = encoding.trim();
+        if ("gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+            return new GZIPInputStream(content);
+        }
+        if ("deflate".equalsIgnoreCase(encoding)) {
+            // Some servers send raw deflate data instead of the zlib stream the standard asks for
+            PushbackInputStream pushback = new PushbackInputStream(content, 2);
+            byte[] header = new byte[2];
+            int length = pushback.read(header);
+            if (length > 0) {
+                pushback.unread(header, 0, length);
+            }
+            boolean zlib = length == 2 && (header[0] & 0x0f) == 8 && (((header[0] & 0xff) << 8) | (header[1] & 0xff)) % 31 == 0;
+            final Inflater inflater = new Inflater(!zlib);
+            return new InflaterInputStream(pushback, inflater) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+        return content;
+    }
+
+    /**
+     * Consumes the remaining content of an HTTP response so its connection can be reused
+     *
+     * @param response HTTP response
+     * @throws IOException Signals a failure while reading the response content
+     */
+    void consumeResponse(TransportResponse response) throws IOException {
+        response.close();
+    }
+
+    /**
+     * Creates a url encoded form body holding a single parameter
+     *
+     * @param name The parameter name
+     * @param value The parameter value
+     * @return HTTP request body
+     * @throws IOException Signals that the parameter couldn't be encoded
+     */
+    RequestBody createFormBody(String name, String value) throws IOException {
+        String form = URLEncoder.encode(name, FORM_CHARSET) + "=" + URLEncoder.encode(value, FORM_CHARSET);
+        return new ByteArrayRequestBody(form.getBytes(FORM_CHARSET), FORM_CONTENT_TYPE);
+    }
+
+    /**
+     * Adds a stream to an HTTP entity. A file stream is memory-mapped and any other stream is read into a buffer,
+     * spilling to a temporary file when it is long, so the body can be retried and hedged.
      *
      * @param someStream Input stream to be added to an HTTP entity
      * @param fieldName A description of the entity content
      * @param fileName Name of the file attached as an entity
      * @return HTTP entity
-     * @throws IOException Signals a failure while reading the input stream
+     * @throws IOException Signals that the input stream or its length couldn't be read
+     */
+    RequestBody addStreamToEntity(InputStream someStream, String fieldName, String fileName) throws IOException {
+        return MultipartRequestBody.fromStream(someStream, fieldName, fileName);
+    }
+
+    /**
+     * Adds the remaining bytes of a buffer to an HTTP entity without copying them.
+     * The body can be retried and hedged; the position of the buffer is left untouched.
+     *
+     * @param buffer The buffer holding the content, which may be direct or memory-mapped
+     * @param fieldName A description of the entity content
+     * @param fileName Name of the file attached as an entity
+     * @return HTTP entity
+     */
+    RequestBody addBufferToEntity(ByteBuffer buffer, String fieldName, String fileName) {
+        return new MultipartRequestBody(buffer, fieldName, fileName);
+    }
+
+    /**
+     * Maps an audio file into memory
+     *
+     * @param file The audio file
+     * @return A read-only buffer over the whole file
+     * @throws IOException Signals that the file couldn't be opened or mapped
      */
-    HttpEntity addStreamToEntity(InputStream someStream, String fieldName, String fileName) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        int bytesRead;
-        byte[] bytes = new byte[1024];
-        while ((bytesRead = someStream.read(bytes)) > 0) {
-            byteArrayOutputStream.write(bytes, 0, bytesRead);
+    static ByteBuffer mapAudio(File file) throws IOException {
+        FileInputStream stream = new FileInputStream(file);
+        try {
+            return mapAudio(stream.getChannel());
+        } finally {
+            // The mapping stays valid once the file is closed
+            stream.close();
         }
-        byte[] data = byteArrayOutputStream.toByteArray();
+    }
 
-        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-        builder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
-        builder.setStrictMode();
-        builder.addBinaryBody(fieldName, data, ContentType.MULTIPART_FORM_DATA, fileName);
-        return builder.build();
+    /**
+     * Maps the region of a file channel from its current position to its end into memory.
+     * The position of the channel is left untouched.
+     *
+     * @param channel The file channel
+     * @return A read-only buffer over the region
+     * @throws IOException Signals that the channel couldn't be mapped
+     */
+    static ByteBuffer mapAudio(FileChannel channel) throws IOException {
+        long position = channel.position();
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.max(0, channel.size() - position));
+    }
+
+    /**
+     * Sends a lightweight GET request to a resource and measures the round-trip time.
+     * Probes bypass the retry policy, the rate limiter and the circuit breaker; only a successful response counts
+     * as an answer, so a region rejecting the key or failing on the server side isn't taken for a fast one.
+     *
+     * @param resourceURL The resource to probe
+     * @param regionSubscriptionKey The subscription key of the region the resource lives in,
+     * or null to use the key of the client
+     * @return The round-trip time in milliseconds
+     * @throws IOException Signals that the resource couldn't be reached or didn't answer with a success status
+     */
+    long probe(String resourceURL, String regionSubscriptionKey) throws IOException {
+        long startNanos = System.nanoTime();
+        TransportResponse response = transport.execute(createHttpRequest(resourceURL, RequestType.GET, regionSubscriptionKey));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        int statusCode = response.getStatusCode();
+        response.close();
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new IOException("Probe of " + resourceURL + " failed with status " + statusCode);
+        }
+        return elapsedMillis;
+    }
+
+    /**
+     * Opens connections to a service root ahead of demand by sending concurrent phrase requests,
+     * so that each request leases its own connection and leaves it in the pool when done.
+     * The requests go through the circuit breaker and the rate limiter like any other phrase request.
+     *
+     * @param serviceRoot The service root to connect to
+     * @param connections The number of connections to open
+     * @param executor The executor sending the requests, which needs a thread per connection to open them all at once
+     * @return The number of requests that got a response
+     * @throws InterruptedIOException Signals that the thread was interrupted while waiting for the requests
+     */
+    int warmUp(String serviceRoot, int connections, Executor executor) throws InterruptedIOException {
+        final String endpoint = serviceRoot + WARM_UP_PATH;
+        final String resourceURL = endpoint + WARM_UP_LOCALE;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(connections);
+        final AtomicInteger opened = new AtomicInteger();
+        for (int i = 0; i < connections; i++) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            executeOnce(ServiceOperation.GET_PHRASES, endpoint,
+                                    createHttpRequest(resourceURL, RequestType.GET)).close();
+                            opened.incrementAndGet();
+                        } catch (IOException | InterruptedException ignored) {
+                            // A connection that couldn't be opened now is opened on demand later
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                done.countDown();
+            }
+        }
+
+        start.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while warming up connections to " + serviceRoot);
+        }
+        return opened.get();
+    }
+
+    /**
+     * Removes the trailing slashes of a service root
+     *
+     * @param serviceRoot The service root, for example "https://westus.api.cognitive.microsoft.com/spid/v1.0/"
+     * @return The service root without trailing slashes
+     */
+    static String trimServiceRoot(String serviceRoot) {
+        String trimmed = serviceRoot.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
     }
 
     /**
@@ -183,4 +787,206 @@ class SpeakerRestClientHelper {
         }
         return builder.toString();
     }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A call racing copies of the same request, where the first response wins and the other copies are aborted.
+     * The first copy is sent on the calling thread and a hedge on the executor of the hedging policy.
+     */
+    private class HedgedCall {
+
+        /**
+         * The service operation the request belongs to
+         */
+        private final ServiceOperation operation;
+
+        /**
+         * The endpoint address the circuit breaker tracks the request under
+         */
+        private final String endpoint;
+
+        /**
+         * The hedging policy, whose executor sends the hedge and whose budget pays for it
+         */
+        private final HedgingPolicy hedging;
+
+        /**
+         * The request copies sent so far
+         */
+        private final List<TransportRequest> attempts = new ArrayList<>();
+
+        /**
+         * The number of request copies still in flight
+         */
+        private int pending;
+
+        /**
+         * The winning response, or null
+         */
+        private TransportResponse winner;
+
+        /**
+         * The first failure, or null
+         */
+        private IOException failure;
+
+        /**
+         * Whether the first copy completed, after which no hedge is sent
+         */
+        private boolean firstCompleted;
+
+        /**
+         * Whether the caller gave up waiting
+         */
+        private boolean abandoned;
+
+        HedgedCall(ServiceOperation operation, String endpoint, HedgingPolicy hedging) {
+            this.operation = operation;
+            this.endpoint = endpoint;
+            this.hedging = hedging;
+        }
+
+        /**
+         * Sends the first copy of the request on the calling thread
+         *
+         * @param attempt The request copy
+         */
+        void send(TransportRequest attempt) {
+            synchronized (this) {
+                attempts.add(attempt);
+                pending++;
+            }
+            complete(attempt);
+            synchronized (this) {
+                firstCompleted = true;
+            }
+        }
+
+        /**
+         * Sends a hedge on the executor, unless the first copy already completed or the hedging budget is exhausted
+         *
+         * @param attempt The request copy
+         */
+        void hedge(final TransportRequest attempt) {
+            synchronized (this) {
+                if (firstCompleted || winner != null || abandoned || !hedging.tryAcquireHedge()) {
+                    return;
+                }
+                attempts.add(attempt);
+                pending++;
+            }
+            hedging.getExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    complete(attempt);
+                }
+            });
+        }
+
+        /**
+         * Waits for the winning response
+         *
+         * @return The winning response
+         * @throws IOException The first failure if all copies failed, or an InterruptedIOException
+         */
+        TransportResponse await() throws IOException {
+            synchronized (this) {
+                try {
+                    while (winner == null && pending > 0) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    abandoned = true;
+                    Thread.currentThread().interrupt();
+                }
+                if (winner != null) {
+                    return winner;
+                }
+                if (!abandoned) {
+                    throw failure;
+                }
+            }
+            abortAll(null);
+            throw new InterruptedIOException("Interrupted while waiting for " + operation);
+        }
+
+        /**
+         * Sends a request copy and offers its response, or records its failure.
+         * The number of copies in flight is decremented exactly once, whatever the outcome.
+         *
+         * @param attempt The request copy
+         */
+        private void complete(TransportRequest attempt) {
+            TransportResponse response;
+            try {
+                response = executeWithRetries(operation, endpoint, attempt);
+            } catch (IOException e) {
+                fail(e);
+                return;
+            } catch (RuntimeException e) {
+                fail(new IOException(e));
+                return;
+            }
+            offer(attempt, response);
+        }
+
+        /**
+         * Offers the response of a request copy, which wins if no other response won yet
+         *
+         * @param attempt The request copy
+         * @param response The response of the request copy
+         */
+        private void offer(TransportRequest attempt, TransportResponse response) {
+            synchronized (this) {
+                pending--;
+                if (winner == null && !abandoned) {
+                    winner = response;
+                    notifyAll();
+                    response = null;
+                } else {
+                    notifyAll();
+                }
+            }
+            if (response != null) {
+                try {
+                    response.close();
+                } catch (IOException ignored) {
+                    // The losing response is discarded, so failing to release its connection cleanly doesn't matter
+                }
+            } else {
+                abortAll(attempt);
+            }
+        }
+
+        /**
+         * Records the failure of a request copy
+         *
+         * @param e The failure
+         */
+        private synchronized void fail(IOException e) {
+            pending--;
+            if (failure == null) {
+                failure = e;
+            }
+            notifyAll();
+        }
+
+        /**
+         * Aborts all request copies except the winner
+         *
+         * @param winningAttempt The winning request copy, or null
+         */
+        private void abortAll(TransportRequest winningAttempt) {
+            List<TransportRequest> losers;
+            synchronized (this) {
+                losers = new ArrayList<>(attempts);
+            }
+            for (TransportRequest attempt : losers) {
+                if (attempt != winningAttempt) {
+                    attempt.abort();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,116 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Verification;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An interface for the asynchronous speaker verification service client related methods.
+ * Each method returns immediately; the returned future fails with the exception the matching
+ * {@link SpeakerVerificationClient} method would have thrown.
+ */
+public interface SpeakerVerificationAsyncClient {
+
+    /**
+     * Creates a new speaker profile
+     *
+     * @param locale The speaker profile locale
+     * @return A future of the speaker profile response
+     */
+    SpeakerFuture<CreateProfileResponse> createProfile(String locale);
+
+    /**
+     * Retrieves a given speaker profile as specified by the id parameter
+     *
+     * @param id The speaker profile ID
+     * @return A future of the requested speaker profile
+     */
+    SpeakerFuture<Profile> getProfile(UUID id);
+
+    /**
+     * Retrieves all available speaker profiles
+     *
+     * @return A future of the list of speaker profiles
+     */
+    SpeakerFuture<List<Profile>> getProfiles();
+
+    /**
+     * Deletes a given speaker profile
+     *
+     * @param id The ID of the speaker profile to be deleted
+     * @return A future completed once the profile is deleted
+     */
+    SpeakerFuture<Void> deleteProfile(UUID id);
+
+    /**
+     * Gets a list of all available phrases for enrollments
+     *
+     * @param locale The locale of the phrases
+     * @return A future of the list of all verification phrases
+     */
+    SpeakerFuture<List<VerificationPhrase>> getPhrases(String locale);
+
+    /**
+     * Enrolls a new stream for a given speaker
+     *
+     * @param audioStream The stream to enroll, which must stay open until the future completes
+     * @param id The speaker profile speaker ID
+     * @return A future of the enrollment response
+     */
+    SpeakerFuture<Enrollment> enroll(InputStream audioStream, UUID id);
+
+    /**
+     * Verifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The stream of audio to be verified, which must stay open until the future completes
+     * @param id The speaker ID
+     * @return A future of the verification result
+     */
+    SpeakerFuture<Verification> verify(InputStream audioStream, UUID id);
+
+    /**
+     * Deletes all enrollments associated with the given speaker verification profile permanently from the service
+     *
+     * @param id The speaker ID
+     * @return A future completed once the enrollments are deleted
+     */
+    SpeakerFuture<Void> resetEnrollments(UUID id);
+}
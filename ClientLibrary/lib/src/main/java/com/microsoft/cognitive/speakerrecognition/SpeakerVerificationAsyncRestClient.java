@@ -0,0 +1,207 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Verification;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * This class runs the verification service calls of a {@link SpeakerVerificationClient} on an executor
+ */
+public class SpeakerVerificationAsyncRestClient implements SpeakerVerificationAsyncClient {
+
+    /**
+     * The blocking client performing the service calls
+     */
+    private final SpeakerVerificationClient client;
+
+    /**
+     * The executor running the service calls
+     */
+    private final Executor executor;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Initializes an asynchronous client running the calls of the given client
+     *
+     * @param client The blocking client performing the service calls
+     * @param executor The executor running the service calls
+     */
+    public SpeakerVerificationAsyncRestClient(SpeakerVerificationClient client, Executor executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a new speaker profile
+     *
+     * @param locale The speaker profile locale
+     * @return A future of the speaker profile response
+     */
+    @Override
+    public SpeakerFuture<CreateProfileResponse> createProfile(final String locale) {
+        return SpeakerFuture.submit(executor, new Callable<CreateProfileResponse>() {
+            @Override
+            public CreateProfileResponse call() throws Exception {
+                return client.createProfile(locale);
+            }
+        });
+    }
+
+    /**
+     * Retrieves a given speaker profile as specified by the id parameter
+     *
+     * @param id The speaker profile ID
+     * @return A future of the requested speaker profile
+     */
+    @Override
+    public SpeakerFuture<Profile> getProfile(final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Profile>() {
+            @Override
+            public Profile call() throws Exception {
+                return client.getProfile(id);
+            }
+        });
+    }
+
+    /**
+     * Retrieves all available speaker profiles
+     *
+     * @return A future of the list of speaker profiles
+     */
+    @Override
+    public SpeakerFuture<List<Profile>> getProfiles() {
+        return SpeakerFuture.submit(executor, new Callable<List<Profile>>() {
+            @Override
+            public List<Profile> call() throws Exception {
+                return client.getProfiles();
+            }
+        });
+    }
+
+    /**
+     * Deletes a given speaker profile
+     *
+     * @param id The ID of the speaker profile to be deleted
+     * @return A future completed once the profile is deleted
+     */
+    @Override
+    public SpeakerFuture<Void> deleteProfile(final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                client.deleteProfile(id);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Gets a list of all available phrases for enrollments
+     *
+     * @param locale The locale of the phrases
+     * @return A future of the list of all verification phrases
+     */
+    @Override
+    public SpeakerFuture<List<VerificationPhrase>> getPhrases(final String locale) {
+        return SpeakerFuture.submit(executor, new Callable<List<VerificationPhrase>>() {
+            @Override
+            public List<VerificationPhrase> call() throws Exception {
+                return client.getPhrases(locale);
+            }
+        });
+    }
+
+    /**
+     * Enrolls a new stream for a given speaker
+     *
+     * @param audioStream The stream to enroll, which must stay open until the future completes
+     * @param id The speaker profile speaker ID
+     * @return A future of the enrollment response
+     */
+    @Override
+    public SpeakerFuture<Enrollment> enroll(final InputStream audioStream, final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Enrollment>() {
+            @Override
+            public Enrollment call() throws Exception {
+                return client.enroll(audioStream, id);
+            }
+        });
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and audio stream
+     *
+     * @param audioStream The stream of audio to be verified, which must stay open until the future completes
+     * @param id The speaker ID
+     * @return A future of the verification result
+     */
+    @Override
+    public SpeakerFuture<Verification> verify(final InputStream audioStream, final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Verification>() {
+            @Override
+            public Verification call() throws Exception {
+                return client.verify(audioStream, id);
+            }
+        });
+    }
+
+    /**
+     * Deletes all enrollments associated with the given speaker verification profile permanently from the service
+     *
+     * @param id The speaker ID
+     * @return A future completed once the enrollments are deleted
+     */
+    @Override
+    public SpeakerFuture<Void> resetEnrollments(final UUID id) {
+        return SpeakerFuture.submit(executor, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                client.resetEnrollments(id);
+                return null;
+            }
+        });
+    }
+}
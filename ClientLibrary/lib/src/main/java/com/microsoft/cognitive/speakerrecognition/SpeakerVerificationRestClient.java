@@ -36,6 +36,7 @@ import com.microsoft.cognitive.speakerrecognition.contract.CreateProfileExceptio
 import com.microsoft.cognitive.speakerrecognition.contract.DeleteProfileException;
 import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentException;
 import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileNotFoundException;
 import com.microsoft.cognitive.speakerrecognition.contract.ResetEnrollmentsException;
 import com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse;
 import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
@@ -46,69 +47,73 @@ import com.microsoft.cognitive.speakerrecognition.contract.verification.Verifica
 import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Type;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import org.apache.http.HttpStatus;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.HttpDelete;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.message.BasicNameValuePair;
 
 /**
  * A service client class to perform all the verification service calls
  */
-public class SpeakerVerificationRestClient implements SpeakerVerificationClient {
+public class SpeakerVerificationRestClient implements ExtendedSpeakerVerificationClient {
+
+    /**
+     * Path of the verification phrases API relative to a service root
+     */
+    private static final String PHRASES_PATH = "/verificationPhrases?locale=";
+
+    /**
+     * The locale whose phrases are requested when probing a region
+     */
+    private static final String PROBE_LOCALE = "en-US";
+
+    /**
+     * Service root of the region the profiles of this client live in
+     */
+    private final String serviceRoot;
 
     /**
      * Address of the verification profiles API
      */
-    private static final String BASE_URI = "https://westus.api.cognitive.microsoft.com/spid/v1.0/verificationProfiles";
+    private final String baseUri;
 
     /**
      * Address of the verification API
      */
-    private static final String VERIFY_ENDPOINT = "https://westus.api.cognitive.microsoft.com/spid/v1.0/verify";
+    private final String verifyEndpoint;
 
     /**
-     * Address of the verification phrases API
+     * The selector routing profile-agnostic calls, or null if they go to the service root
      */
-    private static final String PHRASES_ENDPOINT = "https://westus.api.cognitive.microsoft.com/spid/v1.0/verificationPhrases?locale=";
+    private volatile RegionSelector regionSelector;
     
     /**
      * The locale parameter
      */
     private static final String LOCALE_PARAM = "locale";
 
-    /**
-     * The Http client used to communicate with the service
-     */
-    private HttpClient defaultHttpClient;
-
     /**
      * Json Serializer / deserializer
      */
-    private Gson gson;
+    private final Gson gson;
 
     /**
      * Speaker client clientHelper
      */
-    private SpeakerRestClientHelper clientHelper;
+    private final SpeakerRestClientHelper clientHelper;
     
     //----------------------------------------------------------------------------------------------
 
@@ -118,9 +123,76 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
      * @param subscriptionKey The subscription key
      */
     public SpeakerVerificationRestClient(String subscriptionKey) {
-        defaultHttpClient = new DefaultHttpClient();
-        gson = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:SS.SSS").create();
-        clientHelper = new SpeakerRestClientHelper(subscriptionKey);
+        this(new SpeakerRecognitionContext(subscriptionKey));
+    }
+
+    /**
+     * Initializes an instance of the service client sharing the connections of the given context
+     *
+     * @param context The context holding the connection pool and the subscription key
+     */
+    public SpeakerVerificationRestClient(SpeakerRecognitionContext context) {
+        this(context, SpeakerRestClientHelper.DEFAULT_SERVICE_ROOT);
+    }
+
+    /**
+     * Initializes an instance of the service client calling the given region.
+     * Profiles created by this client live in that region, and all the profile-bound calls of this client go to it.
+     *
+     * @param context The context holding the connection pool and the subscription key
+     * @param serviceRoot The service root of the region, for example "https://westus.api.cognitive.microsoft.com/spid/v1.0"
+     */
+    public SpeakerVerificationRestClient(SpeakerRecognitionContext context, String serviceRoot) {
+        this.serviceRoot = SpeakerRestClientHelper.trimServiceRoot(serviceRoot);
+        baseUri = this.serviceRoot + "/verificationProfiles";
+        verifyEndpoint = this.serviceRoot + "/verify";
+        gson = context.getGson();
+        clientHelper = context.getClientHelper();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Sets a selector routing the profile-agnostic calls, such as {@link #getPhrases(String)}, to the fastest region
+     *
+     * @param regionSelector The region selector, or null to send all calls to the service root of this client
+     */
+    public void setRegionSelector(RegionSelector regionSelector) {
+        this.regionSelector = regionSelector;
+    }
+
+    /**
+     * Opens and pools connections to the service root of this client ahead of demand,
+     * so the first calls don't pay the DNS, TCP and TLS setup. Call it at startup or after a network change.
+     * Each connection is opened with a phrase request, which counts against the rate limiter of the context.
+     *
+     * @param connections The number of connections to open, at most the per-route limit of the context
+     * @param executor The executor sending the requests, typically the one the asynchronous clients share
+     * @return The number of connections opened
+     * @throws InterruptedIOException Signals that the thread was interrupted while opening the connections
+     */
+    public int warmUp(int connections, Executor executor) throws InterruptedIOException {
+        return clientHelper.warmUp(serviceRoot, connections, executor);
+    }
+
+    /**
+     * Probes every region of the region selector once with a phrase request and records the measured round-trip times.
+     * Regions that don't answer with a success status are recorded as failed.
+     */
+    public void probeRegions() {
+        RegionSelector selector = regionSelector;
+        if (selector == null) {
+            return;
+        }
+        for (String root : selector.getServiceRoots()) {
+            long startNanos = System.nanoTime();
+            try {
+                selector.recordLatency(root, clientHelper.probe(root + PHRASES_PATH + PROBE_LOCALE,
+                        selector.getSubscriptionKey(root)));
+            } catch (IOException e) {
+                selector.recordFailure(root, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+        }
     }
 
     //----------------------------------------------------------------------------------------------
@@ -136,21 +208,18 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
     @Override
     public CreateProfileResponse createProfile(String locale) throws CreateProfileException, IOException {
 
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(BASE_URI, RequestType.POST);
+        TransportRequest request = clientHelper.createHttpRequest(baseUri, RequestType.POST);
 
-        List<NameValuePair> paramsList = new ArrayList<>();
-        paramsList.add(new BasicNameValuePair(LOCALE_PARAM, locale));
-        request.setEntity(new UrlEncodedFormEntity(paramsList));
+        request.setBody(clientHelper.createFormBody(LOCALE_PARAM, locale));
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.CREATE_PROFILE, baseUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, CreateProfileResponse.class);
+            return clientHelper.readJson(response, gson, CreateProfileResponse.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new CreateProfileException(errorResponse.error.message);
             } else {
@@ -164,28 +233,27 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
      *
      * @param id The speaker profile ID
      * @return The requested speaker profile
-     * @throws GetProfileException Thrown in case of internal server error or an invalid ID
+     * @throws GetProfileException Thrown in case of internal server error or an invalid ID, as a {@link ProfileNotFoundException} if the profile doesn't exist
      * @throws IOException Signals a connection abortion, or an invalid response content
      */
     @Override
     public Profile getProfile(UUID id) throws GetProfileException, IOException {
 
-        HttpGet request = (HttpGet) clientHelper.createHttpRequest(BASE_URI + "/" + id.toString(), RequestType.GET);
+        TransportRequest request = clientHelper.createHttpRequest(baseUri + "/" + id.toString(), RequestType.GET);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.GET_PROFILE, baseUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, Profile.class);
+            return clientHelper.readJson(response, gson, Profile.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
-            if (errorResponse != null) {
-                throw new GetProfileException(errorResponse.error.message);
-            } else {
-                throw new GetProfileException(String.valueOf(statusCode));
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
+            String message = errorResponse != null ? errorResponse.error.message : String.valueOf(statusCode);
+            if (statusCode == HttpStatus.SC_NOT_FOUND) {
+                throw new ProfileNotFoundException(message);
             }
+            throw new GetProfileException(message);
         }
     }
 
@@ -199,18 +267,47 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
     @Override
     public List<Profile> getProfiles() throws GetProfileException, IOException {
 
-        HttpGet request = (HttpGet) clientHelper.createHttpRequest(BASE_URI, RequestType.GET);
+        TransportRequest request = clientHelper.createHttpRequest(baseUri, RequestType.GET);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.GET_PROFILES, baseUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
             Type listType = new TypeToken<List<Profile>>() {}.getType();
-            return gson.fromJson(stringResponse, listType);
+            return clientHelper.readJson(response, gson, listType);
+        } else {
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
+            if (errorResponse != null) {
+                throw new GetProfileException(errorResponse.error.message);
+            } else {
+                throw new GetProfileException(String.valueOf(statusCode));
+            }
+        }
+    }
+
+    /**
+     * Gets all speaker profiles from the service one at a time, decoding each profile only when it is reached.
+     * Memory use doesn't grow with the number of profiles, which makes it suited to scanning large profile sets,
+     * for example for the enrolled profiles of a locale. The iterator must be closed if it isn't read to its end.
+     *
+     * @return An iterator over all profiles
+     * @throws GetProfileException Thrown in case of an internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public ProfileIterator<Profile> streamProfiles() throws GetProfileException, IOException {
+
+        TransportRequest request = clientHelper.createHttpRequest(baseUri, RequestType.GET);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.GET_PROFILES, baseUri, request);
+
+        int statusCode = clientHelper.getStatusCode(response);
+
+        if (statusCode == HttpStatus.SC_OK) {
+            return clientHelper.readJsonArray(request, response, gson, Profile.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new GetProfileException(errorResponse.error.message);
             } else {
@@ -229,21 +326,21 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
     @Override
     public void deleteProfile(UUID id) throws DeleteProfileException, IOException {
 
-        HttpDelete request = (HttpDelete) clientHelper.createHttpRequest(BASE_URI + "/" + id.toString(), RequestType.DELETE);
+        TransportRequest request = clientHelper.createHttpRequest(baseUri + "/" + id.toString(), RequestType.DELETE);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.DELETE_PROFILE, baseUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode != HttpStatus.SC_OK) {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new DeleteProfileException(errorResponse.error.message);
             } else {
                 throw new DeleteProfileException(String.valueOf(statusCode));
             }
         }
+        clientHelper.consumeResponse(response);
     }
 
     /**
@@ -258,20 +355,40 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
     @Override
     public List<VerificationPhrase> getPhrases(String locale) throws PhrasesException, IOException, URISyntaxException {
 
-        URL url = new URL(PHRASES_ENDPOINT + locale);
-        String requestURI = url.toURI().toString();
-        HttpGet request = (HttpGet) clientHelper.createHttpRequest(requestURI, RequestType.GET);
-
-        HttpResponse response = defaultHttpClient.execute(request);
+        RegionSelector selector = regionSelector;
+        String root = selector != null ? selector.select() : serviceRoot;
+        String phrasesEndpoint = root + PHRASES_PATH;
 
+        URL url = new URL(phrasesEndpoint + locale);
+        String requestURI = url.toURI().toString();
+        TransportRequest request = clientHelper.createHttpRequest(requestURI, RequestType.GET,
+                selector != null ? selector.getSubscriptionKey(root) : null);
+
+        long startNanos = System.nanoTime();
+        TransportResponse response;
+        try {
+            response = clientHelper.execute(ServiceOperation.GET_PHRASES, phrasesEndpoint, request);
+        } catch (IOException e) {
+            if (selector != null) {
+                selector.recordFailure(root, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+            throw e;
+        }
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
+        if (selector != null) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (statusCode >= 200 && statusCode < 300) {
+                selector.recordLatency(root, elapsedMillis);
+            } else {
+                selector.recordFailure(root, elapsedMillis);
+            }
+        }
 
         if (statusCode == HttpStatus.SC_OK) {
             Type listType = new TypeToken<List<VerificationPhrase>>() {}.getType();
-            return gson.fromJson(stringResponse, listType);
+            return clientHelper.readJson(response, gson, listType);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new PhrasesException(errorResponse.error.message);
             } else {
@@ -292,22 +409,81 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
     @Override
     public Enrollment enroll(InputStream audioStream, UUID id) throws EnrollmentException, IOException {
 
-        String requestUrl = BASE_URI + "/" + id.toString() + "/enroll";
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        String fileName = id.toString() + "_" + new Date();
+        RequestBody body = clientHelper.addStreamToEntity(audioStream, "enrollmentData", fileName);
+        return sendEnrollment(body, id);
+    }
+
+    /**
+     * Enrolls an audio file for a given speaker
+     *
+     * @param audioFile The audio file to enroll, which is memory-mapped rather than read onto the heap
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Enrollment enroll(File audioFile, UUID id) throws EnrollmentException, IOException {
+
+        return enroll(SpeakerRestClientHelper.mapAudio(audioFile), id);
+    }
+
+    /**
+     * Enrolls an audio file channel for a given speaker
+     *
+     * @param audioChannel The channel of the audio file to enroll, read from its current position to its end
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Enrollment enroll(FileChannel audioChannel, UUID id) throws EnrollmentException, IOException {
+
+        return enroll(SpeakerRestClientHelper.mapAudio(audioChannel), id);
+    }
+
+    /**
+     * Enrolls an audio buffer for a given speaker
+     *
+     * @param audioBuffer The buffer holding the audio to enroll between its position and its limit
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public Enrollment enroll(ByteBuffer audioBuffer, UUID id) throws EnrollmentException, IOException {
 
         String fileName = id.toString() + "_" + new Date();
-        HttpEntity entity = clientHelper.addStreamToEntity(audioStream, "enrollmentData", fileName);
-        request.setEntity(entity);
+        RequestBody body = clientHelper.addBufferToEntity(audioBuffer, "enrollmentData", fileName);
+        return sendEnrollment(body, id);
+    }
 
-        HttpResponse response = defaultHttpClient.execute(request);
+    /**
+     * Sends an enrollment request holding an audio body
+     *
+     * @param body The multipart body holding the audio to enroll
+     * @param id The speaker profile speaker ID
+     * @return Enrollment object encapsulating the enrollment response
+     * @throws EnrollmentException Thrown in case of internal server error, wrong ID or an invalid audio format
+     * @throws IOException Signals an I/O issue while reading the audio, a connection abortion, or an invalid response content
+     */
+    private Enrollment sendEnrollment(RequestBody body, UUID id) throws EnrollmentException, IOException {
+
+        String requestUrl = baseUri + "/" + id.toString() + "/enroll";
+        TransportRequest request = clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        request.setBody(body);
+
+        TransportResponse response = clientHelper.execute(ServiceOperation.ENROLL, baseUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, Enrollment.class);
+            return clientHelper.readJson(response, gson, Enrollment.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new EnrollmentException(errorResponse.error.message);
             } else {
@@ -328,22 +504,81 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
     @Override
     public Verification verify(InputStream audioStream, UUID id) throws VerificationException, IOException {
 
-        String requestUrl = VERIFY_ENDPOINT + "?verificationProfileId=" + id.toString();
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        String fileName = id.toString() + "_" + new Date();
+        RequestBody body = clientHelper.addStreamToEntity(audioStream, "verificationData", fileName);
+        return sendVerification(body, id);
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio file
+     *
+     * @param audioFile The audio file to verify, which is memory-mapped rather than read onto the heap
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Verification verify(File audioFile, UUID id) throws VerificationException, IOException {
+
+        return verify(SpeakerRestClientHelper.mapAudio(audioFile), id);
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio file channel
+     *
+     * @param audioChannel The channel of the audio file to verify, read from its current position to its end
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while mapping the audio, a connection abortion, or an invalid response content
+     */
+    @Override
+    public Verification verify(FileChannel audioChannel, UUID id) throws VerificationException, IOException {
+
+        return verify(SpeakerRestClientHelper.mapAudio(audioChannel), id);
+    }
+
+    /**
+     * Verifies a given speaker using the speaker ID and an audio buffer
+     *
+     * @param audioBuffer The buffer holding the audio to verify between its position and its limit
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals a connection abortion, or an invalid response content
+     */
+    @Override
+    public Verification verify(ByteBuffer audioBuffer, UUID id) throws VerificationException, IOException {
 
         String fileName = id.toString() + "_" + new Date();
-        HttpEntity entity = clientHelper.addStreamToEntity(audioStream, "verificationData", fileName);
-        request.setEntity(entity);
+        RequestBody body = clientHelper.addBufferToEntity(audioBuffer, "verificationData", fileName);
+        return sendVerification(body, id);
+    }
+
+    /**
+     * Sends a verification request holding an audio body
+     *
+     * @param body The multipart body holding the audio to verify
+     * @param id The speaker ID
+     * @return A verification object encapsulating the verification result
+     * @throws VerificationException Thrown in case of invalid ID, invalid audio format or internal server error
+     * @throws IOException Signals an I/O issue while reading the audio, a connection abortion, or an invalid response content
+     */
+    private Verification sendVerification(RequestBody body, UUID id) throws VerificationException, IOException {
+
+        String requestUrl = verifyEndpoint + "?verificationProfileId=" + id.toString();
+        TransportRequest request = clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        request.setBody(body);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.VERIFY, verifyEndpoint, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode == HttpStatus.SC_OK) {
-            return gson.fromJson(stringResponse, Verification.class);
+            return clientHelper.readJson(response, gson, Verification.class);
         } else {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new VerificationException(errorResponse.error.message);
             } else {
@@ -362,21 +597,21 @@ public class SpeakerVerificationRestClient implements SpeakerVerificationClient
     @Override
     public void resetEnrollments(UUID id) throws ResetEnrollmentsException, IOException {
 
-        String requestUrl = BASE_URI + "/" + id.toString() + "/reset";
-        HttpPost request = (HttpPost) clientHelper.createHttpRequest(requestUrl, RequestType.POST);
+        String requestUrl = baseUri + "/" + id.toString() + "/reset";
+        TransportRequest request = clientHelper.createHttpRequest(requestUrl, RequestType.POST);
 
-        HttpResponse response = defaultHttpClient.execute(request);
+        TransportResponse response = clientHelper.execute(ServiceOperation.RESET_ENROLLMENTS, baseUri, request);
 
         int statusCode = clientHelper.getStatusCode(response);
-        String stringResponse = clientHelper.httpResponseToString(response);
 
         if (statusCode != HttpStatus.SC_OK) {
-            ErrorResponse errorResponse = gson.fromJson(stringResponse, ErrorResponse.class);
+            ErrorResponse errorResponse = clientHelper.readJson(response, gson, ErrorResponse.class);
             if (errorResponse != null) {
                 throw new ResetEnrollmentsException(errorResponse.error.message);
             } else {
                 throw new ResetEnrollmentsException(String.valueOf(statusCode));
             }
         }
+        clientHelper.consumeResponse(response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A package-private class describing a request sent through an {@link HttpTransport}
+ */
+class TransportRequest {
+
+    /**
+     * The HTTP request method
+     */
+    private final RequestType requestType;
+
+    /**
+     * The HTTP resource address
+     */
+    private final String url;
+
+    /**
+     * The request headers, in insertion order
+     */
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * The request body, or null if the request has no body
+     */
+    private RequestBody body;
+
+    /**
+     * The action aborting the request while it is in flight, or null
+     */
+    private Runnable abortAction;
+
+    /**
+     * Whether the request was aborted
+     */
+    private boolean aborted;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a request without headers or body
+     *
+     * @param url HTTP resource address
+     * @param requestType HTTP request type
+     */
+    TransportRequest(String url, RequestType requestType) {
+        this.url = url;
+        this.requestType = requestType;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the HTTP request type
+     *
+     * @return HTTP request type
+     */
+    RequestType getRequestType() {
+        return requestType;
+    }
+
+    /**
+     * Gets the HTTP resource address
+     *
+     * @return HTTP resource address
+     */
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * Sets a request header, replacing any previous value
+     *
+     * @param name The header name
+     * @param value The header value
+     */
+    void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    /**
+     * Gets the request headers
+     *
+     * @return An unmodifiable view of the request headers
+     */
+    Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Gets the request body
+     *
+     * @return The request body, or null if the request has no body
+     */
+    RequestBody getBody() {
+        return body;
+    }
+
+    /**
+     * Sets the request body
+     *
+     * @param body The request body
+     */
+    void setBody(RequestBody body) {
+        this.body = body;
+    }
+
+    /**
+     * Creates a copy of the request sharing its headers and body, which can be sent and aborted on its own
+     *
+     * @return A copy of the request
+     */
+    TransportRequest copy() {
+        TransportRequest copy = new TransportRequest(url, requestType);
+        copy.headers.putAll(headers);
+        copy.body = body;
+        return copy;
+    }
+
+    /**
+     * Sets the action aborting the request while it is in flight.
+     * Transports call this before sending the request; if the request was already aborted, the action runs immediately.
+     *
+     * @param action The action aborting the request
+     */
+    void setAbortAction(Runnable action) {
+        synchronized (this) {
+            if (!aborted) {
+                abortAction = action;
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Checks whether the request was aborted
+     *
+     * @return True if the request was aborted
+     */
+    synchronized boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Aborts the request, closing its connection if it is in flight
+     */
+    void abort() {
+        Runnable action;
+        synchronized (this) {
+            if (aborted) {
+                return;
+            }
+            aborted = true;
+            action = abortAction;
+        }
+        if (action != null) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A package-private interface for a response received through an {@link HttpTransport}
+ */
+interface TransportResponse {
+
+    /**
+     * Retrieves the status code of the response
+     *
+     * @return HTTP status code
+     */
+    int getStatusCode();
+
+    /**
+     * Retrieves the first value of a response header
+     *
+     * @param name The header name
+     * @return The header value, or null if the header is missing
+     */
+    String getHeader(String name);
+
+    /**
+     * Opens the response content
+     *
+     * @return The response content stream, empty if the response has no content
+     * @throws IOException Signals that a content stream couldn't be created
+     */
+    InputStream getContent() throws IOException;
+
+    /**
+     * Releases the response so its connection can be reused
+     *
+     * @throws IOException Signals a failure while draining the response content
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,194 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * A package-private transport built on the platform {@link HttpURLConnection}.
+ * Connection pooling and protocol negotiation are left to the platform stack, which on Android
+ * keeps its own keep-alive pool sized by the "http.maxConnections" system property.
+ */
+class UrlConnectionHttpTransport implements HttpTransport {
+
+    /**
+     * The chunk size used when the request body length is unknown
+     */
+    private static final int CHUNK_LENGTH = 64 * 1024;
+
+    /**
+     * The connection and socket timeout in milliseconds
+     */
+    private final int timeoutMillis;
+
+    /**
+     * The socket factory of the SSL context caching the TLS sessions, shared by all connections so they stay poolable
+     */
+    private final SSLSocketFactory sslSocketFactory;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a transport using the platform connection pool
+     *
+     * @param timeoutMillis The connection and socket timeout in milliseconds
+     * @param sslContext The SSL context caching the TLS sessions
+     */
+    UrlConnectionHttpTransport(int timeoutMillis, SSLContext sslContext) {
+        this.timeoutMillis = timeoutMillis;
+        this.sslSocketFactory = sslContext.getSocketFactory();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+        request.setAbortAction(new Runnable() {
+            @Override
+            public void run() {
+                connection.disconnect();
+            }
+        });
+        if (connection instanceof HttpsURLConnection) {
+            ((HttpsURLConnection) connection).setSSLSocketFactory(sslSocketFactory);
+        }
+        try {
+            connection.setRequestMethod(request.getRequestType().name());
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setUseCaches(false);
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            RequestBody body = request.getBody();
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", body.getContentType());
+                long contentLength = body.getContentLength();
+                if (contentLength >= 0 && contentLength <= Integer.MAX_VALUE) {
+                    connection.setFixedLengthStreamingMode((int) contentLength);
+                } else {
+                    connection.setChunkedStreamingMode(CHUNK_LENGTH);
+                }
+                OutputStream outputStream = connection.getOutputStream();
+                try {
+                    body.writeTo(outputStream);
+                } finally {
+                    outputStream.close();
+                }
+            }
+
+            return new UrlConnectionResponse(connection, connection.getResponseCode());
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTime, TimeUnit unit) {
+        // The platform pool evicts its idle connections on its own
+    }
+
+    @Override
+    public void shutdown() {
+        // The platform pool is shared by the whole process and can't be shut down
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A transport response wrapping an {@link HttpURLConnection}
+     */
+    private static class UrlConnectionResponse implements TransportResponse {
+
+        /**
+         * The connection the response was received on
+         */
+        private final HttpURLConnection connection;
+
+        /**
+         * The response status code
+         */
+        private final int statusCode;
+
+        /**
+         * The opened content stream, or null if it wasn't requested yet
+         */
+        private InputStream content;
+
+        UrlConnectionResponse(HttpURLConnection connection, int statusCode) {
+            this.connection = connection;
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return connection.getHeaderField(name);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (content == null) {
+                content = statusCode >= HttpURLConnection.HTTP_BAD_REQUEST ? connection.getErrorStream() : connection.getInputStream();
+                if (content == null) {
+                    content = new ByteArrayInputStream(new byte[0]);
+                }
+            }
+            return content;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Closing a fully read stream hands the connection back to the platform pool
+            getContent().close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * The record layout of verification profiles in a {@link ProfileCatalog}
+ */
+final class VerificationRecordFormat extends ProfileRecordFormat<Profile> {
+
+    /**
+     * The single instance
+     */
+    static final VerificationRecordFormat INSTANCE = new VerificationRecordFormat();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates the record format
+     */
+    private VerificationRecordFormat() {
+        super(2, Profile.class);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    Profile newProfile() {
+        return new Profile();
+    }
+
+    @Override
+    UUID getId(Profile profile) {
+        return profile.verificationProfileId;
+    }
+
+    @Override
+    void setId(Profile profile, UUID id) {
+        profile.verificationProfileId = id;
+    }
+
+    @Override
+    void write(ByteBuffer buffer, int offset, Profile profile) {
+        buffer.putInt(offset, profile.enrollmentsCount);
+        buffer.putInt(offset + 8, profile.remainingEnrollmentsCount);
+    }
+
+    @Override
+    void read(ByteBuffer buffer, int offset, Profile profile) {
+        profile.enrollmentsCount = buffer.getInt(offset);
+        profile.remainingEnrollmentsCount = buffer.getInt(offset + 8);
+    }
+
+    @Override
+    boolean hasSameProgress(Profile profile, Profile other) {
+        return profile.enrollmentsCount == other.enrollmentsCount
+                && profile.remainingEnrollmentsCount == other.remainingEnrollmentsCount;
+    }
+}
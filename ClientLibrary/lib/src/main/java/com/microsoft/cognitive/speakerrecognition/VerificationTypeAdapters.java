@@ -0,0 +1,270 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Result;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Verification;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Package-private Json adapters for the verification contract
+ */
+final class VerificationTypeAdapters {
+
+    /**
+     * Reads and writes verification results
+     */
+    static final TypeAdapter<Result> RESULT_ADAPTER = new ContractTypeAdapters.NamedEnumAdapter<>(
+            Result.values(), "Accept", "Reject").nullSafe();
+
+    /**
+     * Reads and writes profile creation responses
+     */
+    static final TypeAdapter<CreateProfileResponse> CREATE_PROFILE_RESPONSE_ADAPTER = new TypeAdapter<CreateProfileResponse>() {
+        @Override
+        public void write(JsonWriter out, CreateProfileResponse value) throws IOException {
+            out.beginObject();
+            out.name("verificationProfileId");
+            ContractTypeAdapters.UUID_ADAPTER.write(out, value.verificationProfileId);
+            out.endObject();
+        }
+
+        @Override
+        public CreateProfileResponse read(JsonReader in) throws IOException {
+            CreateProfileResponse response = new CreateProfileResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("verificationProfileId".equals(in.nextName())) {
+                    response.verificationProfileId = ContractTypeAdapters.UUID_ADAPTER.read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes verification profiles
+     */
+    static final TypeAdapter<Profile> PROFILE_ADAPTER = new TypeAdapter<Profile>() {
+        @Override
+        public void write(JsonWriter out, Profile value) throws IOException {
+            out.beginObject();
+            out.name("verificationProfileId");
+            ContractTypeAdapters.UUID_ADAPTER.write(out, value.verificationProfileId);
+            out.name("remainingEnrollmentsCount").value(value.remainingEnrollmentsCount);
+            out.name("enrollmentsCount").value(value.enrollmentsCount);
+            ContractTypeAdapters.writeProfileBase(out, value);
+            out.endObject();
+        }
+
+        @Override
+        public Profile read(JsonReader in) throws IOException {
+            Profile profile = new Profile();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "verificationProfileId":
+                        profile.verificationProfileId = ContractTypeAdapters.UUID_ADAPTER.read(in);
+                        break;
+                    case "remainingEnrollmentsCount":
+                        profile.remainingEnrollmentsCount = ContractTypeAdapters.nextInt(in, profile.remainingEnrollmentsCount);
+                        break;
+                    case "enrollmentsCount":
+                        profile.enrollmentsCount = ContractTypeAdapters.nextInt(in, profile.enrollmentsCount);
+                        break;
+                    default:
+                        if (!ContractTypeAdapters.readProfileBase(in, name, profile)) {
+                            in.skipValue();
+                        }
+                        break;
+                }
+            }
+            in.endObject();
+            return profile;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes enrollment results
+     */
+    static final TypeAdapter<Enrollment> ENROLLMENT_ADAPTER = new TypeAdapter<Enrollment>() {
+        @Override
+        public void write(JsonWriter out, Enrollment value) throws IOException {
+            out.beginObject();
+            out.name("remainingEnrollments").value(value.remainingEnrollments);
+            out.name("enrollmentsCount").value(value.enrollmentsCount);
+            out.name("phrase").value(value.phrase);
+            ContractTypeAdapters.writeEnrollmentBase(out, value);
+            out.endObject();
+        }
+
+        @Override
+        public Enrollment read(JsonReader in) throws IOException {
+            Enrollment enrollment = new Enrollment();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "remainingEnrollments":
+                        enrollment.remainingEnrollments = ContractTypeAdapters.nextInt(in, enrollment.remainingEnrollments);
+                        break;
+                    case "enrollmentsCount":
+                        enrollment.enrollmentsCount = ContractTypeAdapters.nextInt(in, enrollment.enrollmentsCount);
+                        break;
+                    case "phrase":
+                        enrollment.phrase = ContractTypeAdapters.nextString(in);
+                        break;
+                    default:
+                        if (!ContractTypeAdapters.readEnrollmentBase(in, name, enrollment)) {
+                            in.skipValue();
+                        }
+                        break;
+                }
+            }
+            in.endObject();
+            return enrollment;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes verification results
+     */
+    static final TypeAdapter<Verification> VERIFICATION_ADAPTER = new TypeAdapter<Verification>() {
+        @Override
+        public void write(JsonWriter out, Verification value) throws IOException {
+            out.beginObject();
+            out.name("result");
+            RESULT_ADAPTER.write(out, value.result);
+            out.name("confidence");
+            ContractTypeAdapters.CONFIDENCE_ADAPTER.write(out, value.confidence);
+            out.name("phrase").value(value.phrase);
+            out.endObject();
+        }
+
+        @Override
+        public Verification read(JsonReader in) throws IOException {
+            Verification verification = new Verification();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "result":
+                        verification.result = RESULT_ADAPTER.read(in);
+                        break;
+                    case "confidence":
+                        verification.confidence = ContractTypeAdapters.CONFIDENCE_ADAPTER.read(in);
+                        break;
+                    case "phrase":
+                        verification.phrase = ContractTypeAdapters.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return verification;
+        }
+    }.nullSafe();
+
+    /**
+     * Reads and writes verification phrases
+     */
+    static final TypeAdapter<VerificationPhrase> VERIFICATION_PHRASE_ADAPTER = new TypeAdapter<VerificationPhrase>() {
+        @Override
+        public void write(JsonWriter out, VerificationPhrase value) throws IOException {
+            out.beginObject();
+            out.name("phrase").value(value.phrase);
+            out.endObject();
+        }
+
+        @Override
+        public VerificationPhrase read(JsonReader in) throws IOException {
+            VerificationPhrase phrase = new VerificationPhrase();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("phrase".equals(in.nextName())) {
+                    phrase.phrase = ContractTypeAdapters.nextString(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return phrase;
+        }
+    }.nullSafe();
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The class only has static members
+     */
+    private VerificationTypeAdapters() {
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the adapter of a verification contract type
+     *
+     * @param type The type
+     * @return The adapter, or null if the type is not part of the verification contract
+     */
+    static TypeAdapter<?> forType(Class<?> type) {
+        if (type == Result.class) {
+            return RESULT_ADAPTER;
+        } else if (type == CreateProfileResponse.class) {
+            return CREATE_PROFILE_RESPONSE_ADAPTER;
+        } else if (type == Profile.class) {
+            return PROFILE_ADAPTER;
+        } else if (type == Enrollment.class) {
+            return ENROLLMENT_ADAPTER;
+        } else if (type == Verification.class) {
+            return VERIFICATION_ADAPTER;
+        } else if (type == VerificationPhrase.class) {
+            return VERIFICATION_PHRASE_ADAPTER;
+        }
+        return null;
+    }
+}
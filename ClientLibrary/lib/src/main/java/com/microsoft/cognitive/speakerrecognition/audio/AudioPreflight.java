@@ -0,0 +1,307 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class measures a clip before it is sent, so that clips the service would reject or answer poorly
+ * don't cost an upload and a round of polling. It takes 16 kHz mono 16-bit PCM samples, the service format,
+ * in chunks of any size, for example straight from the capture buffer, and measures in a single pass
+ * the speech duration, the share of clipped samples, the RMS level and an estimate of the signal-to-noise ratio.
+ * Analyzing doesn't allocate, so it can run inline on the capture thread; call {@link #reset()} to reuse the
+ * analyzer for the next clip, then {@link #check(PreflightPolicy)} once the clip is complete.
+ */
+public class AudioPreflight {
+
+    /**
+     * The sample magnitude from which a sample counts as clipped
+     */
+    private static final int CLIPPING_LEVEL = 32700;
+
+    /**
+     * The size of the buffer used to analyze WAV streams
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * The speech detector classifying the frames
+     */
+    private final SpeechDetector detector;
+
+    /**
+     * The number of samples analyzed
+     */
+    private long samples;
+
+    /**
+     * The number of clipped samples
+     */
+    private long clippedSamples;
+
+    /**
+     * The sum of the squares of the normalized samples
+     */
+    private double sumSquares;
+
+    /**
+     * The number of frames classified as speech
+     */
+    private long speechFrames;
+
+    /**
+     * The sum of the mean squares of the speech frames
+     */
+    private double speechPower;
+
+    /**
+     * The number of frames classified as non-speech
+     */
+    private long noiseFrames;
+
+    /**
+     * The sum of the mean squares of the non-speech frames
+     */
+    private double noisePower;
+
+    /**
+     * The number of samples of the current frame
+     */
+    private int frameSamples;
+
+    /**
+     * The sum of the squares of the normalized samples of the current frame
+     */
+    private double frameSumSquares;
+
+    /**
+     * The number of sign changes within the current frame
+     */
+    private int frameCrossings;
+
+    /**
+     * Whether the last sample was negative
+     */
+    private boolean lastNegative;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates an analyzer with the default speech threshold
+     */
+    public AudioPreflight() {
+        this(SpeechDetector.DEFAULT_THRESHOLD_DB);
+    }
+
+    /**
+     * Creates an analyzer
+     *
+     * @param speechThresholdDb The energy above the noise floor marking speech, in dB
+     */
+    public AudioPreflight(double speechThresholdDb) {
+        if (speechThresholdDb <= 0) {
+            throw new IllegalArgumentException("Invalid speech threshold");
+        }
+        this.detector = new SpeechDetector(speechThresholdDb);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Forgets the measures of the previous clip
+     */
+    public void reset() {
+        detector.reset();
+        samples = 0;
+        clippedSamples = 0;
+        sumSquares = 0;
+        speechFrames = 0;
+        speechPower = 0;
+        noiseFrames = 0;
+        noisePower = 0;
+        frameSamples = 0;
+        frameSumSquares = 0;
+        frameCrossings = 0;
+        lastNegative = false;
+    }
+
+    /**
+     * Analyzes the next samples of the clip
+     *
+     * @param buffer The buffer holding the samples, at 16 kHz
+     * @param offset The position of the first sample
+     * @param count The number of samples
+     */
+    public void analyze(short[] buffer, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            addSample(buffer[i]);
+        }
+    }
+
+    /**
+     * Analyzes the next samples of the clip, given as little-endian 16-bit PCM bytes
+     *
+     * @param buffer The buffer holding the samples, at 16 kHz
+     * @param offset The position of the first sample
+     * @param length The number of bytes, an even number
+     */
+    public void analyze(byte[] buffer, int offset, int length) {
+        for (int i = offset, end = offset + length - 1; i < end; i += 2) {
+            addSample((short) ((buffer[i] & 0xff) | buffer[i + 1] << 8));
+        }
+    }
+
+    /**
+     * Analyzes a whole WAV stream after the current clip, converting it to the service format first.
+     * Unlike the other analyze methods this allocates the conversion buffers.
+     *
+     * @param source The WAV stream, in any format a {@link ServiceWavInputStream} accepts
+     * @throws InvalidAudioException Signals a source that isn't a WAV stream or uses an unsupported format
+     * @throws IOException Signals an I/O issue while reading the source
+     */
+    public void analyze(InputStream source) throws IOException {
+        ServiceWavInputStream converted = new ServiceWavInputStream(source);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int skip = 44;
+        int carry = 0;
+        int read;
+        while ((read = converted.read(buffer, carry, buffer.length - carry)) > 0) {
+            int length = carry + read;
+            int start = Math.min(skip, length);
+            skip -= start;
+            int usable = (length - start) & ~1;
+            analyze(buffer, start, usable);
+            carry = length - start - usable;
+            if (carry > 0) {
+                buffer[0] = buffer[start + usable];
+            }
+        }
+    }
+
+    /**
+     * Gets the duration of the clip
+     *
+     * @return The duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return samples * 1000 / ServiceWavInputStream.SERVICE_SAMPLE_RATE;
+    }
+
+    /**
+     * Gets the duration of the frames classified as speech
+     *
+     * @return The duration in milliseconds
+     */
+    public long getSpeechMillis() {
+        return speechFrames * SpeechDetector.FRAME_MILLIS;
+    }
+
+    /**
+     * Gets the share of clipped samples
+     *
+     * @return The ratio of samples at full scale, between 0 and 1
+     */
+    public double getClippingRatio() {
+        return samples == 0 ? 0 : (double) clippedSamples / samples;
+    }
+
+    /**
+     * Gets the RMS level of the clip
+     *
+     * @return The level in dB relative to full scale
+     */
+    public double getRmsDb() {
+        return SpeechDetector.toDb(samples == 0 ? 0 : sumSquares / samples);
+    }
+
+    /**
+     * Gets an estimate of the signal-to-noise ratio, comparing the mean power of the speech frames
+     * with the mean power of the other frames, or with the tracked noise floor if all frames are speech
+     *
+     * @return The ratio in dB, or NaN if no frame is speech
+     */
+    public double getSnrDb() {
+        if (speechFrames == 0) {
+            return Double.NaN;
+        }
+        double noiseDb = noiseFrames > 0 ? SpeechDetector.toDb(noisePower / noiseFrames) : detector.getNoiseDb();
+        return SpeechDetector.toDb(speechPower / speechFrames) - noiseDb;
+    }
+
+    /**
+     * Checks the measures of the clip against the thresholds of an operation
+     *
+     * @param policy The thresholds of the operation, such as {@link PreflightPolicy#IDENTIFICATION}
+     * @return The verdict and the issues found
+     */
+    public PreflightResult check(PreflightPolicy policy) {
+        return policy.check(this);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds a sample to the measures, classifying the frame it completes
+     *
+     * @param sample The sample
+     */
+    private void addSample(short sample) {
+        samples++;
+        if (sample >= CLIPPING_LEVEL || sample <= -CLIPPING_LEVEL) {
+            clippedSamples++;
+        }
+        double normalized = sample / 32768.0;
+        double square = normalized * normalized;
+        sumSquares += square;
+        frameSumSquares += square;
+        boolean negative = sample < 0;
+        if (frameSamples > 0 && negative != lastNegative) {
+            frameCrossings++;
+        }
+        lastNegative = negative;
+        if (++frameSamples == SpeechDetector.FRAME_SAMPLES) {
+            double meanSquare = frameSumSquares / frameSamples;
+            if (detector.isSpeech(SpeechDetector.toDb(meanSquare), (double) frameCrossings / (frameSamples - 1))) {
+                speechFrames++;
+                speechPower += meanSquare;
+            } else {
+                noiseFrames++;
+                noisePower += meanSquare;
+            }
+            frameSamples = 0;
+            frameSumSquares = 0;
+            frameCrossings = 0;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+/**
+ * A streaming polyphase resampler converting mono samples between rates of a rational ratio.
+ * The rates are reduced to an interpolation factor L and a decimation factor M; each output sample is computed
+ * from one phase of a windowed-sinc low-pass filter designed at L times the input rate, so the upsampled signal
+ * is never materialized. The input samples are pushed one at a time and only the filter span is kept.
+ */
+final class PcmResampler {
+
+    /**
+     * The most filter phases, bounding the coefficient table to rates whose ratio reduces to small factors
+     */
+    private static final int MAX_PHASES = 1024;
+
+    /**
+     * The number of zero crossings of the sinc kernel on each side of its center
+     */
+    private static final int ZERO_CROSSINGS = 16;
+
+    /**
+     * The cut-off frequency as a fraction of the Nyquist frequency of the lower rate, leaving room for the transition band
+     */
+    private static final double ROLLOFF = 0.92;
+
+    /**
+     * The interpolation factor
+     */
+    private final int interpolation;
+
+    /**
+     * The decimation factor
+     */
+    private final int decimation;
+
+    /**
+     * The number of filter taps per output sample
+     */
+    private final int tapsPerPhase;
+
+    /**
+     * The filter coefficients, grouped by phase
+     */
+    private final float[] coefficients;
+
+    /**
+     * The filter delay, in samples at the upsampled rate
+     */
+    private final long delay;
+
+    /**
+     * The last input samples, indexed by their position modulo the length
+     */
+    private final float[] history;
+
+    /**
+     * The mask of a position into the history
+     */
+    private final int historyMask;
+
+    /**
+     * The number of input samples pushed
+     */
+    private long received;
+
+    /**
+     * The number of output samples produced
+     */
+    private long produced;
+
+    /**
+     * Whether the input ended
+     */
+    private boolean ended;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a resampler
+     *
+     * @param inputRate The input sample rate in Hz
+     * @param outputRate The output sample rate in Hz
+     * @throws InvalidAudioException Signals rates whose ratio needs too many filter phases
+     */
+    PcmResampler(int inputRate, int outputRate) throws InvalidAudioException {
+        int divisor = gcd(inputRate, outputRate);
+        interpolation = outputRate / divisor;
+        decimation = inputRate / divisor;
+        if (interpolation > MAX_PHASES) {
+            throw new InvalidAudioException("Unsupported sample rate " + inputRate + " Hz");
+        }
+        if (interpolation == decimation) {
+            tapsPerPhase = 1;
+            coefficients = new float[] {1};
+            delay = 0;
+        } else {
+            double cutoff = ROLLOFF * 0.5 / Math.max(interpolation, decimation);
+            tapsPerPhase = (int) Math.ceil(ZERO_CROSSINGS / cutoff / interpolation);
+            coefficients = design(interpolation, tapsPerPhase, cutoff);
+            delay = ((long) tapsPerPhase * interpolation - 1) / 2;
+        }
+        int historyLength = Integer.highestOneBit(tapsPerPhase);
+        if (historyLength < tapsPerPhase) {
+            historyLength <<= 1;
+        }
+        history = new float[historyLength];
+        historyMask = historyLength - 1;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the number of output samples of a number of input samples
+     *
+     * @param inputCount The number of input samples
+     * @return The number of output samples
+     */
+    long getOutputCount(long inputCount) {
+        return (inputCount * interpolation + decimation - 1) / decimation;
+    }
+
+    /**
+     * Tells whether the next output sample is waiting for more input
+     *
+     * @return True if an input sample must be pushed before the next output sample
+     */
+    boolean needsInput() {
+        return !ended && received <= inputIndex(produced);
+    }
+
+    /**
+     * Tells whether an output sample is ready
+     *
+     * @return True if {@link #next()} can be called
+     */
+    boolean hasOutput() {
+        return ended ? produced < getOutputCount(received) : received > inputIndex(produced);
+    }
+
+    /**
+     * Pushes an input sample
+     *
+     * @param sample The sample
+     */
+    void push(float sample) {
+        history[(int) (received & historyMask)] = sample;
+        received++;
+    }
+
+    /**
+     * Ends the input, so that the last output samples are computed against silence
+     */
+    void end() {
+        ended = true;
+    }
+
+    /**
+     * Computes the next output sample
+     *
+     * @return The sample
+     */
+    float next() {
+        long position = produced * decimation + delay;
+        long index = position / interpolation;
+        int phase = (int) (position % interpolation) * tapsPerPhase;
+        float sum = 0;
+        if (index >= tapsPerPhase - 1 && index < received) {
+            for (int tap = 0; tap < tapsPerPhase; tap++) {
+                sum += coefficients[phase + tap] * history[(int) ((index - tap) & historyMask)];
+            }
+        } else {
+            for (int tap = 0; tap < tapsPerPhase; tap++) {
+                long sampleIndex = index - tap;
+                if (sampleIndex >= 0 && sampleIndex < received) {
+                    sum += coefficients[phase + tap] * history[(int) (sampleIndex & historyMask)];
+                }
+            }
+        }
+        produced++;
+        return sum;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the position of the newest input sample an output sample depends on
+     *
+     * @param outputIndex The position of the output sample
+     * @return The position of the input sample
+     */
+    private long inputIndex(long outputIndex) {
+        return (outputIndex * decimation + delay) / interpolation;
+    }
+
+    /**
+     * Designs a Blackman-windowed sinc low-pass filter and splits it into phases,
+     * scaled so that every phase has unit gain at DC
+     *
+     * @param phases The number of phases
+     * @param taps The number of taps per phase
+     * @param cutoff The cut-off frequency in cycles per upsampled sample
+     * @return The coefficients of tap k of phase p at index p * taps + k
+     */
+    private static float[] design(int phases, int taps, double cutoff) {
+        int length = phases * taps;
+        double center = (length - 1) / 2.0;
+        double[] kernel = new double[length];
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            double x = i - center;
+            double sinc = x == 0 ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * x) / (Math.PI * x);
+            double window = 0.42 - 0.5 * Math.cos(2 * Math.PI * (i + 0.5) / length) + 0.08 * Math.cos(4 * Math.PI * (i + 0.5) / length);
+            kernel[i] = sinc * window;
+            sum += kernel[i];
+        }
+        float[] coefficients = new float[length];
+        for (int phase = 0; phase < phases; phase++) {
+            for (int tap = 0; tap < taps; tap++) {
+                coefficients[phase * taps + tap] = (float) (kernel[phase + tap * phases] * phases / sum);
+            }
+        }
+        return coefficients;
+    }
+
+    /**
+     * Computes the greatest common divisor of two positive numbers
+     *
+     * @param a The first number
+     * @param b The second number
+     * @return The greatest common divisor
+     */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,228 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.util.EnumSet;
+
+/**
+ * The thresholds an {@link AudioPreflight} is checked against for one kind of operation.
+ * The presets follow the audio limits of the service; build a policy with other durations to track
+ * changes of the service, or to ask for the speech an enrollment still needs.
+ */
+public class PreflightPolicy {
+
+    /**
+     * The default share of clipped samples above which a clip gets a warning
+     */
+    public static final double DEFAULT_WARN_CLIPPING_RATIO = 0.001;
+
+    /**
+     * The default share of clipped samples above which a clip is rejected
+     */
+    public static final double DEFAULT_REJECT_CLIPPING_RATIO = 0.01;
+
+    /**
+     * The default RMS level below which a clip gets a warning, in dB relative to full scale
+     */
+    public static final double DEFAULT_WARN_RMS_DB = -35;
+
+    /**
+     * The default RMS level below which a clip is rejected, in dB relative to full scale
+     */
+    public static final double DEFAULT_REJECT_RMS_DB = -50;
+
+    /**
+     * The default signal-to-noise ratio below which a clip gets a warning, in dB
+     */
+    public static final double DEFAULT_WARN_SNR_DB = 15;
+
+    /**
+     * The default signal-to-noise ratio below which a clip is rejected, in dB
+     */
+    public static final double DEFAULT_REJECT_SNR_DB = 6;
+
+    /**
+     * The policy of identification calls: at least 1 second of speech with short audio forced,
+     * 5 seconds without, and at most 5 minutes of audio
+     */
+    public static final PreflightPolicy IDENTIFICATION = new PreflightPolicy(1000, 5000, 300000);
+
+    /**
+     * The policy of identification enrollments: at least 1 second of speech with short audio forced,
+     * and a warning for clips that don't hold the 30 seconds of speech a new profile needs
+     */
+    public static final PreflightPolicy IDENTIFICATION_ENROLLMENT = new PreflightPolicy(1000, 30000, 300000);
+
+    /**
+     * The policy of verification calls and enrollments, made of a single phrase: at least 1 second of speech
+     * and at most 15 seconds of audio
+     */
+    public static final PreflightPolicy VERIFICATION = new PreflightPolicy(1000, 1000, 15000);
+
+    /**
+     * The speech duration below which a clip is rejected, in milliseconds
+     */
+    private final long minSpeechMillis;
+
+    /**
+     * The speech duration below which a clip gets a warning, in milliseconds
+     */
+    private final long recommendedSpeechMillis;
+
+    /**
+     * The audio duration above which a clip is rejected, in milliseconds
+     */
+    private final long maxDurationMillis;
+
+    /**
+     * The share of clipped samples above which a clip gets a warning
+     */
+    private final double warnClippingRatio;
+
+    /**
+     * The share of clipped samples above which a clip is rejected
+     */
+    private final double rejectClippingRatio;
+
+    /**
+     * The RMS level below which a clip gets a warning, in dB relative to full scale
+     */
+    private final double warnRmsDb;
+
+    /**
+     * The RMS level below which a clip is rejected, in dB relative to full scale
+     */
+    private final double rejectRmsDb;
+
+    /**
+     * The signal-to-noise ratio below which a clip gets a warning, in dB
+     */
+    private final double warnSnrDb;
+
+    /**
+     * The signal-to-noise ratio below which a clip is rejected, in dB
+     */
+    private final double rejectSnrDb;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a policy with the default level thresholds
+     *
+     * @param minSpeechMillis The speech duration below which a clip is rejected, in milliseconds
+     * @param recommendedSpeechMillis The speech duration below which a clip gets a warning, in milliseconds
+     * @param maxDurationMillis The audio duration above which a clip is rejected, in milliseconds
+     */
+    public PreflightPolicy(long minSpeechMillis, long recommendedSpeechMillis, long maxDurationMillis) {
+        this(minSpeechMillis, recommendedSpeechMillis, maxDurationMillis,
+                DEFAULT_WARN_CLIPPING_RATIO, DEFAULT_REJECT_CLIPPING_RATIO,
+                DEFAULT_WARN_RMS_DB, DEFAULT_REJECT_RMS_DB,
+                DEFAULT_WARN_SNR_DB, DEFAULT_REJECT_SNR_DB);
+    }
+
+    /**
+     * Creates a policy
+     *
+     * @param minSpeechMillis The speech duration below which a clip is rejected, in milliseconds
+     * @param recommendedSpeechMillis The speech duration below which a clip gets a warning, in milliseconds
+     * @param maxDurationMillis The audio duration above which a clip is rejected, in milliseconds
+     * @param warnClippingRatio The share of clipped samples above which a clip gets a warning
+     * @param rejectClippingRatio The share of clipped samples above which a clip is rejected
+     * @param warnRmsDb The RMS level below which a clip gets a warning, in dB relative to full scale
+     * @param rejectRmsDb The RMS level below which a clip is rejected, in dB relative to full scale
+     * @param warnSnrDb The signal-to-noise ratio below which a clip gets a warning, in dB
+     * @param rejectSnrDb The signal-to-noise ratio below which a clip is rejected, in dB
+     */
+    public PreflightPolicy(long minSpeechMillis, long recommendedSpeechMillis, long maxDurationMillis,
+                           double warnClippingRatio, double rejectClippingRatio,
+                           double warnRmsDb, double rejectRmsDb,
+                           double warnSnrDb, double rejectSnrDb) {
+        if (recommendedSpeechMillis < minSpeechMillis || warnClippingRatio > rejectClippingRatio
+                || warnRmsDb < rejectRmsDb || warnSnrDb < rejectSnrDb) {
+            throw new IllegalArgumentException("Warning thresholds must be stricter than reject thresholds");
+        }
+        this.minSpeechMillis = minSpeechMillis;
+        this.recommendedSpeechMillis = recommendedSpeechMillis;
+        this.maxDurationMillis = maxDurationMillis;
+        this.warnClippingRatio = warnClippingRatio;
+        this.rejectClippingRatio = rejectClippingRatio;
+        this.warnRmsDb = warnRmsDb;
+        this.rejectRmsDb = rejectRmsDb;
+        this.warnSnrDb = warnSnrDb;
+        this.rejectSnrDb = rejectSnrDb;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Checks the measures of a clip against the thresholds
+     *
+     * @param preflight The analyzer holding the measures of the clip
+     * @return The issues found
+     */
+    PreflightResult check(AudioPreflight preflight) {
+        EnumSet<PreflightResult.Issue> rejections = EnumSet.noneOf(PreflightResult.Issue.class);
+        EnumSet<PreflightResult.Issue> warnings = EnumSet.noneOf(PreflightResult.Issue.class);
+
+        long speechMillis = preflight.getSpeechMillis();
+        if (speechMillis < minSpeechMillis) {
+            rejections.add(PreflightResult.Issue.TOO_SHORT);
+        } else if (speechMillis < recommendedSpeechMillis) {
+            warnings.add(PreflightResult.Issue.TOO_SHORT);
+        }
+        if (preflight.getDurationMillis() > maxDurationMillis) {
+            rejections.add(PreflightResult.Issue.TOO_LONG);
+        }
+        double clippingRatio = preflight.getClippingRatio();
+        if (clippingRatio > rejectClippingRatio) {
+            rejections.add(PreflightResult.Issue.CLIPPED);
+        } else if (clippingRatio > warnClippingRatio) {
+            warnings.add(PreflightResult.Issue.CLIPPED);
+        }
+        double rmsDb = preflight.getRmsDb();
+        if (rmsDb < rejectRmsDb) {
+            rejections.add(PreflightResult.Issue.TOO_QUIET);
+        } else if (rmsDb < warnRmsDb) {
+            warnings.add(PreflightResult.Issue.TOO_QUIET);
+        }
+        double snrDb = preflight.getSnrDb();
+        if (!Double.isNaN(snrDb)) {
+            if (snrDb < rejectSnrDb) {
+                rejections.add(PreflightResult.Issue.NOISY);
+            } else if (snrDb < warnSnrDb) {
+                warnings.add(PreflightResult.Issue.NOISY);
+            }
+        }
+        return new PreflightResult(rejections, warnings);
+    }
+}
@@ -0,0 +1,150 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The outcome of checking an {@link AudioPreflight} against a {@link PreflightPolicy}
+ */
+public class PreflightResult {
+
+    /**
+     * The decisions of a preflight check
+     */
+    public enum Verdict {
+
+        /**
+         * The audio is fit for the operation
+         */
+        ACCEPT,
+
+        /**
+         * The audio may be sent, but the service may reject it or give a poor result
+         */
+        WARN,
+
+        /**
+         * The audio should not be sent
+         */
+        REJECT
+    }
+
+    /**
+     * The problems a preflight check looks for
+     */
+    public enum Issue {
+
+        /**
+         * The audio holds too little speech
+         */
+        TOO_SHORT,
+
+        /**
+         * The audio is longer than the operation accepts
+         */
+        TOO_LONG,
+
+        /**
+         * Too many samples are at full scale
+         */
+        CLIPPED,
+
+        /**
+         * The audio level is too low
+         */
+        TOO_QUIET,
+
+        /**
+         * The speech doesn't stand out enough from the background noise
+         */
+        NOISY
+    }
+
+    /**
+     * The issues over their reject thresholds
+     */
+    private final Set<Issue> rejections;
+
+    /**
+     * The issues over their warning thresholds only
+     */
+    private final Set<Issue> warnings;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a preflight result
+     *
+     * @param rejections The issues over their reject thresholds
+     * @param warnings The issues over their warning thresholds only
+     */
+    PreflightResult(EnumSet<Issue> rejections, EnumSet<Issue> warnings) {
+        this.rejections = Collections.unmodifiableSet(rejections);
+        this.warnings = Collections.unmodifiableSet(warnings);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the decision of the check
+     *
+     * @return REJECT if an issue is over its reject threshold, WARN if one is over its warning threshold, otherwise ACCEPT
+     */
+    public Verdict getVerdict() {
+        if (!rejections.isEmpty()) {
+            return Verdict.REJECT;
+        }
+        return warnings.isEmpty() ? Verdict.ACCEPT : Verdict.WARN;
+    }
+
+    /**
+     * Gets the issues over their reject thresholds
+     *
+     * @return An unmodifiable set of issues
+     */
+    public Set<Issue> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Gets the issues over their warning thresholds but not over their reject thresholds
+     *
+     * @return An unmodifiable set of issues
+     */
+    public Set<Issue> getWarnings() {
+        return warnings;
+    }
+}
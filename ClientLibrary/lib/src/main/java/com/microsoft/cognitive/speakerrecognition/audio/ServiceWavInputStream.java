@@ -0,0 +1,348 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A stream converting a WAV stream to the format the service accepts, 16 kHz mono 16-bit PCM WAV,
+ * as it is read. Wrap the audio passed to the enroll, identify and verify calls with it, so that malformed
+ * or unsupported audio fails locally with an {@link InvalidAudioException} instead of after the upload.
+ * The source header is parsed when the stream is created; 8, 24 and 32-bit integer and 32 and 64-bit float
+ * samples are converted, channels are averaged, and other rates are resampled by a polyphase filter.
+ * The conversion runs in a single pass with buffers of fixed size, and a canonical header is written in front.
+ * Sample data shorter than its header declares is padded with silence so the written header stays true.
+ */
+public class ServiceWavInputStream extends InputStream {
+
+    /**
+     * The sample rate the service accepts, in Hz
+     */
+    public static final int SERVICE_SAMPLE_RATE = 16000;
+
+    /**
+     * The number of bytes of a sample written by this stream
+     */
+    private static final int OUTPUT_SAMPLE_SIZE = 2;
+
+    /**
+     * The size of the input and output buffers
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * The source stream
+     */
+    private final InputStream source;
+
+    /**
+     * The source format
+     */
+    private final WavHeader header;
+
+    /**
+     * The resampler, converting the source rate to the service rate
+     */
+    private final PcmResampler resampler;
+
+    /**
+     * The bytes read from the source and not converted yet
+     */
+    private final byte[] input = new byte[BUFFER_SIZE];
+
+    /**
+     * The position of the next unconverted byte in the input buffer
+     */
+    private int inputPosition;
+
+    /**
+     * The number of bytes in the input buffer
+     */
+    private int inputLimit;
+
+    /**
+     * The number of source data bytes not read yet, or Long.MAX_VALUE if the length is unknown
+     */
+    private long inputRemaining;
+
+    /**
+     * The converted bytes not returned yet
+     */
+    private final byte[] output = new byte[BUFFER_SIZE];
+
+    /**
+     * The position of the next byte to return from the output buffer
+     */
+    private int outputPosition;
+
+    /**
+     * The number of bytes in the output buffer
+     */
+    private int outputLimit;
+
+    /**
+     * The number of samples still to write, or -1 if the length is unknown
+     */
+    private long outputRemaining;
+
+    /**
+     * The length of the converted stream including its header, or -1 if it is unknown
+     */
+    private final long length;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a converting stream, reading the source header
+     *
+     * @param source The WAV stream to convert, left at the start of its sample data
+     * @throws InvalidAudioException Signals a source that isn't a WAV stream or uses an unsupported format
+     * @throws IOException Signals an I/O issue while reading the source header
+     */
+    public ServiceWavInputStream(InputStream source) throws IOException {
+        this.source = source;
+        this.header = WavHeader.read(source);
+        this.resampler = new PcmResampler(header.getSampleRate(), SERVICE_SAMPLE_RATE);
+        long frames = header.getFrameCount();
+        long dataLength;
+        if (frames < 0) {
+            inputRemaining = Long.MAX_VALUE;
+            outputRemaining = -1;
+            dataLength = -1;
+        } else {
+            inputRemaining = frames * header.getFrameSize();
+            outputRemaining = resampler.getOutputCount(frames);
+            dataLength = outputRemaining * OUTPUT_SAMPLE_SIZE;
+        }
+        byte[] outputHeader = new WavHeader(WavHeader.FORMAT_PCM, 1, SERVICE_SAMPLE_RATE, 8 * OUTPUT_SAMPLE_SIZE, dataLength).toBytes();
+        System.arraycopy(outputHeader, 0, output, 0, outputHeader.length);
+        outputLimit = outputHeader.length;
+        length = dataLength < 0 ? -1 : outputHeader.length + dataLength;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the format of the source stream
+     *
+     * @return The source format
+     */
+    public WavHeader getSourceHeader() {
+        return header;
+    }
+
+    /**
+     * Gets the length of the converted stream, including its header
+     *
+     * @return The length in bytes, or -1 if the source doesn't declare the length of its sample data
+     */
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (outputPosition == outputLimit && !fill()) {
+            return -1;
+        }
+        return output[outputPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        if (outputPosition == outputLimit && !fill()) {
+            return -1;
+        }
+        int read = Math.min(count, outputLimit - outputPosition);
+        System.arraycopy(output, outputPosition, buffer, offset, read);
+        outputPosition += read;
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return outputLimit - outputPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Converts the next samples into the output buffer
+     *
+     * @return True if bytes were written, false at the end of the stream
+     * @throws IOException Signals an I/O issue while reading the source
+     */
+    private boolean fill() throws IOException {
+        outputPosition = 0;
+        outputLimit = 0;
+        while (outputLimit < output.length && outputRemaining != 0) {
+            if (resampler.hasOutput()) {
+                writeSample(resampler.next());
+            } else if (resampler.needsInput()) {
+                if (!readFrame()) {
+                    resampler.end();
+                }
+            } else if (outputRemaining > 0) {
+                // The source ended before the length its header declared
+                writeSample(0);
+            } else {
+                break;
+            }
+        }
+        return outputLimit > 0;
+    }
+
+    /**
+     * Writes a sample to the output buffer as 16-bit PCM
+     *
+     * @param sample The sample, nominally between -1 and 1
+     */
+    private void writeSample(float sample) {
+        int value = Math.round(sample * 32768);
+        if (value > Short.MAX_VALUE) {
+            value = Short.MAX_VALUE;
+        } else if (value < Short.MIN_VALUE) {
+            value = Short.MIN_VALUE;
+        }
+        output[outputLimit++] = (byte) value;
+        output[outputLimit++] = (byte) (value >> 8);
+        if (outputRemaining > 0) {
+            outputRemaining--;
+        }
+    }
+
+    /**
+     * Reads the next source frame, averages its channels and pushes the result to the resampler
+     *
+     * @return True if a frame was read, false at the end of the sample data
+     * @throws IOException Signals an I/O issue while reading the source
+     */
+    private boolean readFrame() throws IOException {
+        int frameSize = header.getFrameSize();
+        if (inputLimit - inputPosition < frameSize && !refill(frameSize)) {
+            return false;
+        }
+        int channels = header.getChannels();
+        float sum = 0;
+        for (int channel = 0; channel < channels; channel++) {
+            sum += decodeSample();
+        }
+        resampler.push(channels == 1 ? sum : sum / channels);
+        return true;
+    }
+
+    /**
+     * Moves the unconverted bytes to the start of the input buffer and reads more source bytes after them
+     *
+     * @param needed The number of bytes needed
+     * @return True if the needed bytes are available, false if the sample data ended first
+     * @throws IOException Signals an I/O issue while reading the source
+     */
+    private boolean refill(int needed) throws IOException {
+        int left = inputLimit - inputPosition;
+        System.arraycopy(input, inputPosition, input, 0, left);
+        inputPosition = 0;
+        inputLimit = left;
+        while (inputLimit < needed && inputRemaining > 0) {
+            int read = source.read(input, inputLimit, (int) Math.min(input.length - inputLimit, inputRemaining));
+            if (read < 0) {
+                inputRemaining = 0;
+                break;
+            }
+            inputLimit += read;
+            inputRemaining -= read;
+        }
+        return inputLimit >= needed;
+    }
+
+    /**
+     * Decodes the next sample of the input buffer
+     *
+     * @return The sample, nominally between -1 and 1
+     */
+    private float decodeSample() {
+        byte[] bytes = input;
+        int position = inputPosition;
+        float sample;
+        if (header.getFormat() == WavHeader.FORMAT_IEEE_FLOAT) {
+            if (header.getBitsPerSample() == 32) {
+                sample = Float.intBitsToFloat(readInt(bytes, position));
+                inputPosition += 4;
+            } else {
+                long bits = (readInt(bytes, position) & 0xffffffffL) | (long) readInt(bytes, position + 4) << 32;
+                sample = (float) Double.longBitsToDouble(bits);
+                inputPosition += 8;
+            }
+            return sample;
+        }
+        switch (header.getBitsPerSample()) {
+            case 8:
+                sample = ((bytes[position] & 0xff) - 128) / 128f;
+                inputPosition += 1;
+                break;
+            case 16:
+                sample = (short) ((bytes[position] & 0xff) | bytes[position + 1] << 8) / 32768f;
+                inputPosition += 2;
+                break;
+            case 24:
+                sample = ((bytes[position] & 0xff) | (bytes[position + 1] & 0xff) << 8 | bytes[position + 2] << 16) / 8388608f;
+                inputPosition += 3;
+                break;
+            default:
+                sample = readInt(bytes, position) / 2147483648f;
+                inputPosition += 4;
+                break;
+        }
+        return sample;
+    }
+
+    /**
+     * Reads a little-endian 32-bit value
+     *
+     * @param bytes The buffer
+     * @param position The position of the value
+     * @return The value
+     */
+    private static int readInt(byte[] bytes, int position) {
+        return (bytes[position] & 0xff) | (bytes[position + 1] & 0xff) << 8 | (bytes[position + 2] & 0xff) << 16 | bytes[position + 3] << 24;
+    }
+}
@@ -0,0 +1,158 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+/**
+ * Classifies 20 ms frames of 16 kHz audio as speech or non-speech. A frame is speech if its energy rises
+ * well above the tracked noise floor, or moderately above it with the high zero-crossing rate of unvoiced sounds.
+ * The noise floor starts from a fixed prior rather than from the first frame, so a clip starting with speech doesn't
+ * take its own speech for noise. It then follows quieter frames at once, so a quiet background is adopted at the
+ * first pause, and louder non-speech frames within a second. It also creeps
+ * up during speech, slowly enough not to swallow long utterances, so that a lasting rise of the background
+ * level ends up adopted even when it was first taken for speech.
+ */
+final class SpeechDetector {
+
+    /**
+     * The default energy above the noise floor marking speech, in dB
+     */
+    static final double DEFAULT_THRESHOLD_DB = 10;
+
+    /**
+     * The duration of a frame, in milliseconds
+     */
+    static final int FRAME_MILLIS = 20;
+
+    /**
+     * The number of samples of a frame
+     */
+    static final int FRAME_SAMPLES = ServiceWavInputStream.SERVICE_SAMPLE_RATE * FRAME_MILLIS / 1000;
+
+    /**
+     * The energy above the noise floor marking unvoiced speech when the zero-crossing rate is high, in dB
+     */
+    private static final double UNVOICED_THRESHOLD_DB = 4;
+
+    /**
+     * The zero-crossing rate, as a fraction of the sample pairs, above which a frame may be unvoiced speech
+     */
+    private static final double UNVOICED_ZERO_CROSSING_RATE = 0.25;
+
+    /**
+     * The lowest noise floor, so that digital silence doesn't make faint noise count as speech, in dB relative to full scale
+     */
+    private static final double SILENCE_DB = -60;
+
+    /**
+     * The noise floor assumed before any frame is heard, in dB relative to full scale.
+     * It lies above the background of most recordings, which is then adopted as soon as a frame falls below it,
+     * and well below speech at a normal level, which is recognized from the first frame.
+     */
+    private static final double INITIAL_NOISE_DB = -45;
+
+    /**
+     * The rate at which the noise floor rises towards louder non-speech frames, per frame
+     */
+    private static final double NOISE_RISE = 0.05;
+
+    /**
+     * The rate at which the noise floor rises towards speech frames, per frame
+     */
+    private static final double SPEECH_NOISE_RISE = 0.002;
+
+    /**
+     * The energy above the noise floor marking speech, in dB
+     */
+    private final double thresholdDb;
+
+    /**
+     * The noise floor, in dB relative to full scale
+     */
+    private double noiseDb = INITIAL_NOISE_DB;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a speech detector
+     *
+     * @param thresholdDb The energy above the noise floor marking speech, in dB
+     */
+    SpeechDetector(double thresholdDb) {
+        this.thresholdDb = thresholdDb;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Classifies the next frame and updates the noise floor
+     *
+     * @param energyDb The energy of the frame, in dB relative to full scale
+     * @param zeroCrossingRate The fraction of consecutive sample pairs of the frame changing sign
+     * @return True if the frame is speech
+     */
+    boolean isSpeech(double energyDb, double zeroCrossingRate) {
+        if (energyDb < noiseDb) {
+            noiseDb = Math.max(energyDb, SILENCE_DB);
+        }
+        boolean speech = energyDb > noiseDb + thresholdDb
+                || (energyDb > noiseDb + UNVOICED_THRESHOLD_DB && zeroCrossingRate > UNVOICED_ZERO_CROSSING_RATE);
+        noiseDb += (energyDb - noiseDb) * (speech ? SPEECH_NOISE_RISE : NOISE_RISE);
+        return speech;
+    }
+
+    /**
+     * Gets the noise floor
+     *
+     * @return The noise floor in dB relative to full scale
+     */
+    double getNoiseDb() {
+        return noiseDb;
+    }
+
+    /**
+     * Forgets the noise floor, to classify another recording
+     */
+    void reset() {
+        noiseDb = INITIAL_NOISE_DB;
+    }
+
+    /**
+     * Converts a mean square of samples normalized to full scale into decibels
+     *
+     * @param meanSquare The mean square
+     * @return The level in dB relative to full scale
+     */
+    static double toDb(double meanSquare) {
+        return 10 * Math.log10(meanSquare + 1e-12);
+    }
+}
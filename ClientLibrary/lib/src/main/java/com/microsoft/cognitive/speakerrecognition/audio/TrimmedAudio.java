@@ -0,0 +1,118 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The outcome of a {@link VoiceActivityTrimmer}: the audio left after removing the non-speech segments,
+ * and the durations the caller needs to decide whether to force short audio
+ */
+public class TrimmedAudio {
+
+    /**
+     * The trimmed audio as a 16 kHz mono 16-bit PCM WAV stream
+     */
+    private final ByteBuffer audio;
+
+    /**
+     * The duration of the source audio, in milliseconds
+     */
+    private final long sourceMillis;
+
+    /**
+     * The duration of the trimmed audio, in milliseconds
+     */
+    private final long keptMillis;
+
+    /**
+     * The duration of the segments classified as speech, in milliseconds
+     */
+    private final long speechMillis;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a trimming outcome
+     *
+     * @param audio The trimmed audio as a 16 kHz mono 16-bit PCM WAV stream
+     * @param sourceMillis The duration of the source audio, in milliseconds
+     * @param keptMillis The duration of the trimmed audio, in milliseconds
+     * @param speechMillis The duration of the segments classified as speech, in milliseconds
+     */
+    TrimmedAudio(ByteBuffer audio, long sourceMillis, long keptMillis, long speechMillis) {
+        this.audio = audio;
+        this.sourceMillis = sourceMillis;
+        this.keptMillis = keptMillis;
+        this.speechMillis = speechMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Gets the trimmed audio, ready for the ByteBuffer overloads of the enroll, identify and verify calls
+     *
+     * @return A new read-only view of the trimmed WAV stream
+     */
+    public ByteBuffer getAudio() {
+        return audio.asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets the duration of the source audio
+     *
+     * @return The duration in milliseconds
+     */
+    public long getSourceMillis() {
+        return sourceMillis;
+    }
+
+    /**
+     * Gets the duration of the trimmed audio, which includes short pauses around the speech
+     *
+     * @return The duration in milliseconds
+     */
+    public long getKeptMillis() {
+        return keptMillis;
+    }
+
+    /**
+     * Gets the duration of the segments classified as speech, the part the service counts towards enrollment.
+     * Compare it with the service minimum to decide whether to force short audio.
+     *
+     * @return The duration in milliseconds
+     */
+    public long getSpeechMillis() {
+        return speechMillis;
+    }
+}
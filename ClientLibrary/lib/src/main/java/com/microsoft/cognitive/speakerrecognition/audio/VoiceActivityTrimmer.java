@@ -0,0 +1,290 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class removes the non-speech segments of a recording before it is uploaded, since the service
+ * only counts speech towards enrollment. The audio is converted to the service format by a
+ * {@link ServiceWavInputStream} and classified in frames of 20 ms by energy against the tracked noise floor
+ * and by zero-crossing rate. Short pauses before and after speech are kept so that words aren't clipped.
+ * The trimmed audio is held in memory, at 32 KB per second of kept audio, so that its WAV header is exact.
+ */
+public class VoiceActivityTrimmer {
+
+    /**
+     * The default energy above the noise floor marking speech, in dB
+     */
+    public static final double DEFAULT_THRESHOLD_DB = SpeechDetector.DEFAULT_THRESHOLD_DB;
+
+    /**
+     * The default duration of audio kept after the last speech frame, in milliseconds
+     */
+    public static final long DEFAULT_HANGOVER_MILLIS = 300;
+
+    /**
+     * The number of bytes of a sample
+     */
+    private static final int SAMPLE_SIZE = 2;
+
+    /**
+     * The number of frames kept before the first speech frame of a segment
+     */
+    private static final int PREROLL_FRAMES = 5;
+
+    /**
+     * The length of the WAV header
+     */
+    private static final int HEADER_LENGTH = 44;
+
+    /**
+     * The energy above the noise floor marking speech, in dB
+     */
+    private final double thresholdDb;
+
+    /**
+     * The number of frames kept after the last speech frame
+     */
+    private final int hangoverFrames;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a trimmer with the default threshold and hangover
+     */
+    public VoiceActivityTrimmer() {
+        this(DEFAULT_THRESHOLD_DB, DEFAULT_HANGOVER_MILLIS);
+    }
+
+    /**
+     * Creates a trimmer
+     *
+     * @param thresholdDb The energy above the noise floor marking speech, in dB; lower values keep more audio
+     * @param hangoverMillis The duration of audio kept after the last speech frame, in milliseconds
+     */
+    public VoiceActivityTrimmer(double thresholdDb, long hangoverMillis) {
+        if (thresholdDb <= 0 || hangoverMillis < 0) {
+            throw new IllegalArgumentException("Invalid voice activity settings");
+        }
+        this.thresholdDb = thresholdDb;
+        this.hangoverFrames = (int) ((hangoverMillis + SpeechDetector.FRAME_MILLIS - 1) / SpeechDetector.FRAME_MILLIS);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Reads a WAV stream to its end and removes its non-speech segments
+     *
+     * @param source The WAV stream, in any format a {@link ServiceWavInputStream} accepts
+     * @return The trimmed audio and its durations
+     * @throws InvalidAudioException Signals a source that isn't a WAV stream or uses an unsupported format
+     * @throws IOException Signals an I/O issue while reading the source
+     */
+    public TrimmedAudio trim(InputStream source) throws IOException {
+        ServiceWavInputStream converted = new ServiceWavInputStream(source);
+        readFully(converted, new byte[HEADER_LENGTH], HEADER_LENGTH);
+
+        int frameBytes = SpeechDetector.FRAME_SAMPLES * SAMPLE_SIZE;
+        byte[][] preroll = new byte[PREROLL_FRAMES][frameBytes];
+        int[] prerollLengths = new int[PREROLL_FRAMES];
+        int prerollStart = 0;
+        int prerollCount = 0;
+
+        byte[] frame = new byte[frameBytes];
+        byte[] kept = new byte[HEADER_LENGTH + 16 * frameBytes];
+        int keptLength = HEADER_LENGTH;
+        long sourceSamples = 0;
+        long speechSamples = 0;
+        SpeechDetector detector = new SpeechDetector(thresholdDb);
+        int hangover = 0;
+
+        int length;
+        while ((length = readFrame(converted, frame)) > 0) {
+            sourceSamples += length / SAMPLE_SIZE;
+            boolean speech = detector.isSpeech(energyDb(frame, length), zeroCrossingRate(frame, length));
+
+            if (speech || hangover > 0) {
+                for (; prerollCount > 0; prerollCount--, prerollStart = (prerollStart + 1) % PREROLL_FRAMES) {
+                    kept = append(kept, keptLength, preroll[prerollStart], prerollLengths[prerollStart]);
+                    keptLength += prerollLengths[prerollStart];
+                }
+                kept = append(kept, keptLength, frame, length);
+                keptLength += length;
+                if (speech) {
+                    speechSamples += length / SAMPLE_SIZE;
+                    hangover = hangoverFrames;
+                } else {
+                    hangover--;
+                }
+            } else {
+                int slot = (prerollStart + prerollCount) % PREROLL_FRAMES;
+                if (prerollCount == PREROLL_FRAMES) {
+                    prerollStart = (prerollStart + 1) % PREROLL_FRAMES;
+                } else {
+                    prerollCount++;
+                }
+                System.arraycopy(frame, 0, preroll[slot], 0, length);
+                prerollLengths[slot] = length;
+            }
+        }
+
+        int dataLength = keptLength - HEADER_LENGTH;
+        byte[] header = new WavHeader(WavHeader.FORMAT_PCM, 1, ServiceWavInputStream.SERVICE_SAMPLE_RATE, 8 * SAMPLE_SIZE, dataLength).toBytes();
+        System.arraycopy(header, 0, kept, 0, HEADER_LENGTH);
+        return new TrimmedAudio(ByteBuffer.wrap(kept, 0, keptLength), toMillis(sourceSamples), toMillis(dataLength / SAMPLE_SIZE), toMillis(speechSamples));
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Computes the energy of a frame
+     *
+     * @param frame The frame bytes
+     * @param length The number of bytes of the frame
+     * @return The mean square of the samples in dB relative to full scale
+     */
+    private static double energyDb(byte[] frame, int length) {
+        double sum = 0;
+        for (int i = 0; i < length; i += SAMPLE_SIZE) {
+            double sample = sample(frame, i) / 32768.0;
+            sum += sample * sample;
+        }
+        return SpeechDetector.toDb(sum * SAMPLE_SIZE / length);
+    }
+
+    /**
+     * Computes the zero-crossing rate of a frame
+     *
+     * @param frame The frame bytes
+     * @param length The number of bytes of the frame
+     * @return The fraction of consecutive sample pairs changing sign
+     */
+    private static double zeroCrossingRate(byte[] frame, int length) {
+        int samples = length / SAMPLE_SIZE;
+        if (samples < 2) {
+            return 0;
+        }
+        int crossings = 0;
+        boolean negative = sample(frame, 0) < 0;
+        for (int i = SAMPLE_SIZE; i < length; i += SAMPLE_SIZE) {
+            boolean sampleNegative = sample(frame, i) < 0;
+            if (sampleNegative != negative) {
+                crossings++;
+                negative = sampleNegative;
+            }
+        }
+        return (double) crossings / (samples - 1);
+    }
+
+    /**
+     * Reads a little-endian 16-bit sample
+     *
+     * @param frame The frame bytes
+     * @param offset The offset of the sample
+     * @return The sample
+     */
+    private static int sample(byte[] frame, int offset) {
+        return (short) ((frame[offset] & 0xff) | frame[offset + 1] << 8);
+    }
+
+    /**
+     * Appends bytes to the kept audio, growing its array as needed
+     *
+     * @param kept The kept audio
+     * @param keptLength The number of bytes of kept audio
+     * @param bytes The bytes to append
+     * @param length The number of bytes to append
+     * @return The array holding the kept audio
+     */
+    private static byte[] append(byte[] kept, int keptLength, byte[] bytes, int length) {
+        if (keptLength + length > kept.length) {
+            kept = Arrays.copyOf(kept, Math.max(keptLength + length, kept.length * 2));
+        }
+        System.arraycopy(bytes, 0, kept, keptLength, length);
+        return kept;
+    }
+
+    /**
+     * Reads the next frame of the converted audio
+     *
+     * @param stream The converted audio
+     * @param frame The buffer of the frame
+     * @return The number of bytes read, short for the last frame, or 0 at the end of the audio
+     * @throws IOException Signals an I/O issue while reading the source
+     */
+    private static int readFrame(InputStream stream, byte[] frame) throws IOException {
+        int length = 0;
+        while (length < frame.length) {
+            int read = stream.read(frame, length, frame.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return length - length % SAMPLE_SIZE;
+    }
+
+    /**
+     * Reads an exact number of bytes
+     *
+     * @param stream The stream
+     * @param buffer The buffer to fill
+     * @param length The number of bytes to read
+     * @throws IOException Signals an I/O issue or a truncated stream
+     */
+    private static void readFully(InputStream stream, byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = stream.read(buffer, offset, length - offset);
+            if (read < 0) {
+                throw new EOFException("Truncated WAV stream");
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Converts a number of samples at the service rate to a duration
+     *
+     * @param samples The number of samples
+     * @return The duration in milliseconds
+     */
+    private static long toMillis(long samples) {
+        return samples * 1000 / ServiceWavInputStream.SERVICE_SAMPLE_RATE;
+    }
+}
@@ -0,0 +1,418 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The format of a WAV stream, read from its RIFF header
+ */
+public final class WavHeader {
+
+    /**
+     * The format tag of integer PCM samples
+     */
+    public static final int FORMAT_PCM = 1;
+
+    /**
+     * The format tag of IEEE float samples
+     */
+    public static final int FORMAT_IEEE_FLOAT = 3;
+
+    /**
+     * The format tag of the extensible format, whose sub-format holds the actual tag
+     */
+    private static final int FORMAT_EXTENSIBLE = 0xfffe;
+
+    /**
+     * The data chunk size written by recorders that don't know the length up front
+     */
+    private static final long STREAMING_DATA_SIZE = 0xffffffffL;
+
+    /**
+     * The format tag, either {@link #FORMAT_PCM} or {@link #FORMAT_IEEE_FLOAT}
+     */
+    private final int format;
+
+    /**
+     * The number of channels
+     */
+    private final int channels;
+
+    /**
+     * The number of frames per second
+     */
+    private final int sampleRate;
+
+    /**
+     * The number of bits per sample
+     */
+    private final int bitsPerSample;
+
+    /**
+     * The length of the sample data in bytes, or -1 if it is unknown
+     */
+    private final long dataLength;
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a WAV format
+     *
+     * @param format The format tag, either {@link #FORMAT_PCM} or {@link #FORMAT_IEEE_FLOAT}
+     * @param channels The number of channels
+     * @param sampleRate The number of frames per second
+     * @param bitsPerSample The number of bits per sample
+     * @param dataLength The length of the sample data in bytes, or -1 if it is unknown
+     */
+    public WavHeader(int format, int channels, int sampleRate, int bitsPerSample, long dataLength) {
+        this.format = format;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.bitsPerSample = bitsPerSample;
+        this.dataLength = dataLength;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Reads the RIFF header of a WAV stream, leaving the stream at the start of the sample data.
+     * Chunks other than the format and data chunks are skipped.
+     *
+     * @param stream The WAV stream
+     * @return The format of the stream
+     * @throws InvalidAudioException Signals a stream that isn't a WAV stream or uses an unsupported sample format
+     * @throws IOException Signals an I/O issue while reading the stream
+     */
+    public static WavHeader read(InputStream stream) throws IOException {
+        byte[] buffer = new byte[40];
+        readFully(stream, buffer, 12);
+        if (!hasId(buffer, 0, "RIFF") || !hasId(buffer, 8, "WAVE")) {
+            throw new InvalidAudioException("Not a RIFF WAVE stream");
+        }
+        int format = -1;
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        while (true) {
+            readFully(stream, buffer, 8);
+            long size = readInt(buffer, 4) & STREAMING_DATA_SIZE;
+            long remaining = size + (size & 1);
+            if (hasId(buffer, 0, "data")) {
+                if (format < 0) {
+                    throw new InvalidAudioException("The data chunk precedes the format chunk");
+                }
+                long dataLength = size == 0 || size == STREAMING_DATA_SIZE ? -1 : size;
+                WavHeader header = new WavHeader(format, channels, sampleRate, bitsPerSample, dataLength);
+                header.validate();
+                return header;
+            }
+            if (hasId(buffer, 0, "fmt ")) {
+                if (size < 16) {
+                    throw new InvalidAudioException("Invalid format chunk size " + size);
+                }
+                int read = (int) Math.min(size, buffer.length);
+                readFully(stream, buffer, read);
+                format = readShort(buffer, 0);
+                channels = readShort(buffer, 2);
+                sampleRate = readInt(buffer, 4);
+                int blockAlign = readShort(buffer, 12);
+                bitsPerSample = readShort(buffer, 14);
+                if (format == FORMAT_EXTENSIBLE) {
+                    if (read < 26) {
+                        throw new InvalidAudioException("Invalid extensible format chunk size " + size);
+                    }
+                    format = readShort(buffer, 24);
+                }
+                if (channels > 0 && blockAlign != channels * ((bitsPerSample + 7) / 8)) {
+                    throw new InvalidAudioException("Invalid block alignment " + blockAlign);
+                }
+                remaining -= read;
+            }
+            skipFully(stream, remaining);
+        }
+    }
+
+    /**
+     * Gets the format tag
+     *
+     * @return Either {@link #FORMAT_PCM} or {@link #FORMAT_IEEE_FLOAT}
+     */
+    public int getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the number of channels
+     *
+     * @return The number of channels
+     */
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Gets the number of frames per second
+     *
+     * @return The sample rate in Hz
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Gets the number of bits per sample
+     *
+     * @return The number of bits per sample
+     */
+    public int getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    /**
+     * Gets the number of bytes of a frame, holding one sample of every channel
+     *
+     * @return The frame size in bytes
+     */
+    public int getFrameSize() {
+        return channels * (bitsPerSample / 8);
+    }
+
+    /**
+     * Gets the length of the sample data
+     *
+     * @return The length in bytes, or -1 if it is unknown
+     */
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * Gets the number of frames of the sample data
+     *
+     * @return The number of frames, or -1 if it is unknown
+     */
+    public long getFrameCount() {
+        return dataLength < 0 ? -1 : dataLength / getFrameSize();
+    }
+
+    /**
+     * Gets the duration of the audio
+     *
+     * @return The duration in milliseconds, or -1 if it is unknown
+     */
+    public long getDurationMillis() {
+        return dataLength < 0 ? -1 : getFrameCount() * 1000 / sampleRate;
+    }
+
+    /**
+     * Tells whether the audio is already in the format the service accepts, 16 kHz mono 16-bit PCM
+     *
+     * @return True if the audio can be sent as it is
+     */
+    public boolean isServiceFormat() {
+        return format == FORMAT_PCM && channels == 1 && sampleRate == ServiceWavInputStream.SERVICE_SAMPLE_RATE && bitsPerSample == 16;
+    }
+
+    /**
+     * Writes the 44-byte canonical header of a PCM WAV stream
+     *
+     * @return The header bytes
+     * @throws InvalidAudioException Signals sample data too long for a WAV stream
+     */
+    public byte[] toBytes() throws InvalidAudioException {
+        if (dataLength > STREAMING_DATA_SIZE - 36) {
+            throw new InvalidAudioException("Audio too long for a WAV stream");
+        }
+        int frameSize = getFrameSize();
+        byte[] bytes = new byte[44];
+        putId(bytes, 0, "RIFF");
+        putInt(bytes, 4, dataLength < 0 ? (int) STREAMING_DATA_SIZE : (int) (dataLength + 36));
+        putId(bytes, 8, "WAVE");
+        putId(bytes, 12, "fmt ");
+        putInt(bytes, 16, 16);
+        putShort(bytes, 20, format);
+        putShort(bytes, 22, channels);
+        putInt(bytes, 24, sampleRate);
+        putInt(bytes, 28, sampleRate * frameSize);
+        putShort(bytes, 32, frameSize);
+        putShort(bytes, 34, bitsPerSample);
+        putId(bytes, 36, "data");
+        putInt(bytes, 40, dataLength < 0 ? (int) STREAMING_DATA_SIZE : (int) dataLength);
+        return bytes;
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Checks that the format can be converted to the service format
+     *
+     * @throws InvalidAudioException Signals an unsupported format
+     */
+    private void validate() throws InvalidAudioException {
+        if (channels <= 0) {
+            throw new InvalidAudioException("Invalid channel count " + channels);
+        }
+        if (sampleRate <= 0) {
+            throw new InvalidAudioException("Invalid sample rate " + sampleRate);
+        }
+        boolean supported;
+        if (format == FORMAT_PCM) {
+            supported = bitsPerSample == 8 || bitsPerSample == 16 || bitsPerSample == 24 || bitsPerSample == 32;
+        } else if (format == FORMAT_IEEE_FLOAT) {
+            supported = bitsPerSample == 32 || bitsPerSample == 64;
+        } else {
+            throw new InvalidAudioException("Unsupported sample format " + format);
+        }
+        if (!supported) {
+            throw new InvalidAudioException("Unsupported sample size " + bitsPerSample + " bits");
+        }
+    }
+
+    /**
+     * Reads an exact number of bytes
+     *
+     * @param stream The stream
+     * @param buffer The buffer to fill
+     * @param length The number of bytes to read
+     * @throws IOException Signals an I/O issue or a truncated header
+     */
+    private static void readFully(InputStream stream, byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = stream.read(buffer, offset, length - offset);
+            if (read < 0) {
+                throw new EOFException("Truncated WAV header");
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Skips an exact number of bytes
+     *
+     * @param stream The stream
+     * @param length The number of bytes to skip
+     * @throws IOException Signals an I/O issue or a truncated header
+     */
+    private static void skipFully(InputStream stream, long length) throws IOException {
+        while (length > 0) {
+            long skipped = stream.skip(length);
+            if (skipped <= 0) {
+                if (stream.read() < 0) {
+                    throw new EOFException("Truncated WAV header");
+                }
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+
+    /**
+     * Compares a chunk ID
+     *
+     * @param buffer The header bytes
+     * @param offset The offset of the ID
+     * @param id The expected ID
+     * @return True if the bytes hold the ID
+     */
+    private static boolean hasId(byte[] buffer, int offset, String id) {
+        for (int i = 0; i < 4; i++) {
+            if (buffer[offset + i] != id.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a little-endian unsigned 16-bit value
+     *
+     * @param buffer The header bytes
+     * @param offset The offset of the value
+     * @return The value
+     */
+    private static int readShort(byte[] buffer, int offset) {
+        return (buffer[offset] & 0xff) | (buffer[offset + 1] & 0xff) << 8;
+    }
+
+    /**
+     * Reads a little-endian 32-bit value
+     *
+     * @param buffer The header bytes
+     * @param offset The offset of the value
+     * @return The value
+     */
+    private static int readInt(byte[] buffer, int offset) {
+        return readShort(buffer, offset) | readShort(buffer, offset + 2) << 16;
+    }
+
+    /**
+     * Writes a chunk ID
+     *
+     * @param buffer The header bytes
+     * @param offset The offset of the ID
+     * @param id The ID
+     */
+    private static void putId(byte[] buffer, int offset, String id) {
+        for (int i = 0; i < 4; i++) {
+            buffer[offset + i] = (byte) id.charAt(i);
+        }
+    }
+
+    /**
+     * Writes a little-endian 16-bit value
+     *
+     * @param buffer The header bytes
+     * @param offset The offset of the value
+     * @param value The value
+     */
+    private static void putShort(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >>> 8);
+    }
+
+    /**
+     * Writes a little-endian 32-bit value
+     *
+     * @param buffer The header bytes
+     * @param offset The offset of the value
+     * @param value The value
+     */
+    private static void putInt(byte[] buffer, int offset, int value) {
+        putShort(buffer, offset, value);
+        putShort(buffer, offset + 2, value >>> 16);
+    }
+}
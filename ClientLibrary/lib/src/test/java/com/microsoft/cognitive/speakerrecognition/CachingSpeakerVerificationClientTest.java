@@ -0,0 +1,242 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentStatus;
+import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.ProfileNotFoundException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link CachingSpeakerVerificationClient}
+ */
+public class CachingSpeakerVerificationClientTest {
+
+    @Test
+    public void concurrentLookupsShareOneRequest() throws Exception {
+        final UUID id = UUID.randomUUID();
+        final AtomicInteger lookups = new AtomicInteger();
+        final CachingSpeakerVerificationClient client = new CachingSpeakerVerificationClient(new StubVerificationClient() {
+            @Override
+            public Profile getProfile(UUID profileId) {
+                lookups.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return newProfile(profileId, new Date(0));
+            }
+        });
+
+        Thread[] threads = new Thread[4];
+        final Profile[] profiles = new Profile[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        profiles[index] = client.getProfile(id);
+                    } catch (GetProfileException | IOException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, lookups.get());
+        for (Profile profile : profiles) {
+            assertSame(profiles[0], profile);
+        }
+    }
+
+    @Test
+    public void missingProfileIsNotLookedUpAgain() throws Exception {
+        UUID id = UUID.randomUUID();
+        final AtomicInteger lookups = new AtomicInteger();
+        CachingSpeakerVerificationClient client = new CachingSpeakerVerificationClient(new StubVerificationClient() {
+            @Override
+            public Profile getProfile(UUID profileId) throws GetProfileException {
+                lookups.incrementAndGet();
+                throw new ProfileNotFoundException("Profile not found");
+            }
+        });
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                client.getProfile(id);
+                fail("The missing profile should have been reported");
+            } catch (ProfileNotFoundException expected) {
+                // The profile doesn't exist
+            }
+        }
+        assertEquals(1, lookups.get());
+
+        client.invalidate(id);
+        try {
+            client.getProfile(id);
+            fail("The missing profile should have been reported");
+        } catch (ProfileNotFoundException expected) {
+            assertEquals(2, lookups.get());
+        }
+    }
+
+    @Test
+    public void failedLookupIsRetried() throws Exception {
+        UUID id = UUID.randomUUID();
+        final AtomicInteger lookups = new AtomicInteger();
+        CachingSpeakerVerificationClient client = new CachingSpeakerVerificationClient(new StubVerificationClient() {
+            @Override
+            public Profile getProfile(UUID profileId) throws GetProfileException {
+                if (lookups.incrementAndGet() == 1) {
+                    throw new GetProfileException("500");
+                }
+                return newProfile(profileId, new Date(0));
+            }
+        });
+
+        try {
+            client.getProfile(id);
+            fail("The failure should have been reported");
+        } catch (GetProfileException expected) {
+            // The service failed once
+        }
+        assertEquals(id, client.getProfile(id).verificationProfileId);
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void createdProfileIsNotReportedMissing() throws Exception {
+        final UUID id = UUID.randomUUID();
+        final AtomicInteger lookups = new AtomicInteger();
+        CachingSpeakerVerificationClient client = new CachingSpeakerVerificationClient(new StubVerificationClient() {
+            @Override
+            public CreateProfileResponse createProfile(String locale) {
+                CreateProfileResponse response = new CreateProfileResponse();
+                response.verificationProfileId = id;
+                return response;
+            }
+
+            @Override
+            public Profile getProfile(UUID profileId) throws GetProfileException {
+                if (lookups.incrementAndGet() == 1) {
+                    throw new ProfileNotFoundException("Profile not found");
+                }
+                return newProfile(profileId, new Date(0));
+            }
+        });
+
+        try {
+            client.getProfile(id);
+            fail("The missing profile should have been reported");
+        } catch (ProfileNotFoundException expected) {
+            // The profile doesn't exist yet
+        }
+        client.createProfile("en-us");
+        assertEquals(id, client.getProfile(id).verificationProfileId);
+    }
+
+    @Test
+    public void enrollmentUpdatesCachedProfile() throws Exception {
+        UUID id = UUID.randomUUID();
+        final AtomicInteger lookups = new AtomicInteger();
+        CachingSpeakerVerificationClient client = new CachingSpeakerVerificationClient(new StubVerificationClient() {
+            @Override
+            public Profile getProfile(UUID profileId) {
+                lookups.incrementAndGet();
+                return newProfile(profileId, new Date(0));
+            }
+
+            @Override
+            public Enrollment enroll(ByteBuffer audioBuffer, UUID profileId) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.enrollmentStatus = EnrollmentStatus.ENROLLED;
+                enrollment.enrollmentsCount = 3;
+                enrollment.remainingEnrollments = 0;
+                return enrollment;
+            }
+        });
+
+        client.getProfile(id);
+        long before = System.currentTimeMillis();
+        client.enroll(ByteBuffer.allocate(16), id);
+
+        Profile profile = client.getProfile(id);
+        assertEquals(1, lookups.get());
+        assertEquals(EnrollmentStatus.ENROLLED, profile.enrollmentStatus);
+        assertEquals(3, profile.enrollmentsCount);
+        assertEquals(0, profile.remainingEnrollmentsCount);
+        assertEquals(new Date(0), profile.createdDateTime);
+        assertTrue(profile.lastActionDateTime.getTime() >= before);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a verification profile that is still enrolling
+     *
+     * @param id The speaker profile ID
+     * @param date The creation and last action time
+     * @return The profile
+     */
+    private static Profile newProfile(UUID id, Date date) {
+        Profile profile = new Profile();
+        profile.verificationProfileId = id;
+        profile.locale = "en-us";
+        profile.createdDateTime = date;
+        profile.lastActionDateTime = date;
+        profile.enrollmentStatus = EnrollmentStatus.ENROLLING;
+        profile.enrollmentsCount = 1;
+        profile.remainingEnrollmentsCount = 2;
+        return profile;
+    }
+}
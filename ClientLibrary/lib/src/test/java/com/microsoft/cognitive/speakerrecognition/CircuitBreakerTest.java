@@ -0,0 +1,154 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link CircuitBreaker}
+ */
+public class CircuitBreakerTest {
+
+    /**
+     * The endpoint the circuits under test guard
+     */
+    private static final String ENDPOINT = "https://westus.api.cognitive.microsoft.com/spid/v1.0/verify";
+
+    @Test
+    public void opensAfterConsecutiveFailures() throws CircuitOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60000);
+        for (int i = 0; i < 2; i++) {
+            breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+        }
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), true);
+        for (int i = 0; i < 2; i++) {
+            breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+        assertRejected(breaker);
+    }
+
+    @Test
+    public void lateSuccessDoesNotCloseOpenCircuit() throws CircuitOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 60000);
+        long straggler = breaker.allowCall(ENDPOINT);
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+
+        breaker.recordOutcome(ENDPOINT, straggler, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+        assertRejected(breaker);
+    }
+
+    @Test
+    public void trialOutcomeClosesOrReopens() throws CircuitOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+
+        long trial = breaker.allowCall(ENDPOINT);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ENDPOINT));
+        assertRejected(breaker);
+        breaker.recordOutcome(ENDPOINT, trial, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+
+        trial = breaker.allowCall(ENDPOINT);
+        breaker.recordOutcome(ENDPOINT, trial, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    public void staleOutcomeDoesNotEndTrial() throws CircuitOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        long straggler = breaker.allowCall(ENDPOINT);
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+        long trial = breaker.allowCall(ENDPOINT);
+
+        breaker.recordOutcome(ENDPOINT, straggler, true);
+        breaker.releaseCall(ENDPOINT, straggler);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ENDPOINT));
+        assertRejected(breaker);
+
+        breaker.recordOutcome(ENDPOINT, trial, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    public void releasedTrialLetsAnotherThrough() throws CircuitOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+        breaker.releaseCall(ENDPOINT, breaker.allowCall(ENDPOINT));
+
+        long trial = breaker.allowCall(ENDPOINT);
+        breaker.recordOutcome(ENDPOINT, trial, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    public void notifiesStateChanges() throws CircuitOpenException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        final List<String> changes = new ArrayList<>();
+        breaker.addListener(new CircuitBreakerListener() {
+            @Override
+            public void onStateChange(String endpoint, CircuitBreaker.State previousState, CircuitBreaker.State newState) {
+                changes.add(previousState + ">" + newState);
+            }
+        });
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), false);
+        breaker.recordOutcome(ENDPOINT, breaker.allowCall(ENDPOINT), true);
+
+        assertEquals("[CLOSED>OPEN, OPEN>HALF_OPEN, HALF_OPEN>CLOSED]", changes.toString());
+    }
+
+    /**
+     * Checks that the circuit of the endpoint rejects a call
+     *
+     * @param breaker The circuit breaker
+     */
+    private static void assertRejected(CircuitBreaker breaker) {
+        try {
+            breaker.allowCall(ENDPOINT);
+            fail("Call admitted");
+        } catch (CircuitOpenException expected) {
+            // The circuit is open or its trial is in flight
+        }
+    }
+}
@@ -0,0 +1,119 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CompletionTimeEstimator}
+ */
+public class CompletionTimeEstimatorTest {
+
+    /**
+     * The completion time assumed by the estimators under test, in milliseconds
+     */
+    private static final long INITIAL_ESTIMATE_MILLIS = 1000;
+
+    @Test
+    public void firstPollTargetsInitialEstimate() {
+        CompletionTimeEstimator estimator = new CompletionTimeEstimator(16, INITIAL_ESTIMATE_MILLIS);
+        assertEquals(INITIAL_ESTIMATE_MILLIS, estimator.nextDelay(0, 0));
+        assertEquals(400, estimator.nextDelay(600, 0));
+    }
+
+    @Test
+    public void pollsTargetObservedQuantiles() {
+        CompletionTimeEstimator estimator = new CompletionTimeEstimator(16, INITIAL_ESTIMATE_MILLIS);
+        for (int i = 1; i <= 10; i++) {
+            estimator.record(i * 100);
+        }
+        assertEquals(600, estimator.nextDelay(0, 0));
+        assertEquals(200, estimator.nextDelay(600, 600));
+        assertEquals(150, estimator.nextDelay(5000, 100));
+    }
+
+    @Test
+    public void estimateFallsForFastService() {
+        CompletionTimeEstimator estimator = new CompletionTimeEstimator(128, INITIAL_ESTIMATE_MILLIS);
+        long serviceMillis = 300;
+        long roundTripMillis = 50;
+        for (int i = 0; i < 200; i++) {
+            simulateOperation(estimator, serviceMillis, roundTripMillis);
+        }
+        long firstPoll = estimator.nextDelay(0, 0);
+        assertTrue("First poll at " + firstPoll, firstPoll < 2 * (serviceMillis + roundTripMillis));
+        assertTrue("First poll at " + firstPoll, firstPoll >= serviceMillis / 2);
+    }
+
+    @Test
+    public void estimateRisesForSlowService() {
+        CompletionTimeEstimator estimator = new CompletionTimeEstimator(128, INITIAL_ESTIMATE_MILLIS);
+        for (int i = 0; i < 200; i++) {
+            simulateOperation(estimator, 4000, 50);
+        }
+        long firstPoll = estimator.nextDelay(0, 0);
+        assertTrue("First poll at " + firstPoll, firstPoll > 3000 && firstPoll < 6000);
+    }
+
+    /**
+     * Polls a simulated operation the way {@link OperationPoller} does and records its completion time
+     *
+     * @param estimator The estimator
+     * @param serviceMillis The time the operation takes on the service
+     * @param roundTripMillis The round-trip time of a poll
+     */
+    private static void simulateOperation(CompletionTimeEstimator estimator, long serviceMillis, long roundTripMillis) {
+        long nowMillis = 0;
+        long lastDelayMillis = 0;
+        long lastPendingMillis = 0;
+        boolean sawPending = false;
+        while (true) {
+            long delay = Math.max(1, estimator.nextDelay(nowMillis, lastDelayMillis));
+            lastDelayMillis = delay;
+            nowMillis += delay + roundTripMillis;
+            if (nowMillis - roundTripMillis / 2 >= serviceMillis) {
+                break;
+            }
+            lastPendingMillis = nowMillis;
+            sawPending = true;
+        }
+        if (sawPending) {
+            estimator.record((lastPendingMillis + nowMillis) / 2);
+        } else {
+            estimator.recordUpperBound(nowMillis);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.IdentificationOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Operation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.OperationLocation;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Verification;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link ContractTypeAdapterFactory}, checking the hand-written adapters against the reflective binding of Gson
+ */
+public class ContractTypeAdaptersTest {
+
+    /**
+     * The Gson instance binding the contract types with the hand-written adapters
+     */
+    private static final Gson ADAPTED = new GsonBuilder().registerTypeAdapterFactory(new ContractTypeAdapterFactory()).create();
+
+    /**
+     * The Gson instance binding the contract types by reflection, sharing only the timestamp codec
+     */
+    private static final Gson REFLECTIVE = new GsonBuilder().registerTypeAdapter(Date.class, ContractTypeAdapters.DATE_ADAPTER).create();
+
+    @Test
+    public void identificationTypesMatchReflection() {
+        assertMatchesReflection(com.microsoft.cognitive.speakerrecognition.contract.identification.CreateProfileResponse.class,
+                "{\"identificationProfileId\":\"111f427c-3791-468f-b709-fcef7660fff9\"}");
+        assertMatchesReflection(com.microsoft.cognitive.speakerrecognition.contract.identification.Profile.class,
+                "{\"identificationProfileId\":\"111f427c-3791-468f-b709-fcef7660fff9\",\"locale\":\"en-US\","
+                        + "\"enrollmentSpeechTime\":12.5,\"remainingEnrollmentSpeechTime\":17.5,"
+                        + "\"createdDateTime\":\"2015-04-23T18:25:43.511Z\",\"lastActionDateTime\":\"2015-04-24T08:00:00.000Z\","
+                        + "\"enrollmentStatus\":\"Enrolling\"}");
+        assertMatchesReflection(EnrollmentOperation.class,
+                "{\"status\":\"succeeded\",\"createdDateTime\":\"2015-04-23T18:25:43.511Z\","
+                        + "\"lastActionDateTime\":\"2015-04-23T18:25:45.000Z\",\"processingResult\":{"
+                        + "\"enrollmentStatus\":\"Enrolled\",\"remainingEnrollmentSpeechTime\":0.0,"
+                        + "\"speechTime\":30.25,\"enrollmentSpeechTime\":30.25}}");
+        assertMatchesReflection(IdentificationOperation.class,
+                "{\"status\":\"succeeded\",\"createdDateTime\":\"2015-04-23T18:25:43.511Z\","
+                        + "\"processingResult\":{\"identifiedProfileId\":\"111f427c-3791-468f-b709-fcef7660fff9\","
+                        + "\"confidence\":\"Normal\"}}");
+        assertMatchesReflection(Operation.class,
+                "{\"status\":\"failed\",\"createdDateTime\":\"2015-04-23T18:25:43.511Z\",\"message\":\"SpeakerInvalid\"}");
+        assertMatchesReflection(OperationLocation.class,
+                "{\"Url\":\"https://westus.api.cognitive.microsoft.com/spid/v1.0/operations/1\"}");
+    }
+
+    @Test
+    public void verificationTypesMatchReflection() {
+        assertMatchesReflection(com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse.class,
+                "{\"verificationProfileId\":\"49a36324-fc4b-4387-aa06-090cfbf0064f\"}");
+        assertMatchesReflection(com.microsoft.cognitive.speakerrecognition.contract.verification.Profile.class,
+                "{\"verificationProfileId\":\"49a36324-fc4b-4387-aa06-090cfbf0064f\",\"locale\":\"en-US\","
+                        + "\"enrollmentsCount\":2,\"remainingEnrollmentsCount\":1,"
+                        + "\"createdDateTime\":\"2015-04-23T18:25:43.511Z\",\"enrollmentStatus\":\"Training\"}");
+        assertMatchesReflection(com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment.class,
+                "{\"enrollmentStatus\":\"Enrolled\",\"enrollmentsCount\":3,\"remainingEnrollments\":0,"
+                        + "\"phrase\":\"i am going to make him an offer he cannot refuse\"}");
+        assertMatchesReflection(Verification.class,
+                "{\"result\":\"Accept\",\"confidence\":\"High\",\"phrase\":\"my voice is my passport verify me\"}");
+        assertMatchesReflection(VerificationPhrase.class, "{\"phrase\":\"be yourself everyone else is already taken\"}");
+    }
+
+    @Test
+    public void errorResponseMatchesReflection() {
+        assertMatchesReflection(ErrorResponse.class,
+                "{\"error\":{\"code\":\"NotFound\",\"message\":\"Profile not found.\"}}");
+    }
+
+    @Test
+    public void unknownFieldsAndNullsMatchReflection() {
+        assertMatchesReflection(com.microsoft.cognitive.speakerrecognition.contract.identification.Profile.class,
+                "{\"extra\":{\"nested\":[1,{\"status\":\"running\"}]},\"locale\":null,"
+                        + "\"enrollmentSpeechTime\":null,\"remainingEnrollmentSpeechTime\":4.5,\"lastActionDateTime\":null}");
+        assertMatchesReflection(IdentificationOperation.class,
+                "{\"status\":\"running\",\"processingResult\":null,\"message\":null}");
+        assertMatchesReflection(Verification.class, "{\"result\":null,\"confidence\":\"High\",\"unknown\":true}");
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Checks that the hand-written adapter of a type decodes and encodes a Json payload as the reflective binding does
+     *
+     * @param type The contract type
+     * @param json The Json payload
+     * @param <T> The contract type
+     */
+    private static <T> void assertMatchesReflection(Class<T> type, String json) {
+        T adapted = ADAPTED.fromJson(json, type);
+        T reflected = REFLECTIVE.fromJson(json, type);
+        assertEquals(json, REFLECTIVE.toJsonTree(reflected), REFLECTIVE.toJsonTree(adapted));
+
+        JsonElement expected = REFLECTIVE.toJsonTree(reflected);
+        assertEquals(json, expected, ADAPTED.toJsonTree(reflected));
+        assertEquals(json, expected, new JsonParser().parse(ADAPTED.toJson(reflected)));
+    }
+}
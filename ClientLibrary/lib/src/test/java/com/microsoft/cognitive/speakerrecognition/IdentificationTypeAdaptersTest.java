@@ -0,0 +1,99 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Status;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link IdentificationTypeAdapters}
+ */
+public class IdentificationTypeAdaptersTest {
+
+    /**
+     * The charset of the Json content
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void scanFindsTopLevelPendingStatus() {
+        assertEquals(Status.RUNNING, scan("{\"status\":\"running\",\"createdDateTime\":\"2017-01-01T00:00:00Z\"}"));
+        assertEquals(Status.NOTSTARTED, scan(" {\n  \"createdDateTime\": \"2017-01-01T00:00:00Z\",\n  \"status\" : \"notstarted\"\n}"));
+    }
+
+    @Test
+    public void scanLeavesFinishedStatusToDecoding() {
+        assertNull(scan("{\"status\":\"succeeded\",\"processingResult\":{\"enrollmentStatus\":\"Enrolled\"}}"));
+        assertNull(scan("{\"status\":\"failed\",\"message\":\"SpeakerInvalid\"}"));
+    }
+
+    @Test
+    public void scanIgnoresNestedStatus() {
+        assertNull(scan("{\"processingResult\":{\"status\":\"running\"},\"status\":\"succeeded\"}"));
+        assertNull(scan("{\"items\":[{\"status\":\"running\"}],\"status\":\"failed\"}"));
+        assertEquals(Status.RUNNING, scan("{\"processingResult\":{\"status\":\"succeeded\"},\"status\":\"running\"}"));
+    }
+
+    @Test
+    public void scanIgnoresStatusInsideStrings() {
+        assertNull(scan("{\"message\":\"\\\"status\\\":\\\"running\\\"\",\"status\":\"failed\"}"));
+        assertNull(scan("{\"message\":\"status\",\"other\":\"status\"}"));
+        assertEquals(Status.RUNNING, scan("{\"message\":\"a\\\\\",\"status\":\"running\"}"));
+    }
+
+    @Test
+    public void scanRejectsContentThatIsNotAnObject() {
+        assertNull(scan("[\"status\",\"running\"]"));
+        assertNull(scan("{\"status\""));
+        assertNull(scan(""));
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Scans Json content for a pending status
+     *
+     * @param json The Json content
+     * @return The pending status, or null
+     */
+    private static Status scan(String json) {
+        byte[] bytes = json.getBytes(UTF8);
+        return IdentificationTypeAdapters.scanPendingStatus(bytes, bytes.length);
+    }
+}
@@ -0,0 +1,141 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link Iso8601}
+ */
+public class Iso8601Test {
+
+    /**
+     * The pattern of the timestamps the codec formats
+     */
+    private static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+
+    @Test
+    public void formatMatchesSimpleDateFormat() {
+        SimpleDateFormat reference = newReferenceFormat();
+        Random random = new Random(42);
+        long start = parseReference(reference, "1900-01-01T00:00:00.000Z");
+        long end = parseReference(reference, "2100-12-31T23:59:59.999Z");
+        for (int i = 0; i < 10000; i++) {
+            long epochMillis = start + (long) (random.nextDouble() * (end - start));
+            assertEquals(reference.format(epochMillis), Iso8601.format(epochMillis));
+        }
+    }
+
+    @Test
+    public void parseRoundTripsFormat() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            long epochMillis = random.nextLong() % 4102444800000L;
+            assertEquals(epochMillis, Iso8601.parse(Iso8601.format(epochMillis)));
+        }
+    }
+
+    @Test
+    public void formatsEpochAndLeapDay() {
+        assertEquals("1970-01-01T00:00:00.000Z", Iso8601.format(0));
+        assertEquals("1969-12-31T23:59:59.999Z", Iso8601.format(-1));
+        assertEquals(951782400000L, Iso8601.parse("2000-02-29T00:00:00Z"));
+        assertEquals("2000-02-29T00:00:00.000Z", Iso8601.format(951782400000L));
+    }
+
+    @Test
+    public void parsesServiceVariants() {
+        long expected = parseReference(newReferenceFormat(), "2015-04-23T18:25:43.511Z");
+        assertEquals(expected, Iso8601.parse("2015-04-23T18:25:43.511Z"));
+        assertEquals(expected, Iso8601.parse("2015-04-23T18:25:43.5117891Z"));
+        assertEquals(expected, Iso8601.parse("2015-04-23T18:25:43.5117891"));
+        assertEquals(expected, Iso8601.parse("2015-04-23T20:25:43.511+02:00"));
+        assertEquals(expected, Iso8601.parse("2015-04-23T13:55:43.511-0430"));
+        assertEquals(expected - 511, Iso8601.parse("2015-04-23T18:25:43Z"));
+        assertEquals(expected - 11, Iso8601.parse("2015-04-23T18:25:43.5Z"));
+    }
+
+    @Test
+    public void rejectsInvalidTimestamps() {
+        String[] invalid = {
+                "", "2015-04-23", "2015-04-23T18:25", "2015/04/23T18:25:43Z", "2015-13-01T00:00:00Z",
+                "2015-02-29T00:00:00Z", "2015-04-23T24:00:00Z", "2015-04-23T18:25:43.Z",
+                "2015-04-23T18:25:43+1", "2015-04-23T18:25:43Zjunk", "2O15-04-23T18:25:43Z"
+        };
+        for (String value : invalid) {
+            try {
+                Iso8601.parse(value);
+                fail("The timestamp should have been rejected: " + value);
+            } catch (IllegalArgumentException expected) {
+                // The timestamp is invalid
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates the reference format the codec is checked against
+     *
+     * @return A UTC format of the service timestamps
+     */
+    private static SimpleDateFormat newReferenceFormat() {
+        SimpleDateFormat format = new SimpleDateFormat(PATTERN, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+
+    /**
+     * Parses a timestamp with the reference format
+     *
+     * @param format The reference format
+     * @param value The timestamp
+     * @return The number of milliseconds since the epoch
+     */
+    private static long parseReference(SimpleDateFormat format, String value) {
+        try {
+            return format.parse(value).getTime();
+        } catch (ParseException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
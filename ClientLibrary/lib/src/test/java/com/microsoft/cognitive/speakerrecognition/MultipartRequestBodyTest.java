@@ -0,0 +1,271 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MultipartRequestBody}
+ */
+public class MultipartRequestBodyTest {
+
+    /**
+     * The charset the multipart framing is read in
+     */
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    @Test
+    public void framesContentBetweenBoundaries() throws IOException {
+        byte[] audio = audio(1000);
+        MultipartRequestBody body = new MultipartRequestBody(ByteBuffer.wrap(audio), "enrollmentData", "audio.wav");
+
+        String contentType = body.getContentType();
+        assertTrue(contentType.startsWith("multipart/form-data; boundary="));
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+
+        byte[] written = write(body);
+        assertEquals(body.getContentLength(), written.length);
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"enrollmentData\"; filename=\"audio.wav\"\r\n"
+                + "Content-Type: multipart/form-data\r\n"
+                + "Content-Transfer-Encoding: binary\r\n"
+                + "\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+        assertEquals(head, new String(written, 0, head.length(), ASCII));
+        assertArrayEquals(audio, Arrays.copyOfRange(written, head.length(), head.length() + audio.length));
+        assertEquals(tail, new String(written, head.length() + audio.length, tail.length(), ASCII));
+    }
+
+    @Test
+    public void streamReadsWrittenBytesWithoutConsumingBody() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(5000);
+        buffer.put(audio(5000)).flip();
+        MultipartRequestBody body = new MultipartRequestBody(buffer, "f", "a.wav");
+        byte[] written = write(body);
+
+        for (int i = 0; i < 2; i++) {
+            InputStream stream = body.openStream();
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            byte[] chunk = new byte[777];
+            for (int length; (length = stream.read(chunk)) != -1; ) {
+                read.write(chunk, 0, length);
+            }
+            assertArrayEquals(written, read.toByteArray());
+        }
+        assertArrayEquals(written, write(body));
+    }
+
+    @Test
+    public void sendsBufferFromPositionToLimitAndLeavesItUntouched() throws IOException {
+        byte[] audio = audio(100);
+        ByteBuffer buffer = ByteBuffer.wrap(audio);
+        buffer.position(10).limit(60);
+        MultipartRequestBody body = new MultipartRequestBody(buffer, "f", "a.wav");
+
+        assertArrayEquals(Arrays.copyOfRange(audio, 10, 60), content(body));
+        assertEquals(10, buffer.position());
+        assertEquals(60, buffer.limit());
+    }
+
+    @Test
+    public void fileStreamIsMappedFromItsPosition() throws IOException {
+        byte[] audio = audio(200000);
+        File file = File.createTempFile("multipart", ".wav");
+        try {
+            FileOutputStream output = new FileOutputStream(file);
+            output.write(audio);
+            output.close();
+
+            FileInputStream stream = new FileInputStream(file);
+            try {
+                assertEquals(44, stream.skip(44));
+                MultipartRequestBody body = MultipartRequestBody.fromStream(stream, "f", "a.wav");
+                assertTrue(body.isRepeatable());
+                assertArrayEquals(Arrays.copyOfRange(audio, 44, audio.length), content(body));
+                assertArrayEquals(Arrays.copyOfRange(audio, 44, audio.length), content(body));
+                assertEquals(44, stream.getChannel().position());
+            } finally {
+                stream.close();
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void shortStreamIsBufferedOnce() throws IOException {
+        byte[] audio = audio(5000);
+        MultipartRequestBody body = MultipartRequestBody.fromStream(new OneByteStream(audio), "f", "a.wav");
+
+        assertTrue(body.isRepeatable());
+        assertArrayEquals(audio, content(body));
+        assertArrayEquals(audio, content(body));
+    }
+
+    @Test
+    public void longStreamIsSpilledAndRepeatable() throws IOException {
+        byte[] audio = audio(3 * 1024 * 1024 + 17);
+        MultipartRequestBody body = MultipartRequestBody.fromStream(new FilterInputStream(new ByteArrayInputStream(audio)) {
+        }, "f", "a.wav");
+
+        assertTrue(body.isRepeatable());
+        assertArrayEquals(audio, content(body));
+        assertArrayEquals(audio, content(body));
+    }
+
+    @Test
+    public void concurrentWritesSendTheSameBytes() throws Exception {
+        byte[] audio = audio(1024 * 1024);
+        final MultipartRequestBody body = MultipartRequestBody.fromStream(new ByteArrayInputStream(audio), "f", "a.wav");
+        final byte[][] results = new byte[4][];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        results[index] = write(body);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (byte[] result : results) {
+            assertArrayEquals(results[0], result);
+            assertEquals(body.getContentLength(), result.length);
+        }
+    }
+
+    /**
+     * Creates distinguishable audio bytes
+     *
+     * @param length The number of bytes
+     * @return The bytes
+     */
+    private static byte[] audio(int length) {
+        byte[] audio = new byte[length];
+        for (int i = 0; i < length; i++) {
+            audio[i] = (byte) (i * 31 + (i >> 8));
+        }
+        return audio;
+    }
+
+    /**
+     * Writes a body to memory
+     *
+     * @param body The body
+     * @return The written bytes
+     * @throws IOException Signals a failure while writing the body
+     */
+    private static byte[] write(RequestBody body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes a body and extracts the part content from the framing
+     *
+     * @param body The body
+     * @return The part content
+     * @throws IOException Signals a failure while writing the body
+     */
+    private static byte[] content(MultipartRequestBody body) throws IOException {
+        byte[] written = write(body);
+        String boundary = body.getContentType().substring(body.getContentType().indexOf('=') + 1);
+        String text = new String(written, ASCII);
+        int start = text.indexOf("\r\n\r\n") + 4;
+        int end = written.length - ("\r\n--" + boundary + "--\r\n").length();
+        return Arrays.copyOfRange(written, start, end);
+    }
+
+    /**
+     * A stream returning a single byte per read and supporting neither mark nor reset
+     */
+    private static class OneByteStream extends InputStream {
+
+        /**
+         * The stream content
+         */
+        private final byte[] content;
+
+        /**
+         * The position of the next byte
+         */
+        private int position;
+
+        OneByteStream(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read() {
+            return position < content.length ? content[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int value = read();
+            if (value < 0) {
+                return -1;
+            }
+            buffer[offset] = (byte) value;
+            return 1;
+        }
+    }
+}
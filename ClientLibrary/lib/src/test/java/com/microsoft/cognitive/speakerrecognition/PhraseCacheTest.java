@@ -0,0 +1,164 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.verification.PhrasesException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link PhraseCache}
+ */
+public class PhraseCacheTest {
+
+    /**
+     * An executor running tasks on the calling thread
+     */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    @Test
+    public void concurrentColdLookupsShareOneRequest() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger requests = new AtomicInteger();
+        final PhraseCache cache = new PhraseCache(new StubVerificationClient() {
+            @Override
+            public List<VerificationPhrase> getPhrases(String locale) {
+                requests.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return phrases("i am going to make him an offer he cannot refuse");
+            }
+        }, null, DIRECT_EXECUTOR);
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            // Locales differing in case are the same cache entry
+            final String locale = i % 2 == 0 ? "en-US" : "en-us";
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        assertEquals(1, cache.getPhrases(locale).size());
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void failedFetchIsReportedAndRetried() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        PhraseCache cache = new PhraseCache(new StubVerificationClient() {
+            @Override
+            public List<VerificationPhrase> getPhrases(String locale) throws PhrasesException {
+                if (requests.incrementAndGet() == 1) {
+                    throw new PhrasesException("InternalServerError");
+                }
+                return phrases("my voice is my passport verify me");
+            }
+        }, null, DIRECT_EXECUTOR);
+
+        try {
+            cache.getPhrases("en-us");
+            fail("The failure should have been reported");
+        } catch (PhrasesException expected) {
+            // The service failed once
+        }
+        assertEquals("my voice is my passport verify me", cache.getPhrases("en-us").get(0).phrase);
+        assertEquals("my voice is my passport verify me", cache.getPhrases("en-us").get(0).phrase);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void stalePhrasesAreServedWhileRefreshed() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        PhraseCache cache = new PhraseCache(new StubVerificationClient() {
+            @Override
+            public List<VerificationPhrase> getPhrases(String locale) {
+                return phrases("phrase " + requests.incrementAndGet());
+            }
+        }, null, DIRECT_EXECUTOR, 0);
+
+        assertEquals("phrase 1", cache.getPhrases("en-us").get(0).phrase);
+        // The refresh runs on the direct executor, after the stale phrases were picked
+        assertEquals("phrase 1", cache.getPhrases("en-us").get(0).phrase);
+        assertEquals("phrase 2", cache.getPhrases("en-us").get(0).phrase);
+        assertEquals(3, requests.get());
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a list holding a single phrase
+     *
+     * @param text The phrase
+     * @return The phrases
+     */
+    private static List<VerificationPhrase> phrases(String text) {
+        VerificationPhrase phrase = new VerificationPhrase();
+        phrase.phrase = text;
+        return Collections.singletonList(phrase);
+    }
+}
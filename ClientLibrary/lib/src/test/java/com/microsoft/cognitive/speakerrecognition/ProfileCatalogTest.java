@@ -0,0 +1,304 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentStatus;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Profile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ProfileCatalog}
+ */
+public class ProfileCatalogTest {
+
+    /**
+     * The size of the catalog file header, mirroring the file format
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * The size of a profile record, mirroring the file format
+     */
+    private static final int RECORD_SIZE = 72;
+
+    /**
+     * The header offset of the record being replaced, mirroring the file format
+     */
+    private static final int HEADER_REPLACED = 28;
+
+    /**
+     * The record offset of the record state, mirroring the file format
+     */
+    private static final int RECORD_STATE = 48;
+
+    /**
+     * The record offset of the locale bytes, mirroring the file format
+     */
+    private static final int RECORD_LOCALE = 51;
+
+    /**
+     * The number of records of a new catalog
+     */
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * The catalog file under test
+     */
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("catalog", ".bin");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void reopenKeepsProfiles() throws IOException {
+        List<Profile> profiles = new ArrayList<>();
+        ProfileCatalog<Profile> catalog = open();
+        for (int i = 0; i < 3; i++) {
+            Profile profile = newProfile(UUID.randomUUID(), "en-us");
+            profile.enrollmentSpeechTime = i;
+            catalog.put(profile);
+            profiles.add(profile);
+        }
+        catalog.close();
+
+        catalog = open();
+        assertEquals(3, catalog.size());
+        for (Profile profile : profiles) {
+            assertSameProfile(profile, catalog.get(profile.identificationProfileId));
+        }
+        assertNull(catalog.get(UUID.randomUUID()));
+        catalog.close();
+    }
+
+    @Test
+    public void growsWithinLoadFactor() throws IOException {
+        List<UUID> ids = new ArrayList<>();
+        ProfileCatalog<Profile> catalog = open();
+        for (int i = 0; i < 1500; i++) {
+            UUID id = UUID.randomUUID();
+            catalog.put(newProfile(id, "en-us"));
+            ids.add(id);
+        }
+        catalog.close();
+
+        // 1500 profiles fit in 4096 records at most half full, where a quarter would take 8192
+        assertEquals(HEADER_SIZE + 4096L * RECORD_SIZE, file.length());
+        catalog = open();
+        assertEquals(1500, catalog.size());
+        for (UUID id : ids) {
+            assertTrue(catalog.contains(id));
+        }
+        catalog.close();
+    }
+
+    @Test
+    public void repeatedUpdatesDoNotGrowCatalog() throws IOException {
+        UUID id = UUID.randomUUID();
+        ProfileCatalog<Profile> catalog = open();
+        for (int i = 0; i < 2000; i++) {
+            Profile profile = newProfile(id, "en-us");
+            profile.enrollmentSpeechTime = i;
+            catalog.put(profile);
+        }
+        assertEquals(1, catalog.size());
+        assertEquals(1999, catalog.get(id).enrollmentSpeechTime, 0);
+        catalog.close();
+        assertEquals(HEADER_SIZE + (long) MIN_CAPACITY * RECORD_SIZE, file.length());
+    }
+
+    @Test
+    public void crashAfterNewRecordKeepsNewRecord() throws IOException {
+        UUID id = UUID.randomUUID();
+        int[] records = writeUpdate(id);
+        simulateCrash(records[0], records[1], true, false);
+
+        ProfileCatalog<Profile> catalog = open();
+        assertEquals(1, catalog.size());
+        assertEquals("en-gb", catalog.get(id).locale);
+        assertTrue(catalog.remove(id));
+        assertNull(catalog.get(id));
+        catalog.close();
+    }
+
+    @Test
+    public void crashBeforeNewRecordKeepsReplacedRecord() throws IOException {
+        UUID id = UUID.randomUUID();
+        int[] records = writeUpdate(id);
+        simulateCrash(records[0], records[1], false, false);
+
+        ProfileCatalog<Profile> catalog = open();
+        assertEquals(1, catalog.size());
+        assertEquals("en-us", catalog.get(id).locale);
+        catalog.close();
+    }
+
+    @Test
+    public void tornNewRecordKeepsReplacedRecord() throws IOException {
+        UUID id = UUID.randomUUID();
+        int[] records = writeUpdate(id);
+        simulateCrash(records[0], records[1], true, true);
+
+        ProfileCatalog<Profile> catalog = open();
+        assertEquals(1, catalog.size());
+        assertEquals("en-us", catalog.get(id).locale);
+        assertTrue(catalog.remove(id));
+        assertNull(catalog.get(id));
+        catalog.close();
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Opens the catalog file under test
+     *
+     * @return The catalog
+     * @throws IOException Signals an I/O issue while opening the file
+     */
+    private ProfileCatalog<Profile> open() throws IOException {
+        return new ProfileCatalog<>(file, Profile.class);
+    }
+
+    /**
+     * Stores a profile with the en-us locale, then replaces it with one with the en-gb locale, and closes the catalog
+     *
+     * @param id The speaker profile ID
+     * @return The offsets of the replaced and the new record
+     * @throws IOException Signals an I/O issue while writing the catalog
+     */
+    private int[] writeUpdate(UUID id) throws IOException {
+        ProfileCatalog<Profile> catalog = open();
+        catalog.put(newProfile(id, "en-us"));
+        catalog.put(newProfile(id, "en-gb"));
+        catalog.close();
+
+        int[] records = new int[2];
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            for (int offset = HEADER_SIZE; offset < raf.length(); offset += RECORD_SIZE) {
+                raf.seek(offset);
+                if (raf.readLong() == id.getMostSignificantBits() && raf.readLong() == id.getLeastSignificantBits()) {
+                    raf.seek(offset + RECORD_LOCALE + 3);
+                    records[raf.read() == 'u' ? 0 : 1] = offset;
+                }
+            }
+        } finally {
+            raf.close();
+        }
+        assertTrue(records[0] > 0 && records[1] > 0);
+        return records;
+    }
+
+    /**
+     * Rewinds the catalog file to a crash in the middle of a replacement
+     *
+     * @param replaced The offset of the replaced record
+     * @param added The offset of the new record
+     * @param addedUsed Whether the new record was marked used before the crash
+     * @param torn Whether a write to the new record was lost
+     * @throws IOException Signals an I/O issue while writing the file
+     */
+    private void simulateCrash(int replaced, int added, boolean addedUsed, boolean torn) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(HEADER_REPLACED);
+            raf.writeInt(replaced);
+            raf.seek(replaced + RECORD_STATE);
+            raf.write(1);
+            raf.seek(added + RECORD_STATE);
+            raf.write(addedUsed ? 1 : 2);
+            if (torn) {
+                raf.seek(added + RECORD_LOCALE + 3);
+                raf.write(0);
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Creates an identification profile
+     *
+     * @param id The speaker profile ID
+     * @param locale The profile locale
+     * @return The profile
+     */
+    private static Profile newProfile(UUID id, String locale) {
+        Profile profile = new Profile();
+        profile.identificationProfileId = id;
+        profile.locale = locale;
+        profile.createdDateTime = new Date(1500000000000L);
+        profile.lastActionDateTime = new Date(1500000360000L);
+        profile.enrollmentStatus = EnrollmentStatus.ENROLLING;
+        profile.enrollmentSpeechTime = 12.5;
+        profile.remainingEnrollmentSpeechTime = 17.5;
+        return profile;
+    }
+
+    /**
+     * Asserts that a profile read from the catalog holds the stored fields
+     *
+     * @param expected The stored profile
+     * @param actual The profile read from the catalog
+     */
+    private static void assertSameProfile(Profile expected, Profile actual) {
+        assertEquals(expected.identificationProfileId, actual.identificationProfileId);
+        assertEquals(expected.locale, actual.locale);
+        assertEquals(expected.createdDateTime, actual.createdDateTime);
+        assertEquals(expected.lastActionDateTime, actual.lastActionDateTime);
+        assertEquals(expected.enrollmentStatus, actual.enrollmentStatus);
+        assertEquals(expected.enrollmentSpeechTime, actual.enrollmentSpeechTime, 0);
+        assertEquals(expected.remainingEnrollmentSpeechTime, actual.remainingEnrollmentSpeechTime, 0);
+    }
+}
@@ -0,0 +1,107 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link RateLimiter}
+ */
+public class RateLimiterTest {
+
+    @Test
+    public void failFastRejectsOnceBucketIsEmpty() throws Exception {
+        RateLimiter limiter = new RateLimiter(0.1, 2, RateLimiter.Mode.FAIL_FAST);
+        limiter.acquirePermit(ServiceOperation.VERIFY);
+        limiter.acquirePermit(ServiceOperation.VERIFY);
+        try {
+            limiter.acquirePermit(ServiceOperation.VERIFY);
+            fail("The call should have been rejected");
+        } catch (RateLimitExceededException expected) {
+            // The bucket is empty
+        }
+    }
+
+    @Test
+    public void exemptOperationTakesNoTokens() {
+        RateLimiter limiter = new RateLimiter(0.1, 1, RateLimiter.Mode.FAIL_FAST);
+        limiter.setWeight(ServiceOperation.CHECK_ENROLLMENT_STATUS, 0);
+        assertTrue(limiter.tryAcquire(ServiceOperation.VERIFY));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(ServiceOperation.CHECK_ENROLLMENT_STATUS));
+        }
+        assertFalse(limiter.tryAcquire(ServiceOperation.VERIFY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsWeightAboveCapacity() {
+        new RateLimiter(10, 5, RateLimiter.Mode.BLOCK).setWeight(ServiceOperation.ENROLL, 6);
+    }
+
+    @Test
+    public void interruptedWaitReturnsItsTokens() throws Exception {
+        final RateLimiter limiter = new RateLimiter(2, 1, RateLimiter.Mode.BLOCK);
+        assertTrue(limiter.tryAcquire(ServiceOperation.VERIFY));
+
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicBoolean acquired = new AtomicBoolean();
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    limiter.acquire(ServiceOperation.VERIFY);
+                    acquired.set(true);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        waiter.interrupt();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertFalse(acquired.get());
+
+        // Without the refund the bucket would still owe most of the abandoned reservation
+        Thread.sleep(600);
+        assertTrue(limiter.tryAcquire(ServiceOperation.VERIFY));
+    }
+}
@@ -0,0 +1,250 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link SpeakerFuture}
+ */
+public class SpeakerFutureTest {
+
+    @Test
+    public void throwingCallbackDoesNotStarveOthers() throws Exception {
+        SpeakerFuture<String> future = new SpeakerFuture<>();
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback last = new RecordingCallback();
+        future.addCallback(first);
+        future.addCallback(new ThrowingCallback());
+        future.addCallback(last);
+
+        try {
+            future.complete("result");
+            fail("The callback exception should have been rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("Callback failed", e.getMessage());
+        }
+        assertEquals(1, first.successes.get());
+        assertEquals(1, last.successes.get());
+        assertEquals("result", future.get());
+    }
+
+    @Test
+    public void throwingCallbackDoesNotFailSubmittedCall() throws Exception {
+        final AtomicReference<Throwable> uncaught = new AtomicReference<>();
+        final CountDownLatch finished = new CountDownLatch(1);
+        Executor executor = new Executor() {
+            @Override
+            public void execute(final Runnable task) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            task.run();
+                        } catch (Throwable e) {
+                            uncaught.set(e);
+                        }
+                        finished.countDown();
+                    }
+                }).start();
+            }
+        };
+        final CountDownLatch release = new CountDownLatch(1);
+        SpeakerFuture<String> future = SpeakerFuture.submit(executor, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                release.await();
+                return "result";
+            }
+        });
+        RecordingCallback last = new RecordingCallback();
+        future.addCallback(new ThrowingCallback());
+        future.addCallback(last);
+        release.countDown();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("result", future.get());
+        assertEquals(1, last.successes.get());
+        assertEquals(0, last.failures.get());
+        assertTrue(uncaught.get() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void cancelInterruptsRunningCall() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        SpeakerFuture<String> future = SpeakerFuture.submit(new ThreadExecutor(), new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return "result";
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void cancelWithoutInterruptLetsCallRun() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final CountDownLatch finished = new CountDownLatch(1);
+        SpeakerFuture<String> future = SpeakerFuture.submit(new ThreadExecutor(), new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                finished.countDown();
+                return "result";
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(future.cancel(false));
+        assertFalse(future.cancel(true));
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void cancelRunsCancellationActionOnce() {
+        SpeakerFuture<String> future = new SpeakerFuture<>();
+        final AtomicInteger actions = new AtomicInteger();
+        future.setCancellationAction(new Runnable() {
+            @Override
+            public void run() {
+                actions.incrementAndGet();
+            }
+        });
+        RecordingCallback callback = new RecordingCallback();
+        future.addCallback(callback);
+
+        assertTrue(future.cancel(false));
+        assertFalse(future.cancel(false));
+        assertFalse(future.complete("result"));
+        assertEquals(1, actions.get());
+        assertEquals(1, callback.failures.get());
+        assertNull(callback.result.get());
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A callback counting its invocations
+     */
+    private static class RecordingCallback implements SpeakerCallback<String> {
+
+        /**
+         * The number of successes reported
+         */
+        final AtomicInteger successes = new AtomicInteger();
+
+        /**
+         * The number of failures reported
+         */
+        final AtomicInteger failures = new AtomicInteger();
+
+        /**
+         * The last result reported
+         */
+        final AtomicReference<String> result = new AtomicReference<>();
+
+        @Override
+        public void onSuccess(String value) {
+            result.set(value);
+            successes.incrementAndGet();
+        }
+
+        @Override
+        public void onFailure(Exception error) {
+            failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * A callback throwing on every invocation
+     */
+    private static class ThrowingCallback implements SpeakerCallback<String> {
+
+        @Override
+        public void onSuccess(String result) {
+            throw new IllegalStateException("Callback failed");
+        }
+
+        @Override
+        public void onFailure(Exception error) {
+            throw new IllegalStateException("Callback failed");
+        }
+    }
+
+    /**
+     * An executor running each task on a new thread
+     */
+    private static class ThreadExecutor implements Executor {
+
+        @Override
+        public void execute(Runnable task) {
+            new Thread(task).start();
+        }
+    }
+}
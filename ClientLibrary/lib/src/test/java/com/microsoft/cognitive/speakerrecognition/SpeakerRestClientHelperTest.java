@@ -0,0 +1,574 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentStatus;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.EnrollmentOperation;
+import com.microsoft.cognitive.speakerrecognition.contract.identification.Status;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the retry and hedging state machines, the warm-up and the response and poll decoding of {@link SpeakerRestClientHelper}
+ */
+public class SpeakerRestClientHelperTest {
+
+    /**
+     * The endpoint the requests under test are sent to
+     */
+    private static final String ENDPOINT = "https://westus.api.cognitive.microsoft.com/spid/v1.0/verify";
+
+    /**
+     * The latency the hedging policies under test are warmed up with, which becomes their hedge delay
+     */
+    private static final long HEDGE_DELAY_MILLIS = 20;
+
+    /**
+     * A phrase holding characters outside ASCII, which only decode right as UTF-8
+     */
+    private static final String PHRASE = "je vais lui faire une offre qu'il ne pourra pas refuser \u00e0 la caf\u00e9t\u00e9ria";
+
+    /**
+     * The verification phrase response holding the phrase
+     */
+    private static final String PHRASE_JSON = "{\"phrase\":\"" + PHRASE + "\"}";
+
+    /**
+     * The charset of the Json content
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The Gson instance of the clients
+     */
+    private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new ContractTypeAdapterFactory()).create();
+
+    @Test
+    public void retriesTransientStatus() throws IOException {
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) {
+                return new StubResponse(call < 2 ? 503 : 200, null);
+            }
+        };
+        SpeakerRestClientHelper helper = newHelper(transport, new RetryPolicy(3, 1, 1));
+
+        TransportResponse response = helper.execute(ServiceOperation.VERIFY, ENDPOINT, newRequest(helper));
+        assertEquals(200, response.getStatusCode());
+        assertEquals(3, transport.getCallCount());
+        assertEquals(2, helper.getRetryCount(ServiceOperation.VERIFY));
+    }
+
+    @Test
+    public void returnsLastResponseOnceRetriesAreExhausted() throws IOException {
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) {
+                return new StubResponse(503, null);
+            }
+        };
+        SpeakerRestClientHelper helper = newHelper(transport, new RetryPolicy(2, 1, 1));
+
+        assertEquals(503, helper.execute(ServiceOperation.VERIFY, ENDPOINT, newRequest(helper)).getStatusCode());
+        assertEquals(3, transport.getCallCount());
+    }
+
+    @Test
+    public void doesNotWaitForRetryAfterBeyondMaxDelay() throws IOException {
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) {
+                return new StubResponse(429, "60");
+            }
+        };
+        SpeakerRestClientHelper helper = newHelper(transport, new RetryPolicy(3, 1, 1000));
+
+        assertEquals(429, helper.execute(ServiceOperation.VERIFY, ENDPOINT, newRequest(helper)).getStatusCode());
+        assertEquals(1, transport.getCallCount());
+    }
+
+    @Test
+    public void doesNotRetryProfileCreationAfterConnectionFailure() {
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        SpeakerRestClientHelper helper = newHelper(transport, new RetryPolicy(3, 1, 1));
+
+        try {
+            helper.execute(ServiceOperation.CREATE_PROFILE, ENDPOINT, newRequest(helper));
+            fail("The connection failure should have been thrown");
+        } catch (IOException e) {
+            assertEquals(1, transport.getCallCount());
+        }
+    }
+
+    @Test
+    public void fastCallIsNotHedged() throws Exception {
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) {
+                return new StubResponse(200, null);
+            }
+        };
+        CountingExecutor executor = new CountingExecutor();
+        HedgingPolicy hedging = newHedgingPolicy(executor);
+        SpeakerRestClientHelper helper = newHelper(transport, RetryPolicy.NONE);
+        helper.setHedgingPolicy(hedging);
+
+        assertEquals(200, helper.execute(ServiceOperation.VERIFY, ENDPOINT, newRequest(helper)).getStatusCode());
+        Thread.sleep(HEDGE_DELAY_MILLIS * 3);
+        assertEquals(1, transport.getCallCount());
+        assertEquals(0, executor.getTaskCount());
+        assertEquals(0, hedging.getHedgeCount());
+    }
+
+    @Test
+    public void slowCallIsHedgedAndLoserAborted() throws IOException {
+        final StubResponse hedgeResponse = new StubResponse(200, null);
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) throws IOException {
+                if (call == 0) {
+                    awaitAbort(request);
+                    throw new IOException("Aborted");
+                }
+                return hedgeResponse;
+            }
+        };
+        CountingExecutor executor = new CountingExecutor();
+        HedgingPolicy hedging = newHedgingPolicy(executor);
+        SpeakerRestClientHelper helper = newHelper(transport, RetryPolicy.NONE);
+        helper.setHedgingPolicy(hedging);
+
+        assertSame(hedgeResponse, helper.execute(ServiceOperation.VERIFY, ENDPOINT, newRequest(helper)));
+        assertEquals(2, transport.getCallCount());
+        assertEquals(1, executor.getTaskCount());
+        assertEquals(1, hedging.getHedgeCount());
+    }
+
+    @Test
+    public void losingResponseFailingToCloseIsIgnored() throws IOException {
+        final StubResponse hedgeResponse = new StubResponse(200, null);
+        final StubResponse losingResponse = new StubResponse(200, null);
+        losingResponse.failClose = true;
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) throws IOException {
+                if (call == 0) {
+                    awaitAbort(request);
+                    return losingResponse;
+                }
+                return hedgeResponse;
+            }
+        };
+        SpeakerRestClientHelper helper = newHelper(transport, RetryPolicy.NONE);
+        helper.setHedgingPolicy(newHedgingPolicy(new CountingExecutor()));
+
+        assertSame(hedgeResponse, helper.execute(ServiceOperation.VERIFY, ENDPOINT, newRequest(helper)));
+        assertEquals(1, losingResponse.closeCount);
+        assertEquals(0, hedgeResponse.closeCount);
+    }
+
+    @Test
+    public void failsOnceEveryCopyFailed() throws InterruptedException {
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) throws IOException {
+                if (call == 0) {
+                    try {
+                        Thread.sleep(HEDGE_DELAY_MILLIS * 5);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    throw new IOException("First copy failed");
+                }
+                throw new IOException("Hedge failed");
+            }
+        };
+        SpeakerRestClientHelper helper = newHelper(transport, RetryPolicy.NONE);
+        helper.setHedgingPolicy(newHedgingPolicy(new CountingExecutor()));
+
+        try {
+            helper.execute(ServiceOperation.VERIFY, ENDPOINT, newRequest(helper));
+            fail("The failure should have been thrown");
+        } catch (IOException e) {
+            assertEquals("Hedge failed", e.getMessage());
+        }
+        assertEquals(2, transport.getCallCount());
+    }
+
+    @Test
+    public void warmUpSendsPhraseRequestsThroughRateLimiter() throws IOException {
+        final String serviceRoot = "https://westus.api.cognitive.microsoft.com/spid/v1.0";
+        ScriptedTransport transport = new ScriptedTransport() {
+            @Override
+            TransportResponse respond(int call, TransportRequest request) {
+                assertEquals(serviceRoot + "/verificationPhrases?locale=en-US", request.getUrl());
+                return new StubResponse(200, null);
+            }
+        };
+        SpeakerRestClientHelper helper = newHelper(transport, RetryPolicy.NONE);
+        helper.setRateLimiter(new RateLimiter(0.001, 2, RateLimiter.Mode.FAIL_FAST));
+        CountingExecutor executor = new CountingExecutor();
+
+        assertEquals(2, helper.warmUp(serviceRoot, 3, executor));
+        assertEquals(3, executor.getTaskCount());
+        assertEquals(2, transport.getCallCount());
+    }
+
+    @Test
+    public void readJsonDecodesUtf8ContentAndClosesResponse() throws IOException {
+        ContentResponse response = new ContentResponse(null, PHRASE_JSON.getBytes(UTF8));
+
+        assertEquals(PHRASE, readPhrase(response));
+        assertEquals(1, response.closeCount);
+    }
+
+    @Test
+    public void readJsonDecodesGzipContent() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+        gzip.write(PHRASE_JSON.getBytes(UTF8));
+        gzip.close();
+        ContentResponse response = new ContentResponse("gzip", compressed.toByteArray());
+
+        assertEquals(PHRASE, readPhrase(response));
+        assertEquals(1, response.closeCount);
+    }
+
+    @Test
+    public void readJsonDecodesZlibAndRawDeflateContent() throws IOException {
+        for (boolean raw : new boolean[] {false, true}) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, raw));
+            deflate.write(PHRASE_JSON.getBytes(UTF8));
+            deflate.close();
+
+            assertEquals(PHRASE, readPhrase(new ContentResponse("deflate", compressed.toByteArray())));
+        }
+    }
+
+    @Test
+    public void pendingPollOnlyUpdatesStatusOfHolder() throws IOException {
+        EnrollmentOperation pending = new EnrollmentOperation();
+        ContentResponse response = new ContentResponse(null,
+                "{\"status\":\"running\",\"createdDateTime\":\"2015-04-23T18:25:43.511Z\"}".getBytes(UTF8));
+
+        assertSame(pending, newHelper(null, RetryPolicy.NONE).readOperationStatus(response, GSON, EnrollmentOperation.class, pending));
+        assertEquals(Status.RUNNING, pending.status);
+        assertNull(pending.createdDateTime);
+        assertEquals(1, response.closeCount);
+    }
+
+    @Test
+    public void finishedPollIsDecodedInFull() throws IOException {
+        EnrollmentOperation pending = new EnrollmentOperation();
+        ContentResponse response = new ContentResponse(null, ("{\"status\":\"succeeded\","
+                + "\"processingResult\":{\"enrollmentStatus\":\"Enrolled\",\"speechTime\":30.5}}").getBytes(UTF8));
+
+        EnrollmentOperation operation = newHelper(null, RetryPolicy.NONE).readOperationStatus(response, GSON, EnrollmentOperation.class, pending);
+        assertNotSame(pending, operation);
+        assertEquals(Status.SUCCEEDED, operation.status);
+        assertEquals(EnrollmentStatus.ENROLLED, operation.processingResult.enrollmentStatus);
+        assertEquals(30.5, operation.processingResult.speechTime, 0);
+        assertNull(pending.status);
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a helper sending requests through the given transport
+     *
+     * @param transport The transport
+     * @param retryPolicy The retry policy of the helper
+     * @return The helper
+     */
+    private static SpeakerRestClientHelper newHelper(HttpTransport transport, RetryPolicy retryPolicy) {
+        SpeakerRestClientHelper helper = new SpeakerRestClientHelper("key", transport);
+        helper.setRetryPolicy(retryPolicy);
+        return helper;
+    }
+
+    /**
+     * Creates a POST request to the endpoint under test
+     *
+     * @param helper The helper creating the request
+     * @return The request
+     */
+    private static TransportRequest newRequest(SpeakerRestClientHelper helper) {
+        return helper.createHttpRequest(ENDPOINT, RequestType.POST);
+    }
+
+    /**
+     * Creates a policy hedging verifications, warmed up so that calls are hedged after {@link #HEDGE_DELAY_MILLIS}
+     *
+     * @param executor The executor sending the hedges
+     * @return The hedging policy
+     */
+    private static HedgingPolicy newHedgingPolicy(Executor executor) {
+        HedgingPolicy hedging = new HedgingPolicy(executor, 50, 1, EnumSet.of(ServiceOperation.VERIFY));
+        for (int i = 0; i < 20; i++) {
+            hedging.recordCall(ServiceOperation.VERIFY, HEDGE_DELAY_MILLIS);
+        }
+        return hedging;
+    }
+
+    /**
+     * Blocks until a request is aborted, the way a transport blocks on a connection closed by the abort
+     *
+     * @param request The request
+     * @throws IOException If the request isn't aborted in time
+     */
+    private static void awaitAbort(TransportRequest request) throws IOException {
+        final CountDownLatch aborted = new CountDownLatch(1);
+        request.setAbortAction(new Runnable() {
+            @Override
+            public void run() {
+                aborted.countDown();
+            }
+        });
+        try {
+            if (!aborted.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("The request wasn't aborted");
+            }
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Decodes a verification phrase response with the Gson instance of the clients
+     *
+     * @param response The response
+     * @return The decoded phrase
+     * @throws IOException Signals a failure while reading the response
+     */
+    private static String readPhrase(TransportResponse response) throws IOException {
+        return newHelper(null, RetryPolicy.NONE).<VerificationPhrase>readJson(response, GSON, VerificationPhrase.class).phrase;
+    }
+
+    /**
+     * A transport answering each request according to its index
+     */
+    private abstract static class ScriptedTransport implements HttpTransport {
+
+        /**
+         * The number of requests received
+         */
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public TransportResponse execute(TransportRequest request) throws IOException {
+            return respond(calls.getAndIncrement(), request);
+        }
+
+        @Override
+        public void closeIdleConnections(long idleTime, TimeUnit unit) {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        /**
+         * Gets the number of requests received
+         *
+         * @return The number of requests
+         */
+        int getCallCount() {
+            return calls.get();
+        }
+
+        /**
+         * Answers a request
+         *
+         * @param call The zero based index of the request
+         * @param request The request
+         * @return The response
+         * @throws IOException A simulated transport failure
+         */
+        abstract TransportResponse respond(int call, TransportRequest request) throws IOException;
+    }
+
+    /**
+     * A response with an empty body
+     */
+    private static class StubResponse implements TransportResponse {
+
+        /**
+         * The status code of the response
+         */
+        private final int statusCode;
+
+        /**
+         * The Retry-After header of the response, or null
+         */
+        private final String retryAfter;
+
+        /**
+         * Whether closing the response fails
+         */
+        volatile boolean failClose;
+
+        /**
+         * The number of times the response was closed
+         */
+        volatile int closeCount;
+
+        StubResponse(int statusCode, String retryAfter) {
+            this.statusCode = statusCode;
+            this.retryAfter = retryAfter;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return "Retry-After".equals(name) ? retryAfter : null;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeCount++;
+            if (failClose) {
+                throw new IOException("Connection already broken");
+            }
+        }
+    }
+
+    /**
+     * A successful response holding content, optionally encoded
+     */
+    private static class ContentResponse implements TransportResponse {
+
+        /**
+         * The Content-Encoding header of the response, or null
+         */
+        private final String contentEncoding;
+
+        /**
+         * The content bytes as sent by the service
+         */
+        private final byte[] content;
+
+        /**
+         * The number of times the response was closed
+         */
+        int closeCount;
+
+        ContentResponse(String contentEncoding, byte[] content) {
+            this.contentEncoding = contentEncoding;
+            this.content = content;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return 200;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return "Content-Encoding".equals(name) ? contentEncoding : null;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+        }
+    }
+
+    /**
+     * An executor running each task on a new thread and counting the tasks
+     */
+    private static class CountingExecutor implements Executor {
+
+        /**
+         * The number of tasks run
+         */
+        private final AtomicInteger tasks = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.incrementAndGet();
+            new Thread(task).start();
+        }
+
+        /**
+         * Gets the number of tasks run
+         *
+         * @return The number of tasks
+         */
+        int getTaskCount() {
+            return tasks.get();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition;
+
+import com.microsoft.cognitive.speakerrecognition.contract.CreateProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.DeleteProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.EnrollmentException;
+import com.microsoft.cognitive.speakerrecognition.contract.GetProfileException;
+import com.microsoft.cognitive.speakerrecognition.contract.ResetEnrollmentsException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.CreateProfileResponse;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Enrollment;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.PhrasesException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Profile;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.Verification;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationException;
+import com.microsoft.cognitive.speakerrecognition.contract.verification.VerificationPhrase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A verification client whose calls all fail unless a test overrides them
+ */
+class StubVerificationClient implements ExtendedSpeakerVerificationClient {
+
+    @Override
+    public CreateProfileResponse createProfile(String locale) throws CreateProfileException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Profile getProfile(UUID id) throws GetProfileException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Profile> getProfiles() throws GetProfileException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ProfileIterator<Profile> streamProfiles() throws GetProfileException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteProfile(UUID id) throws DeleteProfileException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<VerificationPhrase> getPhrases(String locale) throws PhrasesException, IOException, URISyntaxException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Enrollment enroll(InputStream audioStream, UUID id) throws EnrollmentException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Enrollment enroll(File audioFile, UUID id) throws EnrollmentException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Enrollment enroll(FileChannel audioChannel, UUID id) throws EnrollmentException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Enrollment enroll(ByteBuffer audioBuffer, UUID id) throws EnrollmentException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Verification verify(InputStream audioStream, UUID id) throws VerificationException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Verification verify(File audioFile, UUID id) throws VerificationException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Verification verify(FileChannel audioChannel, UUID id) throws VerificationException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Verification verify(ByteBuffer audioBuffer, UUID id) throws VerificationException, IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void resetEnrollments(UUID id) throws ResetEnrollmentsException, IOException {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,104 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AudioPreflight}
+ */
+public class AudioPreflightTest {
+
+    @Test
+    public void acceptsSpeechStartingAtFirstSample() {
+        AudioPreflight preflight = analyze(Signals.voiced(3000, -20));
+
+        assertEquals(3000, preflight.getSpeechMillis());
+        assertTrue("SNR " + preflight.getSnrDb(), preflight.getSnrDb() > PreflightPolicy.DEFAULT_WARN_SNR_DB);
+        assertEquals(PreflightResult.Verdict.ACCEPT, preflight.check(PreflightPolicy.VERIFICATION).getVerdict());
+    }
+
+    @Test
+    public void speechAtFirstSampleMatchesSpeechAfterSilence() {
+        AudioPreflight direct = analyze(Signals.voiced(3000, -20));
+        AudioPreflight delayed = analyze(Signals.concat(Signals.silence(500), Signals.voiced(3000, -20)));
+
+        assertEquals(delayed.getSpeechMillis(), direct.getSpeechMillis());
+        assertEquals(delayed.check(PreflightPolicy.VERIFICATION).getVerdict(), direct.check(PreflightPolicy.VERIFICATION).getVerdict());
+    }
+
+    @Test
+    public void adoptsBackgroundAtFirstPause() {
+        short[] speech = Signals.concat(Signals.voiced(1500, -20), Signals.silence(500), Signals.voiced(1500, -20));
+        short[] clip = Signals.mix(speech, Signals.noise(3500, -55, 1));
+        AudioPreflight preflight = analyze(clip);
+
+        assertTrue("Speech " + preflight.getSpeechMillis(), Math.abs(preflight.getSpeechMillis() - 3000) <= 60);
+        assertTrue("SNR " + preflight.getSnrDb(), Math.abs(preflight.getSnrDb() - 35) < 2);
+    }
+
+    @Test
+    public void rejectsBackgroundOnly() {
+        AudioPreflight preflight = analyze(Signals.noise(3000, -50, 2));
+
+        assertEquals(0, preflight.getSpeechMillis());
+        PreflightResult result = preflight.check(PreflightPolicy.VERIFICATION);
+        assertEquals(PreflightResult.Verdict.REJECT, result.getVerdict());
+        assertTrue(result.getRejections().contains(PreflightResult.Issue.TOO_SHORT));
+    }
+
+    @Test
+    public void resetForgetsNoiseFloor() {
+        AudioPreflight preflight = analyze(Signals.noise(1000, -30, 3));
+        preflight.reset();
+        short[] clip = Signals.voiced(2000, -20);
+        preflight.analyze(clip, 0, clip.length);
+
+        assertEquals(2000, preflight.getSpeechMillis());
+    }
+
+    /**
+     * Analyzes a clip with the default threshold
+     *
+     * @param clip The samples
+     * @return The analyzer holding the measures of the clip
+     */
+    private static AudioPreflight analyze(short[] clip) {
+        AudioPreflight preflight = new AudioPreflight();
+        preflight.analyze(clip, 0, clip.length);
+        return preflight;
+    }
+}
@@ -0,0 +1,230 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ServiceWavInputStream}
+ */
+public class ServiceWavInputStreamTest {
+
+    /**
+     * The peak amplitude of the test tones, whose RMS level is 3 dB lower
+     */
+    private static final double TONE_AMPLITUDE = 0.5;
+
+    /**
+     * The RMS level of the test tones in dB relative to full scale
+     */
+    private static final double TONE_RMS_DB = 20 * Math.log10(TONE_AMPLITUDE / Math.sqrt(2));
+
+    @Test
+    public void passesServiceFormatThrough() throws IOException {
+        byte[] wav = Signals.wav(Signals.voiced(1000, -20), Signals.SAMPLE_RATE);
+        ServiceWavInputStream stream = new ServiceWavInputStream(new ByteArrayInputStream(wav));
+
+        byte[] converted = readAll(stream);
+        assertEquals(converted.length, stream.getLength());
+        assertArrayEquals(wav, converted);
+    }
+
+    @Test
+    public void downsamplesToServiceRate() throws IOException {
+        assertResampledTone(44100, 1000);
+        assertResampledTone(48000, 1000);
+        assertResampledTone(22050, 440);
+    }
+
+    @Test
+    public void upsamplesToServiceRate() throws IOException {
+        assertResampledTone(8000, 440);
+        assertResampledTone(11025, 1000);
+    }
+
+    @Test
+    public void filtersFrequenciesAboveServiceNyquist() throws IOException {
+        short[] output = convert(Signals.wav(tone(48000, 11000, 1000), 48000));
+
+        assertEquals(Signals.SAMPLE_RATE, output.length);
+        double level = Signals.rmsDb(output, output.length / 4, output.length / 2);
+        assertTrue("Aliased level " + level, level < TONE_RMS_DB - 40);
+    }
+
+    @Test
+    public void averagesChannelsOfWiderSamples() throws IOException {
+        short[] mono = tone(Signals.SAMPLE_RATE, 440, 500);
+        byte[] data = new byte[mono.length * 6];
+        for (int i = 0; i < mono.length; i++) {
+            // 24-bit stereo with the tone on the left channel and silence on the right
+            int value = mono[i] << 8;
+            data[6 * i] = (byte) value;
+            data[6 * i + 1] = (byte) (value >> 8);
+            data[6 * i + 2] = (byte) (value >> 16);
+        }
+        byte[] header = new WavHeader(WavHeader.FORMAT_PCM, 2, Signals.SAMPLE_RATE, 24, data.length).toBytes();
+
+        short[] output = convert(concat(header, data));
+        assertEquals(mono.length, output.length);
+        for (int i = 0; i < mono.length; i++) {
+            assertEquals(mono[i] / 2.0, output[i], 1);
+        }
+    }
+
+    @Test
+    public void convertsFloatSamples() throws IOException {
+        short[] mono = tone(Signals.SAMPLE_RATE, 440, 500);
+        byte[] data = new byte[mono.length * 4];
+        for (int i = 0; i < mono.length; i++) {
+            int bits = Float.floatToIntBits(mono[i] / 32768f);
+            data[4 * i] = (byte) bits;
+            data[4 * i + 1] = (byte) (bits >> 8);
+            data[4 * i + 2] = (byte) (bits >> 16);
+            data[4 * i + 3] = (byte) (bits >> 24);
+        }
+        byte[] header = new WavHeader(WavHeader.FORMAT_IEEE_FLOAT, 1, Signals.SAMPLE_RATE, 32, data.length).toBytes();
+
+        assertArrayEquals(mono, convert(concat(header, data)));
+    }
+
+    @Test
+    public void padsTruncatedDataWithSilence() throws IOException {
+        byte[] wav = Signals.wav(Signals.voiced(1000, -20), Signals.SAMPLE_RATE);
+        byte[] truncated = Arrays.copyOf(wav, wav.length - Signals.SAMPLE_RATE);
+        ServiceWavInputStream stream = new ServiceWavInputStream(new ByteArrayInputStream(truncated));
+
+        byte[] converted = readAll(stream);
+        assertEquals(wav.length, converted.length);
+        assertEquals(converted.length, stream.getLength());
+        for (int i = truncated.length; i < converted.length; i++) {
+            assertEquals(0, converted[i]);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Converts a tone from a source rate and checks the length and level of the result
+     *
+     * @param sourceRate The sample rate of the source
+     * @param frequency The frequency of the tone in Hz
+     * @throws IOException Signals a conversion failure
+     */
+    private static void assertResampledTone(int sourceRate, double frequency) throws IOException {
+        short[] output = convert(Signals.wav(tone(sourceRate, frequency, 1000), sourceRate));
+
+        assertEquals(Signals.SAMPLE_RATE, output.length);
+        // Measures the middle half, away from the filter transients at both ends
+        double level = Signals.rmsDb(output, output.length / 4, output.length / 2);
+        assertEquals("Level at " + sourceRate + " Hz", TONE_RMS_DB, level, 0.5);
+    }
+
+    /**
+     * Creates a sine tone
+     *
+     * @param sampleRate The sample rate
+     * @param frequency The frequency of the tone in Hz
+     * @param millis The duration in milliseconds
+     * @return The samples
+     */
+    private static short[] tone(int sampleRate, double frequency, int millis) {
+        short[] samples = new short[(int) ((long) sampleRate * millis / 1000)];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) Math.round(TONE_AMPLITUDE * 32767 * Math.sin(2 * Math.PI * frequency * i / sampleRate));
+        }
+        return samples;
+    }
+
+    /**
+     * Converts a WAV file and decodes the samples of the result
+     *
+     * @param wav The WAV bytes
+     * @return The 16 kHz samples
+     * @throws IOException Signals a conversion failure
+     */
+    private static short[] convert(byte[] wav) throws IOException {
+        ServiceWavInputStream stream = new ServiceWavInputStream(new ByteArrayInputStream(wav));
+        byte[] converted = readAll(stream);
+        assertEquals(converted.length, stream.getLength());
+
+        ByteArrayInputStream input = new ByteArrayInputStream(converted);
+        WavHeader header = WavHeader.read(input);
+        assertTrue(header.isServiceFormat());
+        short[] samples = new short[(int) header.getFrameCount()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) (input.read() | input.read() << 8);
+        }
+        assertEquals(-1, input.read());
+        return samples;
+    }
+
+    /**
+     * Reads a stream to its end
+     *
+     * @param stream The stream
+     * @return The bytes read
+     * @throws IOException Signals a read failure
+     */
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        int read;
+        while ((read = stream.read(buffer)) >= 0) {
+            result.write(buffer, 0, read);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Concatenates two byte arrays
+     *
+     * @param first The first array
+     * @param second The second array
+     * @return The concatenated bytes
+     */
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,188 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Synthetic 16 kHz test signals
+ */
+final class Signals {
+
+    /**
+     * The sample rate of the signals
+     */
+    static final int SAMPLE_RATE = 16000;
+
+    private Signals() {
+    }
+
+    /**
+     * Creates a voiced sound: a 140 Hz fundamental with decaying harmonics, like a sustained vowel
+     *
+     * @param millis The duration in milliseconds
+     * @param rmsDb The RMS level in dB relative to full scale
+     * @return The samples
+     */
+    static short[] voiced(int millis, double rmsDb) {
+        int count = millis * SAMPLE_RATE / 1000;
+        double[] signal = new double[count];
+        for (int i = 0; i < count; i++) {
+            double t = (double) i / SAMPLE_RATE;
+            for (int harmonic = 1; harmonic <= 8; harmonic++) {
+                signal[i] += Math.sin(2 * Math.PI * 140 * harmonic * t) / harmonic;
+            }
+        }
+        return scale(signal, rmsDb);
+    }
+
+    /**
+     * Creates white noise
+     *
+     * @param millis The duration in milliseconds
+     * @param rmsDb The RMS level in dB relative to full scale
+     * @param seed The seed of the noise
+     * @return The samples
+     */
+    static short[] noise(int millis, double rmsDb, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[millis * SAMPLE_RATE / 1000];
+        for (int i = 0; i < signal.length; i++) {
+            signal[i] = random.nextGaussian();
+        }
+        return scale(signal, rmsDb);
+    }
+
+    /**
+     * Creates digital silence
+     *
+     * @param millis The duration in milliseconds
+     * @return The samples
+     */
+    static short[] silence(int millis) {
+        return new short[millis * SAMPLE_RATE / 1000];
+    }
+
+    /**
+     * Concatenates signals
+     *
+     * @param parts The signals
+     * @return The concatenated samples
+     */
+    static short[] concat(short[]... parts) {
+        int length = 0;
+        for (short[] part : parts) {
+            length += part.length;
+        }
+        short[] result = new short[length];
+        int offset = 0;
+        for (short[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+
+    /**
+     * Adds two signals sample by sample, the result being as long as the first one
+     *
+     * @param signal The first signal
+     * @param other The second signal
+     * @return The mixed samples
+     */
+    static short[] mix(short[] signal, short[] other) {
+        short[] result = new short[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            int sum = signal[i] + (i < other.length ? other[i] : 0);
+            result[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sum));
+        }
+        return result;
+    }
+
+    /**
+     * Measures the RMS level of samples
+     *
+     * @param samples The samples
+     * @param offset The first sample measured
+     * @param count The number of samples measured
+     * @return The level in dB relative to full scale
+     */
+    static double rmsDb(short[] samples, int offset, int count) {
+        double sum = 0;
+        for (int i = offset; i < offset + count; i++) {
+            double sample = samples[i] / 32768.0;
+            sum += sample * sample;
+        }
+        return 10 * Math.log10(sum / count + 1e-12);
+    }
+
+    /**
+     * Encodes samples as a 16-bit PCM mono WAV file
+     *
+     * @param samples The samples
+     * @param sampleRate The sample rate
+     * @return The WAV bytes
+     * @throws IOException Signals that the header couldn't be encoded
+     */
+    static byte[] wav(short[] samples, int sampleRate) throws IOException {
+        byte[] header = new WavHeader(WavHeader.FORMAT_PCM, 1, sampleRate, 16, samples.length * 2L).toBytes();
+        byte[] wav = new byte[header.length + samples.length * 2];
+        System.arraycopy(header, 0, wav, 0, header.length);
+        for (int i = 0; i < samples.length; i++) {
+            wav[header.length + 2 * i] = (byte) samples[i];
+            wav[header.length + 2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        return wav;
+    }
+
+    /**
+     * Scales a signal to an RMS level and quantizes it
+     *
+     * @param signal The signal
+     * @param rmsDb The RMS level in dB relative to full scale
+     * @return The samples
+     */
+    private static short[] scale(double[] signal, double rmsDb) {
+        double sum = 0;
+        for (double value : signal) {
+            sum += value * value;
+        }
+        double gain = signal.length == 0 ? 0 : Math.pow(10, rmsDb / 20) * 32768 / Math.sqrt(sum / signal.length);
+        short[] samples = new short[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            samples[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(signal[i] * gain)));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,89 @@
+//
+// Copyright (c) Microsoft. All rights reserved.
+// Licensed under the MIT license.
+//
+// Microsoft Cognitive Services (formerly Project Oxford): https://www.microsoft.com/cognitive-services
+//
+// Microsoft Cognitive Services (formerly Project Oxford) GitHub:
+// https://github.com/Microsoft/Cognitive-SpeakerRecognition-Android
+//
+// Copyright (c) Microsoft Corporation
+// All rights reserved.
+//
+// MIT License:
+// Permission is hereby granted, free of charge, to any person obtaining
+// a copy of this software and associated documentation files (the
+// "Software"), to deal in the Software without restriction, including
+// without limitation the rights to use, copy, modify, merge, publish,
+// distribute, sublicense, and/or sell copies of the Software, and to
+// permit persons to whom the Software is furnished to do so, subject to
+// the following conditions:
+//
+// The above copyright notice and this permission notice shall be
+// included in all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED ""AS IS"", WITHOUT WARRANTY OF ANY KIND,
+// EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+// MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+// NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+// LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+// OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+// WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+//
+package com.microsoft.cognitive.speakerrecognition.audio;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link VoiceActivityTrimmer}
+ */
+public class VoiceActivityTrimmerTest {
+
+    @Test
+    public void keepsSpeechStartingAtFirstSample() throws IOException {
+        TrimmedAudio trimmed = trim(Signals.voiced(3000, -20));
+
+        assertEquals(3000, trimmed.getSourceMillis());
+        assertEquals(3000, trimmed.getSpeechMillis());
+        assertEquals(3000, trimmed.getKeptMillis());
+    }
+
+    @Test
+    public void dropsLeadingAndTrailingSilence() throws IOException {
+        short[] clip = Signals.concat(Signals.silence(2000), Signals.voiced(2000, -20), Signals.silence(3000));
+        TrimmedAudio trimmed = trim(Signals.mix(clip, Signals.noise(7000, -60, 4)));
+
+        assertEquals(7000, trimmed.getSourceMillis());
+        assertEquals(2000, trimmed.getSpeechMillis(), 40);
+        assertTrue("Kept " + trimmed.getKeptMillis(), trimmed.getKeptMillis() >= 2000 && trimmed.getKeptMillis() < 3000);
+    }
+
+    @Test
+    public void producesServiceWav() throws IOException {
+        TrimmedAudio trimmed = trim(Signals.concat(Signals.silence(1000), Signals.voiced(1000, -20)));
+        byte[] audio = new byte[trimmed.getAudio().remaining()];
+        trimmed.getAudio().duplicate().get(audio);
+        WavHeader header = WavHeader.read(new ByteArrayInputStream(audio));
+
+        assertTrue(header.isServiceFormat());
+        assertEquals(audio.length - 44, header.getDataLength());
+        assertEquals(trimmed.getKeptMillis(), header.getDurationMillis());
+    }
+
+    /**
+     * Trims a clip with the default settings
+     *
+     * @param clip The 16 kHz samples
+     * @return The trimmed audio
+     * @throws IOException Signals a failure while reading the clip
+     */
+    private static TrimmedAudio trim(short[] clip) throws IOException {
+        return new VoiceActivityTrimmer().trim(new ByteArrayInputStream(Signals.wav(clip, Signals.SAMPLE_RATE)));
+    }
+}